@@ -0,0 +1,90 @@
+package com.voxeet.uxkit.benchmark;
+
+import com.voxeet.uxkit.utils.speakers.ActiveSpeakerEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulate a sampling tick of the speakers timer followed by a read of every level, as done by the bound views
+ * <p>
+ * legacyHashMap reproduces the HashMap of boxed Double previously used, levelTable the slot based storage.
+ * Run with the gc profiler to compare gc.alloc.rate.norm and gc.count of both
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioLevelStoreBenchmark {
+
+    @Param({"100"})
+    public int participants;
+
+    private String[] ids;
+    private double[] levels;
+    private int tick;
+
+    private HashMap<String, Double> legacyLevels;
+    private ActiveSpeakerEngine engine;
+
+    @Setup
+    public void setup() {
+        ids = new String[participants];
+        levels = new double[participants];
+        for (int i = 0; i < participants; i++) {
+            ids[i] = "participant-" + i;
+            levels[i] = (i % 10) / 10d;
+        }
+
+        legacyLevels = new HashMap<>();
+        engine = new ActiveSpeakerEngine();
+    }
+
+    @Benchmark
+    public void legacyHashMap(Blackhole blackhole) {
+        tick++;
+        for (int i = 0; i < participants; i++) {
+            legacyLevels.put(ids[i], level(i));
+        }
+
+        for (String id : ids) {
+            //containsKey then get, as the previous audioLevel implementation
+            double level = legacyLevels.containsKey(id) ? legacyLevels.get(id) : 0d;
+            blackhole.consume(level);
+        }
+    }
+
+    @Benchmark
+    public void levelTable(Blackhole blackhole) {
+        tick++;
+        engine.beginSample();
+        for (int i = 0; i < participants; i++) {
+            engine.sample(ids[i], level(i));
+        }
+        blackhole.consume(engine.commit(tick));
+
+        for (String id : ids) {
+            blackhole.consume(engine.level(id));
+        }
+    }
+
+    private double level(int participant) {
+        //a different value every tick so that boxed values can not be cached
+        return levels[participant] + (tick & 0xff) / 1000d;
+    }
+}
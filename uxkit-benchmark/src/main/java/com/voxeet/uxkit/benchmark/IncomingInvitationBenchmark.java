@@ -0,0 +1,76 @@
+package com.voxeet.uxkit.benchmark;
+
+import com.voxeet.uxkit.utils.incoming.IncomingInvitation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and validate an incoming call as done by the IncomingBundleChecker, the Intent extras being replaced by a map
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncomingInvitationBenchmark {
+
+    private final IncomingInvitation.Keys keys = new IncomingInvitation.Keys("inviter_name",
+            "inviter_external_id", "inviter_id", "inviter_url", "conf_id");
+
+    private IncomingInvitation.Extras complete;
+    private IncomingInvitation.Extras partial;
+
+    @Setup
+    public void setup() {
+        HashMap<String, String> values = new HashMap<>();
+        values.put(keys.userName, "John Doe");
+        values.put(keys.externalUserId, "external-1234");
+        values.put(keys.userId, "1234-5678-90ab-cdef");
+        values.put(keys.avatarUrl, "https://example.com/avatars/1234.png");
+        values.put(keys.conferenceId, "conference-1234");
+        complete = extras(values);
+
+        HashMap<String, String> missing = new HashMap<>(values);
+        missing.remove(keys.conferenceId);
+        partial = extras(missing);
+    }
+
+    @Benchmark
+    public void parseValid(Blackhole blackhole) {
+        blackhole.consume(IncomingInvitation.isValid(keys, complete));
+        blackhole.consume(IncomingInvitation.parse(keys, complete));
+    }
+
+    @Benchmark
+    public void rejectInvalid(Blackhole blackhole) {
+        blackhole.consume(IncomingInvitation.isValid(keys, partial));
+    }
+
+    private static IncomingInvitation.Extras extras(HashMap<String, String> values) {
+        return new IncomingInvitation.Extras() {
+            @Override
+            public boolean has(String key) {
+                return values.containsKey(key);
+            }
+
+            @Override
+            public String get(String key) {
+                return values.get(key);
+            }
+        };
+    }
+}
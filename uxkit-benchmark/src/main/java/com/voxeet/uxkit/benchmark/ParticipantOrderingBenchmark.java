@@ -0,0 +1,93 @@
+package com.voxeet.uxkit.benchmark;
+
+import com.voxeet.uxkit.utils.participants.ParticipantItem;
+import com.voxeet.uxkit.utils.participants.ParticipantItems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order a snapshot of the participants bar as done on every participant change
+ * <p>
+ * legacyBuckets reproduces the four lists previously kept by the ParticipantViewAdapter, refreshed with contains()
+ * lookups, statusBuckets the single pass ordering of ParticipantItems
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticipantOrderingBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int participants;
+
+    private List<ParticipantItem> snapshot;
+
+    private final ArrayList<ParticipantItem> air = new ArrayList<>();
+    private final ArrayList<ParticipantItem> inv = new ArrayList<>();
+    private final ArrayList<ParticipantItem> left = new ArrayList<>();
+    private final ArrayList<ParticipantItem> other = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        snapshot = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            //mostly on air participants, a few invited, left and connecting ones
+            int status = i % 10 < 7 ? ParticipantItem.STATUS_ON_AIR : i % 10 - 7 + 1;
+            snapshot.add(new ParticipantItem("participant-" + i, status, "name " + i, null, 0, false));
+        }
+    }
+
+    @Benchmark
+    public void legacyBuckets(Blackhole blackhole) {
+        for (ParticipantItem item : snapshot) {
+            if (!air.contains(item) && !inv.contains(item) && !left.contains(item) && !other.contains(item)) {
+                add(item);
+            }
+        }
+
+        air.retainAll(snapshot);
+        inv.retainAll(snapshot);
+        left.retainAll(snapshot);
+        other.retainAll(snapshot);
+
+        blackhole.consume(air.size() + inv.size() + left.size() + other.size());
+    }
+
+    @Benchmark
+    public void statusBuckets(Blackhole blackhole) {
+        blackhole.consume(ParticipantItems.order(snapshot));
+    }
+
+    private void add(ParticipantItem item) {
+        switch (item.status) {
+            case ParticipantItem.STATUS_ON_AIR:
+                air.add(item);
+                break;
+            case ParticipantItem.STATUS_INVITED:
+                inv.add(item);
+                break;
+            case ParticipantItem.STATUS_LEFT:
+                left.add(item);
+                break;
+            default:
+                other.add(item);
+        }
+    }
+}
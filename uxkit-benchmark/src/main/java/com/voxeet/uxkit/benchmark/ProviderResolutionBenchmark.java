@@ -0,0 +1,70 @@
+package com.voxeet.uxkit.benchmark;
+
+import com.voxeet.uxkit.presentation.controller.ProviderResolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolve the media player provider of a video presentation as done by the MediaPlayerProviderController
+ * <p>
+ * The registered providers reproduce the compatibility checks of the youtube and exoplayer modules, in the order
+ * an application registering both would use
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderResolutionBenchmark {
+
+    private enum Provider {
+        YOUTUBE {
+            @Override
+            boolean isUrlCompatible(String url) {
+                return url.startsWith("https://youtube.com/") || url.startsWith("https://youtu.be/");
+            }
+        },
+        MP4 {
+            @Override
+            boolean isUrlCompatible(String url) {
+                String[] found_end = url.split("\\?");
+                return found_end[0].endsWith(".mp4");
+            }
+        };
+
+        abstract boolean isUrlCompatible(String url);
+    }
+
+    @Param({"https://youtu.be/dQw4w9WgXcQ",
+            "https://cdn.example.com/videos/presentation.mp4?token=abcdef",
+            "https://vimeo.com/123456"})
+    public String url;
+
+    private ProviderResolver<Provider> resolver;
+
+    @Setup
+    public void setup() {
+        resolver = new ProviderResolver<>(Provider::isUrlCompatible);
+        resolver.register(Provider.YOUTUBE);
+        resolver.register(Provider.MP4);
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        blackhole.consume(resolver.resolve(url));
+    }
+}
@@ -0,0 +1,70 @@
+package com.voxeet.uxkit.benchmark;
+
+import com.voxeet.uxkit.utils.speakers.ActiveSpeakerEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulate a complete tick of the speakers timer : sampling, speaking and active speaker detection then the reads of
+ * every bound view
+ * <p>
+ * A tenth of the participants speaks, the speakers rotate every 50 ticks so that changes are committed regularly
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpeakerTickBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int participants;
+
+    private String[] ids;
+    private ActiveSpeakerEngine engine;
+    private long now;
+
+    @Setup
+    public void setup() {
+        ids = new String[participants];
+        for (int i = 0; i < participants; i++) {
+            ids[i] = "participant-" + i;
+        }
+
+        engine = new ActiveSpeakerEngine();
+    }
+
+    @Benchmark
+    public void tick(Blackhole blackhole) {
+        //a tick every 100ms as the timer
+        now += 100;
+        int round = (int) (now / 5000);
+
+        engine.beginSample();
+        for (int i = 0; i < participants; i++) {
+            boolean speaking = (i + round) % 10 == 0;
+            engine.sample(ids[i], speaking ? 0.2 + (now % 7) / 100d : 0.001);
+        }
+        blackhole.consume(engine.commit(now));
+
+        blackhole.consume(engine.getActiveSpeaker());
+        for (String id : ids) {
+            blackhole.consume(engine.isSpeaking(id));
+            blackhole.consume(engine.level(id));
+        }
+    }
+}
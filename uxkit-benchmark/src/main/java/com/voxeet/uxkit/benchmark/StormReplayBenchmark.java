@@ -0,0 +1,118 @@
+package com.voxeet.uxkit.benchmark;
+
+import com.voxeet.uxkit.utils.participants.ParticipantItem;
+import com.voxeet.uxkit.utils.participants.ParticipantItems;
+import com.voxeet.uxkit.utils.speakers.ActiveSpeakerEngine;
+import com.voxeet.uxkit.utils.trace.ConferenceTrace;
+import com.voxeet.uxkit.utils.trace.TraceEvent;
+import com.voxeet.uxkit.utils.trace.TraceReplayer;
+import com.voxeet.uxkit.utils.trace.TraceStorms;
+import com.voxeet.uxkit.utils.trace.VirtualScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay a join storm with the active speaker flipping every 300ms through the participant ordering and the active
+ * speaker detection, on a virtual clock
+ * <p>
+ * The events are applied as they come and the views work, ordering and speaker tick, is done once per 16ms frame as
+ * after the coalescing of the controller. A score is a complete replay of the 5 seconds storm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StormReplayBenchmark {
+
+    private final static long FRAME = 16;
+
+    private final static long STORM_DURATION = 5000;
+
+    @Param({"10", "100", "500"})
+    public int participants;
+
+    private ConferenceTrace trace;
+
+    @Setup
+    public void setup() {
+        trace = ConferenceTrace.merge(TraceStorms.joinStorm(participants, STORM_DURATION, 0.6f, 42),
+                TraceStorms.speakerFlips(Math.min(participants, 10), 300, STORM_DURATION));
+    }
+
+    @Benchmark
+    public void replay(Blackhole blackhole) {
+        final LinkedHashMap<String, ParticipantItem> items = new LinkedHashMap<>();
+        final HashMap<String, Double> levels = new HashMap<>();
+        final ActiveSpeakerEngine engine = new ActiveSpeakerEngine();
+        final boolean[] dirty = new boolean[1];
+
+        VirtualScheduler scheduler = new VirtualScheduler();
+        TraceReplayer replayer = new TraceReplayer(trace, scheduler, event -> {
+            if (TraceEvent.AUDIO_LEVEL == event.type) {
+                levels.put(event.participantId, event.level());
+            } else {
+                apply(items, event);
+                dirty[0] = true;
+            }
+        });
+        replayer.start(1);
+
+        while (!replayer.isFinished() || scheduler.pending() > 0) {
+            scheduler.advanceBy(FRAME);
+
+            if (dirty[0]) {
+                blackhole.consume(ParticipantItems.order(new ArrayList<>(items.values())));
+                dirty[0] = false;
+            }
+
+            engine.beginSample();
+            for (Map.Entry<String, Double> level : levels.entrySet()) {
+                engine.sample(level.getKey(), level.getValue());
+            }
+            blackhole.consume(engine.commit(scheduler.now()));
+        }
+    }
+
+    private static void apply(Map<String, ParticipantItem> items, TraceEvent event) {
+        String id = event.participantId;
+        if (null == id) return;
+
+        ParticipantItem item = items.get(id);
+        switch (event.type) {
+            case TraceEvent.PARTICIPANT_ADDED:
+            case TraceEvent.PARTICIPANT_UPDATED:
+                int status = TraceStorms.STATUS_ON_AIR.equals(event.value) ? ParticipantItem.STATUS_ON_AIR
+                        : TraceStorms.STATUS_LEFT.equals(event.value) ? ParticipantItem.STATUS_LEFT
+                        : ParticipantItem.STATUS_OTHER;
+                items.put(id, new ParticipantItem(id, status, id, null, null != item ? item.videoStreamKey : 0, false));
+                break;
+            case TraceEvent.STREAM_ADDED:
+            case TraceEvent.STREAM_UPDATED:
+            case TraceEvent.STREAM_REMOVED:
+                if (null == item) return;
+                int key = TraceEvent.STREAM_REMOVED == event.type ? 0 : id.hashCode();
+                items.put(id, new ParticipantItem(id, item.status, item.name, item.avatarUrl, key, item.selected));
+                break;
+            default:
+        }
+    }
+}
@@ -17,7 +17,6 @@ import android.util.Log;
 import android.view.WindowManager;
 import android.widget.TextView;
 
-import com.squareup.picasso.Picasso;
 import com.voxeet.VoxeetSDK;
 import com.voxeet.promise.Promise;
 import com.voxeet.promise.solve.ErrorPromise;
@@ -43,6 +42,7 @@ import com.voxeet.sdk.utils.Opt;
 import com.voxeet.uxkit.R;
 import com.voxeet.uxkit.application.VoxeetApplication;
 import com.voxeet.uxkit.utils.LoadLastSavedOverlayStateEvent;
+import com.voxeet.uxkit.utils.avatars.AvatarLoader;
 import com.voxeet.uxkit.views.internal.rounded.RoundedImageView;
 
 import org.greenrobot.eventbus.EventBus;
@@ -159,15 +159,8 @@ public class DefaultIncomingCallActivity extends AppCompatActivity implements In
                 }
 
                 mUsername.setText(mIncomingBundleChecker.getUserName());
-                try {
-                    Picasso.get()
-                            .load(mIncomingBundleChecker.getAvatarUrl())
-                            .placeholder(R.drawable.default_avatar)
-                            .error(R.drawable.default_avatar)
-                            .into(mAvatar);
-                } catch (Exception e) {
-
-                }
+                AvatarLoader.instance(activity).load(mIncomingBundleChecker.getAvatarUrl(),
+                        getResources().getDimensionPixelSize(R.dimen.voxeet_incoming_call_avatar_size), mAvatar);
             } else {
                 finish();
             }
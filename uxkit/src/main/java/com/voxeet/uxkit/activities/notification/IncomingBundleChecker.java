@@ -17,6 +17,7 @@ import com.voxeet.sdk.push.center.management.Constants;
 import com.voxeet.sdk.utils.AndroidManifest;
 import com.voxeet.uxkit.incoming.factory.IVoxeetActivity;
 import com.voxeet.uxkit.incoming.factory.IncomingCallFactory;
+import com.voxeet.uxkit.utils.incoming.IncomingInvitation;
 
 public class IncomingBundleChecker {
 
@@ -24,6 +25,9 @@ public class IncomingBundleChecker {
 
     private final static String BUNDLE_EXTRA_BUNDLE = "BUNDLE_EXTRA_BUNDLE";
 
+    private final static IncomingInvitation.Keys KEYS = new IncomingInvitation.Keys(Constants.INVITER_NAME,
+            Constants.INVITER_EXTERNAL_ID, Constants.INVITER_ID, Constants.INVITER_URL, Constants.CONF_ID);
+
     @Nullable
     private IExtraBundleFillerListener mFillerListener;
 
@@ -54,11 +58,12 @@ public class IncomingBundleChecker {
         mFillerListener = filler_listener;
         mIntent = intent;
 
-        mUserName = mIntent.getStringExtra(Constants.INVITER_NAME);
-        mExternalUserId = mIntent.getStringExtra(Constants.INVITER_EXTERNAL_ID);
-        mUserId = mIntent.getStringExtra(Constants.INVITER_ID);
-        mAvatarUrl = mIntent.getStringExtra(Constants.INVITER_URL);
-        mConferenceId = mIntent.getStringExtra(Constants.CONF_ID);
+        IncomingInvitation invitation = IncomingInvitation.parse(KEYS, new IntentExtras(mIntent));
+        mUserName = invitation.userName;
+        mExternalUserId = invitation.externalUserId;
+        mUserId = invitation.userId;
+        mAvatarUrl = invitation.avatarUrl;
+        mConferenceId = invitation.conferenceId;
     }
 
     /**
@@ -110,11 +115,7 @@ public class IncomingBundleChecker {
      * @return true if the intent has notification keys
      */
     final public boolean isBundleValid() {
-        return null != mIntent && mIntent.hasExtra(Constants.INVITER_NAME)
-                && mIntent.hasExtra(Constants.INVITER_EXTERNAL_ID)
-                && mIntent.hasExtra(Constants.INVITER_ID)
-                //&& mIntent.hasExtra(Constants.INVITER_URL)
-                && mIntent.hasExtra(Constants.CONF_ID);
+        return null != mIntent && IncomingInvitation.isValid(KEYS, new IntentExtras(mIntent));
     }
 
     @Nullable
@@ -227,6 +228,26 @@ public class IncomingBundleChecker {
         return extra;
     }
 
+    private static class IntentExtras implements IncomingInvitation.Extras {
+        @NonNull
+        private final Intent intent;
+
+        private IntentExtras(@NonNull Intent intent) {
+            this.intent = intent;
+        }
+
+        @Override
+        public boolean has(@NonNull String key) {
+            return intent.hasExtra(key);
+        }
+
+        @Nullable
+        @Override
+        public String get(@NonNull String key) {
+            return intent.getStringExtra(key);
+        }
+    }
+
     public static interface IExtraBundleFillerListener {
 
         @Nullable
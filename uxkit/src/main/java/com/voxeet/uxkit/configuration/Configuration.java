@@ -29,4 +29,14 @@ public class Configuration {
      * Hold the Overlay configuration instance for this specific Configuration holder
      */
     public final Overlay Overlay = new Overlay();
+
+    /**
+     * Hold the Gallery configuration instance for this specific Configuration holder
+     */
+    public final Gallery Gallery = new Gallery();
+
+    /**
+     * Hold the Performance configuration instance for this specific Configuration holder
+     */
+    public final Performance Performance = new Performance();
 }
@@ -0,0 +1,31 @@
+package com.voxeet.uxkit.configuration;
+
+import com.voxeet.sdk.utils.Annotate;
+import com.voxeet.sdk.utils.NoDocumentation;
+
+/**
+ * Hold the Configuration for the grid of participants displayed in the expanded conference
+ */
+@Annotate
+public class Gallery {
+
+    @NoDocumentation
+    public Gallery() {
+
+    }
+
+    /**
+     * Display every participant in a grid when the conference is expanded, instead of the active speaker
+     */
+    public boolean enabled = false;
+
+    /**
+     * Maximum number of videos of the grid decoded at the same time, the other tiles display their avatar
+     */
+    public int max_video_renderers = 4;
+
+    /**
+     * Number of columns of the grid, 0 to adapt it to the number of participants
+     */
+    public int span_count = 0;
+}
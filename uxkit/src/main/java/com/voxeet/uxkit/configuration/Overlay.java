@@ -23,4 +23,12 @@ public class Overlay {
      * Set the background color when the overlay is minized
      */
     public Integer background_minimized_color = null;
+
+    /**
+     * Expand and minimize the overlay by scaling and moving it on a hardware layer, its size is only changed once at
+     * the end of the transition instead of on every frame
+     * <p>
+     * Only used from Android 7.0, the video surfaces do not follow the transformations of their parents before
+     */
+    public boolean transform_transitions = false;
 }
@@ -0,0 +1,103 @@
+package com.voxeet.uxkit.configuration;
+
+import com.voxeet.sdk.utils.Annotate;
+import com.voxeet.sdk.utils.NoDocumentation;
+
+/**
+ * Hold the Configuration for the refresh rates and animations of the UXKit views
+ * <p>
+ * A preset gives every value, each one can be overridden by setting its field. The values are read each time they are
+ * used, they can be changed during a conference. Once changed, call VoxeetToolkit.applyPerformance() to restart the
+ * sampling of the audio levels with the new rate.
+ */
+@Annotate
+public class Performance {
+
+    /**
+     * Less frequent refreshes and no animations, for devices which can not sustain a conference smoothly
+     */
+    public final static int LOW_END = 0;
+
+    /**
+     * The default rates of the UXKit
+     */
+    public final static int BALANCED = 1;
+
+    /**
+     * More frequent refreshes for high-end devices
+     */
+    public final static int HIGH_FIDELITY = 2;
+
+    //refresh_meter, refresh_speaker, timer_tick, attach_delay for each preset
+    private final static long[][] PRESETS = {
+            {200, 2000, 1000, 1500},
+            {100, 1000, 1000, 1000},
+            {50, 500, 1000, 500}
+    };
+
+    private final static float[] ANIMATION_SCALES = {0f, 1f, 1f};
+
+    @NoDocumentation
+    public Performance() {
+
+    }
+
+    /**
+     * Set the preset giving the values which are not overridden, LOW_END, BALANCED or HIGH_FIDELITY
+     */
+    public int preset = BALANCED;
+
+    /**
+     * Override the interval in milliseconds between two samplings of the audio levels
+     */
+    public Long refresh_meter = null;
+
+    /**
+     * Override the interval in milliseconds between two refreshes of the active speaker
+     */
+    public Long refresh_speaker = null;
+
+    /**
+     * Override the interval in milliseconds between two refreshes of the conference timer
+     */
+    public Long timer_tick = null;
+
+    /**
+     * Override the delay in milliseconds after which the overlay is attached even if the activity was not reported as
+     * resumed
+     */
+    public Long attach_delay = null;
+
+    /**
+     * Override the factor applied to the duration of the animations, 0 to disable them
+     */
+    public Float animation_scale = null;
+
+    public long getRefreshMeter() {
+        return null != refresh_meter ? Math.max(16, refresh_meter) : preset()[0];
+    }
+
+    public long getRefreshSpeaker() {
+        return null != refresh_speaker ? Math.max(16, refresh_speaker) : preset()[1];
+    }
+
+    public long getTimerTick() {
+        return null != timer_tick ? Math.max(16, timer_tick) : preset()[2];
+    }
+
+    public long getAttachDelay() {
+        return null != attach_delay ? Math.max(0, attach_delay) : preset()[3];
+    }
+
+    public float getAnimationScale() {
+        return null != animation_scale ? Math.max(0, animation_scale) : ANIMATION_SCALES[presetIndex()];
+    }
+
+    private long[] preset() {
+        return PRESETS[presetIndex()];
+    }
+
+    private int presetIndex() {
+        return preset >= LOW_END && preset <= HIGH_FIDELITY ? preset : BALANCED;
+    }
+}
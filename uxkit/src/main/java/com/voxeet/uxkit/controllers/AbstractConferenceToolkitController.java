@@ -4,6 +4,7 @@ import android.app.Activity;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
@@ -12,6 +13,7 @@ import android.view.ViewGroup;
 import android.widget.FrameLayout;
 
 import com.voxeet.VoxeetSDK;
+import com.voxeet.android.media.MediaStream;
 import com.voxeet.sdk.events.sdk.ConferenceStatusUpdatedEvent;
 import com.voxeet.sdk.events.sdk.IncomingCallEvent;
 import com.voxeet.sdk.events.success.ConferenceUpdated;
@@ -34,7 +36,6 @@ import com.voxeet.sdk.services.ConferenceService;
 import com.voxeet.sdk.services.conference.information.ConferenceInformation;
 import com.voxeet.sdk.services.conference.information.ConferenceParticipantType;
 import com.voxeet.sdk.utils.AudioType;
-import com.voxeet.sdk.utils.Map;
 import com.voxeet.sdk.utils.NoDocumentation;
 import com.voxeet.sdk.utils.Opt;
 import com.voxeet.sdk.utils.ScreenHelper;
@@ -46,7 +47,20 @@ import com.voxeet.uxkit.implementation.overlays.abs.AbstractVoxeetOverlayView;
 import com.voxeet.uxkit.providers.containers.IVoxeetOverlayViewProvider;
 import com.voxeet.uxkit.providers.logics.IVoxeetSubViewProvider;
 import com.voxeet.uxkit.providers.rootview.AbstractRootViewProvider;
+import com.voxeet.uxkit.utils.ConferenceChanges;
+import com.voxeet.uxkit.utils.ConferenceEventCoalescer;
 import com.voxeet.uxkit.utils.LoadLastSavedOverlayStateEvent;
+import com.voxeet.uxkit.utils.OverlayAttachScheduler;
+import com.voxeet.uxkit.utils.OverlayViewPool;
+import com.voxeet.uxkit.utils.ParticipantStore;
+import com.voxeet.uxkit.utils.avatars.AvatarLoader;
+import com.voxeet.uxkit.utils.metrics.JoinLifecycleTracer;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+import com.voxeet.uxkit.utils.participants.ChangeBatch;
+import com.voxeet.uxkit.utils.participants.ParticipantIndex;
+import com.voxeet.uxkit.utils.quality.QualityController;
+import com.voxeet.uxkit.utils.trace.TraceEvent;
+import com.voxeet.uxkit.utils.trace.TraceRecorder;
 import com.voxeet.uxkit.views.internal.VoxeetOverlayContainerFrameLayout;
 
 import org.greenrobot.eventbus.EventBus;
@@ -54,6 +68,7 @@ import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -105,6 +120,27 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
     private CopyOnWriteArrayList<Runnable> removeRunnables;
     private boolean showOnCreations = true; //it will make the overlay to be displayed on creating/created
 
+    /**
+     * Merge the participant and stream events before dispatching them to the main view
+     */
+    @NonNull
+    private final ConferenceEventCoalescer mEventCoalescer = new ConferenceEventCoalescer(this::onConferenceChanged);
+
+    @Nullable
+    private TraceRecorder mTraceRecorder;
+
+    /**
+     * Attach the overlay as soon as the current activity is ready
+     */
+    @NonNull
+    private final OverlayAttachScheduler mAttachScheduler = new OverlayAttachScheduler();
+
+    @NonNull
+    private final Runnable mRequestAudioFocus = this::requestAudioFocus;
+
+    @NonNull
+    private final OverlayViewPool mOverlayViewPool = new OverlayViewPool();
+
     private AbstractConferenceToolkitController() {
 
     }
@@ -140,15 +176,44 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
         }
 
         OverlayState state = SAVED_OVERLAY_STATE;
-        mMainView = mVoxeetOverlayViewProvider.createView(activity,
-                mVoxeetSubViewProvider,
-                state);
+        long begin = UXKitMetrics.instance.begin();
+        mMainView = null != activity ? mOverlayViewPool.take(activity, overlayKey(), state) : null;
+
+        if (null != mMainView) {
+            UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_OVERLAY_POOLED, begin);
+        } else {
+            mMainView = mVoxeetOverlayViewProvider.createView(activity,
+                    mVoxeetSubViewProvider,
+                    state);
+            UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_OVERLAY_INFLATE, begin);
+        }
 
         if (null != AudioService.getSoundManager()) {
             AudioService.getSoundManager().requestAudioFocus();
         }
     }
 
+    /**
+     * Create the overlay the next time the main thread is idle, so that displaying it later only requires an attach
+     * <p>
+     * Nothing is done if the overlay already exists. The prepared overlay is dropped if the providers change.
+     */
+    public void warmUpOverlay() {
+        if (null != mMainView || null == mVoxeetOverlayViewProvider || null == mVoxeetSubViewProvider) return;
+
+        OverlayState state = null != SAVED_OVERLAY_STATE ? SAVED_OVERLAY_STATE : getDefaultOverlayState();
+        IVoxeetOverlayViewProvider overlayProvider = mVoxeetOverlayViewProvider;
+        IVoxeetSubViewProvider subViewProvider = mVoxeetSubViewProvider;
+
+        mOverlayViewPool.prepare(mContext, overlayKey(), state,
+                (context, overlayState) -> overlayProvider.createView(context, subViewProvider, overlayState));
+    }
+
+    @NonNull
+    private Object overlayKey() {
+        return Arrays.asList(mVoxeetOverlayViewProvider, mVoxeetSubViewProvider);
+    }
+
     /**
      * Register the controller to the instance of eventbus given in constructor
      * <p>
@@ -177,6 +242,7 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
      */
     public AbstractConferenceToolkitController setVoxeetOverlayViewProvider(@NonNull IVoxeetOverlayViewProvider provider) {
         mVoxeetOverlayViewProvider = provider;
+        mOverlayViewPool.clear();
 
         return this;
     }
@@ -186,6 +252,7 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
      */
     public AbstractConferenceToolkitController setVoxeetSubViewProvider(@NonNull IVoxeetSubViewProvider provider) {
         mVoxeetSubViewProvider = provider;
+        mOverlayViewPool.clear();
 
         return this;
     }
@@ -245,54 +312,70 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
         }
 
         if (isOverlayEnabled() && isInConference()) {
-            mHandler.postDelayed(() -> {
-                try {
-                    //request audio focus and set in voice call
-                    if (null != VoxeetSDK.instance()) {
-                        AudioService service = VoxeetSDK.audio();
-                        service.requestAudioFocus();
-                        service.checkOutputRoute();
-                    }
-
-                    log("run: add view" + mMainView);
-                    if (mMainView != null) {
-                        boolean added = false;
-                        Activity activity = getRootViewProvider().getCurrentActivity();
-                        ViewGroup root = getRootViewProvider().getRootView();
+            JoinLifecycleTracer.instance.mark(JoinLifecycleTracer.DISPLAY_VIEW);
+            //audio focus and route are not needed to display the overlay
+            mHandler.removeCallbacks(mRequestAudioFocus);
+            mHandler.post(mRequestAudioFocus);
+            mAttachScheduler.setFallbackDelay(QualityController.instance.getAttachDelay());
+            mAttachScheduler.schedule(getRootViewProvider(), this::attachView);
+        }
+    }
+
+    private void requestAudioFocus() {
+        try {
+            //request audio focus and set in voice call
+            if (null != VoxeetSDK.instance() && isInConference()) {
+                AudioService service = VoxeetSDK.audio();
+                service.requestAudioFocus();
+                service.checkOutputRoute();
+            }
+        } catch (Exception e) {
+            ExceptionManager.sendException(e);
+        }
+    }
 
-                        if (!getRootViewProvider().isSameActivity()) {
-                            getRootViewProvider().detachRootViewFromParent();
-                        }
+    private void attachView() {
+        if (!isOverlayEnabled() || !isInConference()) return;
 
-                        ViewGroup viewHolder = (ViewGroup) mMainView.getParent();
-                        if (null != viewHolder && null != root && root != viewHolder) {
-                            Log.d(TAG, "run: REMOVING MAIN VIEW FROM HOLDER" + root + " " + viewHolder);
-                            //viewHolder.removeView(mMainView);
-                            viewHolder = (ViewGroup) mMainView.getParent();
-                            if (viewHolder != null)
-                                viewHolder.removeView(mMainView);
-                        }
+        try {
+            log("run: add view" + mMainView);
+            if (mMainView != null) {
+                boolean added = false;
+                Activity activity = getRootViewProvider().getCurrentActivity();
+                ViewGroup root = getRootViewProvider().getRootView();
 
-                        if (null != root && null != activity && !activity.isFinishing()) {
+                if (!getRootViewProvider().isSameActivity()) {
+                    getRootViewProvider().detachRootViewFromParent();
+                }
 
-                            getRootViewProvider().addRootView(AbstractConferenceToolkitController.this);
+                ViewGroup viewHolder = (ViewGroup) mMainView.getParent();
+                if (null != viewHolder && null != root && root != viewHolder) {
+                    Log.d(TAG, "run: REMOVING MAIN VIEW FROM HOLDER" + root + " " + viewHolder);
+                    //viewHolder.removeView(mMainView);
+                    viewHolder = (ViewGroup) mMainView.getParent();
+                    if (viewHolder != null)
+                        viewHolder.removeView(mMainView);
+                }
 
-                            if (null == mMainView.getParent()) {
-                                added = true;
-                                getRootViewProvider().getRootView().addView(mMainView, mParams);
-                            }
+                if (null != root && null != activity && !activity.isFinishing()) {
 
-                            mMainView.requestLayout();
-                            getRootViewProvider().getRootView().requestLayout();
-                            mMainView.onResume();
+                    getRootViewProvider().addRootView(AbstractConferenceToolkitController.this);
 
-                            if (added) mEventBus.post(new LoadLastSavedOverlayStateEvent());
-                        }
+                    if (null == mMainView.getParent()) {
+                        added = true;
+                        getRootViewProvider().getRootView().addView(mMainView, mParams);
                     }
-                } catch (Exception e) {
-                    ExceptionManager.sendException(e);
+
+                    mMainView.requestLayout();
+                    getRootViewProvider().getRootView().requestLayout();
+                    mMainView.onResume();
+                    JoinLifecycleTracer.instance.mark(JoinLifecycleTracer.OVERLAY_ATTACHED);
+
+                    if (added) mEventBus.post(new LoadLastSavedOverlayStateEvent());
                 }
-            }, 1000);
+            }
+        } catch (Exception e) {
+            ExceptionManager.sendException(e);
         }
     }
 
@@ -305,6 +388,9 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
     }
 
     public void removeView(final boolean should_release, final RemoveViewType from_type, boolean keepOverlayState, int timeout /* < 0 now*/) {
+        //a pending attach must not add back the view being removed
+        mAttachScheduler.cancel();
+
         final AbstractVoxeetOverlayView view = mMainView;
         final FrameLayout viewParent = getRootViewProvider().getRootView();
         final boolean release = !isEnabled() || (!RemoveViewType.FROM_HUD_BUT_KEEP_TIMEOUT.equals(from_type) && !isViewRetainedOnLeave());
@@ -386,6 +472,7 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
         if (isEnabled() && isInConference() && null == mMainView) init();
 
         if (mMainView != null) {
+            mMainView.onForegroundChanged(true);
             displayView();
         }
     }
@@ -397,6 +484,8 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
      */
     public void onActivityPaused(@NonNull Activity activity) {
         if (mMainView != null) {
+            //a view retained on the next activity must not render in between
+            mMainView.onForegroundChanged(false);
             removeView(false, RemoveViewType.FROM_HUD, true);
         }
     }
@@ -516,6 +605,12 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEvent(@NonNull ConferenceStatusUpdatedEvent event) {
         Log.d("DefaultRootViewProvider", "onEvent: state " + event.state + " " + mMainView);
+        record(TraceEvent.CONFERENCE_STATUS, null, null != event.state ? event.state.name() : null);
+        UXKitMetrics.instance.onEventReceived("ConferenceStatusUpdatedEvent");
+        traceJoin(event);
+        //the views must see the participant changes received so far before the new state
+        mEventCoalescer.flush();
+
         switch (event.state) {
             case CREATING:
                 onConferenceCreatingEvent(event);
@@ -541,6 +636,34 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
             default:
 
         }
+        UXKitMetrics.instance.onRenderRequested();
+    }
+
+    private void traceJoin(@NonNull ConferenceStatusUpdatedEvent event) {
+        String conferenceId = Opt.of(event.conference).then(Conference::getId).orNull();
+        JoinLifecycleTracer tracer = JoinLifecycleTracer.instance;
+
+        switch (event.state) {
+            case CREATING:
+                tracer.mark(JoinLifecycleTracer.CREATING, conferenceId);
+                break;
+            case CREATED:
+                tracer.mark(JoinLifecycleTracer.CREATED, conferenceId);
+                break;
+            case JOINING:
+                tracer.mark(JoinLifecycleTracer.JOINING, conferenceId);
+                break;
+            case JOINED:
+                tracer.mark(JoinLifecycleTracer.JOINED, conferenceId);
+                break;
+            case ERROR:
+                tracer.end(JoinLifecycleTracer.OUTCOME_ERROR);
+                break;
+            case LEFT:
+                tracer.end(JoinLifecycleTracer.OUTCOME_LEFT);
+                break;
+            default:
+        }
     }
 
     private void onConferenceCreatingEvent(ConferenceStatusUpdatedEvent event) {
@@ -551,6 +674,8 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
         log("onEvent: " + event.getClass().getSimpleName() + " " + activity);
         if (activity != null) {
             if (isEnabled() && isInConference() && null == mMainView) init();
+            //not in conference yet, the overlay can still be prepared before the join
+            if (null == mMainView && isEnabled() && VoxeetToolkit.instance().isOverlayWarmUpEnabled()) warmUpOverlay();
 
             setParams();
 
@@ -624,36 +749,99 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEvent(@NonNull ParticipantAddedEvent event) {
         log("onEvent: UserAddedEvent " + event.participant);
-        if (mMainView != null) mMainView.onUserAddedEvent(event.conference, event.participant);
+        record(TraceEvent.PARTICIPANT_ADDED, event.participant);
+        UXKitMetrics.instance.onEventReceived("ParticipantAddedEvent");
+        ParticipantStore.instance.onParticipantChanged(event.conference, event.participant);
+        mEventCoalescer.onParticipantAdded(event.conference, event.participant);
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEvent(final ParticipantUpdatedEvent event) {
-        checkStopOutgoingCall();
-
         log("onEvent: UserUpdatedEvent " + event);
-        if (mMainView != null) mMainView.onUserUpdatedEvent(event.conference, event.participant);
+        record(TraceEvent.PARTICIPANT_UPDATED, event.participant);
+        UXKitMetrics.instance.onEventReceived("ParticipantUpdatedEvent");
+        ParticipantStore.instance.onParticipantChanged(event.conference, event.participant);
+        mEventCoalescer.onParticipantUpdated(event.conference, event.participant);
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEvent(StreamAddedEvent event) {
-        if (null != mMainView) {
-            mMainView.onStreamAddedEvent(event.conference, event.participant, event.mediaStream);
-        }
+        record(TraceEvent.STREAM_ADDED, event.participant, event.mediaStream);
+        UXKitMetrics.instance.onEventReceived("StreamAddedEvent");
+        ParticipantStore.instance.onParticipantChanged(event.conference, event.participant);
+        mEventCoalescer.onStreamAdded(event.conference, event.participant, event.mediaStream);
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEvent(StreamUpdatedEvent event) {
-        if (null != mMainView) {
-            mMainView.onStreamUpdatedEvent(event.conference, event.participant, event.mediaStream);
-        }
+        record(TraceEvent.STREAM_UPDATED, event.participant, event.mediaStream);
+        UXKitMetrics.instance.onEventReceived("StreamUpdatedEvent");
+        ParticipantStore.instance.onParticipantChanged(event.conference, event.participant);
+        mEventCoalescer.onStreamUpdated(event.conference, event.participant, event.mediaStream);
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEvent(StreamRemovedEvent event) {
-        if (null != mMainView) {
-            mMainView.onStreamRemovedEvent(event.conference, event.participant, event.mediaStream);
+        record(TraceEvent.STREAM_REMOVED, event.participant, event.mediaStream);
+        UXKitMetrics.instance.onEventReceived("StreamRemovedEvent");
+        ParticipantStore.instance.onParticipantChanged(event.conference, event.participant);
+        mEventCoalescer.onStreamRemoved(event.conference, event.participant, event.mediaStream);
+    }
+
+    /**
+     * Called once per coalesced burst of participant and stream events
+     *
+     * @param changes the merged changes
+     */
+    private void onConferenceChanged(@NonNull ConferenceChanges changes) {
+        //a callee may be added and put on air in the same batch
+        if (changes.has(ConferenceChanges.ADDED | ConferenceChanges.UPDATED)) checkStopOutgoingCall();
+
+        //warm the avatar caches before the views bind the new participants
+        AvatarLoader avatarLoader = AvatarLoader.instance(mContext);
+        int avatarSize = mContext.getResources().getDimensionPixelSize(R.dimen.meeting_list_avatar_double);
+        for (ChangeBatch.Entry<Participant, MediaStream> entry : changes.getEntries()) {
+            if ((entry.getFlags() & (ConferenceChanges.ADDED | ConferenceChanges.UPDATED)) != 0) {
+                avatarLoader.prefetch(entry.getParticipant(), avatarSize);
+            }
         }
+
+        if (null != mMainView) mMainView.onConferenceChanged(changes);
+        UXKitMetrics.instance.onRenderRequested();
+    }
+
+    /**
+     * Set the duration during which participant and stream events are merged before being dispatched to the views
+     *
+     * @param window the duration in milliseconds or ConferenceEventCoalescer.PER_FRAME (default) to dispatch once per frame
+     */
+    public void setEventCoalescingWindow(long window) {
+        mEventCoalescer.setWindow(window);
+    }
+
+    /**
+     * Record the participant, stream and conference state events received from now on
+     *
+     * @param recorder the recorder or null to stop recording
+     */
+    public void setTraceRecorder(@Nullable TraceRecorder recorder) {
+        mTraceRecorder = recorder;
+    }
+
+    private void record(int type, @Nullable Participant participant) {
+        if (null == mTraceRecorder) return;
+        ConferenceParticipantStatus status = null != participant ? participant.getStatus() : null;
+        record(type, null != participant ? participant.getId() : null, null != status ? status.name() : null);
+    }
+
+    private void record(int type, @Nullable Participant participant, @Nullable MediaStream stream) {
+        if (null == mTraceRecorder) return;
+        String kind = null != stream && stream.videoTracks().size() > 0 ? "video" : "audio";
+        record(type, null != participant ? participant.getId() : null, kind);
+    }
+
+    private void record(int type, @Nullable String participantId, @Nullable String value) {
+        if (null != mTraceRecorder) mTraceRecorder.record(SystemClock.uptimeMillis(), type, participantId, value);
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -662,6 +850,8 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
     }
 
     private void onConferenceLeftEvent(@Nullable ConferenceStatusUpdatedEvent event) {
+        mEventCoalescer.clear();
+        ParticipantStore.instance.clear();
         VoxeetSDK.audio().stop();
 
         if (null != mMainView) {
@@ -698,6 +888,8 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
             return;
         }
 
+        mEventCoalescer.flush();
+
         if (null != VoxeetSDK.instance()) {
             VoxeetSDK.audio().stop();
         }
@@ -725,6 +917,7 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
             return;
         }
 
+        mEventCoalescer.flush();
         VoxeetSDK.audio().stop();
 
         if (null != mMainView) {
@@ -790,10 +983,7 @@ public abstract class AbstractConferenceToolkitController implements VoxeetOverl
     }
 
     private void checkStopOutgoingCall() {
-        boolean found = null != Map.find(Opt.of(VoxeetSDK.conference())
-                        .then(ConferenceService::getParticipants).or(new ArrayList<>()),
-                participant -> null != participant.getId() && !participant.getId().equals(VoxeetSDK.session().getParticipantId())
-                        && ConferenceParticipantStatus.ON_AIR.equals(participant.getStatus()));
+        boolean found = ParticipantStore.instance.getIndex().countRemote(ParticipantIndex.STATUS_ON_AIR) > 0;
 
         if (found) {
             VoxeetSDK.audio().stop();
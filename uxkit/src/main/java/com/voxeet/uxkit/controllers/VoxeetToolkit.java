@@ -17,6 +17,10 @@ import com.voxeet.uxkit.BuildConfig;
 import com.voxeet.uxkit.implementation.overlays.OverlayState;
 import com.voxeet.uxkit.providers.rootview.AbstractRootViewProvider;
 import com.voxeet.uxkit.providers.rootview.DefaultRootViewProvider;
+import com.voxeet.uxkit.utils.metrics.JoinLifecycleTracer;
+import com.voxeet.uxkit.utils.metrics.MetricsSnapshot;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+import com.voxeet.uxkit.utils.quality.QualityController;
 
 import org.greenrobot.eventbus.EventBus;
 
@@ -36,7 +40,11 @@ public class VoxeetToolkit implements Application.ActivityLifecycleCallbacks {
     @Nullable
     private AbstractRootViewProvider mProvider;
 
+    @Nullable
+    private Application mApplication;
+
     private boolean mIsOverEnabled;
+    private boolean mIsOverlayWarmUpEnabled;
     private List<AbstractConferenceToolkitController> mConferenceToolkitControllers;
 
 
@@ -139,6 +147,132 @@ public class VoxeetToolkit implements Application.ActivityLifecycleCallbacks {
         }
     }
 
+    /**
+     * Create the overlay of the enabled controllers ahead of time, when the main thread is idle
+     * <p>
+     * Once enabled, the overlay is prepared right away and again when a conference is being created, so that
+     * displaying it only requires an attach. The prepared overlay is kept in memory until used.
+     *
+     * @param enabled true to prepare the overlay ahead of time
+     */
+    public void enableOverlayWarmUp(boolean enabled) {
+        isInitialized();
+
+        mIsOverlayWarmUpEnabled = enabled;
+        if (!enabled) return;
+
+        for (AbstractConferenceToolkitController controller : mConferenceToolkitControllers) {
+            if (controller.isEnabled()) controller.warmUpOverlay();
+        }
+    }
+
+    /**
+     * Check if the overlay is created ahead of time
+     *
+     * @return true if enabled
+     */
+    public boolean isOverlayWarmUpEnabled() {
+        return mIsOverlayWarmUpEnabled;
+    }
+
+    /**
+     * Enable or disable the performance metrics of the UXKit views, disabled by default
+     * <p>
+     * Records the main thread time of the main components, the delay between the SDK events and their rendering and
+     * the janky frames while the overlay is visible
+     *
+     * @param enabled true to record the metrics
+     */
+    public void enableMetrics(boolean enabled) {
+        UXKitMetrics.instance.setEnabled(enabled);
+    }
+
+    /**
+     * Check if the performance metrics are recorded
+     *
+     * @return true if enabled
+     */
+    public boolean isMetricsEnabled() {
+        return UXKitMetrics.instance.isEnabled();
+    }
+
+    /**
+     * Receive a summary of the performance metrics periodically, on the main thread
+     *
+     * @param listener the listener or null to stop the summaries
+     * @param interval the period of the summaries in milliseconds, at least 1000
+     */
+    public void setMetricsListener(@Nullable UXKitMetrics.Listener listener, long interval) {
+        UXKitMetrics.instance.setListener(listener, interval);
+    }
+
+    /**
+     * Get the performance metrics recorded since the last periodic summary
+     *
+     * @return the current metrics
+     */
+    @NonNull
+    public MetricsSnapshot getMetricsSnapshot() {
+        return UXKitMetrics.instance.snapshot();
+    }
+
+    /**
+     * Enable or disable the adaptive quality of the conference UI, disabled by default
+     * <p>
+     * Once enabled, the refresh rates, the overlay animations, the number of remote videos and the self view are
+     * reduced step by step when the device heats up, the battery saver is enabled or the frames are janky. Each change
+     * is posted as a QualityLevelChangedEvent
+     *
+     * @param enabled true to adapt the quality
+     */
+    public void enableAdaptiveQuality(boolean enabled) {
+        if (!enabled) {
+            QualityController.instance.disable();
+        } else if (null != mApplication) {
+            QualityController.instance.enable(mApplication);
+        }
+    }
+
+    /**
+     * Change the preset of the Performance configuration, can be called during a conference
+     *
+     * @param preset Performance.LOW_END, Performance.BALANCED or Performance.HIGH_FIDELITY
+     */
+    public void setPerformancePreset(int preset) {
+        getConferenceToolkit().Configuration.Performance.preset = preset;
+        applyPerformance();
+    }
+
+    /**
+     * Apply the changes made to the Performance configuration during a conference
+     * <p>
+     * The views read the other values each time they use them
+     */
+    public void applyPerformance() {
+        QualityController.instance.applyPerformance();
+    }
+
+    /**
+     * Get the current degradation level of the conference UI
+     *
+     * @return a DegradationLevel value, NONE at full quality
+     */
+    public int getQualityLevel() {
+        return QualityController.instance.getLevel();
+    }
+
+    /**
+     * Get the tracer of the recent joins, from the creation of the conference to the first remote video
+     * <p>
+     * Always enabled, its toJSON export holds the milestones of each join and their percentiles
+     *
+     * @return the tracer
+     */
+    @NonNull
+    public JoinLifecycleTracer getJoinLifecycleTracer() {
+        return JoinLifecycleTracer.instance;
+    }
+
     @NoDocumentation
     @NonNull
     public AbstractRootViewProvider getDefaultRootViewProvider() {
@@ -246,6 +380,7 @@ public class VoxeetToolkit implements Application.ActivityLifecycleCallbacks {
                       EventBus eventBus) {
 
         mConferenceToolkitControllers = new ArrayList<>();
+        mApplication = application;
 
         mIsInit = true;
 
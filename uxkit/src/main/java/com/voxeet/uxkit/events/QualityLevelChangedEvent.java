@@ -0,0 +1,52 @@
+package com.voxeet.uxkit.events;
+
+import android.support.annotation.NonNull;
+
+import com.voxeet.uxkit.utils.quality.DegradationLevel;
+
+/**
+ * Event fired when the UXKit changes the degradation level of the conference UI.
+ *
+ * The level goes from DegradationLevel.NONE to DegradationLevel.MAX, the conditions which led to it are given to log
+ * the transition.
+ */
+public class QualityLevelChangedEvent {
+
+    public final int previousLevel;
+
+    public final int level;
+
+    /**
+     * The battery temperature in Celsius or NaN if unknown
+     */
+    public final float batteryTemperature;
+
+    public final boolean powerSave;
+
+    /**
+     * The ratio of janky frames since the previous evaluation, 0 if the frames are not measured
+     */
+    public final float jankRatio;
+
+    public QualityLevelChangedEvent(int previousLevel, int level, float batteryTemperature, boolean powerSave, float jankRatio) {
+        this.previousLevel = previousLevel;
+        this.level = level;
+        this.batteryTemperature = batteryTemperature;
+        this.powerSave = powerSave;
+        this.jankRatio = jankRatio;
+    }
+
+    public boolean isDegraded() {
+        return level > previousLevel;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "QualityLevelChangedEvent{" + DegradationLevel.name(previousLevel) + " -> " + DegradationLevel.name(level)
+                + ", batteryTemperature=" + batteryTemperature
+                + ", powerSave=" + powerSave
+                + ", jankRatio=" + jankRatio
+                + '}';
+    }
+}
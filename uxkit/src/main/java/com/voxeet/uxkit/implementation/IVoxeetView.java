@@ -5,6 +5,7 @@ import android.support.annotation.NonNull;
 import com.voxeet.android.media.MediaStream;
 import com.voxeet.sdk.models.Conference;
 import com.voxeet.sdk.models.Participant;
+import com.voxeet.uxkit.utils.ConferenceChanges;
 
 import java.util.List;
 
@@ -50,6 +51,13 @@ public interface IVoxeetView {
 
     void onStreamRemovedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream);
 
+    /**
+     * Participants and streams changed, called once per coalesced burst of events instead of the per event callbacks
+     *
+     * @param changes the merged changes
+     */
+    void onConferenceChanged(@NonNull ConferenceChanges changes);
+
     /**
      * An user declined the call
      *
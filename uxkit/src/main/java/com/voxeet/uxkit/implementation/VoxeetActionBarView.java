@@ -45,6 +45,8 @@ import com.voxeet.uxkit.R;
 import com.voxeet.uxkit.configuration.ActionBar;
 import com.voxeet.uxkit.controllers.VoxeetToolkit;
 import com.voxeet.uxkit.events.UXKitNotInConferenceEvent;
+import com.voxeet.uxkit.utils.ConferenceChanges;
+import com.voxeet.uxkit.utils.ParticipantStore;
 import com.voxeet.sdk.media.camera.CameraContext;
 
 import org.greenrobot.eventbus.EventBus;
@@ -323,6 +325,19 @@ public class VoxeetActionBarView extends VoxeetView {
         invalidateOwnStreams();
     }
 
+    /**
+     * Method call when participants or streams changed, the own streams are checked once per batch
+     *
+     * @param changes the merged changes
+     */
+    @Override
+    public void onConferenceChanged(@NonNull ConferenceChanges changes) {
+        int streams = ConferenceChanges.STREAM_ADDED | ConferenceChanges.STREAM_UPDATED | ConferenceChanges.STREAM_REMOVED;
+        if ((changes.getFlags() & streams) != 0) {
+            invalidateOwnStreams();
+        }
+    }
+
     /**
      * Method call to refresh the internal state for :
      * - the own camera button
@@ -331,7 +346,7 @@ public class VoxeetActionBarView extends VoxeetView {
     public void invalidateOwnStreams() {
 
         Participant participant = Opt.of(VoxeetSDK.session()).then(SessionService::getParticipantId)
-                .then(id -> VoxeetSDK.conference().findParticipantById(id)).orNull();
+                .then(id -> ParticipantStore.instance.findParticipantById(id)).orNull();
         if (null != participant) {
             MediaStream cameraStream = participant.streamsHandler().getFirst(MediaStreamType.Camera);
             MediaStream screenStream = participant.streamsHandler().getFirst(MediaStreamType.ScreenShare);
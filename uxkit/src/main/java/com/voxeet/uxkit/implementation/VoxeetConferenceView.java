@@ -15,7 +15,6 @@ import android.widget.TextView;
 
 import com.voxeet.VoxeetSDK;
 import com.voxeet.android.media.MediaStream;
-import com.voxeet.android.media.stream.MediaStreamType;
 import com.voxeet.sdk.events.sdk.CameraSwitchSuccessEvent;
 import com.voxeet.sdk.exceptions.ExceptionManager;
 import com.voxeet.sdk.json.VideoPresentationPaused;
@@ -34,11 +33,20 @@ import com.voxeet.uxkit.R;
 import com.voxeet.uxkit.configuration.ActionBar;
 import com.voxeet.uxkit.configuration.Configuration;
 import com.voxeet.uxkit.controllers.VoxeetToolkit;
+import com.voxeet.uxkit.events.QualityLevelChangedEvent;
 import com.voxeet.uxkit.implementation.overlays.abs.AbstractVoxeetExpandableView;
+import com.voxeet.uxkit.utils.ConferenceChanges;
 import com.voxeet.uxkit.utils.ConferenceViewRendererControl;
 import com.voxeet.uxkit.utils.IParticipantViewListener;
-import com.voxeet.uxkit.utils.ToolkitUtils;
+import com.voxeet.uxkit.utils.ParticipantStore;
+import com.voxeet.uxkit.utils.StreamAttachmentReconciler;
+import com.voxeet.uxkit.utils.VideoRendererPool;
 import com.voxeet.uxkit.utils.VoxeetSpeakersTimerInstance;
+import com.voxeet.uxkit.utils.VuMeterRenderer;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+import com.voxeet.uxkit.utils.quality.QualityController;
+import com.voxeet.uxkit.utils.streams.StreamLayout;
+import com.voxeet.uxkit.utils.streams.VideoVisibilityPolicy;
 import com.voxeet.uxkit.views.NotchAvoidView;
 
 import org.greenrobot.eventbus.EventBus;
@@ -83,6 +91,15 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     private ScaleGestureDetector mScaleOnPinchDetector;
 
     private ConferenceViewRendererControl mConferenceViewRendererControl;
+    private VideoRendererPool mSelectedRendererPool;
+
+    //only the videos visible on screen are rendered, created in bindView which is called by the parent constructor
+    private VideoVisibilityPolicy mVideoVisibility;
+
+    private StreamAttachmentReconciler mStreamAttachmentReconciler;
+
+    //set while refreshUIVisibility replays the state, the streams are then reconciled once by the caller
+    private boolean mApplyingState;
 
     /**
      * Instantiates a new Voxeet conference view.
@@ -130,14 +147,15 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
                     else down++;
                 }
 
-                if (null != selectedView) {
+                VideoView displayed = null != mSelectedRendererPool ? mSelectedRendererPool.getDisplayed() : null;
+                if (null != displayed) {
                     if (up > down) {
-                        if (!RendererCommon.ScalingType.SCALE_ASPECT_FILL.equals(selectedView.getScalingType())) {
-                            selectedView.setVideoFill();
+                        if (!RendererCommon.ScalingType.SCALE_ASPECT_FILL.equals(displayed.getScalingType())) {
+                            displayed.setVideoFill();
                         }
                     } else {
-                        if (!RendererCommon.ScalingType.SCALE_ASPECT_FIT.equals(selectedView.getScalingType())) {
-                            selectedView.setVideoFit();
+                        if (!RendererCommon.ScalingType.SCALE_ASPECT_FIT.equals(displayed.getScalingType())) {
+                            displayed.setVideoFit();
                         }
                     }
                 }
@@ -173,7 +191,9 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
             voxeetActiveSpeakerTimer = VoxeetSpeakersTimerInstance.instance;
 
         voxeetActiveSpeakerTimer.setActiveSpeakerListener(this);
+        QualityController.instance.applyPerformance();
         voxeetActiveSpeakerTimer.start();
+        mVideoVisibility.setAttached(true);
         updateUi();
 
         if (!EventBus.getDefault().isRegistered(this)) {
@@ -183,8 +203,10 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
 
     @Override
     protected void onDetachedFromWindow() {
+        mVideoVisibility.setAttached(false);
         voxeetActiveSpeakerTimer.stop();
         voxeetActiveSpeakerTimer = null;
+        VuMeterRenderer.instance.setPaused(false);
         if (EventBus.getDefault().isRegistered(this)) {
             EventBus.getDefault().unregister(this);
         }
@@ -199,6 +221,27 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
         //updateUi();
     }
 
+    @Override
+    public void onForegroundChanged(boolean foreground) {
+        super.onForegroundChanged(foreground);
+
+        mVideoVisibility.setForeground(foreground);
+    }
+
+    /**
+     * Stop or resume the rendering of the surfaces whose visibility changed, the audio is not affected
+     */
+    private void onVideoVisibilityChanged(@NonNull VideoVisibilityPolicy policy) {
+        if (null == participantView || null == mStreamAttachmentReconciler) return;
+
+        participantView.setVideoEnabled(policy.isVisible(VideoVisibilityPolicy.TILES));
+        if (null != VoxeetSDK.conference().getCurrentConference()) {
+            refreshMediaStreams();
+        } else if (!policy.isVisible(VideoVisibilityPolicy.SELECTED)) {
+            mSelectedRendererPool.clear();
+        }
+    }
+
     private void updateUi() {
         ConferenceInformation information = VoxeetSDK.conference().getCurrentConference();
 
@@ -208,8 +251,8 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
 
             updateConferenceBarViewVisibility();
 
-            refreshMediaStreams();
             refreshUIVisibility();
+            refreshMediaStreams();
         } else {
             onConferenceLeaving(); //Left ? but left does not show anything
         }
@@ -223,10 +266,11 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
             selfView.unAttach();
         }
 
-        if (null != selectedView) {
-            mPreviouslyAttachedPeerId = selectedView.getPeerId();
-            mPreviouslyScreenShare = selectedView.isScreenShare();
-            selectedView.unAttach();
+        if (null != mSelectedRendererPool) {
+            VideoView displayed = mSelectedRendererPool.getDisplayed();
+            mPreviouslyAttachedPeerId = displayed.getPeerId();
+            mPreviouslyScreenShare = displayed.isScreenShare();
+            mSelectedRendererPool.clear();
         }
     }
 
@@ -238,12 +282,12 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
             selfView.unAttach();
         }
 
-        if (null != selectedView) {
+        if (null != mSelectedRendererPool) {
             //reset the "saved" information"
             mPreviouslyAttachedPeerId = null;
             mPreviouslyScreenShare = false;
 
-            selectedView.unAttach();
+            mSelectedRendererPool.clear();
         }
     }
 
@@ -314,36 +358,18 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
 
         updateTextState(R.string.voxeet_call);
         conferenceState.setVisibility(View.VISIBLE);
-        if (isExpanded) {
-            if (null != selectedView) selectedView.setVisibility(View.GONE);
-            speakerView.setVisibility(View.GONE);
-            participantView.setVisibility(View.VISIBLE);
-            voxeetTimer.setVisibility(View.GONE);
-            layoutTimer.setVisibility(View.GONE);
-            notchView.setVisibility(View.VISIBLE);
-        } else {
-            if (null != selectedView) selectedView.setVisibility(View.GONE);
-            speakerView.setVisibility(View.GONE);
-            participantView.setVisibility(View.VISIBLE);
-            voxeetTimer.setVisibility(View.GONE);
-            layoutTimer.setVisibility(View.GONE);
-            notchView.setVisibility(View.GONE);
-        }
-
-        Participant user = VoxeetSDK.conference().findParticipantById(VoxeetSDK.session().getParticipantId());
-        if (null != user) {
-            MediaStream stream = user.streamsHandler().getFirst(MediaStreamType.Camera);
-            if (!ToolkitUtils.hasParticipants() && null != stream && stream.videoTracks().size() > 0) {
-                selectedView.setVisibility(View.VISIBLE);
-                mConferenceViewRendererControl.attachStreamToSelf(stream);
-                if (!isExpanded) selfView.setVisibility(View.GONE);
-            }
-        }
+        participantView.setVisibility(View.VISIBLE);
+        voxeetTimer.setVisibility(View.GONE);
+        layoutTimer.setVisibility(View.GONE);
+        notchView.setVisibility(isExpanded ? View.VISIBLE : View.GONE);
 
         conferenceActionBarView.setVisibility(!isExpanded ? View.GONE : View.VISIBLE);
         conferenceActionBarView.onConferenceJoined(conference);
 
         if (null != conference) participantView.update(conference);
+
+        //the speaker and selected views are only changed by the reconciliation
+        if (!mApplyingState) refreshMediaStreams();
     }
 
     @Override
@@ -351,67 +377,31 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
         super.onConferenceFromNoOneToOneUser();
 
         conferenceState.setVisibility(View.GONE);
-        if (isExpanded) {
-            conferenceState.setVisibility(View.GONE);
-            if (null != selectedView && selectedView.isAttached())
-                selectedView.setVisibility(View.VISIBLE);
-            else showSpeakerView();
-            participantView.setVisibility(View.VISIBLE);
-            layoutTimer.setVisibility(View.VISIBLE);
-            voxeetTimer.setVisibility(View.VISIBLE);
-            notchView.setVisibility(View.VISIBLE);
-        } else {
-            conferenceState.setVisibility(View.GONE);
-            participantView.setVisibility(View.VISIBLE);
-            layoutTimer.setVisibility(View.VISIBLE);
-            voxeetTimer.setVisibility(View.VISIBLE);
-            notchView.setVisibility(View.GONE);
-
-            if (null != selectedView && selectedView.isAttached())
-                selectedView.setVisibility(View.VISIBLE);
-            else showSpeakerView();
-        }
-
+        participantView.setVisibility(View.VISIBLE);
+        layoutTimer.setVisibility(View.VISIBLE);
+        voxeetTimer.setVisibility(View.VISIBLE);
+        notchView.setVisibility(isExpanded ? View.VISIBLE : View.GONE);
 
         conferenceActionBarView.setVisibility(!isExpanded ? View.GONE : View.VISIBLE);
         conferenceActionBarView.onConferenceFromNoOneToOneUser();
-
-        //just in case
-        updateSpeakerViewVisibility();
         Log.d(TAG, "onConferenceFromNoOneToOneUser: " + View.VISIBLE + " " + conferenceActionBarView.getVisibility());
 
         Conference conference = VoxeetSDK.conference().getConference();
         if (null != conference) participantView.update(conference);
+
+        if (!mApplyingState) refreshMediaStreams();
     }
 
     @Override
     public void onConferenceNoMoreUser() {
         super.onConferenceNoMoreUser();
 
-        String ownUserId = VoxeetSDK.session().getParticipantId();
-        if (null == ownUserId) ownUserId = "";
-
         updateTextState(R.string.voxeet_waiting_for_users);
         conferenceState.setVisibility(View.VISIBLE);
-        if (isExpanded) {
-            if (null != selectedView && (!selectedView.isAttached() || !ownUserId.equals(selectedView.getPeerId()))) {
-                selectedView.setVisibility(View.GONE);
-            }
-            speakerView.setVisibility(View.GONE);
-            participantView.setVisibility(View.VISIBLE);
-            layoutTimer.setVisibility(View.GONE);
-            voxeetTimer.setVisibility(View.GONE);
-            notchView.setVisibility(View.VISIBLE);
-        } else {
-            if (null != selectedView && (!selectedView.isAttached() || !ownUserId.equals(selectedView.getPeerId()))) {
-                selectedView.setVisibility(View.GONE);
-            }
-            speakerView.setVisibility(View.GONE);
-            participantView.setVisibility(View.VISIBLE);
-            layoutTimer.setVisibility(View.GONE);
-            voxeetTimer.setVisibility(View.GONE);
-            notchView.setVisibility(View.GONE);
-        }
+        participantView.setVisibility(View.VISIBLE);
+        layoutTimer.setVisibility(View.GONE);
+        voxeetTimer.setVisibility(View.GONE);
+        notchView.setVisibility(isExpanded ? View.VISIBLE : View.GONE);
 
         Conference conference = VoxeetSDK.conference().getConference();
         if (null != conference) participantView.update(conference);
@@ -419,6 +409,8 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
         conferenceActionBarView.setVisibility(!isExpanded ? View.GONE : View.VISIBLE);
         conferenceActionBarView.onConferenceNoMoreUser();
         Log.d(TAG, "onConferenceNoMoreUser: " + View.VISIBLE + " " + conferenceActionBarView.getVisibility());
+
+        if (!mApplyingState) refreshMediaStreams();
     }
 
     @Override
@@ -453,8 +445,8 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
             selfView.unAttach();
         }
 
-        if (null != selectedView) {
-            selectedView.unAttach();
+        if (null != mSelectedRendererPool) {
+            mSelectedRendererPool.clear();
         }
     }
 
@@ -466,97 +458,36 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
             selfView.unAttach();
         }
 
-        if (null != selectedView) {
-            selectedView.unAttach();
+        if (null != mSelectedRendererPool) {
+            mSelectedRendererPool.clear();
         }
     }
 
     private void refreshMediaStreams() {
-        String localUserId = VoxeetSDK.session().getParticipantId();
-        if (null == localUserId) localUserId = "";
-        ConferenceService service = VoxeetSDK.conference();
-        List<Participant> users = service.getParticipants();
-
-        String currentUserAttached = selectedView.getPeerId();
-        Participant localUser = service.findParticipantById(localUserId);
-        Participant user = service.findParticipantById(currentUserAttached);
-        MediaStream localUserMediaStream = localUser.streamsHandler().getFirst(MediaStreamType.Camera);
-
-
-        if (ToolkitUtils.hasParticipants() && localUserId.equalsIgnoreCase(currentUserAttached)) {
-            selectedView.unAttach();
-            selectedView.setMirror(false);
-        }
-
-        if (null != currentUserAttached) {
-            MediaStream stream = user.streamsHandler().getFirst(MediaStreamType.Camera);
-            MediaStream screenShareStream = user.streamsHandler().getFirst(MediaStreamType.ScreenShare);
-            boolean unAttach = true;
-            boolean hasScreenShare = null != screenShareStream && screenShareStream.videoTracks().size() > 0;
-            boolean hasVideo = null != stream && stream.videoTracks().size() > 0;
-            if (hasScreenShare) {
-                unAttach = false;
-            } else if (hasVideo) {
-                unAttach = false;
-            }
-
-            if (unAttach) selectedView.unAttach();
-        }
-
-        String currentActiveSpeaker = getCurrentActiveSpeaker();
-        String selectedUserId = speakerView.getSelectedUserId();
-
-        if (null != selectedUserId) {
-            //selected user
-            Participant forced = VoxeetSDK.conference().findParticipantById(selectedUserId);
-            if (null != forced) {
-                MediaStream stream = forced.streamsHandler().getFirst(MediaStreamType.Camera);
-                if (null == stream || stream.videoTracks().size() == 0) { //without any video, force remove
-                    selectedView.unAttach();
-                } else if (null == selectedView.getPeerId() || !selectedView.isAttached() || !selectedUserId.equals(currentActiveSpeaker)) {
-                    //or if needs attached
-                    selectedView.attach(selectedUserId, stream);
-                }
-            }
-        } else if (null != currentActiveSpeaker) { //else, do we have an active speaker ?
-            if (null != selectedView.getPeerId() || selectedView.isAttached()) {
-                //should we unattach ?
-                if (!currentActiveSpeaker.equals(selectedView.getPeerId())) {
-                    selectedView.unAttach();
-                }
-            }
-
-            loopUserForStreamInVideoViewIfUnattached(currentActiveSpeaker, users, MediaStreamType.ScreenShare);
-            loopUserForStreamInVideoViewIfUnattached(currentActiveSpeaker, users, MediaStreamType.Camera);
-        }
-
-        if (null != localUserMediaStream) {
-            if (localUserMediaStream.videoTracks().size() > 0) {
-                selfView.attach(localUserId, localUserMediaStream);
-
-                selfView.setMirror(VoxeetSDK.mediaDevice().getCameraContext().isDefaultFrontFacing());
-                if (isExpanded) selfView.setVisibility(View.VISIBLE);
-                else selfView.setVisibility(View.GONE);
-            } else {
-                selfView.unAttach();
-                selfView.setVisibility(View.GONE);
-            }
-        }
-
-        if (!service.hasParticipants()) {
-            speakerView.setVisibility(View.GONE);
-            selectedView.setVisibility(View.GONE);
-        } else if (!selectedView.isAttached()) {
+        long begin = UXKitMetrics.instance.begin();
+
+        //a participant selected by the user who left the conference is forgotten
+        String lockedId = speakerView.getSelectedUserId();
+        if (null != lockedId && null == ParticipantStore.instance.findParticipantById(lockedId)) {
+            speakerView.unlockScreen();
+            lockedId = null;
+        }
+
+        String activeSpeaker = null != voxeetActiveSpeakerTimer ? voxeetActiveSpeakerTimer.getCurrentActiveSpeaker() : null;
+        //the grid displays the videos of the participants itself
+        boolean gallery = participantView.isGalleryMode();
+        boolean displaySelected = !gallery && mVideoVisibility.isVisible(VideoVisibilityPolicy.SELECTED);
+        boolean displaySelf = mVideoVisibility.isVisible(VideoVisibilityPolicy.SELF);
+        StreamLayout layout = mStreamAttachmentReconciler.reconcile(lockedId, activeSpeaker, isExpanded,
+                displaySelected, displaySelf);
+        mConferenceViewRendererControl.enableClick(isExpanded);
+
+        if (gallery || !layout.hasParticipants || null != layout.selectedPeerId) {
+            //alone, in the grid or with a video displayed
+            if (speakerView.getVisibility() != View.GONE) hideSpeakerView();
+        } else if (speakerView.getVisibility() != View.VISIBLE) {
             speakerView.onResume();
             speakerView.setVisibility(View.VISIBLE);
-            selectedView.unAttach();
-            selectedView.setVisibility(View.GONE);
-        } else {
-            //participants are here so we don't have our own video on top
-            //force unmirrored view with participants
-            selectedView.setMirror(false);
-            speakerView.onPause();
-            speakerView.setVisibility(View.GONE);
         }
 
         conferenceActionBarView.invalidateOwnStreams();
@@ -570,61 +501,9 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
             conferenceActionBarView.setDisplayScreenShare(false);
         }
 
+        UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_REFRESH_STREAMS, begin);
     }
 
-    private void loopUserForStreamInVideoViewIfUnattached(@Nullable String currentSelectedUserId,
-                                                          List<Participant> users,
-                                                          MediaStreamType mediaStreamType) {
-
-        MediaStream foundToAttach = null;
-        String userIdFoundToAttach = null;
-
-        if (null != currentSelectedUserId) {
-            Participant user = VoxeetSDK.conference().findParticipantById(currentSelectedUserId);
-            if (null != user) {
-                userIdFoundToAttach = user.getId();
-                foundToAttach = user.streamsHandler().getFirst(mediaStreamType);
-            }
-        }
-
-        if (null == foundToAttach) {
-            for (Participant user : users) {
-                String userId = user.getId();
-                if (null != userId && !userId.equals(VoxeetSDK.session().getParticipantId()) && !userId.equals(currentSelectedUserId) && null == foundToAttach) {
-                    userIdFoundToAttach = userId;
-                    foundToAttach = user.streamsHandler().getFirst(mediaStreamType);
-                    if (null != foundToAttach && foundToAttach.videoTracks().size() <= 0)
-                        foundToAttach = null;
-                }
-            }
-        }
-
-        if ((!selectedView.isAttached() || MediaStreamType.ScreenShare.equals(mediaStreamType)) && null != foundToAttach && foundToAttach.videoTracks().size() > 0) {
-            selectedView.setVisibility(View.VISIBLE);
-            selectedView.attach(userIdFoundToAttach, foundToAttach);
-        }
-
-        if (null == foundToAttach) {
-            MediaStreamType stream = selectedView.current();
-            if (null != stream && stream.equals(mediaStreamType)) {
-                selectedView.setVisibility(View.GONE);
-                selectedView.unAttach();
-            }
-        }
-    }
-
-    private void checkForLocalUserStreamVideo() {
-        Participant user = VoxeetSDK.conference().findParticipantById(VoxeetSDK.session().getParticipantId());
-        if (null != user) {
-            MediaStream stream = user.streamsHandler().getFirst(MediaStreamType.Camera);
-            if (null != stream && stream.videoTracks().size() > 0) {
-                mConferenceViewRendererControl.attachStreamToSelf(stream);
-                if (!isExpanded) selfView.setVisibility(View.GONE);
-            }
-        }
-    }
-
-
     @Override
     public void init() {
 
@@ -640,21 +519,24 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     @Override
     public void onExpandedView() {
         isExpanded = true;
+        mVideoVisibility.setExpanded(true);
+        VuMeterRenderer.instance.setPaused(false);
         layoutTimer.setVisibility(View.VISIBLE);
 
         layoutParticipant.setVisibility(View.VISIBLE);
+        setGalleryMode(VoxeetToolkit.instance().getConferenceToolkit().Configuration.Gallery.enabled);
         participantView.notifyDatasetChanged();
 
         conferenceActionBarView.onToggleSize(true);
 
         refreshUIVisibility();
-        if (selectedView != null) {
-            selectedView.setCornerRadius(0);
+        if (null != mSelectedRendererPool) {
+            for (VideoView view : mSelectedRendererPool.getViews()) view.setCornerRadius(0);
         }
 
         mConferenceViewRendererControl.enableClick(true);
 
-        checkForLocalUserStreamVideo();
+        refreshMediaStreams();
     }
 
     @Override
@@ -668,16 +550,30 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
         mConferenceViewRendererControl.enableClick(false);
 
         isExpanded = false;
+        mVideoVisibility.setExpanded(false);
+        VuMeterRenderer.instance.setPaused(true);
         layoutTimer.setVisibility(View.VISIBLE);
 
+        setGalleryMode(false);
         participantView.notifyDatasetChanged();
         layoutParticipant.setVisibility(View.GONE);
 
         conferenceActionBarView.onToggleSize(false);
 
-        refreshUIVisibility();
         updateUi();
-        checkForLocalUserStreamVideo();
+    }
+
+    /**
+     * Switch the participants bar to the grid filling the view, or back
+     */
+    private void setGalleryMode(boolean enabled) {
+        if (participantView.isGalleryMode() == enabled) return;
+
+        int height = enabled ? ViewGroup.LayoutParams.MATCH_PARENT : ViewGroup.LayoutParams.WRAP_CONTENT;
+        layoutParticipant.getLayoutParams().height = height;
+        participantView.getLayoutParams().height = height;
+        participantView.setGalleryMode(enabled);
+        layoutParticipant.requestLayout();
     }
 
     @Override
@@ -687,6 +583,8 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
 
     @Override
     protected void bindView(View view) {
+        mVideoVisibility = new VideoVisibilityPolicy();
+
         try {
             videoStream = view.findViewById(R.id.videoStream);
             conferenceState = view.findViewById(R.id.conference_state);
@@ -698,7 +596,9 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
 
             selfView = view.findViewById(R.id.self_video_view);
 
-            mConferenceViewRendererControl = new ConferenceViewRendererControl(this, selfView, selectedView);
+            mSelectedRendererPool = new VideoRendererPool(selectedView, VideoRendererPool.DEFAULT_CAPACITY);
+            mConferenceViewRendererControl = new ConferenceViewRendererControl(this, selfView, mSelectedRendererPool);
+            mStreamAttachmentReconciler = new StreamAttachmentReconciler(mSelectedRendererPool, selfView);
 
             selfView.setOnClickListener(view1 -> {
                 if (VoxeetSDK.instance() != null) {
@@ -712,6 +612,9 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
 
             participantView = view.findViewById(R.id.participant_view);
             participantView.setParticipantListener(this);
+            participantView.setVideoEnabled(mVideoVisibility.isVisible(VideoVisibilityPolicy.TILES));
+            mVideoVisibility.setListener(this::onVideoVisibilityChanged);
+            applyQualityLevel();
 
             voxeetTimer = view.findViewById(R.id.voxeet_timer);
 
@@ -742,15 +645,12 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     @Override
     public void onParticipantSelected(@NonNull Participant user) {
         speakerView.lockScreen(user);
-        updateSpeakerViewVisibility();
         updateUi();
     }
 
     @Override
     public void onUserAddedEvent(@NonNull Conference conference, @NonNull Participant user) {
         super.onUserAddedEvent(conference, user);
-        checkForLocalUserStreamVideo();
-        updateSpeakerViewVisibility();
         participantView.onUserAddedEvent(conference, user);
 
         updateUi();
@@ -759,8 +659,6 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     @Override
     public void onUserUpdatedEvent(@NonNull Conference conference, @NonNull Participant user) {
         super.onUserUpdatedEvent(conference, user);
-        checkForLocalUserStreamVideo();
-        updateSpeakerViewVisibility();
         participantView.onUserUpdatedEvent(conference, user);
 
         updateUi();
@@ -769,8 +667,6 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     @Override
     public void onStreamAddedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream) {
         super.onStreamAddedEvent(conference, user, mediaStream);
-        checkForLocalUserStreamVideo();
-        updateSpeakerViewVisibility();
         participantView.onStreamAddedEvent(conference, user, mediaStream);
 
         updateUi();
@@ -779,8 +675,6 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     @Override
     public void onStreamUpdatedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream) {
         super.onStreamUpdatedEvent(conference, user, mediaStream);
-        checkForLocalUserStreamVideo();
-        updateSpeakerViewVisibility();
         participantView.onStreamUpdatedEvent(conference, user, mediaStream);
 
         updateUi();
@@ -790,19 +684,24 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     public void onStreamRemovedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream) {
         super.onStreamRemovedEvent(conference, user, mediaStream);
 
-        checkForLocalUserStreamVideo();
-        updateSpeakerViewVisibility();
         participantView.onStreamRemovedEvent(conference, user, mediaStream);
 
         updateUi();
     }
 
+    @Override
+    public void onConferenceChanged(@NonNull ConferenceChanges changes) {
+        //each child refreshes once from the merged changes, the streams and layout are then updated once per batch
+        dispatchConferenceChanged(changes);
+
+        updateUi();
+    }
+
     @Override
     public void onParticipantUnselected(@NonNull Participant user) {
         speakerView.unlockScreen();
         showSpeakerView();
 
-        updateSpeakerViewVisibility();
         updateUi();
     }
 
@@ -866,7 +765,19 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
         conferenceState.setText(string);
     }
 
+    /**
+     * Replay the current state on the views, the streams are not reconciled here but by the caller, once
+     */
     private void refreshUIVisibility() {
+        mApplyingState = true;
+        try {
+            applyState();
+        } finally {
+            mApplyingState = false;
+        }
+    }
+
+    private void applyState() {
         checkStateValue();
 
         String conferenceId = null;
@@ -921,45 +832,13 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
         }
     }
 
-    private void updateSpeakerViewVisibility() {
-        if (null != speakerView) {
-            String selectedUser = speakerView.getSelectedUserId();
-            if (null != selectedUser) {
-                Participant user = VoxeetSDK.conference().findParticipantById(selectedUser);
-                if (null == user) {
-                    speakerView.unlockScreen();
-                }
-            }
-        }
-
-        if (null != selectedView) {
-            String selectedUser = selectedView.getPeerId();
-            if (null != selectedUser) {
-                Participant user = VoxeetSDK.conference().findParticipantById(selectedUser);
-                if (null == user) {
-                    selectedView.unAttach();
-                }
-            }
-        }
-
-        if (null != selectedView && selectedView.isAttached()) {
-            hideSpeakerView();
-        } else if (VoxeetSDK.conference().getParticipants().size() > 0) {
-            if (null != selectedView) selectedView.setVisibility(View.GONE);
-            showSpeakerView();
-        } else {
-            hideSpeakerView();
-            if (null != selectedView) selectedView.setVisibility(View.GONE);
-        }
-    }
-
     public void hideSpeakerView() {
         speakerView.setVisibility(View.GONE);
         speakerView.onPause();
     }
 
     public void showSpeakerView() {
-        if (VoxeetSDK.conference().hasParticipants()) {
+        if (ParticipantStore.instance.hasParticipants()) {
             speakerView.setVisibility(View.VISIBLE);
             speakerView.onResume();
         } else {
@@ -976,17 +855,20 @@ public class VoxeetConferenceView extends AbstractVoxeetExpandableView implement
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
-    public void onEvent(CameraSwitchSuccessEvent event) {
-        mConferenceViewRendererControl.updateMirror(event.isFront);
+    public void onEvent(QualityLevelChangedEvent event) {
+        applyQualityLevel();
     }
 
-    @Nullable
-    private String getCurrentActiveSpeaker() {
-        //get the selected user OR the "refreshed"/"cached" active speaker
-        String activeSpeaker = speakerView.getSelectedUserId();
-        if (null == activeSpeaker && null != voxeetActiveSpeakerTimer)
-            activeSpeaker = voxeetActiveSpeakerTimer.getCurrentActiveSpeaker();
-        return activeSpeaker;
+    private void applyQualityLevel() {
+        QualityController quality = QualityController.instance;
+        participantView.setMaxVideos(quality.getMaxRemoteVideos(Integer.MAX_VALUE));
+        mVideoVisibility.setSelfHidden(!quality.isSelfViewEnabled());
+    }
+
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onEvent(CameraSwitchSuccessEvent event) {
+        //the local camera is mirrored again by the renderer pool and the self view
+        updateUi();
     }
 
     @Override
@@ -3,17 +3,15 @@ package com.voxeet.uxkit.implementation;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Typeface;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.TextUtils;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
-import com.squareup.picasso.Picasso;
 import com.voxeet.VoxeetSDK;
 import com.voxeet.android.media.MediaStream;
 import com.voxeet.android.media.stream.MediaStreamType;
@@ -24,14 +22,19 @@ import com.voxeet.sdk.utils.NoDocumentation;
 import com.voxeet.sdk.utils.Opt;
 import com.voxeet.sdk.views.VideoView;
 import com.voxeet.uxkit.R;
+import com.voxeet.uxkit.utils.ParticipantStore;
 import com.voxeet.uxkit.utils.VoxeetSpeakersTimerInstance;
+import com.voxeet.uxkit.utils.VuMeterRenderer;
+import com.voxeet.uxkit.utils.avatars.AvatarLoader;
+import com.voxeet.uxkit.utils.metrics.JoinLifecycleTracer;
+import com.voxeet.uxkit.utils.streams.RendererBudget;
 import com.voxeet.uxkit.views.internal.rounded.RoundedImageView;
 
 /**
  * Simple View to manage how a Participant will be displayed on top
  */
 @Annotate
-public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeakersTimerInstance.SpeakersUpdated {
+public class VoxeetParticipantView extends LinearLayout implements VuMeterRenderer.Target {
 
 
     private static final String TAG = VoxeetParticipantView.class.getSimpleName();
@@ -50,6 +53,15 @@ public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeaker
     private int yellowOrange;
     private int white;
     private int grey999;
+    private int displayedColor;
+
+    //cap of the decoded videos shared by the tiles of a grid and the participant holding a renderer from it
+    @Nullable
+    private RendererBudget rendererBudget;
+    @Nullable
+    private String rendererKey;
+
+    private boolean videoEnabled = true;
 
     /**
      * Instantiates a new Voxeet participant view.
@@ -114,6 +126,42 @@ public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeaker
         this.selected = selected;
     }
 
+    /**
+     * Share a cap of the decoded videos with other views, the video is only attached once a renderer is granted
+     *
+     * @param rendererBudget the cap or null to always attach the video
+     */
+    public void setRendererBudget(@Nullable RendererBudget rendererBudget) {
+        if (this.rendererBudget == rendererBudget) return;
+
+        releaseRenderer();
+        this.rendererBudget = rendererBudget;
+    }
+
+    /**
+     * Allow the view to render the video of its participant, the avatar is displayed otherwise
+     *
+     * @param videoEnabled false when the view is not visible on screen
+     */
+    public void setVideoEnabled(boolean videoEnabled) {
+        this.videoEnabled = videoEnabled;
+    }
+
+    /**
+     * Detach the video right away and give its renderer back, for views which are not displayed anymore
+     */
+    public void releaseVideo() {
+        if (videoView.isAttached() || null != videoView.getPeerId()) videoView.unAttach();
+        videoView.setVisibility(View.GONE);
+        avatar.setVisibility(View.VISIBLE);
+        releaseRenderer();
+    }
+
+    private void releaseRenderer() {
+        if (null != rendererBudget && null != rendererKey) rendererBudget.release(rendererKey);
+        rendererKey = null;
+    }
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
@@ -122,37 +170,58 @@ public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeaker
             refresh();
         }
 
-        VoxeetSpeakersTimerInstance.instance.register(this);
+        VuMeterRenderer.instance.register(this);
     }
 
     @Override
     protected void onDetachedFromWindow() {
-        VoxeetSpeakersTimerInstance.instance.unregister(this);
+        VuMeterRenderer.instance.unregister(this);
+        if (null != rendererBudget) releaseVideo();
 
         super.onDetachedFromWindow();
     }
 
+    @Nullable
+    @Override
+    public String getMeterParticipantId() {
+        return null != participant ? participant.getId() : null;
+    }
+
+    @NonNull
+    @Override
+    public View getMeterView() {
+        return this;
+    }
+
     @Override
-    public void onSpeakersUpdated() {
+    public void onMeterLevel(float level, boolean speaking) {
+        updateSpeakingState(false);
+    }
+
+    /**
+     * Update the overlay and name depending on the selection and speaking state
+     *
+     * @param force apply the state even if it did not change since the last call
+     */
+    private void updateSpeakingState(boolean force) {
         int color = 0;
 
         if (null != participant) {
-            double level = VoxeetSpeakersTimerInstance.instance.audioLevel(participant);
-
             if (selected) {
-                name.setTypeface(Typeface.DEFAULT_BOLD);
-                name.setTextColor(white);
-
                 color = selectedUserColor;
-            } else if (level > 0.02) {
-                name.setTypeface(Typeface.DEFAULT_BOLD);
-                name.setTextColor(white);
-
+            } else if (VoxeetSpeakersTimerInstance.instance.isSpeaking(participant)) {
                 color = yellowOrange;
             }
         }
 
+        //only the changes are applied to the views
+        if (!force && color == displayedColor) return;
+        displayedColor = color;
+
         if (0 != color) {
+            name.setTypeface(Typeface.DEFAULT_BOLD);
+            name.setTextColor(white);
+
             overlay.setBackgroundColor(color);
             overlay.setVisibility(View.VISIBLE);
         } else {
@@ -163,20 +232,43 @@ public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeaker
         }
     }
 
+    /**
+     * Refresh every part of the view
+     */
     public void refresh() {
-        boolean on_air = false;
-        if (null != participant) {
-            on_air = participant.isLocallyActive();
-
-            name.setText(Opt.of(participant).then(Participant::getInfo).then(ParticipantInfo::getName).or(""));
+        refreshName();
 
+        if (null != participant) {
             loadStreamOnto();
-        } else {
-            name.setText("");
         }
 
-        onSpeakersUpdated();
+        updateSpeakingState(true);
+        refreshStatus();
+
+        //will go to default
+        loadAvatar();
+    }
+
+    /**
+     * Refresh the overlay and the name style depending on the selection and speaking state
+     */
+    public void refreshSpeaking() {
+        updateSpeakingState(false);
+    }
+
+    /**
+     * Refresh the name of the participant and its visibility
+     */
+    public void refreshName() {
+        name.setText(Opt.of(participant).then(Participant::getInfo).then(ParticipantInfo::getName).or(""));
         name.setVisibility(showName ? View.VISIBLE : View.GONE);
+    }
+
+    /**
+     * Refresh the transparency of the view depending on the participant being in the conference
+     */
+    public void refreshStatus() {
+        boolean on_air = null != participant && participant.isLocallyActive();
 
         if (on_air) {
             setAlpha(1f);
@@ -185,37 +277,32 @@ public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeaker
             setAlpha(0.5f);
             avatar.setAlpha(0.4f);
         }
-
-        //will go to default
-        loadViaPicasso();
     }
 
-    private void loadViaPicasso() {
-        try {
-            String url = Opt.of(participant).then(Participant::getInfo)
-                    .then(ParticipantInfo::getAvatarUrl).orNull();
-
-            if (!TextUtils.isEmpty(url)) {
-                Picasso.get()
-                        .load(url)
-                        .noFade()
-                        .resize(avatarSize, avatarSize)
-                        .placeholder(R.drawable.default_avatar)
-                        .error(R.drawable.default_avatar)
-                        .into(avatar);
-            } else {
-                Picasso.get()
-                        .load(R.drawable.default_avatar)
-                        .into(avatar);
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "error " + e.getMessage());
+    /**
+     * Refresh the video stream attached to the view
+     */
+    public void refreshStream() {
+        if (null != participant) {
+            loadStreamOnto();
         }
     }
 
+    /**
+     * Refresh the avatar of the participant
+     */
+    public void refreshAvatar() {
+        loadAvatar();
+    }
+
+    private void loadAvatar() {
+        int size = avatarSize > 0 ? avatarSize : getResources().getDimensionPixelSize(R.dimen.meeting_list_avatar_double);
+        AvatarLoader.instance(getContext()).load(participant, size, avatar);
+    }
+
     @Nullable
     private MediaStream getMediaStream(@Nullable String userId) {
-        return Opt.of(userId).then(id -> VoxeetSDK.conference().findParticipantById(id))
+        return Opt.of(userId).then(id -> ParticipantStore.instance.findParticipantById(id))
                 .then(Participant::streamsHandler)
                 .then(handler -> handler.getFirst(MediaStreamType.Camera)).orNull();
     }
@@ -225,14 +312,27 @@ public class VoxeetParticipantView extends LinearLayout implements VoxeetSpeaker
         MediaStream normalStream = getMediaStream(id);
 
         boolean attached = false;
+        boolean hasVideo = videoEnabled && null != id && null != normalStream && normalStream.videoTracks().size() > 0;
+
+        boolean allowed = true;
+        if (null != rendererBudget) {
+            if (!hasVideo || !id.equals(rendererKey)) releaseRenderer();
+            if (hasVideo) {
+                rendererKey = id;
+                allowed = rendererBudget.acquire(id);
+            }
+        }
 
-        if (null != id && null != normalStream && normalStream.videoTracks().size() > 0) {
+        if (hasVideo && allowed) {
             String currentAttached = videoView.getPeerId();
             boolean same = id.equals(currentAttached);
 
             if (!videoView.hasVideo() || !same) {
                 videoView.attach(id, normalStream);
                 videoView.setVisibility(View.VISIBLE);
+                if (!id.equals(VoxeetSDK.session().getParticipantId())) {
+                    JoinLifecycleTracer.instance.mark(JoinLifecycleTracer.FIRST_REMOTE_VIDEO);
+                }
                 avatar.setVisibility(View.GONE);
                 attached = true;
             } else if (same) {
@@ -5,7 +5,10 @@ import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
@@ -21,10 +24,17 @@ import com.voxeet.sdk.services.SessionService;
 import com.voxeet.sdk.utils.Annotate;
 import com.voxeet.sdk.utils.NoDocumentation;
 import com.voxeet.uxkit.R;
+import com.voxeet.uxkit.configuration.Gallery;
 import com.voxeet.uxkit.configuration.Users;
 import com.voxeet.uxkit.controllers.VoxeetToolkit;
+import com.voxeet.uxkit.utils.ConferenceChanges;
 import com.voxeet.uxkit.utils.IParticipantViewListener;
+import com.voxeet.uxkit.utils.ParticipantStore;
 import com.voxeet.uxkit.utils.ParticipantViewAdapter;
+import com.voxeet.uxkit.utils.VoxeetSpeakersTimerInstance;
+import com.voxeet.uxkit.utils.participants.ParticipantIndex;
+import com.voxeet.uxkit.utils.streams.LastNPolicy;
+import com.voxeet.uxkit.utils.streams.RendererBudget;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,9 +51,26 @@ public class VoxeetParticipantsView extends VoxeetView {
 
     private LinearLayoutManager horizontalLayout;
 
+    private GridLayoutManager galleryLayout;
+
+    private RendererBudget rendererBudget;
+
+    private int maxVideos = Integer.MAX_VALUE;
+
+    //the videos of the recent speakers get the renderers of the budget first
+    private LastNPolicy lastN;
+
+    private final VoxeetSpeakersTimerInstance.SpeakersUpdated speakersUpdated = this::applyLastN;
+
     private boolean displaySelf = false;
     private boolean displayNonAir = true;
 
+    //last result of the filter and the state it was computed for
+    private List<Participant> filtered;
+    private int filteredVersion;
+    private boolean filteredDisplaySelf;
+    private boolean filteredDisplayNonAir;
+
     private Handler mHandler;
 
     /**
@@ -97,7 +124,6 @@ public class VoxeetParticipantsView extends VoxeetView {
      */
     public void setNamesEnabled(boolean enabled) {
         adapter.setNamesEnabled(enabled);
-        adapter.updateUsers();
     }
 
     /**
@@ -107,7 +133,6 @@ public class VoxeetParticipantsView extends VoxeetView {
      */
     public void setSelectedUserColor(int color) {
         adapter.setSelectedUserColor(color);
-        adapter.updateUsers();
     }
 
     @NoDocumentation
@@ -141,9 +166,130 @@ public class VoxeetParticipantsView extends VoxeetView {
         attributes.recycle();
     }
 
+    /**
+     * Display the participants in a vertical grid instead of the horizontal bar
+     * <p>
+     * In the grid, only the tiles on screen attach their video, up to Gallery.max_video_renderers at the same time.
+     *
+     * @param enabled true to display the grid
+     */
+    public void setGalleryMode(boolean enabled) {
+        if (isGalleryMode() == enabled) return;
+
+        if (enabled) {
+            galleryLayout = new GridLayoutManager(getContext(), spanCount(adapter.getItemCount()), GridLayoutManager.VERTICAL, false);
+            recyclerView.setLayoutManager(galleryLayout);
+        } else {
+            galleryLayout = null;
+            recyclerView.setLayoutManager(horizontalLayout);
+        }
+        applyRendererBudget();
+    }
+
+    /**
+     * Cap the videos decoded at the same time by the tiles, in the bar as in the grid
+     *
+     * @param maxVideos the number of videos or Integer.MAX_VALUE for no cap besides Gallery.max_video_renderers
+     */
+    public void setMaxVideos(int maxVideos) {
+        if (this.maxVideos == maxVideos) return;
+
+        this.maxVideos = maxVideos;
+        applyRendererBudget();
+    }
+
+    private void applyRendererBudget() {
+        int max = maxVideos;
+        if (isGalleryMode()) {
+            Gallery configuration = VoxeetToolkit.getInstance().getConferenceToolkit().Configuration.Gallery;
+            max = Math.min(max, configuration.max_video_renderers);
+        }
+
+        if (Integer.MAX_VALUE == max) {
+            adapter.setRendererBudget(null);
+            lastN = null;
+            VoxeetSpeakersTimerInstance.instance.unregister(speakersUpdated);
+            return;
+        }
+
+        if (null == rendererBudget) {
+            rendererBudget = new RendererBudget(max);
+        } else {
+            rendererBudget.setMaxRenderers(max);
+        }
+        adapter.setRendererBudget(rendererBudget);
+
+        if (null == lastN) {
+            lastN = new LastNPolicy(max);
+        } else {
+            lastN.setN(max);
+        }
+        if (ViewCompat.isAttachedToWindow(this)) VoxeetSpeakersTimerInstance.instance.register(speakersUpdated);
+        applyLastN();
+    }
+
+    /**
+     * Prefer the videos of the most recent speakers when the renderers are capped
+     */
+    private void applyLastN() {
+        if (null == lastN || null == rendererBudget || null == filtered) return;
+
+        ParticipantIndex<Participant> index = ParticipantStore.instance.getIndex();
+        List<String> videos = new ArrayList<>();
+        for (Participant participant : filtered) {
+            if (index.hasVideo(participant.getId())) videos.add(participant.getId());
+        }
+
+        long now = SystemClock.uptimeMillis();
+        rendererBudget.setPreferred(lastN.select(videos, VoxeetSpeakersTimerInstance.instance.getRecentSpeakers(), now));
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (null != lastN) VoxeetSpeakersTimerInstance.instance.register(speakersUpdated);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        VoxeetSpeakersTimerInstance.instance.unregister(speakersUpdated);
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Stop or resume the videos of the participants, when the view is not visible on screen
+     *
+     * @param enabled false to only display the avatars
+     */
+    public void setVideoEnabled(boolean enabled) {
+        if (null != adapter) adapter.setVideoEnabled(enabled);
+    }
+
+    @NoDocumentation
+    public boolean isGalleryMode() {
+        return null != galleryLayout;
+    }
+
+    private int spanCount(int participants) {
+        Gallery configuration = VoxeetToolkit.getInstance().getConferenceToolkit().Configuration.Gallery;
+        if (configuration.span_count > 0) return configuration.span_count;
+
+        //as many columns as rows
+        return Math.max(1, (int) Math.ceil(Math.sqrt(participants)));
+    }
+
+    private void setUsers(@NonNull List<Participant> users) {
+        adapter.setUsers(users);
+        applyLastN();
+
+        if (null != galleryLayout) {
+            int spanCount = spanCount(users.size());
+            if (galleryLayout.getSpanCount() != spanCount) galleryLayout.setSpanCount(spanCount);
+        }
+    }
+
     public void update(@NonNull Conference conference) {
-        adapter.setUsers(filter(conference.getParticipants()));
-        adapter.updateUsers();
+        setUsers(filter(conference.getParticipants()));
     }
 
     /**
@@ -156,8 +302,7 @@ public class VoxeetParticipantsView extends VoxeetView {
     public void onUserAddedEvent(@NonNull Conference conference, @NonNull Participant user) {
         super.onUserAddedEvent(conference, user);
 
-        adapter.setUsers(filter(conference.getParticipants()));
-        adapter.updateUsers();
+        setUsers(filteredParticipants());
     }
 
     /**
@@ -171,11 +316,37 @@ public class VoxeetParticipantsView extends VoxeetView {
         super.onUserUpdatedEvent(conference, user);
 
         postOnUi(() -> {
-            adapter.setUsers(filter(conference.getParticipants()));
-            adapter.updateUsers();
+            setUsers(filteredParticipants());
         });
     }
 
+    /**
+     * Refresh the list once for every participant and stream change of the batch
+     *
+     * @param changes the merged changes
+     */
+    @Override
+    public void onConferenceChanged(@NonNull ConferenceChanges changes) {
+        setUsers(filteredParticipants());
+    }
+
+    /**
+     * Filter the participants of the shared store, the result is kept until a participant is added, removed or changes
+     * its status
+     */
+    @NonNull
+    private List<Participant> filteredParticipants() {
+        ParticipantIndex<Participant> index = ParticipantStore.instance.getIndex();
+        if (null == filtered || filteredVersion != index.getVersion()
+                || filteredDisplaySelf != displaySelf || filteredDisplayNonAir != displayNonAir) {
+            filtered = filter(index.getParticipants());
+            filteredVersion = index.getVersion();
+            filteredDisplaySelf = displaySelf;
+            filteredDisplayNonAir = displayNonAir;
+        }
+        return filtered;
+    }
+
     private List<Participant> filter(List<Participant> users) {
         SessionService sessionService = VoxeetSDK.session();
         List<Participant> filter = new ArrayList<>();
@@ -261,7 +432,6 @@ public class VoxeetParticipantsView extends VoxeetView {
         super.onConferenceDestroyed();
 
         adapter.clearParticipants();
-        adapter.updateUsers();
     }
 
     /**
@@ -272,7 +442,6 @@ public class VoxeetParticipantsView extends VoxeetView {
         super.onConferenceLeft();
 
         adapter.clearParticipants();
-        adapter.updateUsers();
     }
 
     @NoDocumentation
@@ -281,7 +450,7 @@ public class VoxeetParticipantsView extends VoxeetView {
         horizontalLayout = new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false);
 
         if (adapter == null)
-            adapter = new ParticipantViewAdapter(horizontalLayout, getContext());
+            adapter = new ParticipantViewAdapter(getContext());
 
 
         recyclerView.setAdapter(adapter);
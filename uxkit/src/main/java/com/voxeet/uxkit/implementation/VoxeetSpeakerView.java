@@ -8,23 +8,24 @@ import android.os.Handler;
 import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.TextUtils;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.Gravity;
 import android.view.View;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import com.squareup.picasso.Picasso;
 import com.voxeet.VoxeetSDK;
-import com.voxeet.sdk.exceptions.ExceptionManager;
 import com.voxeet.sdk.models.Participant;
 import com.voxeet.sdk.utils.Annotate;
 import com.voxeet.sdk.utils.NoDocumentation;
 import com.voxeet.uxkit.R;
+import com.voxeet.uxkit.utils.ParticipantStore;
+import com.voxeet.uxkit.utils.VoxeetSpeakersTimerInstance;
+import com.voxeet.uxkit.utils.VuMeterRenderer;
 import com.voxeet.uxkit.utils.WindowHelper;
+import com.voxeet.uxkit.utils.avatars.AvatarLoader;
+import com.voxeet.uxkit.utils.quality.QualityController;
 import com.voxeet.uxkit.views.internal.VoxeetVuMeter;
 import com.voxeet.uxkit.views.internal.rounded.RoundedImageView;
 
@@ -35,8 +36,14 @@ import com.voxeet.uxkit.views.internal.rounded.RoundedImageView;
 public class VoxeetSpeakerView extends VoxeetView {
     private final String TAG = VoxeetSpeakerView.class.getSimpleName();
 
+    /**
+     * Interval of the BALANCED preset, the one used is given by the Performance configuration
+     */
     public static final int REFRESH_SPEAKER = 1000;
 
+    /**
+     * Interval of the BALANCED preset, the one used is given by the Performance configuration
+     */
     public static final int REFRESH_METER = 100;
 
     private Handler handler = new Handler(Looper.getMainLooper());
@@ -66,7 +73,10 @@ public class VoxeetSpeakerView extends VoxeetView {
             }
 
             if (!selected && null != VoxeetSDK.conference()) {
-                currentSpeaker = findUserById(VoxeetSDK.conference().currentSpeaker());
+                //prefer the locally computed active speaker, the sdk's one is only used until someone spoke
+                String activeSpeaker = VoxeetSpeakersTimerInstance.instance.getCurrentActiveSpeaker();
+                if (null == activeSpeaker) activeSpeaker = VoxeetSDK.conference().currentSpeaker();
+                currentSpeaker = findUserById(activeSpeaker);
                 if (currentSpeaker != null && currentSpeaker.getInfo() != null) {
                     speakerName.setText(currentSpeaker.getInfo().getName());
                     invalidateSpeakerName();
@@ -74,21 +84,28 @@ public class VoxeetSpeakerView extends VoxeetView {
             }
 
             if (currentSpeaker != null && currentWidth > 0)
-                loadViaPicasso(currentSpeaker, currentWidth / 2, currentSpeakerView);
+                loadAvatar(currentSpeaker, currentWidth / 2, currentSpeakerView);
 
-            if (mAttached) handler.postDelayed(this, REFRESH_SPEAKER);
+            if (mAttached) handler.postDelayed(this, QualityController.instance.getSpeakerRefreshInterval());
         }
     };
 
-    private Runnable updateVuMeterRunnable = new Runnable() {
+    private VuMeterRenderer.Target vuMeterTarget = new VuMeterRenderer.Target() {
+        @Nullable
         @Override
-        public void run() {
-            if (currentSpeaker != null && null != VoxeetSDK.conference()) {
-                double value = VoxeetSDK.conference().audioLevel(currentSpeaker);
-                vuMeter.updateMeter(value);
-            }
+        public String getMeterParticipantId() {
+            return null != currentSpeaker ? currentSpeaker.getId() : null;
+        }
 
-            if (mAttached) handler.postDelayed(this, REFRESH_METER);
+        @NonNull
+        @Override
+        public View getMeterView() {
+            return vuMeter;
+        }
+
+        @Override
+        public void onMeterLevel(float level, boolean speaking) {
+            vuMeter.updateMeter(level, speaking);
         }
     };
 
@@ -189,7 +206,7 @@ public class VoxeetSpeakerView extends VoxeetView {
         vuMeter.reset();
 
         handler.removeCallbacks(updateSpeakerRunnable);
-        handler.removeCallbacks(updateVuMeterRunnable);
+        VuMeterRenderer.instance.unregister(vuMeterTarget);
     }
 
     /**
@@ -268,35 +285,12 @@ public class VoxeetSpeakerView extends VoxeetView {
      * @return the conference user
      */
     private Participant findUserById(@Nullable final String userId) {
-        return VoxeetSDK.conference().findParticipantById(userId);
+        return ParticipantStore.instance.findParticipantById(userId);
     }
 
-    private void loadViaPicasso(Participant conferenceUser, int avatarSize, ImageView imageView) {
-        try {
-            String avatarUrl = null;
-            if (null != conferenceUser && null != conferenceUser.getInfo()) {
-                avatarUrl = conferenceUser.getInfo().getAvatarUrl();
-            }
-
-            if (!TextUtils.isEmpty(avatarUrl)) {
-                Picasso.get()
-                        .load(conferenceUser.getInfo().getAvatarUrl())
-                        .noFade()
-                        .resize(avatarSize, avatarSize)
-                        .placeholder(R.drawable.default_avatar)
-                        .error(R.drawable.default_avatar)
-                        .into(imageView);
-            } else {
-                Picasso.get()
-                        .load(R.drawable.default_avatar)
-                        .noFade()
-                        .resize(avatarSize, avatarSize)
-                        .into(imageView);
-            }
-        } catch (Exception e) {
-            ExceptionManager.sendException(e);
-            Log.e(TAG, "error " + e.getMessage());
-        }
+    private void loadAvatar(Participant conferenceUser, int avatarSize, ImageView imageView) {
+        //no-op while the same avatar is already displayed at this size
+        AvatarLoader.instance(getContext()).load(conferenceUser, avatarSize, imageView);
     }
 
     /**
@@ -348,13 +342,10 @@ public class VoxeetSpeakerView extends VoxeetView {
     @Override
     public void onResume() {
         handler.removeCallbacks(updateSpeakerRunnable);
-        handler.removeCallbacks(updateVuMeterRunnable);
-
         handler.removeCallbacksAndMessages(updateSpeakerRunnable);
-        handler.removeCallbacksAndMessages(updateVuMeterRunnable);
 
         handler.post(updateSpeakerRunnable);
-        handler.post(updateVuMeterRunnable);
+        VuMeterRenderer.instance.register(vuMeterTarget);
     }
 
     /**
@@ -363,5 +354,6 @@ public class VoxeetSpeakerView extends VoxeetView {
     public void onPause() {
         handler.removeCallbacks(null);
         handler.removeCallbacksAndMessages(null);
+        VuMeterRenderer.instance.unregister(vuMeterTarget);
     }
 }
@@ -17,6 +17,7 @@ import android.widget.TextView;
 import com.voxeet.VoxeetSDK;
 import com.voxeet.sdk.models.Conference;
 import com.voxeet.uxkit.R;
+import com.voxeet.uxkit.utils.quality.QualityController;
 import com.voxeet.uxkit.views.internal.rounded.RoundedImageView;
 
 public class VoxeetTimer extends VoxeetView {
@@ -54,7 +55,7 @@ public class VoxeetTimer extends VoxeetView {
             int mins = secs / 60;
             secs = secs % 60;
             timer.setText(getResources().getString(R.string.format_timer, mins, secs));
-            handler.postDelayed(this, 1000);
+            handler.postDelayed(this, QualityController.instance.getTimerTick());
         }
     };
 
@@ -224,7 +225,7 @@ public class VoxeetTimer extends VoxeetView {
 
     private void colorAnimation(int oldColor, int newColor) {
         ValueAnimator colorAnimation = ValueAnimator.ofObject(new ArgbEvaluator(), oldColor, newColor);
-        colorAnimation.setDuration(1000);
+        colorAnimation.setDuration(QualityController.instance.getAnimationDuration(1000));
         colorAnimation.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator animator) {
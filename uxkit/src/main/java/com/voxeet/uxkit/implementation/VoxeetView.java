@@ -10,6 +10,7 @@ import android.widget.FrameLayout;
 import com.voxeet.android.media.MediaStream;
 import com.voxeet.sdk.models.Conference;
 import com.voxeet.sdk.models.Participant;
+import com.voxeet.uxkit.utils.ConferenceChanges;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +28,9 @@ public abstract class VoxeetView extends FrameLayout
 
     private final String TAG = VoxeetView.class.getSimpleName();
 
+    //true while the per event callbacks are replayed on this view only
+    private boolean mReplaying;
+
     /**
      * Instantiates a new Voxeet view.
      *
@@ -132,6 +136,8 @@ public abstract class VoxeetView extends FrameLayout
 
     @Override
     public void onUserAddedEvent(@NonNull Conference conference, @NonNull Participant user) {
+        if (mReplaying) return;
+
         for (VoxeetView child : mListeners) {
             child.onUserAddedEvent(conference, user);
         }
@@ -139,6 +145,8 @@ public abstract class VoxeetView extends FrameLayout
 
     @Override
     public void onUserUpdatedEvent(@NonNull Conference conference, @NonNull Participant user) {
+        if (mReplaying) return;
+
         for (VoxeetView child : mListeners) {
             child.onUserUpdatedEvent(conference, user);
         }
@@ -147,6 +155,8 @@ public abstract class VoxeetView extends FrameLayout
 
     @Override
     public void onStreamAddedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream) {
+        if (mReplaying) return;
+
         for (VoxeetView child : mListeners) {
             child.onStreamAddedEvent(conference, user, mediaStream);
         }
@@ -154,6 +164,8 @@ public abstract class VoxeetView extends FrameLayout
 
     @Override
     public void onStreamUpdatedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream) {
+        if (mReplaying) return;
+
         for (VoxeetView child : mListeners) {
             child.onStreamUpdatedEvent(conference, user, mediaStream);
         }
@@ -161,11 +173,44 @@ public abstract class VoxeetView extends FrameLayout
 
     @Override
     public void onStreamRemovedEvent(@NonNull Conference conference, @NonNull Participant user, @NonNull MediaStream mediaStream) {
+        if (mReplaying) return;
+
         for (VoxeetView child : mListeners) {
             child.onStreamRemovedEvent(conference, user, mediaStream);
         }
     }
 
+    /**
+     * Participants and streams changed
+     * <p>
+     * The default implementation replays the per event callbacks on this view, then forwards the changes to the
+     * children. Views able to refresh from a snapshot should override it to refresh once per batch.
+     *
+     * @param changes the merged changes
+     */
+    @Override
+    public void onConferenceChanged(@NonNull ConferenceChanges changes) {
+        mReplaying = true;
+        try {
+            changes.replay(this);
+        } finally {
+            mReplaying = false;
+        }
+
+        dispatchConferenceChanged(changes);
+    }
+
+    /**
+     * Forward the changes to the children
+     *
+     * @param changes the merged changes
+     */
+    protected void dispatchConferenceChanged(@NonNull ConferenceChanges changes) {
+        for (VoxeetView child : mListeners) {
+            child.onConferenceChanged(changes);
+        }
+    }
+
     /**
      * An user declined the call
      *
@@ -250,6 +295,17 @@ public abstract class VoxeetView extends FrameLayout
         }
     }
 
+    /**
+     * Called when the activity displaying the view is resumed or paused, the view may stay attached in between
+     *
+     * @param foreground true if the activity is resumed
+     */
+    public void onForegroundChanged(boolean foreground) {
+        for (VoxeetView child : mListeners) {
+            child.onForegroundChanged(foreground);
+        }
+    }
+
     /**
      * On init.
      */
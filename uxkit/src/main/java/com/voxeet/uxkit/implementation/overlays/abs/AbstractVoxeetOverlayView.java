@@ -1,15 +1,22 @@
 package com.voxeet.uxkit.implementation.overlays.abs;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Configuration;
+import android.graphics.Point;
+import android.os.Build;
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringAnimation;
+import android.support.animation.SpringForce;
 import android.support.annotation.NonNull;
 import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.WindowManager;
@@ -25,6 +32,8 @@ import com.voxeet.uxkit.implementation.overlays.OverlayState;
 import com.voxeet.uxkit.providers.logics.IVoxeetSubViewProvider;
 import com.voxeet.uxkit.utils.CornerHelper;
 import com.voxeet.uxkit.utils.WindowHelper;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+import com.voxeet.uxkit.utils.quality.QualityController;
 
 import java.util.ArrayList;
 
@@ -62,6 +71,13 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
     private ViewGroup sub_container;
     private boolean mRemainExpanded;
     private boolean mCanBeMinizedByTouch;
+    private boolean mTransformRunning;
+
+    //how far ahead a fling is projected, in seconds of its release velocity, to pick the corner
+    private final static float FLING_PROJECTION = 0.2f;
+
+    private SpringAnimation mSpringX;
+    private SpringAnimation mSpringY;
 
     /**
      * Instantiates a new Voxeet conference view.
@@ -135,6 +151,14 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
         super.onAttachedToWindow();
 
         WindowHelper.hideKeyboard(this);
+        UXKitMetrics.instance.setOverlayVisible(getContext(), true);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        UXKitMetrics.instance.setOverlayVisible(getContext(), false);
+
+        super.onDetachedFromWindow();
     }
 
     @Override
@@ -150,7 +174,7 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
         if (isExpanded())
             animationHandler.toLandScape(250, previousWidth, dm.widthPixels, previousHeight, dm.heightPixels);
         else
-            CornerHelper.sendToCorner(this, windowManager, getContext());
+            post(() -> snapToCorner(0, 0));
 
     }
 
@@ -176,11 +200,16 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
 
         gestureDetector = new GestureDetector(getContext(), new SingleTapConfirm());
 
+        mSpringX = createSpring(DynamicAnimation.X);
+        mSpringY = createSpring(DynamicAnimation.Y);
+
         setOnTouchListener(new OnTouchListener() {
             private float dX;
 
             private float dY;
 
+            private VelocityTracker velocityTracker;
+
             @Override
             public boolean onTouch(View v, MotionEvent event) {
                 //if the view can be minized by touch or it is not expanded
@@ -189,8 +218,14 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
                 } else if (!isExpanded()) { // drag n drop only when minimized
                     switch (event.getAction()) {
                         case MotionEvent.ACTION_DOWN:
+                            //catch the view where it is, even in the middle of its snap
+                            cancelSnap();
                             dX = getX() - event.getRawX();
                             dY = getY() - event.getRawY();
+
+                            if (null != velocityTracker) velocityTracker.recycle();
+                            velocityTracker = VelocityTracker.obtain();
+                            addMovement(event);
                             break;
                         case MotionEvent.ACTION_MOVE:
                             float x = event.getRawX() + dX;
@@ -200,20 +235,87 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
                             if (y < ScreenHelper.getStatusBarHeight(getContext()))
                                 y = ScreenHelper.getStatusBarHeight(getContext());
 
-                            animate().x(event.getRawX() + dX).y(event.getRawY() + dY)
-                                    .setDuration(0).start();
+                            //direct translation, no animator needed for each event
+                            setX(x);
+                            setY(y);
+                            addMovement(event);
                             break;
                         case MotionEvent.ACTION_UP:
-                            CornerHelper.sendToCorner(AbstractVoxeetOverlayView.this, windowManager, getContext());
+                        case MotionEvent.ACTION_CANCEL:
+                            float velocityX = 0;
+                            float velocityY = 0;
+                            if (null != velocityTracker) {
+                                addMovement(event);
+                                velocityTracker.computeCurrentVelocity(1000);
+                                velocityX = velocityTracker.getXVelocity();
+                                velocityY = velocityTracker.getYVelocity();
+                                velocityTracker.recycle();
+                                velocityTracker = null;
+                            }
+                            snapToCorner(velocityX, velocityY);
                         default:
                             return false;
                     }
                 }
                 return true;
             }
+
+            /**
+             * The view moves with the finger, the velocity is tracked on the screen coordinates
+             */
+            private void addMovement(@NonNull MotionEvent event) {
+                if (null == velocityTracker) return;
+
+                MotionEvent screenEvent = MotionEvent.obtain(event);
+                screenEvent.setLocation(event.getRawX(), event.getRawY());
+                velocityTracker.addMovement(screenEvent);
+                screenEvent.recycle();
+            }
         });
     }
 
+    @NonNull
+    private SpringAnimation createSpring(@NonNull DynamicAnimation.ViewProperty property) {
+        SpringAnimation spring = new SpringAnimation(this, property);
+        spring.setSpring(new SpringForce()
+                .setStiffness(SpringForce.STIFFNESS_LOW)
+                .setDampingRatio(SpringForce.DAMPING_RATIO_LOW_BOUNCY));
+        return spring;
+    }
+
+    /**
+     * Move the minimized view to the safe corner it is heading to, keeping its current velocity
+     *
+     * @param velocityX the horizontal velocity in pixels per second
+     * @param velocityY the vertical velocity in pixels per second
+     */
+    private void snapToCorner(float velocityX, float velocityY) {
+        //a running transition snaps the view once done
+        if (null == mSpringX || null == mSpringY || isExpanded() || mTransformRunning) return;
+
+        float centerX = getX() + getWidth() / 2f + velocityX * FLING_PROJECTION;
+        float centerY = getY() + getHeight() / 2f + velocityY * FLING_PROJECTION;
+        Point corner = CornerHelper.getCornerPosition(this, windowManager, getContext(), centerX, centerY);
+
+        animate().cancel();
+        if (!QualityController.instance.isAnimationEnabled()) {
+            cancelSnap();
+            setX(corner.x);
+            setY(corner.y);
+            return;
+        }
+
+        mSpringX.setStartVelocity(velocityX);
+        mSpringY.setStartVelocity(velocityY);
+        mSpringX.animateToFinalPosition(corner.x);
+        mSpringY.animateToFinalPosition(corner.y);
+    }
+
+    private void cancelSnap() {
+        if (null != mSpringX) mSpringX.cancel();
+        if (null != mSpringY) mSpringY.cancel();
+    }
+
     /**
      * Toggles view's size to full screen or default size.
      */
@@ -265,17 +367,58 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
     protected void expandView() {
         action_button.setVisibility(View.VISIBLE);
         ViewGroup view = (ViewGroup) getParent();
-        if (view != null)
-            animationHandler.expand(1000, view.getWidth(), view.getHeight());
+        if (view != null) {
+            if (useTransformTransitions()) {
+                animationHandler.transform(0, 0, view.getWidth(), view.getHeight());
+            } else {
+                animationHandler.expand(1000, view.getWidth(), view.getHeight());
+            }
+        }
     }
 
     protected void minizeView() {
         if (!mRemainExpanded) {
             action_button.setVisibility(View.GONE);
-            animationHandler.collapse(1000, defaultWidth, defaultHeight);
+            if (useTransformTransitions()) {
+                animationHandler.transform(minimizedX(), minimizedY(), defaultWidth, defaultHeight);
+            } else {
+                animationHandler.collapse(1000, defaultWidth, defaultHeight);
+            }
         }
     }
 
+    private boolean useTransformTransitions() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) return false;
+        Overlay overlay = VoxeetToolkit.instance().getConferenceToolkit().Configuration.Overlay;
+        return overlay.transform_transitions;
+    }
+
+    private float minimizedX() {
+        if (isOverlay() || null == getParent()) return dm.widthPixels - defaultWidth;
+        return dm.widthPixels - defaultWidth - ((ViewGroup) getParent()).getPaddingRight();
+    }
+
+    private float minimizedY() {
+        if (isOverlay()) return ScreenHelper.actionBar(getContext()) + ScreenHelper.getStatusBarHeight(getContext());
+        return null != getParent() ? ((ViewGroup) getParent()).getPaddingTop() : 0;
+    }
+
+    /**
+     * Change the size of the overlay and of its container, with a single layout pass
+     */
+    private void applySize(int width, int height) {
+        ViewGroup.LayoutParams params = getLayoutParams();
+        if (null == params) return;
+
+        params.width = width;
+        params.height = height;
+        if (null != container && null != container.getLayoutParams()) {
+            container.getLayoutParams().width = width;
+            container.getLayoutParams().height = height;
+        }
+        requestLayout();
+    }
+
     protected void toggleBackground() {
         int background = 0;
         Integer color = null;
@@ -371,6 +514,13 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
 
         private final long animatonDuration = 200;
 
+        /**
+         * The animations are skipped when the device can not afford them
+         */
+        private long duration(long duration) {
+            return QualityController.instance.getAnimationDuration(duration);
+        }
+
         /**
          * Animation when orientation changed to landscape.
          *
@@ -386,16 +536,16 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
             animate().x(0).y(0).setDuration(0).start();
 
             ValueAnimator height = ValueAnimator.ofInt(previousHeight, targetHeight);
-            height.setDuration(duration);
+            height.setDuration(duration(duration));
             height.addUpdateListener(HEIGHT_LISTENER);
 
             ValueAnimator width = ValueAnimator.ofInt(previousWidth, targetWidth);
-            width.setDuration(duration);
+            width.setDuration(duration(duration));
             width.addUpdateListener(WIDTH_LISTENER);
 
             AnimatorSet animatorSet = new AnimatorSet();
             animatorSet.addListener(ANIMATOR_LISTENER);
-            animatorSet.setDuration(animatonDuration);
+            animatorSet.setDuration(duration(animatonDuration));
             animatorSet.setInterpolator(new AccelerateInterpolator());
             animatorSet.playTogether(width, height);
             appendAndStart(animatorSet);
@@ -411,19 +561,19 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
         void expand(int duration, final int targetWidth, final int targetHeight) {
             cancelAnimations();
 
-            animate().x(0).y(0).setDuration(300).start();
+            animate().x(0).y(0).setDuration(duration(300)).start();
 
             ValueAnimator height = ValueAnimator.ofInt(getHeight(), targetHeight);
-            height.setDuration(duration);
+            height.setDuration(duration(duration));
             height.addUpdateListener(HEIGHT_LISTENER);
 
             ValueAnimator width = ValueAnimator.ofInt(getWidth(), targetWidth);
-            width.setDuration(duration);
+            width.setDuration(duration(duration));
             width.addUpdateListener(WIDTH_LISTENER);
 
             AnimatorSet animatorSet = new AnimatorSet();
             animatorSet.addListener(ANIMATOR_LISTENER);
-            animatorSet.setDuration(animatonDuration);
+            animatorSet.setDuration(duration(animatonDuration));
             animatorSet.setInterpolator(new AccelerateInterpolator());
             animatorSet.playTogether(width, height);
             appendAndStart(animatorSet);
@@ -440,29 +590,89 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
             cancelAnimations();
 
             if (isOverlay()) {
-                animate().x(dm.widthPixels - defaultWidth).y(ScreenHelper.actionBar(getContext()) + ScreenHelper.getStatusBarHeight(getContext())).setDuration(300).start();
+                animate().x(dm.widthPixels - defaultWidth).y(ScreenHelper.actionBar(getContext()) + ScreenHelper.getStatusBarHeight(getContext())).setDuration(duration(300)).start();
             } else if (getParent() != null) {
                 ViewGroup view = (ViewGroup) getParent();
-                animate().x(dm.widthPixels - defaultWidth - view.getPaddingRight()).y(view.getPaddingTop()).setDuration(200).start();
+                animate().x(dm.widthPixels - defaultWidth - view.getPaddingRight()).y(view.getPaddingTop()).setDuration(duration(200)).start();
             }
 
             ValueAnimator height = ValueAnimator.ofInt(getHeight(), targetHeight);
-            height.setDuration(duration);
+            height.setDuration(duration(duration));
             height.addUpdateListener(HEIGHT_LISTENER);
 
             ValueAnimator width = ValueAnimator.ofInt(getWidth(), targetWidth);
-            width.setDuration(duration);
+            width.setDuration(duration(duration));
             width.addUpdateListener(WIDTH_LISTENER);
 
             AnimatorSet animatorSet = new AnimatorSet();
             animatorSet.addListener(ANIMATOR_LISTENER);
-            animatorSet.setDuration(animatonDuration);
+            animatorSet.setDuration(duration(animatonDuration));
             animatorSet.setInterpolator(new AccelerateInterpolator());
             animatorSet.playTogether(width, height);
 
             appendAndStart(animatorSet);
         }
 
+        /**
+         * Move and resize the view through its scale and translation on a hardware layer, the layout is only changed
+         * once the target is reached
+         *
+         * @param targetX      the target position
+         * @param targetY      the target position
+         * @param targetWidth  the target width
+         * @param targetHeight the target height
+         */
+        void transform(float targetX, float targetY, final int targetWidth, final int targetHeight) {
+            cancelAnimations();
+
+            int width = getWidth();
+            int height = getHeight();
+            if (width <= 0 || height <= 0) {
+                //not laid out yet, nothing to animate from
+                applySize(targetWidth, targetHeight);
+                setX(targetX);
+                setY(targetY);
+                ANIMATOR_LISTENER.onAnimationEnd(null);
+                return;
+            }
+
+            //scaling from the top left corner keeps the position given by x and y
+            setPivotX(0);
+            setPivotY(0);
+
+            mTransformRunning = true;
+            animate().x(targetX).y(targetY)
+                    .scaleX(targetWidth / (float) width)
+                    .scaleY(targetHeight / (float) height)
+                    .setDuration(duration(animatonDuration))
+                    .setInterpolator(new AccelerateInterpolator())
+                    .withLayer()
+                    .setListener(new AnimatorListenerAdapter() {
+                        private boolean cancelled;
+
+                        @Override
+                        public void onAnimationCancel(Animator animation) {
+                            cancelled = true;
+                        }
+
+                        @Override
+                        public void onAnimationEnd(Animator animation) {
+                            //the listener must not be called back by the next animations of the view
+                            animate().setListener(null);
+                            mTransformRunning = false;
+                            if (cancelled) return;
+
+                            long begin = UXKitMetrics.instance.begin();
+                            setScaleX(1);
+                            setScaleY(1);
+                            applySize(targetWidth, targetHeight);
+                            UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_OVERLAY_ANIMATION, begin);
+
+                            ANIMATOR_LISTENER.onAnimationEnd(animation);
+                        }
+                    })
+                    .start();
+        }
     }
 
     protected IExpandableViewProviderListener getExpandableViewProviderListener() {
@@ -484,6 +694,7 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
     private ValueAnimator.AnimatorUpdateListener HEIGHT_LISTENER = new ValueAnimator.AnimatorUpdateListener() {
         @Override
         public void onAnimationUpdate(ValueAnimator animation) {
+            long begin = UXKitMetrics.instance.begin();
             ViewGroup.LayoutParams params = getLayoutParams();
             if (null != params) {
                 int value = (int) animation.getAnimatedValue();
@@ -493,14 +704,15 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
                 }
 
                 requestLayout();
-                Log.d(TAG, "onAnimationUpdate: height " + value);
             }
+            UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_OVERLAY_ANIMATION, begin);
         }
     };
 
     private ValueAnimator.AnimatorUpdateListener WIDTH_LISTENER = new ValueAnimator.AnimatorUpdateListener() {
         @Override
         public void onAnimationUpdate(ValueAnimator animation) {
+            long begin = UXKitMetrics.instance.begin();
             int value = (int) animation.getAnimatedValue();
             ViewGroup.LayoutParams params = getLayoutParams();
             if (null != params) {
@@ -510,8 +722,8 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
                 }
 
                 requestLayout();
-                Log.d(TAG, "onAnimationUpdate: width " + value);
             }
+            UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_OVERLAY_ANIMATION, begin);
         }
     };
 
@@ -525,7 +737,7 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
             onViewToggled();
 
             if (!isExpanded()) {
-                CornerHelper.sendToCorner(AbstractVoxeetOverlayView.this, windowManager, getContext());
+                post(() -> snapToCorner(0, 0));
             } else {
                 animate().x(0).y(0).setDuration(0).start();
             }
@@ -551,6 +763,14 @@ public abstract class AbstractVoxeetOverlayView extends AbstractVoxeetExpandable
      * note that it is not done to deal with non-ui thread calls
      */
     private void cancelAnimations() {
+        cancelSnap();
+
+        if (mTransformRunning) {
+            //keep the size reached so far, the next transition starts from it
+            animate().cancel();
+            mTransformRunning = false;
+        }
+
         try {
             for (AnimatorSet animator : mCurrentAnimations) {
                 if (animator.isStarted() && animator.isRunning()) {
@@ -6,8 +6,6 @@ import android.support.annotation.Nullable;
 import com.voxeet.sdk.utils.Annotate;
 import com.voxeet.uxkit.presentation.provider.AbstractMediaPlayerProvider;
 
-import java.util.concurrent.CopyOnWriteArrayList;
-
 /**
  * The purpose of this class is to provide a static way to register instance of MediaPlayerProvider when a VideoPresentation is started for the following (by default provided when using our direct optionnal dependencies) :
  * - api (':toolkit-exoplayer-support') to support ExoPlayer for mp4 urls
@@ -16,7 +14,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 @Annotate
 public class MediaPlayerProviderController {
 
-    private final static CopyOnWriteArrayList<AbstractMediaPlayerProvider> MEDIA_PLAYER_PROVIDERS = new CopyOnWriteArrayList<>();
+    private final static ProviderResolver<AbstractMediaPlayerProvider> MEDIA_PLAYER_PROVIDERS = new ProviderResolver<>(AbstractMediaPlayerProvider::isUrlCompatible);
 
     private MediaPlayerProviderController() {
 
@@ -35,7 +33,7 @@ public class MediaPlayerProviderController {
      * @param mediaPlayerProvider
      */
     public static void register(@NonNull AbstractMediaPlayerProvider mediaPlayerProvider) {
-        MEDIA_PLAYER_PROVIDERS.add(mediaPlayerProvider);
+        MEDIA_PLAYER_PROVIDERS.register(mediaPlayerProvider);
     }
 
     /**
@@ -52,10 +50,6 @@ public class MediaPlayerProviderController {
      */
     @Nullable
     public static AbstractMediaPlayerProvider getCompatibleMediaPlayerProvider(@NonNull String url) {
-        for (AbstractMediaPlayerProvider provider : MEDIA_PLAYER_PROVIDERS) {
-            if (provider.isUrlCompatible(url)) return provider;
-        }
-
-        return null;
+        return MEDIA_PLAYER_PROVIDERS.resolve(url);
     }
 }
@@ -0,0 +1,56 @@
+package com.voxeet.uxkit.presentation.controller;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ordered registry of providers resolving the first one compatible with an url
+ *
+ * @param <PROVIDER> the type of the providers
+ */
+public final class ProviderResolver<PROVIDER> {
+
+    /**
+     * Compatibility check of a provider with an url
+     *
+     * @param <PROVIDER> the type of the providers
+     */
+    public interface Matcher<PROVIDER> {
+        boolean isCompatible(@NonNull PROVIDER provider, @NonNull String url);
+    }
+
+    @NonNull
+    private final CopyOnWriteArrayList<PROVIDER> providers = new CopyOnWriteArrayList<>();
+
+    @NonNull
+    private final Matcher<PROVIDER> matcher;
+
+    public ProviderResolver(@NonNull Matcher<PROVIDER> matcher) {
+        this.matcher = matcher;
+    }
+
+    /**
+     * Register a provider, the providers are checked in their registration order
+     *
+     * @param provider the provider
+     */
+    public void register(@NonNull PROVIDER provider) {
+        providers.add(provider);
+    }
+
+    /**
+     * Get the first registered provider compatible with an url
+     *
+     * @param url the url
+     * @return the provider or null if none is compatible
+     */
+    @Nullable
+    public PROVIDER resolve(@NonNull String url) {
+        for (PROVIDER provider : providers) {
+            if (matcher.isCompatible(provider, url)) return provider;
+        }
+        return null;
+    }
+}
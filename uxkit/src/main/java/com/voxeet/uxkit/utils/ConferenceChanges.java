@@ -0,0 +1,137 @@
+package com.voxeet.uxkit.utils;
+
+import android.support.annotation.NonNull;
+
+import com.voxeet.android.media.MediaStream;
+import com.voxeet.sdk.models.Conference;
+import com.voxeet.sdk.models.Participant;
+import com.voxeet.uxkit.implementation.IVoxeetView;
+import com.voxeet.uxkit.utils.participants.ChangeBatch;
+
+import java.util.List;
+
+/**
+ * Aggregated participant and stream changes of a conference received during a single coalescing window
+ * <p>
+ * Changes are merged per participant by a ChangeBatch : the latest participant instance is kept, an update following an
+ * add is folded into the add when replayed but both flags are kept, and the operations on a given stream are reduced to
+ * the last meaningful one (an added then removed stream disappears from the batch).
+ */
+public final class ConferenceChanges {
+
+    public final static int ADDED = ChangeBatch.ADDED;
+
+    public final static int UPDATED = ChangeBatch.UPDATED;
+
+    public final static int STREAM_ADDED = ChangeBatch.STREAM_ADDED;
+
+    public final static int STREAM_UPDATED = ChangeBatch.STREAM_UPDATED;
+
+    public final static int STREAM_REMOVED = ChangeBatch.STREAM_REMOVED;
+
+    @NonNull
+    private final Conference conference;
+
+    @NonNull
+    private final ChangeBatch<Participant, MediaStream> batch = new ChangeBatch<>();
+
+    ConferenceChanges(@NonNull Conference conference) {
+        this.conference = conference;
+    }
+
+    /**
+     * Get the conference the changes belong to
+     *
+     * @return the conference
+     */
+    @NonNull
+    public Conference getConference() {
+        return conference;
+    }
+
+    /**
+     * Get the changed participants in the order they were first changed
+     *
+     * @return the list of entries
+     */
+    @NonNull
+    public List<ChangeBatch.Entry<Participant, MediaStream>> getEntries() {
+        return batch.getEntries();
+    }
+
+    /**
+     * Get the union of the changes of every participant
+     *
+     * @return the combination of ADDED, UPDATED and STREAM_* flags
+     */
+    public int getFlags() {
+        return batch.getFlags();
+    }
+
+    /**
+     * Check if any participant has the given change
+     *
+     * @param flag one of the flags of this class
+     * @return true if present
+     */
+    public boolean has(int flag) {
+        return batch.has(flag);
+    }
+
+    /**
+     * Get the number of raw events merged into this batch
+     *
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return batch.getEventCount();
+    }
+
+    public boolean isEmpty() {
+        return batch.isEmpty();
+    }
+
+    /**
+     * Call the per event callbacks of a view with the merged changes
+     *
+     * @param view the view to call
+     */
+    public void replay(@NonNull IVoxeetView view) {
+        for (ChangeBatch.Entry<Participant, MediaStream> entry : batch.getEntries()) {
+            Participant participant = entry.getParticipant();
+
+            if (entry.isAdded()) view.onUserAddedEvent(conference, participant);
+            else if (entry.isUpdated()) view.onUserUpdatedEvent(conference, participant);
+
+            for (ChangeBatch.StreamChange<MediaStream> change : entry.getStreams()) {
+                switch (change.getType()) {
+                    case STREAM_ADDED:
+                        view.onStreamAddedEvent(conference, participant, change.getStream());
+                        break;
+                    case STREAM_UPDATED:
+                        view.onStreamUpdatedEvent(conference, participant, change.getStream());
+                        break;
+                    case STREAM_REMOVED:
+                        view.onStreamRemovedEvent(conference, participant, change.getStream());
+                        break;
+                    default:
+                }
+            }
+        }
+    }
+
+    void participantAdded(@NonNull Participant participant) {
+        String id = participant.getId();
+        if (null != id) batch.participantAdded(id, participant);
+    }
+
+    void participantUpdated(@NonNull Participant participant) {
+        String id = participant.getId();
+        if (null != id) batch.participantUpdated(id, participant);
+    }
+
+    void stream(int type, @NonNull Participant participant, @NonNull MediaStream stream) {
+        String id = participant.getId();
+        if (null != id) batch.stream(type, id, participant, stream);
+    }
+}
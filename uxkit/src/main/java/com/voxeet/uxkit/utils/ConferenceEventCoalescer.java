@@ -0,0 +1,151 @@
+package com.voxeet.uxkit.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+import com.voxeet.android.media.MediaStream;
+import com.voxeet.sdk.models.Conference;
+import com.voxeet.sdk.models.Participant;
+
+/**
+ * Accumulate the participant and stream events of a conference and deliver them as a single ConferenceChanges
+ * <p>
+ * By default the pending changes are delivered on the next frame, so that a burst of events received while joining
+ * a large conference only refreshes the views once. A window in milliseconds can be set instead to group slower
+ * bursts together.
+ */
+@MainThread
+public class ConferenceEventCoalescer {
+
+    /**
+     * Deliver the changes once per frame
+     */
+    public final static long PER_FRAME = 0;
+
+    public interface Listener {
+        void onConferenceChanged(@NonNull ConferenceChanges changes);
+    }
+
+    @NonNull
+    private final Listener listener;
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> flush();
+
+    @NonNull
+    private final Runnable flushRunnable = this::flush;
+
+    @Nullable
+    private ConferenceChanges pending;
+
+    private long window = PER_FRAME;
+
+    private boolean scheduled;
+
+    public ConferenceEventCoalescer(@NonNull Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Set the duration during which the events are accumulated
+     *
+     * @param window the duration in milliseconds or PER_FRAME
+     */
+    public void setWindow(long window) {
+        this.window = Math.max(PER_FRAME, window);
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void onParticipantAdded(@NonNull Conference conference, @NonNull Participant participant) {
+        pending(conference).participantAdded(participant);
+        schedule();
+    }
+
+    public void onParticipantUpdated(@NonNull Conference conference, @NonNull Participant participant) {
+        pending(conference).participantUpdated(participant);
+        schedule();
+    }
+
+    public void onStreamAdded(@NonNull Conference conference, @NonNull Participant participant, @NonNull MediaStream stream) {
+        pending(conference).stream(ConferenceChanges.STREAM_ADDED, participant, stream);
+        schedule();
+    }
+
+    public void onStreamUpdated(@NonNull Conference conference, @NonNull Participant participant, @NonNull MediaStream stream) {
+        pending(conference).stream(ConferenceChanges.STREAM_UPDATED, participant, stream);
+        schedule();
+    }
+
+    public void onStreamRemoved(@NonNull Conference conference, @NonNull Participant participant, @NonNull MediaStream stream) {
+        pending(conference).stream(ConferenceChanges.STREAM_REMOVED, participant, stream);
+        schedule();
+    }
+
+    /**
+     * Deliver the pending changes right now
+     * <p>
+     * To call before dispatching any event which must be seen after the participant changes received so far
+     */
+    public void flush() {
+        cancel();
+
+        ConferenceChanges changes = pending;
+        pending = null;
+
+        if (null != changes && !changes.isEmpty()) {
+            listener.onConferenceChanged(changes);
+        }
+    }
+
+    /**
+     * Drop the pending changes
+     */
+    public void clear() {
+        cancel();
+        pending = null;
+    }
+
+    @NonNull
+    private ConferenceChanges pending(@NonNull Conference conference) {
+        //changes are never merged across conferences
+        if (null != pending && !same(pending.getConference(), conference)) flush();
+
+        if (null == pending) pending = new ConferenceChanges(conference);
+        return pending;
+    }
+
+    private static boolean same(@NonNull Conference left, @NonNull Conference right) {
+        if (left == right) return true;
+        String id = left.getId();
+        return null != id && id.equals(right.getId());
+    }
+
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+
+        if (PER_FRAME == window) {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        } else {
+            handler.postDelayed(flushRunnable, window);
+        }
+    }
+
+    private void cancel() {
+        if (!scheduled) return;
+        scheduled = false;
+
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        handler.removeCallbacks(flushRunnable);
+    }
+}
@@ -7,17 +7,12 @@ import android.view.View;
 import android.view.animation.AccelerateDecelerateInterpolator;
 
 import com.voxeet.VoxeetSDK;
-import com.voxeet.android.media.MediaStream;
-import com.voxeet.android.media.stream.MediaStreamType;
-import com.voxeet.sdk.media.camera.CameraContext;
-import com.voxeet.sdk.models.Participant;
 import com.voxeet.sdk.views.VideoView;
 import com.voxeet.uxkit.implementation.VoxeetConferenceView;
+import com.voxeet.uxkit.utils.quality.QualityController;
 
 import java.lang.ref.WeakReference;
 
-import javax.annotation.Nullable;
-
 public class ConferenceViewRendererControl {
 
     @NonNull
@@ -27,12 +22,12 @@ public class ConferenceViewRendererControl {
     private WeakReference<VideoView> selfVideoView;
 
     @NonNull
-    private WeakReference<VideoView> otherVideoView;
+    private WeakReference<VideoRendererPool> otherVideoViews;
 
     private View.OnClickListener selectedFromSelf = new View.OnClickListener() {
         @Override
         public void onClick(View v) {
-            VideoView view = otherVideoView.get();
+            VideoView view = getOtherVideoView();
 
             if (null != view) {
                 switchCamera();
@@ -49,110 +44,25 @@ public class ConferenceViewRendererControl {
     public ConferenceViewRendererControl(@NonNull VoxeetConferenceView parent,
                                          @NonNull VideoView selfVideoView,
                                          @NonNull VideoView otherVideoView) {
+        this(parent, selfVideoView, new VideoRendererPool(otherVideoView, 1));
+    }
+
+    public ConferenceViewRendererControl(@NonNull VoxeetConferenceView parent,
+                                         @NonNull VideoView selfVideoView,
+                                         @NonNull VideoRendererPool otherVideoViews) {
         this();
         this.parent = new WeakReference<>(parent);
         this.selfVideoView = new WeakReference<>(selfVideoView);
-        this.otherVideoView = new WeakReference<>(otherVideoView);
-    }
-
-    @Nullable
-    private VoxeetConferenceView getParent() {
-        return parent.get();
-    }
-
-    @NonNull
-    private VideoView getSelfVideoView() {
-        return selfVideoView.get();
+        this.otherVideoViews = new WeakReference<>(otherVideoViews);
     }
 
+    /**
+     * The view of the pool currently in front
+     */
     @NonNull
     private VideoView getOtherVideoView() {
-        return otherVideoView.get();
-    }
-
-    public void attachStreamToSelected(@NonNull String peerId,
-                                       @NonNull MediaStream stream) {
-        VideoView selectedView = getOtherVideoView();
-
-        String ownUserId = VoxeetSDK.session().getParticipantId();
-        if (null == ownUserId) ownUserId = "";
-
-        if (ownUserId.equals(peerId)) {
-            attachStreamToSelf(stream);
-        } else if (selectedView.isAttached() && ownUserId.equals(selectedView.getPeerId())) {
-            attachStreamToSelf(stream);
-
-            if (!ownUserId.equals(peerId)) {
-                selectedView.setOnClickListener(null);
-                selectedView.setClickable(false);
-                selectedView.setMirror(false);
-                selectedView.unAttach();
-                selectedView.setVisibility(View.VISIBLE);
-                selectedView.attach(peerId, stream);
-            } else {
-                selectedView.unAttach();
-                selectedView.setVisibility(View.GONE);
-            }
-        } else {
-            selectedView.setOnClickListener(null);
-            selectedView.setClickable(false);
-            selectedView.setMirror(false);
-            selectedView.unAttach();
-            selectedView.setVisibility(View.VISIBLE);
-            selectedView.attach(peerId, stream);
-        }
-    }
-
-    public void detachStreamFromSelected() {
-        VideoView selectedView = getOtherVideoView();
-        VideoView selfVideoView = getSelfVideoView();
-
-        String ownUserId = VoxeetSDK.session().getParticipantId();
-        Participant user = VoxeetSDK.conference().findParticipantById(ownUserId);
-
-        selectedView.unAttach();
-
-        MediaStream stream = null != user ? user.streamsHandler().getFirst(MediaStreamType.Camera) : null;
-
-        if (!ToolkitUtils.hasParticipants() && null != stream && stream.videoTracks().size() > 0) {
-            attachStreamToSelf(stream);
-        } else {
-            selectedView.setVisibility(View.GONE);
-            getParent().showSpeakerView();
-        }
-    }
-
-    public void attachStreamToSelf(@android.support.annotation.Nullable MediaStream stream) {
-        VideoView selectedView = getOtherVideoView();
-        VideoView selfView = getSelfVideoView();
-
-        CameraContext provider = VoxeetSDK.mediaDevice().getCameraContext();
-
-        if (null != stream && stream.videoTracks().size() > 0) {
-            String ownUserId = VoxeetSDK.session().getParticipantId();
-            if (!ToolkitUtils.hasParticipants()) {
-                selfView.unAttach();
-                selfView.setVisibility(View.GONE);
-
-                selectedView.setVideoFill();
-                selectedView.setMirror(provider.isDefaultFrontFacing());
-                selectedView.setVisibility(View.VISIBLE);
-                selectedView.attach(ownUserId, stream);
-                setClickForSelectedIfNecessary();
-                getParent().hideSpeakerView();
-            } else {
-                if (selectedView.isAttached() && ownUserId.equals(selectedView.getPeerId())) {
-                    selectedView.setOnClickListener(null);
-                    selectedView.setClickable(false);
-                    selectedView.unAttach();
-                    selectedView.setVisibility(View.GONE);
-                    getParent().showSpeakerView();
-                }
-                selfView.setMirror(provider.isDefaultFrontFacing());
-                selfView.attach(VoxeetSDK.session().getParticipantId(), stream);
-                selfView.setVisibility(View.VISIBLE);
-            }
-        }
+        VideoRendererPool pool = otherVideoViews.get();
+        return null != pool ? pool.getDisplayed() : null;
     }
 
     private void setClickForSelectedIfNecessary() {
@@ -168,31 +78,12 @@ public class ConferenceViewRendererControl {
         }
     }
 
-    public void detachStreamFromSelf() {
-        VideoView selectedView = getOtherVideoView();
-        VideoView selfView = getSelfVideoView();
-
-        if (selfView.isAttached()) {
-            selfView.unAttach();
-            selfView.setVisibility(View.GONE);
-        }
-
-        String ownUserId = VoxeetSDK.session().getParticipantId();
-        if (selectedView.isAttached() && ownUserId.equals(selectedView.getPeerId())) {
-            selectedView.setOnClickListener(null);
-            selectedView.setClickable(false);
-            selectedView.unAttach();
-            selectedView.setVisibility(View.GONE);
-            getParent().showSpeakerView();
-        }
-    }
-
     public void switchCamera() {
         String ownUserId = VoxeetSDK.session().getParticipantId();
         if (null == ownUserId) ownUserId = "";
 
         VideoView self = selfVideoView.get();
-        VideoView other = otherVideoView.get();
+        VideoView other = getOtherVideoView();
 
         VideoView finalVideoView = null;
 
@@ -215,37 +106,19 @@ public class ConferenceViewRendererControl {
             animationGrow.setInterpolator(new AccelerateDecelerateInterpolator());
 
             AnimatorSet animatorSet = new AnimatorSet();
-            animatorSet.setDuration(450).setStartDelay(450);
+            long duration = QualityController.instance.getAnimationDuration(450);
+            animatorSet.setDuration(duration).setStartDelay(duration);
             animatorSet.playTogether(animationFlip, animationGrow);
             animatorSet.start();
         }
 
         VoxeetSDK.mediaDevice().switchCamera()
                 .then(aBoolean -> {
-                    CameraContext provider = VoxeetSDK.mediaDevice().getCameraContext();
-                    updateMirror(provider.isDefaultFrontFacing());
+                    //the mirror is applied by the reconciliation of the streams on CameraSwitchSuccessEvent
                 })
                 .error(Throwable::printStackTrace);
     }
 
-    public void updateMirror(boolean isFrontCamera) {
-        String ownUserId = VoxeetSDK.session().getParticipantId();
-        VideoView selectedView = getOtherVideoView();
-        VideoView selfView = getSelfVideoView();
-
-        if (null != ownUserId) {
-            if (null != selectedView && ownUserId.equals(selectedView.getPeerId())) {
-                //only mirror the view in case of camera stream
-                MediaStreamType type = selectedView.current();
-                if (MediaStreamType.Camera.equals(type)) {
-                    selectedView.setMirror(isFrontCamera);
-                }
-            } else if (null != selfView && ownUserId.equals(selfView.getPeerId())) {
-                selfView.setMirror(isFrontCamera);
-            }
-        }
-    }
-
     public void enableClick(boolean state) {
         clickEnabled = state;
 
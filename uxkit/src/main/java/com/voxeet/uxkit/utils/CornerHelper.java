@@ -2,14 +2,20 @@ package com.voxeet.uxkit.utils;
 
 import android.content.Context;
 import android.graphics.Point;
+import android.graphics.Rect;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.support.annotation.NonNull;
 import android.view.Display;
+import android.view.DisplayCutout;
+import android.view.WindowInsets;
 import android.view.WindowManager;
 
 import com.voxeet.sdk.utils.ScreenHelper;
 import com.voxeet.uxkit.R;
 import com.voxeet.uxkit.implementation.VoxeetView;
+import com.voxeet.uxkit.utils.quality.QualityController;
 
 public class CornerHelper {
 
@@ -28,8 +34,27 @@ public class CornerHelper {
         return point;
     }
 
-    private static Corner getClosestCorner(VoxeetView view, WindowManager windowManager, Context context) {
-        Point center = getCenterPosition(view);
+    /**
+     * Get the insets of the screen the overlay must not cover : the status bar and the display cutouts
+     */
+    @NonNull
+    private static Rect getSafeInsets(VoxeetView view, Context context) {
+        Rect insets = new Rect(0, ScreenHelper.getStatusBarHeight(context), 0, 0);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            WindowInsets windowInsets = view.getRootWindowInsets();
+            DisplayCutout cutout = null != windowInsets ? windowInsets.getDisplayCutout() : null;
+            if (null != cutout) {
+                insets.left = cutout.getSafeInsetLeft();
+                insets.top = Math.max(insets.top, cutout.getSafeInsetTop());
+                insets.right = cutout.getSafeInsetRight();
+                insets.bottom = cutout.getSafeInsetBottom();
+            }
+        }
+        return insets;
+    }
+
+    private static Corner getClosestCorner(VoxeetView view, WindowManager windowManager, Context context, Point center) {
         Display display = windowManager.getDefaultDisplay();
         int statusHeight = ScreenHelper.getStatusBarHeight(context);
 
@@ -62,26 +87,47 @@ public class CornerHelper {
 
     private static Point getFinalPositionForCorner(VoxeetView view, WindowManager windowManager, Context context, Corner corner) {
         Display display = windowManager.getDefaultDisplay();
-        int statusHeight = ScreenHelper.getStatusBarHeight(context);
+        Rect insets = getSafeInsets(view, context);
+
+        int left = insets.left + mCornerMargin;
+        int top = insets.top + mCornerMargin;
+        int right = display.getWidth() - insets.right - view.getWidth() - mCornerMargin;
+        int bottom = display.getHeight() - insets.bottom - view.getHeight() - mCornerMargin;
 
         switch (corner.getType()) {
             case TopRight:
-                return new Point(display.getWidth() - view.getWidth() - mCornerMargin, statusHeight + mCornerMargin);
+                return new Point(right, top);
             case BottomLeft:
-                return new Point(mCornerMargin, display.getHeight() - view.getHeight() - mCornerMargin);
+                return new Point(left, bottom);
             case BottomRight:
-                return new Point(display.getWidth() - view.getWidth() - mCornerMargin, display.getHeight() - view.getHeight() - mCornerMargin);
+                return new Point(right, bottom);
             case TopLeft:
             default:
-                return new Point(mCornerMargin, statusHeight + mCornerMargin);
+                return new Point(left, top);
         }
     }
 
+    /**
+     * Get the position of the safe corner the closest to a given center of the view
+     *
+     * @param view          the view to move
+     * @param windowManager the window manager of the view
+     * @param context       the context of the view
+     * @param centerX       the center of the view, for instance where it is heading once flung
+     * @param centerY       the center of the view, for instance where it is heading once flung
+     * @return the position to give to the view
+     */
+    @NonNull
+    public static Point getCornerPosition(VoxeetView view, WindowManager windowManager, Context context, float centerX, float centerY) {
+        Corner corner = getClosestCorner(view, windowManager, context, new Point((int) centerX, (int) centerY));
+        return getFinalPositionForCorner(view, windowManager, context, corner);
+    }
+
     public static void sendToCorner(final VoxeetView view, final WindowManager windowManager, final Context context) {
         mHandler.post(() -> {
-            Corner corner = CornerHelper.getClosestCorner(view, windowManager, context);
+            Corner corner = CornerHelper.getClosestCorner(view, windowManager, context, getCenterPosition(view));
             Point closest_corner = CornerHelper.getFinalPositionForCorner(view, windowManager, context, corner);
-            view.animate().x(closest_corner.x).y(closest_corner.y).setDuration(200).start();
+            view.animate().x(closest_corner.x).y(closest_corner.y).setDuration(QualityController.instance.getAnimationDuration(200)).start();
         });
     }
 }
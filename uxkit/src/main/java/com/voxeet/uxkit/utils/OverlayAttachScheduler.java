@@ -0,0 +1,145 @@
+package com.voxeet.uxkit.utils;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.voxeet.uxkit.providers.rootview.AbstractRootViewProvider;
+
+/**
+ * Run the attach of the overlay as soon as the current activity can host it
+ * <p>
+ * The activity is ready once it is resumed and its window has been laid out. When the provider does not report the
+ * activity as resumed, the attach is still made after a fallback delay, as long as the activity is not finishing.
+ * Scheduling again replaces the pending attach and cancel drops it, so that a removal racing with it wins.
+ */
+@MainThread
+public class OverlayAttachScheduler {
+
+    /**
+     * Delay after which the attach is made even if the activity was not reported as resumed
+     */
+    public final static long FALLBACK_DELAY = 1000;
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final Runnable check = this::check;
+
+    @NonNull
+    private final Runnable fallback = this::fallback;
+
+    @NonNull
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener = this::onLayout;
+
+    @Nullable
+    private AbstractRootViewProvider provider;
+
+    @Nullable
+    private Runnable pending;
+
+    @Nullable
+    private View observed;
+
+    private long fallbackDelay = FALLBACK_DELAY;
+
+    /**
+     * Change the delay after which the attach is made even if the activity was not reported as resumed
+     *
+     * @param delay the delay in milliseconds
+     */
+    public void setFallbackDelay(long delay) {
+        fallbackDelay = Math.max(0, delay);
+    }
+
+    /**
+     * Schedule an attach, replacing the pending one if any
+     *
+     * @param provider the provider of the activity and root view
+     * @param attach   the attach to run
+     */
+    public void schedule(@NonNull AbstractRootViewProvider provider, @NonNull Runnable attach) {
+        cancel();
+
+        this.provider = provider;
+        pending = attach;
+
+        handler.post(check);
+        handler.postDelayed(fallback, fallbackDelay);
+    }
+
+    /**
+     * Drop the pending attach if any
+     */
+    public void cancel() {
+        pending = null;
+        provider = null;
+        handler.removeCallbacks(check);
+        handler.removeCallbacks(fallback);
+        unobserve();
+    }
+
+    public boolean isPending() {
+        return null != pending;
+    }
+
+    private void check() {
+        AbstractRootViewProvider current = provider;
+        if (null == pending || null == current) return;
+
+        Activity activity = current.getCurrentActivity();
+        if (null == activity || activity.isFinishing() || !current.isCurrentActivityResumed()) return;
+
+        View decor = null != activity.getWindow() ? activity.getWindow().getDecorView() : null;
+        if (null != decor && !ViewCompat.isLaidOut(decor)) {
+            observe(decor);
+            return;
+        }
+
+        run();
+    }
+
+    private void fallback() {
+        AbstractRootViewProvider current = provider;
+        if (null == pending || null == current) return;
+
+        Activity activity = current.getCurrentActivity();
+        if (null != activity && !activity.isFinishing()) run();
+    }
+
+    private void onLayout() {
+        unobserve();
+        check();
+    }
+
+    private void run() {
+        Runnable attach = pending;
+        cancel();
+
+        if (null != attach) attach.run();
+    }
+
+    private void observe(@NonNull View view) {
+        if (observed == view) return;
+        unobserve();
+
+        observed = view;
+        view.getViewTreeObserver().addOnGlobalLayoutListener(layoutListener);
+    }
+
+    private void unobserve() {
+        View view = observed;
+        observed = null;
+        if (null == view) return;
+
+        ViewTreeObserver observer = view.getViewTreeObserver();
+        if (observer.isAlive()) observer.removeOnGlobalLayoutListener(layoutListener);
+    }
+}
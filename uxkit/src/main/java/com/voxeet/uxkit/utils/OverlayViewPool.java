@@ -0,0 +1,146 @@
+package com.voxeet.uxkit.utils;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.LayoutInflater;
+
+import com.voxeet.uxkit.implementation.overlays.OverlayState;
+import com.voxeet.uxkit.implementation.overlays.abs.AbstractVoxeetOverlayView;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+
+/**
+ * Single slot pool holding an overlay created ahead of time
+ * <p>
+ * The overlay is created when the main thread is idle, on a MutableContextWrapper of the application which is switched
+ * to the activity when the overlay is taken. Showing the overlay then only requires an attach.
+ */
+@MainThread
+public class OverlayViewPool {
+
+    /**
+     * Creation of the overlay, with the providers of the controller
+     */
+    public interface Factory {
+        @NonNull
+        AbstractVoxeetOverlayView create(@NonNull Context context, @NonNull OverlayState overlayState);
+    }
+
+    /**
+     * Wrapper giving its own inflater so that every view of the overlay gets the wrapper and follows the switch
+     */
+    private static class OverlayContext extends MutableContextWrapper {
+
+        @Nullable
+        private LayoutInflater inflater;
+
+        private OverlayContext(@NonNull Context base) {
+            super(base);
+        }
+
+        @Override
+        public void setBaseContext(Context base) {
+            super.setBaseContext(base);
+            inflater = null;
+        }
+
+        @Override
+        public Object getSystemService(String name) {
+            if (!LAYOUT_INFLATER_SERVICE.equals(name)) return super.getSystemService(name);
+
+            if (null == inflater) inflater = LayoutInflater.from(getBaseContext()).cloneInContext(this);
+            return inflater;
+        }
+    }
+
+    @Nullable
+    private AbstractVoxeetOverlayView view;
+
+    @Nullable
+    private MutableContextWrapper context;
+
+    @Nullable
+    private OverlayState state;
+
+    @Nullable
+    private Object key;
+
+    @Nullable
+    private MessageQueue.IdleHandler pending;
+
+    /**
+     * Create an overlay the next time the main thread is idle, unless a matching one is already pooled
+     *
+     * @param application  the application context
+     * @param key          identifies the providers used by the factory, a pooled overlay is only given back for it
+     * @param overlayState the state the overlay is created in
+     * @param factory      the creation of the overlay
+     */
+    public void prepare(@NonNull Context application, @NonNull Object key, @NonNull OverlayState overlayState,
+                        @NonNull Factory factory) {
+        if (null != view && key.equals(this.key) && overlayState.equals(state)) return;
+
+        clear();
+        this.key = key;
+        state = overlayState;
+
+        pending = () -> {
+            pending = null;
+            OverlayContext wrapper = new OverlayContext(application.getApplicationContext());
+
+            long begin = UXKitMetrics.instance.begin();
+            try {
+                view = factory.create(wrapper, overlayState);
+                context = wrapper;
+            } catch (Exception e) {
+                e.printStackTrace();
+                clear();
+            }
+            UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_OVERLAY_PREPARE, begin);
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(pending);
+    }
+
+    /**
+     * Take the pooled overlay if it was created for the same providers and state
+     *
+     * @param activity     the activity which will host the overlay
+     * @param key          identifies the providers the overlay must have been created with
+     * @param overlayState the expected state
+     * @return the overlay or null if none matches, the pool is empty afterwards
+     */
+    @Nullable
+    public AbstractVoxeetOverlayView take(@NonNull Activity activity, @NonNull Object key, @NonNull OverlayState overlayState) {
+        AbstractVoxeetOverlayView pooled = view;
+        MutableContextWrapper wrapper = context;
+        boolean matches = null != pooled && null != wrapper && key.equals(this.key) && overlayState.equals(state);
+        clear();
+
+        if (!matches) return null;
+
+        wrapper.setBaseContext(activity);
+        return pooled;
+    }
+
+    public boolean isPrepared() {
+        return null != view;
+    }
+
+    /**
+     * Drop the pooled overlay and the pending creation if any
+     */
+    public void clear() {
+        if (null != pending) Looper.myQueue().removeIdleHandler(pending);
+        pending = null;
+        view = null;
+        context = null;
+        state = null;
+        key = null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.voxeet.uxkit.utils;
+
+import android.support.annotation.AnyThread;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.voxeet.VoxeetSDK;
+import com.voxeet.android.media.MediaStream;
+import com.voxeet.android.media.stream.MediaStreamType;
+import com.voxeet.sdk.models.Conference;
+import com.voxeet.sdk.models.Participant;
+import com.voxeet.sdk.models.v1.ConferenceParticipantStatus;
+import com.voxeet.sdk.services.ConferenceService;
+import com.voxeet.sdk.services.conference.information.ConferenceInformation;
+import com.voxeet.uxkit.utils.participants.ParticipantIndex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Participants of the current conference shared by the UXKit views
+ * <p>
+ * Kept up to date by the conference controller from the participant and stream events, so that the views look the
+ * participants up without going through the list of the SDK. It is rebuilt from the SDK when the current conference
+ * changes.
+ */
+@MainThread
+public final class ParticipantStore {
+
+    public final static ParticipantStore instance = new ParticipantStore();
+
+    @NonNull
+    private final ParticipantIndex<Participant> index = new ParticipantIndex<>();
+
+    @Nullable
+    private String conferenceId;
+
+    //participants published for the other threads, the list is never modified once published
+    @NonNull
+    private volatile List<Participant> snapshot = Collections.emptyList();
+
+    private ParticipantStore() {
+
+    }
+
+    /**
+     * Index a participant after one of its events
+     *
+     * @param conference  the conference of the event
+     * @param participant the participant added or updated, or whose streams changed
+     */
+    public void onParticipantChanged(@Nullable Conference conference, @Nullable Participant participant) {
+        if (null == conference || null == participant) return;
+
+        String id = conference.getId();
+        if (null == id || !id.equals(conferenceId)) {
+            sync(conference);
+        } else {
+            put(participant);
+            publish();
+        }
+    }
+
+    /**
+     * Index every participant of a conference, dropping the previous ones
+     *
+     * @param conference the conference
+     */
+    public void sync(@NonNull Conference conference) {
+        index.clear();
+        conferenceId = conference.getId();
+        for (Participant participant : conference.getParticipants()) put(participant);
+        publish();
+    }
+
+    public void clear() {
+        index.clear();
+        conferenceId = null;
+        publish();
+    }
+
+    /**
+     * Get the participants as of the last change received on the main thread
+     *
+     * @return an unmodifiable list, safe to iterate from any thread
+     */
+    @AnyThread
+    @NonNull
+    public List<Participant> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the index of the current conference
+     *
+     * @return the index, rebuilt first if the current conference changed
+     */
+    @NonNull
+    public ParticipantIndex<Participant> getIndex() {
+        ensureSynced();
+        index.setLocalId(VoxeetSDK.session().getParticipantId());
+        return index;
+    }
+
+    @Nullable
+    public Participant findParticipantById(@Nullable String id) {
+        if (null == id) return null;
+        return getIndex().get(id);
+    }
+
+    @NonNull
+    public List<Participant> getParticipants() {
+        return getIndex().getParticipants();
+    }
+
+    /**
+     * @return true if a participant other than the local one is in the conference
+     */
+    public boolean hasParticipants() {
+        return getIndex().hasRemoteParticipants();
+    }
+
+    private void ensureSynced() {
+        ConferenceService service = VoxeetSDK.conference();
+        ConferenceInformation information = null != service ? service.getCurrentConference() : null;
+        Conference conference = null != information ? information.getConference() : null;
+
+        if (null == conference) {
+            if (null != conferenceId || index.size() > 0) clear();
+        } else if (null == conferenceId || !conferenceId.equals(conference.getId())) {
+            sync(conference);
+        }
+    }
+
+    private void publish() {
+        snapshot = index.getParticipants();
+    }
+
+    private void put(@NonNull Participant participant) {
+        String id = participant.getId();
+        if (null == id) return;
+
+        ConferenceParticipantStatus status = participant.getStatus();
+        boolean present = ConferenceParticipantStatus.ON_AIR.equals(status)
+                || (ConferenceParticipantStatus.CONNECTING.equals(status) && participant.streams().size() > 0);
+
+        index.put(id, participant, status(status), present,
+                hasVideo(participant, MediaStreamType.Camera),
+                hasVideo(participant, MediaStreamType.ScreenShare));
+    }
+
+    private static int status(@Nullable ConferenceParticipantStatus status) {
+        if (null == status) return ParticipantIndex.STATUS_OTHER;
+
+        switch (status) {
+            case ON_AIR:
+                return ParticipantIndex.STATUS_ON_AIR;
+            case CONNECTING:
+                return ParticipantIndex.STATUS_CONNECTING;
+            case RESERVED:
+                return ParticipantIndex.STATUS_INVITED;
+            case LEFT:
+                return ParticipantIndex.STATUS_LEFT;
+            default:
+                return ParticipantIndex.STATUS_OTHER;
+        }
+    }
+
+    private static boolean hasVideo(@NonNull Participant participant, @NonNull MediaStreamType type) {
+        MediaStream stream = participant.streamsHandler().getFirst(type);
+        return null != stream && stream.videoTracks().size() > 0;
+    }
+}
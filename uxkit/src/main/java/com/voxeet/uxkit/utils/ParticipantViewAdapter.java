@@ -1,8 +1,12 @@
 package com.voxeet.uxkit.utils;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v7.recyclerview.extensions.AsyncListDiffer;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.util.Log;
@@ -10,28 +14,62 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.AlphaAnimation;
 
+import com.voxeet.android.media.MediaStream;
+import com.voxeet.android.media.stream.MediaStreamType;
 import com.voxeet.sdk.models.Participant;
 import com.voxeet.sdk.models.v1.ConferenceParticipantStatus;
 import com.voxeet.uxkit.R;
 import com.voxeet.uxkit.implementation.VoxeetParticipantView;
 import com.voxeet.uxkit.implementation.VoxeetParticipantsView;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+import com.voxeet.uxkit.utils.participants.ParticipantChange;
+import com.voxeet.uxkit.utils.participants.ParticipantItem;
+import com.voxeet.uxkit.utils.participants.ParticipantItems;
+import com.voxeet.uxkit.utils.quality.QualityController;
+import com.voxeet.uxkit.utils.streams.RendererBudget;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
+/**
+ * Adapter of the participants bar
+ * <p>
+ * Every update is turned into an immutable snapshot of ParticipantItem whose diff against the displayed one is computed
+ * on a background thread. Only the resulting insertions, moves, removals and changes are then notified.
+ */
 public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantViewAdapter.ViewHolder> {
 
     private final String TAG = VoxeetParticipantsView.class.getSimpleName();
 
-    @NonNull
-    private LinearLayoutManager layoutManager;
+    private final static DiffUtil.ItemCallback<ParticipantItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<ParticipantItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+            return oldItem.id.equals(newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+            return ParticipantChange.between(oldItem, newItem);
+        }
+    };
+
+    private final AsyncListDiffer<ParticipantItem> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
 
     private boolean namesEnabled = true;
 
-    private ArrayList<Participant> air = new ArrayList<>();
-    private ArrayList<Participant> inv = new ArrayList<>();
-    private ArrayList<Participant> left = new ArrayList<>();
-    private ArrayList<Participant> other = new ArrayList<>();
+    //last list of participants set and the lookup of the participants by id, for the list submitted and the one
+    //still displayed until the differ commits it
+    @NonNull
+    private List<Participant> participants = new ArrayList<>();
+    @NonNull
+    private HashMap<String, Participant> participantsById = new HashMap<>();
 
     private int avatarSize;
 
@@ -43,6 +81,26 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
 
     private int selectedUserColor;
 
+    @Nullable
+    private RendererBudget rendererBudget;
+
+    private boolean videoEnabled = true;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    //the budget is released while the RecyclerView lays out its children, the tiles are refreshed afterwards
+    private final RendererBudget.Listener rendererListener = new RendererBudget.Listener() {
+        @Override
+        public void onRendererGranted(@NonNull String key) {
+            handler.post(() -> notifyStreamChanged(key));
+        }
+
+        @Override
+        public void onRendererRevoked(@NonNull String key) {
+            handler.post(() -> notifyStreamChanged(key));
+        }
+    };
+
     private ParticipantViewAdapter() {
 
     }
@@ -50,21 +108,33 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
     /**
      * Instantiates a new Participant view adapter.
      *
-     * @param context the context
+     * @param layoutManager not used anymore
+     * @param context       the context
+     * @deprecated use ParticipantViewAdapter(Context)
      */
+    @Deprecated
     public ParticipantViewAdapter(@NonNull LinearLayoutManager layoutManager, @NonNull Context context) {
+        this(context);
+    }
+
+    /**
+     * Instantiates a new Participant view adapter.
+     *
+     * @param context the context
+     */
+    public ParticipantViewAdapter(@NonNull Context context) {
         this();
-        this.layoutManager = layoutManager;
         this.selectedUserColor = context.getResources().getColor(R.color.blue);
         this.namesEnabled = true;
 
         this.avatarSize = context.getResources().getDimensionPixelSize(R.dimen.meeting_list_avatar_double);
     }
 
+    /**
+     * Refresh the users previously set, to be called when their state changed
+     */
     public void updateUsers() {
-        sort();
-
-        refreshVisible();
+        submit();
     }
 
     /**
@@ -73,84 +143,62 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
      * @param users the list of user to populate the adapter
      */
     public void setUsers(List<Participant> users) {
-        //add all the new users
-        for (Participant participant : users) {
-            if (air.contains(participant) || inv.contains(participant) || left.contains(participant) || other.contains(participant)) {
-                //existing participant
-            } else {
-                addParticipant(participant);
-            }
-        }
-
-        //remove all the users in the list but not anymore known
-        updateArray(air, 0, p -> !users.contains(p));
-        updateArray(inv, air.size(), p -> !users.contains(p));
-        updateArray(left, air.size() + inv.size(), p -> !users.contains(p));
-        updateArray(other, air.size() + inv.size() + left.size(), p -> !users.contains(p));
-
-        //sort all the users not new and not removed
-        sort();
+        participants = null != users ? new ArrayList<>(users) : new ArrayList<>();
 
-        //refresh the visible users
-        refreshVisible();
+        submit();
     }
 
-    private boolean is(@Nullable Participant p, @NonNull ConferenceParticipantStatus s) {
-        return null != p && s.equals(p.getStatus());
-    }
+    /**
+     * Create a new snapshot of the participants and send it to the differ
+     */
+    private void submit() {
+        HashMap<String, Participant> byId = new HashMap<>();
+        List<ParticipantItem> items = new ArrayList<>(participants.size());
+
+        //the diff is computed in the background, the items displayed meanwhile must still find their participant
+        for (ParticipantItem item : differ.getCurrentList()) {
+            Participant displayed = participantsById.get(item.id);
+            if (null != displayed) byId.put(item.id, displayed);
+        }
 
-    private ArrayList<Participant> updateArray(@NonNull ArrayList<Participant> array, int delta, @NonNull Apply apply) {
-        Participant participant;
-        ArrayList<Participant> tmp = new ArrayList<>();
-        int index = 0;
-        while (index < array.size()) {
-            participant = array.get(index);
-            if (apply.is(participant)) {
-                tmp.add(participant);
-                array.remove(participant);
-                notifyItemRemoved(delta + index);
-            } else {
-                index++;
-            }
+        for (Participant participant : participants) {
+            if (null == participant || null == participant.getId()) continue;
+            byId.put(participant.getId(), participant);
+            items.add(toItem(participant));
         }
 
-        return tmp;
+        participantsById = byId;
+        differ.submitList(ParticipantItems.order(items));
     }
 
-    private void sort() {
-        ArrayList<Participant> to_readd = new ArrayList<>();
-
-        ArrayList<Participant> removed_from_air = updateArray(air, 0, p -> !p.isLocallyActive());
-        ArrayList<Participant> removed_from_inv = updateArray(inv, air.size(), p -> !is(p, ConferenceParticipantStatus.RESERVED));
-        ArrayList<Participant> removed_from_left = updateArray(left, air.size() + inv.size(), p -> !is(p, ConferenceParticipantStatus.LEFT));
-        ArrayList<Participant> removed_from_other = updateArray(other, other.size() + inv.size(), p -> p.isLocallyActive() || is(p, ConferenceParticipantStatus.LEFT) || is(p, ConferenceParticipantStatus.RESERVED));
-
-        to_readd.addAll(removed_from_air);
-        to_readd.addAll(removed_from_inv);
-        to_readd.addAll(removed_from_left);
-        to_readd.addAll(removed_from_other);
+    @NonNull
+    private ParticipantItem toItem(@NonNull Participant participant) {
+        String name = null;
+        String avatarUrl = null;
+        if (null != participant.getInfo()) {
+            name = participant.getInfo().getName();
+            avatarUrl = participant.getInfo().getAvatarUrl();
+        }
 
-        for (Participant participant : to_readd) {
-            addParticipant(participant);
+        int videoStreamKey = 0;
+        MediaStream stream = participant.streamsHandler().getFirst(MediaStreamType.Camera);
+        if (null != stream && stream.videoTracks().size() > 0) {
+            videoStreamKey = System.identityHashCode(stream);
         }
 
+        return new ParticipantItem(participant.getId(), status(participant), name, avatarUrl,
+                videoStreamKey, equalsToUser(selectedUserId, participant));
     }
 
+    private int status(@NonNull Participant participant) {
+        if (participant.isLocallyActive()) return ParticipantItem.STATUS_ON_AIR;
+        if (is(participant, ConferenceParticipantStatus.RESERVED)) return ParticipantItem.STATUS_INVITED;
+        if (is(participant, ConferenceParticipantStatus.LEFT)) return ParticipantItem.STATUS_LEFT;
+        return ParticipantItem.STATUS_OTHER;
+    }
 
-    private void addParticipant(@NonNull Participant participant) {
-        if (participant.isLocallyActive()) {
-            air.add(participant);
-            notifyItemInserted(air.size() - 1);
-        } else if (is(participant, ConferenceParticipantStatus.RESERVED)) {
-            inv.add(participant);
-            notifyItemInserted(inv.size() + air.size() - 1);
-        } else if (is(participant, ConferenceParticipantStatus.LEFT)) {
-            left.add(participant);
-            notifyItemInserted(left.size() + inv.size() + air.size() - 1);
-        } else {
-            notifyItemInserted(other.size() + left.size() + inv.size() + air.size() - 1);
-            other.add(participant);
-        }
+    private boolean is(@Nullable Participant p, @NonNull ConferenceParticipantStatus s) {
+        return null != p && s.equals(p.getStatus());
     }
 
     /**
@@ -159,13 +207,105 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
      * @param color the color
      */
     public void setSelectedUserColor(int color) {
+        if (selectedUserColor == color) return;
         selectedUserColor = color;
+        notifyItemRangeChanged(0, getItemCount(), ParticipantChange.of(ParticipantChange.SELECTION));
+    }
+
+    /**
+     * Cap the videos decoded at the same time by the displayed tiles, the tiles leaving the screen release their video
+     * right away
+     *
+     * @param rendererBudget the cap or null to attach the video of every tile
+     */
+    public void setRendererBudget(@Nullable RendererBudget rendererBudget) {
+        if (this.rendererBudget == rendererBudget) return;
+
+        if (null != this.rendererBudget) this.rendererBudget.setListener(null);
+        this.rendererBudget = rendererBudget;
+        if (null != rendererBudget) rendererBudget.setListener(rendererListener);
+
+        notifyItemRangeChanged(0, getItemCount(), ParticipantChange.of(ParticipantChange.STREAM));
+    }
+
+    /**
+     * Stop or resume the videos of every tile, the tiles display the avatars in the meantime
+     *
+     * @param enabled false to stop the videos
+     */
+    public void setVideoEnabled(boolean enabled) {
+        if (videoEnabled == enabled) return;
+        videoEnabled = enabled;
+
+        notifyItemRangeChanged(0, getItemCount(), ParticipantChange.of(ParticipantChange.STREAM));
+    }
+
+    private void notifyStreamChanged(@NonNull String participantId) {
+        List<ParticipantItem> items = differ.getCurrentList();
+        for (int i = 0; i < items.size(); i++) {
+            if (participantId.equals(items.get(i).id)) {
+                notifyItemChanged(i, ParticipantChange.of(ParticipantChange.STREAM));
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(@NonNull ViewHolder holder) {
+        super.onViewDetachedFromWindow(holder);
+        if (null != rendererBudget) holder.participantView.releaseVideo();
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        if (null != rendererBudget) holder.participantView.releaseVideo();
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        return new ViewHolder(new VoxeetParticipantView(parent.getContext()));
+        ViewHolder holder = new ViewHolder(new VoxeetParticipantView(parent.getContext()));
+
+        holder.itemView.setOnLongClickListener(view -> {
+            Participant user = getParticipant(holder.getAdapterPosition());
+            if (null != user && equalsToUser(selectedUserId, user)) {
+                selectedUserId = null;
+
+                if (listener != null)
+                    listener.onParticipantUnselected(user);
+                updateUsers();
+            }
+            return true;
+        });
+
+        holder.itemView.setOnClickListener(v -> {
+            ParticipantItem item = getItem(holder.getAdapterPosition());
+            Participant user = null != item ? participantsById.get(item.id) : null;
+            if (null == user) return;
+
+            if (!item.isOnAir()) {
+                Log.d(TAG, "onClick: click on an invalid user, we can't select hier");
+                return;
+            }
+
+            Log.d(TAG, "onClick: selecting the user " + user.getId());
+            if (!equalsToUser(selectedUserId, user)) {
+                selectedUserId = user.getId();
+
+                if (listener != null)
+                    listener.onParticipantSelected(user);
+            } else {
+                selectedUserId = null; //deselecting
+
+                if (listener != null)
+                    listener.onParticipantUnselected(user);
+            }
+
+            updateUsers();
+        });
+
+        return holder;
     }
 
     @Override
@@ -173,7 +313,43 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
         VoxeetParticipantView participantView = holder.participantView;
 
         participantView.setTag(holder);
-        manageParticipantView(participantView, holder);
+        manageParticipantView(participantView, holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        long begin = UXKitMetrics.instance.begin();
+        bind(holder, position, payloads);
+        UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_PARTICIPANT_BIND, begin);
+    }
+
+    private void bind(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        int changes = ParticipantChange.merge(payloads);
+        Participant user = getParticipant(position);
+        if (0 == changes || null == user) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        //only update the parts of the cell which changed
+        VoxeetParticipantView participantView = holder.participantView;
+        participantView.setParticipant(user);
+        participantView.setRendererBudget(rendererBudget);
+        participantView.setVideoEnabled(videoEnabled);
+
+        if (0 != (changes & ParticipantChange.NAME)) {
+            participantView.setShowName(namesEnabled);
+            participantView.refreshName();
+        }
+        if (0 != (changes & ParticipantChange.STATUS)) participantView.refreshStatus();
+        if (0 != (changes & ParticipantChange.STREAM)) participantView.refreshStream();
+        if (0 != (changes & ParticipantChange.AVATAR)) participantView.refreshAvatar();
+        if (0 != (changes & ParticipantChange.SELECTION)) {
+            participantView.setSelectedUserColor(selectedUserColor);
+            participantView.setSelected(equalsToUser(selectedUserId, user));
+        }
+
+        participantView.refreshSpeaking();
     }
 
     private boolean equalsToUser(@Nullable String selectedUserId, @Nullable Participant user) {
@@ -188,34 +364,33 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
      */
     private void setAnimation(@NonNull View viewToAnimate, int position) {
         if (position > lastPosition) { // If the bound view wasn't previously displayed on screen, it's animated
+            lastPosition = position;
+
+            long duration = QualityController.instance.getAnimationDuration(500);
+            if (duration <= 0) return;
+
             AlphaAnimation animation = new AlphaAnimation(0.2f, 1.0f);
-            animation.setDuration(500);
+            animation.setDuration(duration);
             animation.setFillAfter(true);
             viewToAnimate.startAnimation(animation);
-
-            lastPosition = position;
         }
     }
 
     @Nullable
-    private Participant getItem(int position) {
-        if (position < air.size()) return air.get(position);
-        position -= air.size();
-
-        if (position < inv.size()) return inv.get(position);
-        position -= inv.size();
-
-        if (position < left.size()) return left.get(position);
-        position -= left.size();
+    private ParticipantItem getItem(int position) {
+        List<ParticipantItem> items = differ.getCurrentList();
+        return position >= 0 && position < items.size() ? items.get(position) : null;
+    }
 
-        if (position < other.size())
-            return other.get(position);
-        return null;
+    @Nullable
+    private Participant getParticipant(int position) {
+        ParticipantItem item = getItem(position);
+        return null != item ? participantsById.get(item.id) : null;
     }
 
     @Override
     public int getItemCount() {
-        return air.size() + inv.size() + left.size() + other.size();
+        return differ.getCurrentList().size();
     }
 
     /**
@@ -231,11 +406,9 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
      * Clear participants.
      */
     public void clearParticipants() {
-        this.air.clear();
-        this.inv.clear();
-        this.left.clear();
-        this.other.clear();
-        notifyDataSetChanged();
+        participants = new ArrayList<>();
+        participantsById = new HashMap<>();
+        differ.submitList(null);
     }
 
     /**
@@ -244,40 +417,13 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
      * @param enabled the enabled
      */
     public void setNamesEnabled(boolean enabled) {
+        if (namesEnabled == enabled) return;
         namesEnabled = enabled;
+        notifyItemRangeChanged(0, getItemCount(), ParticipantChange.of(ParticipantChange.NAME));
     }
 
-    private void refreshVisible() {
-        int first = 0; //layoutManager.findFirstVisibleItemPosition();
-        int last = layoutManager.getChildCount(); //layoutManager.findLastVisibleItemPosition();
-
-        if (first >= 0 && first <= last) {
-
-            for (int index = first; index < layoutManager.getChildCount() && index <= last; index++) {
-                Log.d(TAG, "refreshVisible: index := " + index);
-                View view = layoutManager.getChildAt(index);
-                if (null != view && view instanceof VoxeetParticipantView) {
-                    VoxeetParticipantView participantView = (VoxeetParticipantView) view;
-
-                    if (null != participantView.getTag() && participantView.getTag() instanceof ViewHolder) {
-                        manageParticipantView(participantView, (ViewHolder) participantView.getTag());
-                    } else {
-                        Log.d(TAG, "refreshVisible: invalid tag " + participantView.getTag());
-                    }
-                } else {
-                    Log.d(TAG, "refreshVisible: invalid view " + view);
-                }
-            }
-        }
-    }
-
-    private void manageParticipantView(@NonNull VoxeetParticipantView participantView, @Nullable ViewHolder holder) {
-        if (null == holder) return;
-        participantView.setTag(holder);
-
-        int position = holder.getLayoutPosition();
-
-        final Participant user = getItem(position);
+    private void manageParticipantView(@NonNull VoxeetParticipantView participantView, @NonNull ViewHolder holder, int position) {
+        final Participant user = getParticipant(position);
         if (null == user) {
             participantView.setVisibility(View.INVISIBLE);
             return;
@@ -285,8 +431,9 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
             participantView.setVisibility(View.VISIBLE);
         }
 
-        boolean on_air = user.isLocallyActive();
         participantView.setParticipant(user);
+        participantView.setRendererBudget(rendererBudget);
+        participantView.setVideoEnabled(videoEnabled);
         participantView.setSelectedUserColor(selectedUserColor);
         participantView.setShowName(namesEnabled);
         participantView.setAvatarSize(avatarSize);
@@ -294,42 +441,6 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
 
         participantView.refresh();
 
-
-        holder.itemView.setOnLongClickListener(view -> {
-            if (equalsToUser(selectedUserId, user)) {
-                selectedUserId = null;
-
-                if (listener != null)
-                    listener.onParticipantUnselected(user);
-                updateUsers();
-            }
-            return true;
-        });
-
-        holder.itemView.setOnClickListener(v -> {
-            if (!on_air) {
-                Log.d(TAG, "onClick: click on an invalid user, we can't select hier");
-                return;
-            }
-
-            if (null != user.getId()) {
-                Log.d(TAG, "onClick: selecting the user " + user.getId());
-                if (!equalsToUser(selectedUserId, user)) {
-                    selectedUserId = user.getId();
-
-                    if (listener != null)
-                        listener.onParticipantSelected(user);
-                } else {
-                    selectedUserId = null; //deselecting
-
-                    if (listener != null)
-                        listener.onParticipantUnselected(user);
-                }
-
-                updateUsers();
-            }
-        });
-
         setAnimation(holder.itemView, position);
     }
 
@@ -351,8 +462,4 @@ public class ParticipantViewAdapter extends RecyclerView.Adapter<ParticipantView
             this.participantView = view;
         }
     }
-
-    private interface Apply {
-        boolean is(Participant participant);
-    }
 }
@@ -0,0 +1,226 @@
+package com.voxeet.uxkit.utils;
+
+import android.os.SystemClock;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import com.voxeet.VoxeetSDK;
+import com.voxeet.android.media.MediaStream;
+import com.voxeet.android.media.stream.MediaStreamType;
+import com.voxeet.sdk.models.Participant;
+import com.voxeet.sdk.models.v1.ConferenceParticipantStatus;
+import com.voxeet.sdk.views.VideoView;
+import com.voxeet.uxkit.utils.metrics.JoinLifecycleTracer;
+import com.voxeet.uxkit.utils.participants.ParticipantIndex;
+import com.voxeet.uxkit.utils.streams.LastNPolicy;
+import com.voxeet.uxkit.utils.streams.StreamCandidate;
+import com.voxeet.uxkit.utils.streams.StreamLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keep the selected and self video views of the conference in sync with the participants
+ * <p>
+ * Each call computes the desired StreamLayout from a single pass over the participants, compares it with what the views
+ * currently display and only issues the attach, detach, mirror and visibility calls which are needed. A participant
+ * merely updating its status will then never re-initialize a renderer. The selected video is displayed through a
+ * VideoRendererPool, a focus going back to a recently displayed video reuses its running renderer.
+ * <p>
+ * When the active speaker has no camera, the camera displayed is the one of the most recent speaker having one, chosen
+ * by a LastNPolicy so that it is not swapped for a short noise.
+ */
+@MainThread
+public class StreamAttachmentReconciler {
+
+    @NonNull
+    private final VideoRendererPool selected;
+
+    @NonNull
+    private final Slot self;
+
+    @NonNull
+    private final LastNPolicy recentCamera = new LastNPolicy(1);
+
+    public StreamAttachmentReconciler(@NonNull VideoView selectedView, @NonNull VideoView selfView) {
+        this(new VideoRendererPool(selectedView, 1), selfView);
+    }
+
+    public StreamAttachmentReconciler(@NonNull VideoRendererPool selectedPool, @NonNull VideoView selfView) {
+        selected = selectedPool;
+        self = new Slot(selfView);
+    }
+
+    /**
+     * Apply the layout matching the current state of the conference
+     *
+     * @param lockedId      the participant selected by the user or null
+     * @param activeSpeaker the active speaker or null
+     * @param expanded      true if the conference view is expanded, the self view is only visible in this case
+     * @return the layout applied
+     */
+    @NonNull
+    public StreamLayout reconcile(@Nullable String lockedId, @Nullable String activeSpeaker, boolean expanded) {
+        return reconcile(lockedId, activeSpeaker, expanded, true, true);
+    }
+
+    /**
+     * Apply the layout matching the current state of the conference
+     *
+     * @param lockedId        the participant selected by the user or null
+     * @param activeSpeaker   the active speaker or null
+     * @param expanded        true if the conference view is expanded, the self view is only visible in this case
+     * @param displaySelected false to keep the selected view detached, when the videos are displayed elsewhere or
+     *                        not visible
+     * @param displaySelf     false to keep the self view detached, when it is not visible
+     * @return the layout computed
+     */
+    @NonNull
+    public StreamLayout reconcile(@Nullable String lockedId, @Nullable String activeSpeaker, boolean expanded,
+                                  boolean displaySelected, boolean displaySelf) {
+        String localId = VoxeetSDK.session().getParticipantId();
+        ParticipantIndex<Participant> index = ParticipantStore.instance.getIndex();
+        List<Participant> participants = index.getParticipants();
+
+        List<StreamCandidate> candidates = new ArrayList<>(participants.size());
+        List<String> cameras = new ArrayList<>();
+
+        for (Participant participant : participants) {
+            String id = participant.getId();
+            if (null == id) continue;
+
+            boolean local = id.equals(localId);
+            boolean present = ConferenceParticipantStatus.ON_AIR.equals(participant.getStatus())
+                    || (ConferenceParticipantStatus.CONNECTING.equals(participant.getStatus()) && participant.streams().size() > 0);
+
+            candidates.add(new StreamCandidate(id, local, present, index.hasVideo(id), index.hasScreenShare(id)));
+            if (!local && index.hasVideo(id)) cameras.add(id);
+        }
+
+        //the first candidate having a camera is the one displayed when the active speaker has none
+        List<String> recent = recentCamera.select(cameras, VoxeetSpeakersTimerInstance.instance.getRecentSpeakers(),
+                SystemClock.uptimeMillis());
+        if (!recent.isEmpty()) moveFirst(candidates, recent.get(0));
+
+        StreamLayout layout = StreamLayout.compute(candidates, lockedId, activeSpeaker,
+                selected.displayedPeerId(), selected.displayedType());
+
+        boolean frontFacing = VoxeetSDK.mediaDevice().getCameraContext().isDefaultFrontFacing();
+
+        //renderers kept for a later focus are dropped once their stream is gone
+        selected.prune((peerId, type) -> stream(index.get(peerId), type));
+
+        boolean localSelected = layout.isLocalSelected(localId);
+        //hidden, the pool detaches every renderer and attaches the selected video again once displayed
+        MediaStream selectedStream = stream(index.get(layout.selectedPeerId), layout.selectedType);
+        boolean attached = selected.show(layout.selectedPeerId, layout.selectedType, selectedStream,
+                localSelected && frontFacing, displaySelected);
+        if (attached && localSelected) selected.getDisplayed().setVideoFill();
+        if (attached) {
+            JoinLifecycleTracer.instance.mark(localSelected ? JoinLifecycleTracer.SELF_PREVIEW
+                    : JoinLifecycleTracer.FIRST_REMOTE_VIDEO);
+        }
+
+        MediaStream selfStream = displaySelf ? stream(index.get(layout.selfPeerId), StreamLayout.CAMERA) : null;
+        if (self.apply(layout.selfPeerId, StreamLayout.CAMERA, selfStream, frontFacing, expanded)) {
+            JoinLifecycleTracer.instance.mark(JoinLifecycleTracer.SELF_PREVIEW);
+        }
+
+        return layout;
+    }
+
+    private static void moveFirst(@NonNull List<StreamCandidate> candidates, @NonNull String id) {
+        for (int i = 0; i < candidates.size(); i++) {
+            if (id.equals(candidates.get(i).id)) {
+                candidates.add(0, candidates.remove(i));
+                return;
+            }
+        }
+    }
+
+    @Nullable
+    private static MediaStream stream(@Nullable Participant participant, int type) {
+        if (null == participant) return null;
+
+        switch (type) {
+            case StreamLayout.CAMERA:
+                return video(participant, MediaStreamType.Camera);
+            case StreamLayout.SCREEN_SHARE:
+                return video(participant, MediaStreamType.ScreenShare);
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static MediaStream video(@NonNull Participant participant, @NonNull MediaStreamType type) {
+        MediaStream stream = participant.streamsHandler().getFirst(type);
+        return null != stream && stream.videoTracks().size() > 0 ? stream : null;
+    }
+
+    private static class Slot {
+        @NonNull
+        private final VideoView view;
+
+        @Nullable
+        private MediaStream attachedStream;
+
+        @Nullable
+        private Boolean mirror;
+
+        private Slot(@NonNull VideoView view) {
+            this.view = view;
+        }
+
+        @Nullable
+        private String displayedPeerId() {
+            return view.isAttached() ? view.getPeerId() : null;
+        }
+
+        private int displayedType() {
+            MediaStreamType type = view.isAttached() ? view.current() : null;
+            if (MediaStreamType.Camera.equals(type)) return StreamLayout.CAMERA;
+            if (MediaStreamType.ScreenShare.equals(type)) return StreamLayout.SCREEN_SHARE;
+            return StreamLayout.NONE;
+        }
+
+        /**
+         * Apply the desired state to the view
+         *
+         * @return true if the stream had to be attached
+         */
+        private boolean apply(@Nullable String peerId, int type, @Nullable MediaStream stream, boolean mirrored, boolean visible) {
+            if (null == peerId || null == stream) {
+                if (view.isAttached() || null != view.getPeerId()) view.unAttach();
+                attachedStream = null;
+                setVisibility(View.GONE);
+                return false;
+            }
+
+            boolean same = peerId.equals(displayedPeerId()) && type == displayedType();
+            //a view attached by someone else to the same peer and type is adopted as is
+            if (same && null != attachedStream && attachedStream != stream) same = false;
+
+            if (!same) {
+                if (view.isAttached()) view.unAttach();
+                view.attach(peerId, stream);
+                mirror = null;
+            }
+            attachedStream = stream;
+
+            if (null == mirror || mirror != mirrored) {
+                view.setMirror(mirrored);
+                mirror = mirrored;
+            }
+
+            setVisibility(visible ? View.VISIBLE : View.GONE);
+            return !same;
+        }
+
+        private void setVisibility(int visibility) {
+            if (view.getVisibility() != visibility) view.setVisibility(visibility);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.voxeet.uxkit.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.voxeet.android.media.MediaStream;
+import com.voxeet.sdk.views.VideoView;
+import com.voxeet.uxkit.utils.streams.RendererPool;
+
+import java.util.List;
+
+/**
+ * Small pool of VideoView stacked in the same container, each one keeping its renderer attached to a (peerId, type)
+ * <p>
+ * Moving the focus back to the previously displayed video only brings its view to the front, the view previously in
+ * front is hidden but keeps its renderer so that switching back is immediate. Only the displayed renderer and the
+ * previous one are kept attached, the previous one is detached once it has not been displayed for a few seconds.
+ */
+@MainThread
+public class VideoRendererPool {
+
+    /**
+     * Resolve the stream currently published for a (peerId, type)
+     */
+    public interface StreamLookup {
+        @Nullable
+        MediaStream stream(@NonNull String peerId, int type);
+    }
+
+    public final static int DEFAULT_CAPACITY = RendererPool.MAX_CAPACITY;
+
+    @NonNull
+    private final VideoView primary;
+
+    @NonNull
+    private final RendererPool<VideoView, MediaStream> pool;
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final Runnable trim = this::trim;
+
+    /**
+     * @param primary  the view declared in the layout, the other views are created next to it when needed
+     * @param capacity the maximum number of renderers kept attached, the displayed one included
+     */
+    public VideoRendererPool(@NonNull VideoView primary, int capacity) {
+        this.primary = primary;
+        pool = new RendererPool<>(primary, new Renderers(), capacity, RendererPool.DEFAULT_KEEP_WARM);
+    }
+
+    /**
+     * Get the view in front, the primary view when nothing is displayed
+     *
+     * @return the view
+     */
+    @NonNull
+    public VideoView getDisplayed() {
+        return pool.getDisplayed();
+    }
+
+    @NonNull
+    public List<VideoView> getViews() {
+        return pool.getRenderers();
+    }
+
+    @Nullable
+    public String displayedPeerId() {
+        return pool.displayedPeerId();
+    }
+
+    public int displayedType() {
+        return pool.displayedType();
+    }
+
+    /**
+     * Bring the video of a participant to the front
+     *
+     * @param peerId   the participant or null to display nothing
+     * @param type     the type of the stream
+     * @param stream   the stream or null to display nothing
+     * @param mirrored true to mirror the video
+     * @param visible  false when the pool is not on screen, every renderer is then detached until the next visible show
+     * @return true if the stream had to be attached to a renderer
+     */
+    public boolean show(@Nullable String peerId, int type, @Nullable MediaStream stream, boolean mirrored, boolean visible) {
+        boolean attached = pool.show(peerId, type, stream, mirrored, visible, SystemClock.uptimeMillis());
+        trim();
+        return attached;
+    }
+
+    /**
+     * Detach the renderers whose stream is not published anymore
+     *
+     * @param lookup the streams currently published
+     */
+    public void prune(@NonNull StreamLookup lookup) {
+        pool.prune(lookup::stream);
+    }
+
+    /**
+     * Detach every renderer
+     */
+    public void clear() {
+        handler.removeCallbacks(trim);
+        pool.clear();
+    }
+
+    /**
+     * Detach the renderers not displayed for too long and wait for the next one
+     */
+    private void trim() {
+        handler.removeCallbacks(trim);
+        long delay = pool.trim(SystemClock.uptimeMillis());
+        if (delay >= 0) handler.postDelayed(trim, delay);
+    }
+
+    private static void setVisibility(@NonNull View view, int visibility) {
+        if (view.getVisibility() != visibility) view.setVisibility(visibility);
+    }
+
+    private class Renderers implements RendererPool.Renderers<VideoView, MediaStream> {
+
+        @Nullable
+        @Override
+        public VideoView create() {
+            if (!(primary.getParent() instanceof ViewGroup)) return null;
+
+            ViewGroup container = (ViewGroup) primary.getParent();
+            ViewGroup.LayoutParams params = primary.getLayoutParams();
+            if (params instanceof FrameLayout.LayoutParams) {
+                params = new FrameLayout.LayoutParams((FrameLayout.LayoutParams) params);
+            } else if (null != params) {
+                params = new ViewGroup.LayoutParams(params);
+            }
+
+            VideoView view = new VideoView(primary.getContext());
+            view.setVisibility(View.GONE);
+            view.setVideoFill();
+
+            //stacked right above the primary view, below the views drawn on top of it
+            int index = container.indexOfChild(primary) + 1;
+            if (null != params) {
+                container.addView(view, index, params);
+            } else {
+                container.addView(view, index);
+            }
+            return view;
+        }
+
+        @Override
+        public void attach(@NonNull VideoView view, @NonNull String peerId, @NonNull MediaStream stream) {
+            if (view.isAttached()) view.unAttach();
+            view.attach(peerId, stream);
+        }
+
+        @Override
+        public void detach(@NonNull VideoView view) {
+            if (view.isAttached() || null != view.getPeerId()) view.unAttach();
+        }
+
+        @Override
+        public void setMirror(@NonNull VideoView view, boolean mirrored) {
+            view.setMirror(mirrored);
+        }
+
+        @Override
+        public void setVisibility(@NonNull VideoView view, int visibility) {
+            switch (visibility) {
+                case RendererPool.VISIBLE:
+                    VideoRendererPool.setVisibility(view, View.VISIBLE);
+                    break;
+                case RendererPool.BEHIND:
+                    VideoRendererPool.setVisibility(view, View.INVISIBLE);
+                    break;
+                default:
+                    VideoRendererPool.setVisibility(view, View.GONE);
+            }
+        }
+    }
+}
@@ -1,19 +1,22 @@
 package com.voxeet.uxkit.utils;
 
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.view.Choreographer;
 
 import com.voxeet.VoxeetSDK;
-import com.voxeet.sdk.models.Conference;
 import com.voxeet.sdk.models.Participant;
+import com.voxeet.sdk.services.ConferenceService;
 import com.voxeet.sdk.utils.Annotate;
-import com.voxeet.sdk.utils.Opt;
 import com.voxeet.uxkit.implementation.VoxeetSpeakerView;
-import com.voxeet.uxkit.views.internal.VoxeetVuMeter;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+import com.voxeet.uxkit.utils.speakers.ActiveSpeakerEngine;
+import com.voxeet.uxkit.utils.speakers.RecentSpeakersRanking;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -21,6 +24,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * Simple Timer made to schedule interactions accross the Speakers in a conference
  * <p>
  * This class can be started, stopped and get the current active speaker
+ * <p>
+ * The audio levels are sampled on a background thread and the active speaker is computed from them. Only the changes
+ * are forwarded to the listeners, in a single dispatch per frame made on the main thread
  */
 @Annotate
 public final class VoxeetSpeakersTimerInstance {
@@ -31,52 +37,38 @@ public final class VoxeetSpeakersTimerInstance {
     private ActiveSpeakerListener listener;
     private String currentActiveSpeaker;
 
+    //a new engine is used by each run, a stale run never touches the engine of the next one
+    private volatile ActiveSpeakerEngine engine = new ActiveSpeakerEngine();
+    private final RecentSpeakersRanking recentSpeakers = new RecentSpeakersRanking();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private HandlerThread samplingThread;
     private Handler handler;
-    private Runnable refreshActiveSpeaker = null;
+    private volatile long samplingInterval = VoxeetSpeakerView.REFRESH_METER;
+    private volatile double speakingThreshold = ActiveSpeakerEngine.DEFAULT_SPEAKING_THRESHOLD;
+    private volatile double hysteresis = ActiveSpeakerEngine.DEFAULT_HYSTERESIS;
+    private volatile long holdTime = ActiveSpeakerEngine.DEFAULT_HOLD_TIME;
+
+    //changed by each start and stop, the samplings of a previous run are dropped
+    private volatile int generation;
+
+    //pending changes, written by the sampling thread and consumed once per frame on the main thread
+    private final Object pendingLock = new Object();
+    private int pendingFlags = ActiveSpeakerEngine.NO_CHANGE;
+    private String pendingActiveSpeaker;
+    private boolean frameScheduled;
 
-    private HashMap<String, Double> audioLevels = new HashMap<>();
+    private final Choreographer.FrameCallback dispatchFrame = frameTimeNanos -> dispatchPending();
+    private final Runnable scheduleFrame = () -> Choreographer.getInstance().postFrameCallback(dispatchFrame);
 
     private VoxeetSpeakersTimerInstance() {
-        refreshActiveSpeaker = () -> {
-            try {
-                //TODO since using the active speaker's O(n) loop and doing same here, mutualize code and remove the call to the SDK alltogether
-                if (null != handler && null != listener && null != VoxeetSDK.instance()) {
-                    String fromSdk = VoxeetSDK.conference().currentSpeaker();
-                    Conference conference = VoxeetSDK.conference().getConference();
-
-                    if (null != conference) {
-                        List<Participant> participants = VoxeetSDK.conference().getParticipants();
-
-                        for (Participant participant : participants) {
-                            if (null == participant || null == participant.getId()) continue;
-
-                            double audioLevel = VoxeetSDK.conference().audioLevel(participant);
-                            audioLevels.put(participant.getId(), audioLevel);
-                        }
-                    }
-                    if (null == currentActiveSpeaker || !currentActiveSpeaker.equals(fromSdk)) {
-                        currentActiveSpeaker = fromSdk;
-                        try {
-                            listener.onActiveSpeakerUpdated(currentActiveSpeaker);
-                        } catch (Exception e) {
-
-                        }
-                    }
-
-                    //also warn the listeners
-                    sendSpeakersUpdated();
-                }
-                handler.postDelayed(refreshActiveSpeaker, VoxeetSpeakerView.REFRESH_METER);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        };
+
     }
 
     /**
      * Optional listener to set to receive events when a new active speaker loop has finished
      * <p>
-     * Only one is available in memory. A getter for each audio level is available and will get refreshed every 1s
+     * Only one is available in memory. A getter for each audio level is available and will get refreshed at every sampling
      *
      * @param listener
      */
@@ -92,8 +84,24 @@ public final class VoxeetSpeakersTimerInstance {
      */
     public void start() {
         if (null == handler) {
-            handler = new Handler(Looper.getMainLooper());
-            handler.postDelayed(refreshActiveSpeaker, 1000);
+            //make sure the participants sampled are the ones of the current conference
+            ParticipantStore.instance.getIndex();
+
+            ActiveSpeakerEngine runEngine = new ActiveSpeakerEngine();
+            runEngine.setSpeakingThreshold(speakingThreshold);
+            runEngine.setHysteresis(hysteresis);
+            runEngine.setHoldTime(holdTime);
+            engine = runEngine;
+
+            int run;
+            synchronized (pendingLock) {
+                run = ++generation;
+            }
+
+            samplingThread = new HandlerThread("VoxeetSpeakersTimer");
+            samplingThread.start();
+            handler = new Handler(samplingThread.getLooper());
+            handler.postDelayed(new SamplingRun(run, runEngine, handler), 1000);
         }
     }
 
@@ -102,10 +110,67 @@ public final class VoxeetSpeakersTimerInstance {
      * Any call when the timer has already been stopped will have no effects
      */
     public void stop() {
+        synchronized (pendingLock) {
+            generation++;
+            pendingFlags = ActiveSpeakerEngine.NO_CHANGE;
+            pendingActiveSpeaker = null;
+            frameScheduled = false;
+        }
+
         if (null != handler) {
-            handler.removeCallbacks(refreshActiveSpeaker);
+            handler.removeCallbacksAndMessages(null);
             handler = null;
+            samplingThread.quit();
+            samplingThread = null;
         }
+
+        currentActiveSpeaker = null;
+        recentSpeakers.clear();
+        mainHandler.removeCallbacks(scheduleFrame);
+        Choreographer.getInstance().removeFrameCallback(dispatchFrame);
+    }
+
+    /**
+     * Change the interval between two samplings of the audio levels
+     *
+     * @param interval the new interval in milliseconds
+     */
+    public void setSamplingInterval(long interval) {
+        samplingInterval = Math.max(16, interval);
+    }
+
+    public long getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Change the level above which a participant is considered as speaking
+     *
+     * @param threshold the new threshold
+     */
+    public void setSpeakingThreshold(double threshold) {
+        speakingThreshold = threshold;
+        engine.setSpeakingThreshold(threshold);
+    }
+
+    /**
+     * Change the margin a participant must have over the active speaker to replace it
+     *
+     * @param hysteresis the new margin
+     */
+    public void setHysteresis(double hysteresis) {
+        this.hysteresis = hysteresis;
+        engine.setHysteresis(hysteresis);
+    }
+
+    /**
+     * Change the minimum duration the active speaker is kept before being replaced
+     *
+     * @param holdTime the new duration in milliseconds
+     */
+    public void setHoldTime(long holdTime) {
+        this.holdTime = holdTime;
+        engine.setHoldTime(holdTime);
     }
 
     /**
@@ -120,19 +185,55 @@ public final class VoxeetSpeakersTimerInstance {
         return currentActiveSpeaker;
     }
 
+    /**
+     * Get the participants ordered by the last time they spoke, fed at every sampling
+     *
+     * @return the ranking, its times use SystemClock.uptimeMillis
+     */
+    @NonNull
+    public RecentSpeakersRanking getRecentSpeakers() {
+        return recentSpeakers;
+    }
+
     /**
      * Optional method for fast and possibly spammy behaviour from apps where views can be rendered multiple times.
-     * The value returned is a cached one and refreshed every 1s
+     * The value returned is a cached one and refreshed at every sampling, reading it does not allocate
      *
      * @param participant
-     * @return the audio level for the given participant or null
+     * @return the audio level for the given participant or 0
      */
     public double audioLevel(@NonNull Participant participant) {
-        String id = Opt.of(participant).then(Participant::getId).or("");
-        if (audioLevels.containsKey(id)) {
-            return Opt.of(audioLevels.get(id)).or(0d);
-        }
-        return 0d;
+        return engine.level(participant.getId());
+    }
+
+    /**
+     * Get the cached audio level of a given participant, reading it does not allocate
+     *
+     * @param participantId the participant id
+     * @return the audio level for the given participant or 0
+     */
+    public double audioLevel(@Nullable String participantId) {
+        return engine.level(participantId);
+    }
+
+    /**
+     * Check if a given participant is currently speaking
+     *
+     * @param participant the participant to check
+     * @return true if its last sampled level was above the speaking threshold
+     */
+    public boolean isSpeaking(@NonNull Participant participant) {
+        return engine.isSpeaking(participant.getId());
+    }
+
+    /**
+     * Check if a given participant is currently speaking
+     *
+     * @param participantId the participant id
+     * @return true if its last sampled level was above the speaking threshold
+     */
+    public boolean isSpeaking(@Nullable String participantId) {
+        return engine.isSpeaking(participantId);
     }
 
     public void register(@NonNull SpeakersUpdated listener) {
@@ -145,6 +246,119 @@ public final class VoxeetSpeakersTimerInstance {
         speakers_listeners.remove(listener);
     }
 
+    /**
+     * Sampling loop of one run, stops rescheduling itself once the timer was stopped or restarted
+     */
+    private final class SamplingRun implements Runnable {
+        private final int run;
+        private final ActiveSpeakerEngine runEngine;
+        private final Handler runHandler;
+
+        private SamplingRun(int run, @NonNull ActiveSpeakerEngine runEngine, @NonNull Handler runHandler) {
+            this.run = run;
+            this.runEngine = runEngine;
+            this.runHandler = runHandler;
+        }
+
+        @Override
+        public void run() {
+            if (run != generation) return;
+
+            try {
+                sample(run, runEngine);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            if (run == generation) runHandler.postDelayed(this, samplingInterval);
+        }
+    }
+
+    /**
+     * Sample every participant, called from the sampling thread
+     * <p>
+     * The participants come from the snapshot published on the main thread, the list of the SDK is not read here
+     *
+     * @param run       the generation of the run sampling
+     * @param runEngine the engine of this run
+     */
+    private void sample(int run, @NonNull ActiveSpeakerEngine runEngine) {
+        if (null == VoxeetSDK.instance()) return;
+
+        ConferenceService service = VoxeetSDK.conference();
+        List<Participant> participants = ParticipantStore.instance.getSnapshot();
+
+        long now = SystemClock.uptimeMillis();
+
+        runEngine.beginSample();
+        for (Participant participant : participants) {
+            String id = null != participant ? participant.getId() : null;
+            if (null == id) continue;
+
+            double audioLevel = service.audioLevel(participant);
+            runEngine.sample(id, audioLevel);
+            if (runEngine.isSpeaking(id) && run == generation) recentSpeakers.onSpeaking(id, now);
+        }
+
+        int flags = runEngine.commit(now);
+
+        if (ActiveSpeakerEngine.NO_CHANGE != flags) {
+            post(run, flags, runEngine.getActiveSpeaker());
+        }
+    }
+
+    /**
+     * Merge the changes into the pending ones and make sure a frame dispatch is scheduled
+     *
+     * @param run           the generation of the run which made the changes, dropped if it is not the current one
+     * @param flags         the changes made
+     * @param activeSpeaker the active speaker at the time of the changes
+     */
+    private void post(int run, int flags, @Nullable String activeSpeaker) {
+        boolean schedule;
+        synchronized (pendingLock) {
+            if (run != generation) return;
+            pendingFlags |= flags;
+            pendingActiveSpeaker = activeSpeaker;
+            schedule = !frameScheduled;
+            frameScheduled = true;
+        }
+
+        if (schedule) mainHandler.post(scheduleFrame);
+    }
+
+    /**
+     * Dispatch the pending changes, called once per frame on the main thread
+     */
+    private void dispatchPending() {
+        long begin = UXKitMetrics.instance.begin();
+        int flags;
+        String activeSpeaker;
+        synchronized (pendingLock) {
+            flags = pendingFlags;
+            activeSpeaker = pendingActiveSpeaker;
+            pendingFlags = ActiveSpeakerEngine.NO_CHANGE;
+            frameScheduled = false;
+        }
+
+        if (0 != (flags & ActiveSpeakerEngine.ACTIVE_SPEAKER_CHANGED)) {
+            currentActiveSpeaker = activeSpeaker;
+            if (null != listener) {
+                try {
+                    listener.onActiveSpeakerUpdated(currentActiveSpeaker);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        if (ActiveSpeakerEngine.NO_CHANGE != flags) {
+            sendSpeakersUpdated();
+        }
+
+        UXKitMetrics.instance.end(UXKitMetrics.COMPONENT_SPEAKER_TICK, begin);
+    }
+
     private void sendSpeakersUpdated() {
         for (SpeakersUpdated speaker : speakers_listeners) {
             try {
@@ -164,6 +378,9 @@ public final class VoxeetSpeakersTimerInstance {
         void onActiveSpeakerUpdated(@Nullable String activeSpeakerUserId);
     }
 
+    /**
+     * Listener called when the speaking state of at least one participant or the active speaker changed
+     */
     public static interface SpeakersUpdated {
         void onSpeakersUpdated();
     }
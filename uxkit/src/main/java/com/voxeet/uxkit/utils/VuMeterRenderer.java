@@ -0,0 +1,196 @@
+package com.voxeet.uxkit.utils;
+
+import android.graphics.Rect;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+import android.view.View;
+
+import com.voxeet.sdk.utils.Annotate;
+import com.voxeet.uxkit.utils.speakers.LevelInterpolator;
+
+import java.util.ArrayList;
+
+/**
+ * Single renderer of every audio meter displayed
+ * <p>
+ * The levels sampled by the VoxeetSpeakersTimerInstance are interpolated and forwarded to the registered targets
+ * from one Choreographer frame callback. Only the targets on screen are updated and the callback stops as soon as
+ * no visible participant is speaking anymore or the renderer is paused.
+ * <p>
+ * Every method must be called from the main thread
+ */
+@Annotate
+@MainThread
+public final class VuMeterRenderer implements VoxeetSpeakersTimerInstance.SpeakersUpdated {
+
+    public final static VuMeterRenderer instance = new VuMeterRenderer();
+
+    private final static float DEFAULT_FRAME_DURATION = 16;
+
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private final Rect visibleRect = new Rect();
+
+    private boolean paused;
+    private boolean running;
+    private long lastFrameTimeNanos;
+
+    private final Choreographer.FrameCallback frameCallback = this::doFrame;
+
+    private VuMeterRenderer() {
+
+    }
+
+    /**
+     * Register a meter to animate
+     *
+     * @param target the target, registering it twice has no effect
+     */
+    public void register(@NonNull Target target) {
+        if (null != find(target)) return;
+
+        entries.add(new Entry(target));
+        if (1 == entries.size()) VoxeetSpeakersTimerInstance.instance.register(this);
+
+        wake();
+    }
+
+    /**
+     * Stop animating a meter
+     *
+     * @param target the target to remove
+     */
+    public void unregister(@NonNull Target target) {
+        Entry entry = find(target);
+        if (null == entry) return;
+
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+            VoxeetSpeakersTimerInstance.instance.unregister(this);
+            stop();
+        }
+    }
+
+    /**
+     * Pause or resume every meter, for instance when the conference is minimized
+     *
+     * @param paused true to stop any animation
+     */
+    public void setPaused(boolean paused) {
+        if (this.paused == paused) return;
+        this.paused = paused;
+
+        if (paused) stop();
+        else wake();
+    }
+
+    /**
+     * Wake the renderer up after the levels changed
+     */
+    @Override
+    public void onSpeakersUpdated() {
+        wake();
+    }
+
+    private void wake() {
+        if (running || paused || entries.isEmpty()) return;
+
+        running = true;
+        lastFrameTimeNanos = 0;
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    private void stop() {
+        if (!running) return;
+
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+    }
+
+    private void doFrame(long frameTimeNanos) {
+        running = false;
+        if (paused) return;
+
+        float elapsed = DEFAULT_FRAME_DURATION;
+        if (0 != lastFrameTimeNanos) elapsed = (frameTimeNanos - lastFrameTimeNanos) / 1000000f;
+        lastFrameTimeNanos = frameTimeNanos;
+
+        VoxeetSpeakersTimerInstance timer = VoxeetSpeakersTimerInstance.instance;
+        boolean active = false;
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (!isOnScreen(entry.target.getMeterView())) continue;
+
+            String participantId = entry.target.getMeterParticipantId();
+            float level = (float) timer.audioLevel(participantId);
+            boolean speaking = timer.isSpeaking(participantId);
+
+            float value = entry.interpolator.step(level, elapsed);
+            try {
+                entry.target.onMeterLevel(value, speaking);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            if (speaking || !entry.interpolator.isSettled(level)) active = true;
+        }
+
+        if (active) {
+            running = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private boolean isOnScreen(@NonNull View view) {
+        return view.isShown() && view.getGlobalVisibleRect(visibleRect);
+    }
+
+    @Nullable
+    private Entry find(@NonNull Target target) {
+        for (Entry entry : entries) {
+            if (entry.target == target) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * A meter animated by the renderer
+     */
+    public interface Target {
+
+        /**
+         * Get the participant whose level must be displayed
+         *
+         * @return the participant id or null to display nothing
+         */
+        @Nullable
+        String getMeterParticipantId();
+
+        /**
+         * Get the view displaying the meter, used to know if it is on screen
+         *
+         * @return the view
+         */
+        @NonNull
+        View getMeterView();
+
+        /**
+         * Display a new level, called at most once per frame
+         *
+         * @param level    the interpolated level
+         * @param speaking true if the participant is currently speaking
+         */
+        void onMeterLevel(float level, boolean speaking);
+    }
+
+    private static class Entry {
+        private final Target target;
+        private final LevelInterpolator interpolator = new LevelInterpolator();
+
+        private Entry(@NonNull Target target) {
+            this.target = target;
+        }
+    }
+}
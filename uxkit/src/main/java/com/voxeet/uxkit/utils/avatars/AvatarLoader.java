@@ -0,0 +1,228 @@
+package com.voxeet.uxkit.utils.avatars;
+
+import android.content.Context;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.Log;
+import android.widget.ImageView;
+
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.OkHttp3Downloader;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+import com.voxeet.sdk.exceptions.ExceptionManager;
+import com.voxeet.sdk.json.ParticipantInfo;
+import com.voxeet.sdk.models.Participant;
+import com.voxeet.sdk.utils.Annotate;
+import com.voxeet.sdk.utils.Opt;
+import com.voxeet.uxkit.R;
+import com.voxeet.uxkit.views.internal.rounded.RoundedImageView;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Avatar pipeline shared by every view of the UXKit
+ * <p>
+ * Avatars are loaded through a dedicated Picasso instance having its own memory LRU and disk cache, separated from
+ * the ones of the application. Requested sizes are rounded up to a small set of buckets so that the speaker, the
+ * participants and the incoming call views share the same decoded bitmaps, and an ImageView already displaying a
+ * given avatar at a given bucket is never reloaded.
+ * <p>
+ * Avatars displayed in an oval RoundedImageView are cropped and bordered once by a CircleTransformation, the result is
+ * what gets cached and the view then draws it without any clipping.
+ */
+@Annotate
+@MainThread
+public final class AvatarLoader {
+
+    private final static String TAG = AvatarLoader.class.getSimpleName();
+
+    private final static int[] BUCKETS = {48, 64, 96, 128, 192, 256, 384, 512};
+
+    private final static String DISK_CACHE_DIRECTORY = "voxeet-avatars";
+    private final static long DISK_CACHE_SIZE = 10 * 1024 * 1024;
+
+    private final static int MIN_MEMORY_CACHE_SIZE = 2 * 1024 * 1024;
+    private final static int MAX_MEMORY_CACHE_SIZE = 16 * 1024 * 1024;
+
+    @Nullable
+    private static AvatarLoader sInstance;
+
+    @NonNull
+    private final Picasso picasso;
+
+    //one transformation per border, shared so that the cache keys match
+    @NonNull
+    private final HashMap<String, CircleTransformation> transformations = new HashMap<>();
+
+    //keys already fetched, prefetching is requested on every participant change
+    @NonNull
+    private final HashSet<String> prefetched = new HashSet<>();
+
+    private AvatarLoader(@NonNull Context context) {
+        int memory = (int) Math.min(MAX_MEMORY_CACHE_SIZE, Math.max(MIN_MEMORY_CACHE_SIZE, Runtime.getRuntime().maxMemory() / 32));
+
+        picasso = new Picasso.Builder(context)
+                .memoryCache(new AvatarMemoryCache(memory, RoundedAvatars.instance))
+                .downloader(new OkHttp3Downloader(new File(context.getCacheDir(), DISK_CACHE_DIRECTORY), DISK_CACHE_SIZE))
+                .build();
+    }
+
+    /**
+     * Get the shared loader
+     *
+     * @param context any context, only its application context is kept
+     * @return the instance
+     */
+    @NonNull
+    public static synchronized AvatarLoader instance(@NonNull Context context) {
+        if (null == sInstance) sInstance = new AvatarLoader(context.getApplicationContext());
+        return sInstance;
+    }
+
+    /**
+     * Get the Picasso instance used for the avatars
+     *
+     * @return the instance
+     */
+    @NonNull
+    public Picasso getPicasso() {
+        return picasso;
+    }
+
+    /**
+     * Round a requested size up to the closest bucket
+     *
+     * @param size the size in pixels
+     * @return the bucketed size, the size itself if above the largest bucket
+     */
+    public static int bucket(int size) {
+        for (int bucket : BUCKETS) {
+            if (size <= bucket) return bucket;
+        }
+        return size;
+    }
+
+    /**
+     * Load the avatar of a participant
+     *
+     * @param participant the participant or null for the default avatar
+     * @param size        the size of the view in pixels
+     * @param imageView   the destination
+     */
+    public void load(@Nullable Participant participant, int size, @NonNull ImageView imageView) {
+        load(avatarUrl(participant), size, imageView);
+    }
+
+    /**
+     * Load an avatar unless the view already displays it
+     *
+     * @param url       the url or null for the default avatar
+     * @param size      the size of the view in pixels
+     * @param imageView the destination
+     */
+    public void load(@Nullable String url, int size, @NonNull ImageView imageView) {
+        if (size <= 0) return;
+
+        int bucket = bucket(size);
+        CircleTransformation transformation = transformation(imageView);
+        final String key = key(url, bucket) + (null != transformation ? transformation.key() : "");
+        if (key.equals(imageView.getTag(R.id.voxeet_avatar_key))) return;
+
+        imageView.setTag(R.id.voxeet_avatar_key, key);
+
+        try {
+            if (TextUtils.isEmpty(url)) {
+                transform(picasso.load(R.drawable.default_avatar), transformation)
+                        .noFade()
+                        .resize(bucket, bucket)
+                        .into(imageView);
+                return;
+            }
+
+            transform(picasso.load(url), transformation)
+                    .noFade()
+                    .resize(bucket, bucket)
+                    .placeholder(R.drawable.default_avatar)
+                    .error(R.drawable.default_avatar)
+                    .into(imageView, new Callback() {
+                        @Override
+                        public void onSuccess() {
+
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            //allow a later call to retry
+                            if (key.equals(imageView.getTag(R.id.voxeet_avatar_key))) {
+                                imageView.setTag(R.id.voxeet_avatar_key, null);
+                            }
+                        }
+                    });
+        } catch (Exception e) {
+            imageView.setTag(R.id.voxeet_avatar_key, null);
+            ExceptionManager.sendException(e);
+            Log.e(TAG, "error " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fetch the avatar of a participant into the caches without displaying it
+     *
+     * @param participant the participant
+     * @param size        the size it will be displayed at in pixels
+     */
+    public void prefetch(@Nullable Participant participant, int size) {
+        String url = avatarUrl(participant);
+        if (TextUtils.isEmpty(url) || size <= 0) return;
+
+        int bucket = bucket(size);
+        if (!prefetched.add(key(url, bucket))) return;
+
+        try {
+            //the participant cells are oval and without border
+            transform(picasso.load(url), transformation(0, 0)).resize(bucket, bucket).fetch();
+        } catch (Exception e) {
+            Log.e(TAG, "error " + e.getMessage());
+        }
+    }
+
+    @Nullable
+    private CircleTransformation transformation(@NonNull ImageView imageView) {
+        if (!(imageView instanceof RoundedImageView)) return null;
+
+        RoundedImageView rounded = (RoundedImageView) imageView;
+        if (!rounded.isOval()) return null;
+        return transformation(rounded.getBorderWidth(), rounded.getBorderColor());
+    }
+
+    @NonNull
+    private CircleTransformation transformation(float borderWidth, int borderColor) {
+        String key = borderWidth > 0 ? borderWidth + "," + borderColor : "";
+        CircleTransformation transformation = transformations.get(key);
+        if (null == transformation) {
+            transformation = new CircleTransformation(borderWidth, borderColor, RoundedAvatars.instance);
+            transformations.put(key, transformation);
+        }
+        return transformation;
+    }
+
+    @NonNull
+    private static RequestCreator transform(@NonNull RequestCreator request, @Nullable CircleTransformation transformation) {
+        return null != transformation ? request.transform(transformation) : request;
+    }
+
+    @Nullable
+    private static String avatarUrl(@Nullable Participant participant) {
+        return Opt.of(participant).then(Participant::getInfo).then(ParticipantInfo::getAvatarUrl).orNull();
+    }
+
+    @NonNull
+    private static String key(@Nullable String url, int bucket) {
+        return (TextUtils.isEmpty(url) ? "" : url) + "@" + bucket;
+    }
+}
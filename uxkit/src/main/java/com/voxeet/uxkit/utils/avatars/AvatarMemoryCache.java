@@ -0,0 +1,83 @@
+package com.voxeet.uxkit.utils.avatars;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+import com.squareup.picasso.Cache;
+
+import java.util.ArrayList;
+
+/**
+ * Memory LRU of the avatar Picasso instance
+ * <p>
+ * Behaves like the Picasso's LruCache, which can not be extended, but hands the rounded avatars it evicts to the
+ * RoundedAvatars so that their memory is reused by the next transformations.
+ */
+final class AvatarMemoryCache implements Cache {
+
+    //separator between the uri and the options in the Picasso keys
+    private final static char KEY_SEPARATOR = '\n';
+
+    @NonNull
+    private final RoundedAvatars registry;
+
+    @NonNull
+    private final LruCache<String, Bitmap> cache;
+
+    AvatarMemoryCache(int maxSize, @NonNull final RoundedAvatars registry) {
+        this.registry = registry;
+
+        cache = new LruCache<String, Bitmap>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                //removed or replaced entries may still be on their way to a view
+                if (evicted && oldValue != newValue) registry.onEvicted(oldValue);
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public Bitmap get(@NonNull String key) {
+        Bitmap bitmap = cache.get(key);
+        registry.onAccessed(bitmap);
+        return bitmap;
+    }
+
+    @Override
+    public void set(@NonNull String key, @NonNull Bitmap bitmap) {
+        cache.put(key, bitmap);
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    @Override
+    public void clear() {
+        cache.evictAll();
+    }
+
+    @Override
+    public void clearKeyUri(@NonNull String uri) {
+        int length = uri.length();
+        for (String key : new ArrayList<>(cache.snapshot().keySet())) {
+            if (key.startsWith(uri) && key.length() > length && key.charAt(length) == KEY_SEPARATOR) {
+                cache.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.voxeet.uxkit.utils.avatars;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.support.annotation.NonNull;
+
+import com.squareup.picasso.Transformation;
+
+/**
+ * Crop an avatar to a circle and draw its border once, on the Picasso threads
+ * <p>
+ * The result is registered in the RoundedAvatars so that a RoundedImageView
+ * displays it as is instead of clipping it through a shader on every frame,
+ * and is drawn into a free bitmap of the RoundedAvatars when there is one.
+ */
+public final class CircleTransformation implements Transformation {
+
+    private final float borderWidth;
+
+    private final int borderColor;
+
+    @NonNull
+    private final RoundedAvatars registry;
+
+    /**
+     * Instantiate a transformation
+     *
+     * @param borderWidth the width of the border in pixels, 0 for none
+     * @param borderColor the color of the border
+     * @param registry    the registry of the rounded bitmaps
+     */
+    public CircleTransformation(float borderWidth, int borderColor, @NonNull RoundedAvatars registry) {
+        this.borderWidth = Math.max(0, borderWidth);
+        this.borderColor = borderColor;
+        this.registry = registry;
+    }
+
+    @Override
+    public Bitmap transform(@NonNull Bitmap source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int size = Math.min(width, height);
+
+        //draw into a bitmap evicted from the memory cache when one of the same size is free
+        Bitmap output = registry.obtain(size);
+        if (null != output) {
+            output.eraseColor(Color.TRANSPARENT);
+        } else {
+            output = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        }
+        Canvas canvas = new Canvas(output);
+
+        Matrix matrix = new Matrix();
+        matrix.setTranslate(-(width - size) / 2f, -(height - size) / 2f);
+        BitmapShader shader = new BitmapShader(source, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        shader.setLocalMatrix(matrix);
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        paint.setShader(shader);
+
+        float center = size / 2f;
+        float radius = (size - borderWidth) / 2f;
+        canvas.drawCircle(center, center, radius, paint);
+
+        if (borderWidth > 0) {
+            Paint border = new Paint(Paint.ANTI_ALIAS_FLAG);
+            border.setStyle(Paint.Style.STROKE);
+            border.setStrokeWidth(borderWidth);
+            border.setColor(borderColor);
+            canvas.drawCircle(center, center, radius, border);
+        }
+
+        //Picasso requires the source to be recycled when a new bitmap is returned
+        source.recycle();
+
+        registry.markRounded(output);
+        return output;
+    }
+
+    @Override
+    public String key() {
+        return borderWidth > 0 ? "circle(" + borderWidth + "," + borderColor + ")" : "circle";
+    }
+}
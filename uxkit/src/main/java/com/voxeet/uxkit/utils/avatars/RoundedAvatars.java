@@ -0,0 +1,142 @@
+package com.voxeet.uxkit.utils.avatars;
+
+import android.graphics.Bitmap;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * Registry of the bitmaps produced by the CircleTransformation
+ * <p>
+ * A RoundedImageView displays a registered bitmap as is instead of clipping it through a shader on every frame, and
+ * declares it as displayed. When the memory cache evicts a registered bitmap no view displays, it is kept in a small
+ * pool and the next transformation of the same size draws into it instead of allocating a new one. Every method is
+ * thread safe, transformations run on the Picasso threads while the views are on the main thread.
+ */
+public final class RoundedAvatars {
+
+    /**
+     * Maximum number of free bitmaps kept for a given size
+     */
+    public final static int MAX_PER_SIZE = 2;
+
+    /**
+     * Maximum number of free bitmaps kept overall
+     */
+    public final static int MAX_FREE = 6;
+
+    /**
+     * Delay in milliseconds a bitmap transformed or read from the cache can be on its way to a view
+     */
+    public final static long DELIVERY_DELAY = 1000;
+
+    public final static RoundedAvatars instance = new RoundedAvatars();
+
+    //time each rounded bitmap was last transformed or read from the cache
+    @NonNull
+    private final WeakHashMap<Bitmap, Long> rounded = new WeakHashMap<>();
+
+    //bitmap displayed by each view, the views which are collected stop holding theirs
+    @NonNull
+    private final WeakHashMap<Object, Bitmap> displayed = new WeakHashMap<>();
+
+    @NonNull
+    private final HashMap<Integer, List<Bitmap>> free = new HashMap<>();
+
+    private int freeCount;
+
+    private RoundedAvatars() {
+
+    }
+
+    /**
+     * Register a bitmap produced by the transformation
+     *
+     * @param bitmap the rounded bitmap
+     */
+    public synchronized void markRounded(@NonNull Bitmap bitmap) {
+        rounded.put(bitmap, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * Check if a bitmap is already rounded and can be displayed as is
+     *
+     * @param bitmap the bitmap or null
+     * @return true if produced by the transformation
+     */
+    public synchronized boolean isRounded(@Nullable Bitmap bitmap) {
+        return null != bitmap && rounded.containsKey(bitmap);
+    }
+
+    /**
+     * Tell a rounded bitmap was read from the memory cache and is on its way to a view
+     *
+     * @param bitmap the bitmap or null
+     */
+    synchronized void onAccessed(@Nullable Bitmap bitmap) {
+        if (null != bitmap && rounded.containsKey(bitmap)) rounded.put(bitmap, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * Declare the rounded bitmap a view displays, it will not be reused while the view holds it
+     *
+     * @param view   the view
+     * @param bitmap the rounded bitmap or null when the view stops displaying one
+     */
+    public synchronized void setDisplayed(@NonNull Object view, @Nullable Bitmap bitmap) {
+        if (null == bitmap) {
+            displayed.remove(view);
+            return;
+        }
+
+        displayed.put(view, bitmap);
+        removeFree(bitmap);
+    }
+
+    /**
+     * Get a free bitmap to draw a transformation into
+     *
+     * @param size the width and height of the bitmap
+     * @return the bitmap, with its previous content, or null if none is free
+     */
+    @Nullable
+    public synchronized Bitmap obtain(int size) {
+        List<Bitmap> bitmaps = free.get(size);
+        if (null == bitmaps || bitmaps.isEmpty()) return null;
+
+        freeCount--;
+        return bitmaps.remove(bitmaps.size() - 1);
+    }
+
+    /**
+     * Keep a bitmap evicted from the memory cache for a later transformation, if nothing can still display it
+     *
+     * @param bitmap the evicted bitmap
+     */
+    synchronized void onEvicted(@NonNull Bitmap bitmap) {
+        Long used = rounded.get(bitmap);
+        if (null == used || SystemClock.uptimeMillis() - used < DELIVERY_DELAY) return;
+        if (bitmap.isRecycled() || !bitmap.isMutable() || bitmap.getWidth() != bitmap.getHeight()) return;
+        if (displayed.containsValue(bitmap) || freeCount >= MAX_FREE) return;
+
+        List<Bitmap> bitmaps = free.get(bitmap.getWidth());
+        if (null == bitmaps) {
+            bitmaps = new ArrayList<>(MAX_PER_SIZE);
+            free.put(bitmap.getWidth(), bitmaps);
+        }
+
+        if (bitmaps.size() >= MAX_PER_SIZE || bitmaps.contains(bitmap)) return;
+        bitmaps.add(bitmap);
+        freeCount++;
+    }
+
+    private void removeFree(@NonNull Bitmap bitmap) {
+        List<Bitmap> bitmaps = free.get(bitmap.getWidth());
+        if (null != bitmaps && bitmaps.remove(bitmap)) freeCount--;
+    }
+}
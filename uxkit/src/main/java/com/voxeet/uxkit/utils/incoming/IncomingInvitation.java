@@ -0,0 +1,109 @@
+package com.voxeet.uxkit.utils.incoming;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Information about the inviter and the conference carried by an incoming call
+ * <p>
+ * The parsing only relies on a key/value lookup so that it does not depend on the Intent holding the values.
+ */
+public final class IncomingInvitation {
+
+    /**
+     * Read access to the values of an incoming call
+     */
+    public interface Extras {
+        boolean has(@NonNull String key);
+
+        @Nullable
+        String get(@NonNull String key);
+    }
+
+    /**
+     * Names of the values of an incoming call
+     */
+    public final static class Keys {
+        @NonNull
+        public final String userName;
+
+        @NonNull
+        public final String externalUserId;
+
+        @NonNull
+        public final String userId;
+
+        @NonNull
+        public final String avatarUrl;
+
+        @NonNull
+        public final String conferenceId;
+
+        public Keys(@NonNull String userName, @NonNull String externalUserId, @NonNull String userId,
+                    @NonNull String avatarUrl, @NonNull String conferenceId) {
+            this.userName = userName;
+            this.externalUserId = externalUserId;
+            this.userId = userId;
+            this.avatarUrl = avatarUrl;
+            this.conferenceId = conferenceId;
+        }
+    }
+
+    @Nullable
+    public final String userName;
+
+    @Nullable
+    public final String externalUserId;
+
+    @Nullable
+    public final String userId;
+
+    @Nullable
+    public final String avatarUrl;
+
+    @Nullable
+    public final String conferenceId;
+
+    private IncomingInvitation(@Nullable String userName, @Nullable String externalUserId, @Nullable String userId,
+                               @Nullable String avatarUrl, @Nullable String conferenceId) {
+        this.userName = userName;
+        this.externalUserId = externalUserId;
+        this.userId = userId;
+        this.avatarUrl = avatarUrl;
+        this.conferenceId = conferenceId;
+    }
+
+    /**
+     * Read the invitation
+     *
+     * @param keys   the names of the values
+     * @param extras the values
+     * @return the invitation, its fields are null when missing
+     */
+    @NonNull
+    public static IncomingInvitation parse(@NonNull Keys keys, @NonNull Extras extras) {
+        return new IncomingInvitation(extras.get(keys.userName),
+                extras.get(keys.externalUserId),
+                extras.get(keys.userId),
+                extras.get(keys.avatarUrl),
+                extras.get(keys.conferenceId));
+    }
+
+    /**
+     * Check that the values describe an incoming call, the avatar is optional
+     *
+     * @param keys   the names of the values
+     * @param extras the values
+     * @return true if every mandatory value is present
+     */
+    public static boolean isValid(@NonNull Keys keys, @NonNull Extras extras) {
+        return extras.has(keys.userName)
+                && extras.has(keys.externalUserId)
+                && extras.has(keys.userId)
+                && extras.has(keys.conferenceId);
+    }
+
+    public boolean isSameConference(@Nullable String conferenceId) {
+        return this.conferenceId != null && this.conferenceId.equals(conferenceId);
+    }
+}
@@ -0,0 +1,276 @@
+package com.voxeet.uxkit.utils.metrics;
+
+import android.os.SystemClock;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time of each step of the recent joins, from the creation of the conference to the first remote video
+ * <p>
+ * A join starts on CREATING, or JOINING when the conference was created elsewhere. Each milestone is only recorded
+ * the first time it is reached during a join. The last joins are kept in memory and can be exported as JSON along
+ * with the percentiles of each milestone.
+ */
+@MainThread
+public final class JoinLifecycleTracer {
+
+    public final static JoinLifecycleTracer instance = new JoinLifecycleTracer();
+
+    public final static int CREATING = 0;
+
+    public final static int CREATED = 1;
+
+    public final static int JOINING = 2;
+
+    public final static int JOINED = 3;
+
+    /**
+     * The controller requested the overlay to be displayed
+     */
+    public final static int DISPLAY_VIEW = 4;
+
+    /**
+     * The overlay has been added to the root view
+     */
+    public final static int OVERLAY_ATTACHED = 5;
+
+    /**
+     * The local camera has been attached to a view
+     */
+    public final static int SELF_PREVIEW = 6;
+
+    /**
+     * The camera or screen share of another participant has been attached to a view
+     */
+    public final static int FIRST_REMOTE_VIDEO = 7;
+
+    private final static String[] MILESTONES = {"creating", "created", "joining", "joined", "displayView",
+            "overlayAttached", "selfPreview", "firstRemoteVideo"};
+
+    public final static String OUTCOME_IN_PROGRESS = "inProgress";
+
+    public final static String OUTCOME_LEFT = "left";
+
+    public final static String OUTCOME_ERROR = "error";
+
+    private final static int DEFAULT_MAX_JOINS = 50;
+
+    /**
+     * Milestones of a single join
+     */
+    public final static class Join {
+
+        @Nullable
+        private String conferenceId;
+
+        /**
+         * Wall clock time of the start, in milliseconds
+         */
+        public final long startedAt;
+
+        private final long start;
+        private final long[] offsets = new long[MILESTONES.length];
+
+        @NonNull
+        private String outcome = OUTCOME_IN_PROGRESS;
+
+        private Join(@Nullable String conferenceId, long start, long startedAt) {
+            this.conferenceId = conferenceId;
+            this.start = start;
+            this.startedAt = startedAt;
+            Arrays.fill(offsets, -1);
+        }
+
+        /**
+         * Get the time elapsed between the start of the join and a milestone
+         *
+         * @param milestone the milestone
+         * @return the time in milliseconds or -1 if not reached
+         */
+        public long offset(int milestone) {
+            return offsets[milestone];
+        }
+
+        @Nullable
+        public String getConferenceId() {
+            return conferenceId;
+        }
+
+        @NonNull
+        public String getOutcome() {
+            return outcome;
+        }
+
+        @NonNull
+        private JSONObject toJSON() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("conferenceId", null != conferenceId ? conferenceId : JSONObject.NULL);
+            json.put("startedAt", startedAt);
+            json.put("outcome", outcome);
+
+            JSONObject milestones = new JSONObject();
+            for (int i = 0; i < offsets.length; i++) {
+                if (offsets[i] >= 0) milestones.put(MILESTONES[i], offsets[i]);
+            }
+            json.put("milestones", milestones);
+            return json;
+        }
+    }
+
+    private final int maxJoins;
+
+    @NonNull
+    private final ArrayList<Join> joins = new ArrayList<>();
+
+    @Nullable
+    private Join current;
+
+    private JoinLifecycleTracer() {
+        this(DEFAULT_MAX_JOINS);
+    }
+
+    JoinLifecycleTracer(int maxJoins) {
+        this.maxJoins = maxJoins;
+    }
+
+    /**
+     * Record a milestone of the current join, starting a new join on CREATING and JOINING
+     *
+     * @param milestone    the milestone
+     * @param conferenceId the conference or null if unknown
+     */
+    public void mark(int milestone, @Nullable String conferenceId) {
+        mark(milestone, conferenceId, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * Record a milestone of the current join
+     *
+     * @param milestone the milestone
+     */
+    public void mark(int milestone) {
+        mark(milestone, null, SystemClock.uptimeMillis());
+    }
+
+    void mark(int milestone, @Nullable String conferenceId, long now) {
+        if (milestone < 0 || milestone >= MILESTONES.length) return;
+
+        boolean starts = CREATING == milestone || (JOINING == milestone && !isCreating(conferenceId));
+        if (starts) {
+            end(OUTCOME_LEFT);
+            current = new Join(conferenceId, now, System.currentTimeMillis());
+            joins.add(current);
+            if (joins.size() > maxJoins) joins.remove(0);
+        }
+
+        Join join = current;
+        if (null == join) return;
+        //the id is only known once the conference is created
+        if (null == join.conferenceId) join.conferenceId = conferenceId;
+        if (join.offsets[milestone] >= 0) return;
+        join.offsets[milestone] = Math.max(0, now - join.start);
+    }
+
+    /**
+     * End the current join, the following milestones are ignored until the next one
+     *
+     * @param outcome OUTCOME_LEFT or OUTCOME_ERROR
+     */
+    public void end(@NonNull String outcome) {
+        if (null == current) return;
+        current.outcome = outcome;
+        current = null;
+    }
+
+    /**
+     * Get the joins kept in memory, the oldest first
+     *
+     * @return a copy of the list
+     */
+    @NonNull
+    public List<Join> getJoins() {
+        return new ArrayList<>(joins);
+    }
+
+    /**
+     * Get a percentile of the time to reach a milestone over the joins kept in memory
+     *
+     * @param milestone  the milestone
+     * @param percentile the percentile, between 0 and 1
+     * @return the time in milliseconds or -1 if no join reached it
+     */
+    public long percentile(int milestone, double percentile) {
+        long[] values = offsets(milestone);
+        if (0 == values.length) return -1;
+
+        int rank = (int) Math.ceil(percentile * values.length);
+        return values[Math.max(0, Math.min(values.length - 1, rank - 1))];
+    }
+
+    /**
+     * Export the joins and the percentiles of each milestone
+     *
+     * @return the json representation or null if it could not be built
+     */
+    @Nullable
+    public JSONObject toJSON() {
+        try {
+            JSONObject json = new JSONObject();
+
+            JSONArray array = new JSONArray();
+            for (Join join : joins) array.put(join.toJSON());
+            json.put("joins", array);
+
+            JSONObject summary = new JSONObject();
+            for (int i = 0; i < MILESTONES.length; i++) {
+                long[] values = offsets(i);
+                if (0 == values.length) continue;
+
+                JSONObject milestone = new JSONObject();
+                milestone.put("count", values.length);
+                milestone.put("p50", percentile(i, 0.5));
+                milestone.put("p90", percentile(i, 0.9));
+                milestone.put("p95", percentile(i, 0.95));
+                milestone.put("max", values[values.length - 1]);
+                summary.put(MILESTONES[i], milestone);
+            }
+            json.put("summary", summary);
+            return json;
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public void clear() {
+        joins.clear();
+        current = null;
+    }
+
+    private boolean isCreating(@Nullable String conferenceId) {
+        Join join = current;
+        if (null == join || join.offsets[JOINING] >= 0) return false;
+        return null == conferenceId || null == join.conferenceId || conferenceId.equals(join.conferenceId);
+    }
+
+    @NonNull
+    private long[] offsets(int milestone) {
+        long[] values = new long[joins.size()];
+        int size = 0;
+        for (Join join : joins) {
+            if (join.offsets[milestone] >= 0) values[size++] = join.offsets[milestone];
+        }
+        values = Arrays.copyOf(values, size);
+        Arrays.sort(values);
+        return values;
+    }
+}
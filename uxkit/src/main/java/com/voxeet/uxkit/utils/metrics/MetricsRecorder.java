@@ -0,0 +1,137 @@
+package com.voxeet.uxkit.utils.metrics;
+
+import android.support.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulate the timings, event latencies and frame durations between two snapshots
+ * <p>
+ * The times are given by the caller so that the aggregation is independent of the clocks. Thread safe.
+ */
+public final class MetricsRecorder {
+
+    //duration above which a frame is frozen
+    private final static long FROZEN_FRAME = 700000000L;
+
+    @NonNull
+    private final LinkedHashMap<String, TimingStats> components = new LinkedHashMap<>();
+
+    @NonNull
+    private final LinkedHashMap<String, TimingStats> latencies = new LinkedHashMap<>();
+
+    //reception time of the oldest event of each type not rendered yet
+    @NonNull
+    private final HashMap<String, Long> pendingEvents = new HashMap<>();
+
+    private long start;
+    private long frames;
+    private long jankyFrames;
+    private long frozenFrames;
+
+    public MetricsRecorder(long start) {
+        this.start = start;
+    }
+
+    /**
+     * Record main thread time spent by a component
+     *
+     * @param component the component
+     * @param nanos     the duration in nanoseconds
+     */
+    public synchronized void recordComponent(@NonNull String component, long nanos) {
+        stats(components, component).record(nanos);
+    }
+
+    /**
+     * Register the reception of an event, only the oldest pending reception of a type is kept
+     *
+     * @param type  the type of the event
+     * @param nanos the reception time in nanoseconds
+     */
+    public synchronized void eventReceived(@NonNull String type, long nanos) {
+        if (!pendingEvents.containsKey(type)) pendingEvents.put(type, nanos);
+    }
+
+    /**
+     * Record the latency of every event received so far
+     *
+     * @param nanos the time of the frame rendering them in nanoseconds
+     */
+    public synchronized void eventsRendered(long nanos) {
+        for (Map.Entry<String, Long> pending : pendingEvents.entrySet()) {
+            stats(latencies, pending.getKey()).record(nanos - pending.getValue());
+        }
+        pendingEvents.clear();
+    }
+
+    public synchronized boolean hasPendingEvents() {
+        return !pendingEvents.isEmpty();
+    }
+
+    /**
+     * Record a rendered frame
+     *
+     * @param duration the time elapsed since the previous frame in nanoseconds
+     * @param expected the refresh period in nanoseconds
+     */
+    public synchronized void recordFrame(long duration, long expected) {
+        frames++;
+        if (duration * 2 > expected * 3) jankyFrames++;
+        if (duration > FROZEN_FRAME) frozenFrames++;
+    }
+
+    /**
+     * Get the metrics recorded since the previous reset
+     *
+     * @param now   the current time in milliseconds
+     * @param reset true to start a new period
+     * @return the snapshot
+     */
+    @NonNull
+    public synchronized MetricsSnapshot snapshot(long now, boolean reset) {
+        MetricsSnapshot snapshot = new MetricsSnapshot(start, now, timings(components), timings(latencies),
+                frames, jankyFrames, frozenFrames);
+
+        if (reset) {
+            for (TimingStats stats : components.values()) stats.reset();
+            for (TimingStats stats : latencies.values()) stats.reset();
+            frames = 0;
+            jankyFrames = 0;
+            frozenFrames = 0;
+            start = now;
+        }
+        return snapshot;
+    }
+
+    public synchronized void clear(long now) {
+        components.clear();
+        latencies.clear();
+        pendingEvents.clear();
+        frames = 0;
+        jankyFrames = 0;
+        frozenFrames = 0;
+        start = now;
+    }
+
+    @NonNull
+    private static TimingStats stats(@NonNull Map<String, TimingStats> map, @NonNull String key) {
+        TimingStats stats = map.get(key);
+        if (null == stats) {
+            stats = new TimingStats();
+            map.put(key, stats);
+        }
+        return stats;
+    }
+
+    @NonNull
+    private static Map<String, MetricsSnapshot.Timing> timings(@NonNull Map<String, TimingStats> map) {
+        LinkedHashMap<String, MetricsSnapshot.Timing> timings = new LinkedHashMap<>();
+        for (Map.Entry<String, TimingStats> entry : map.entrySet()) {
+            if (entry.getValue().count() > 0) timings.put(entry.getKey(), entry.getValue().toTiming());
+        }
+        return timings;
+    }
+}
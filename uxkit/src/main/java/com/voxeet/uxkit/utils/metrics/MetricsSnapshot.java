@@ -0,0 +1,119 @@
+package com.voxeet.uxkit.utils.metrics;
+
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable summary of the UXKit metrics over a period
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * Summary of the durations recorded for a component or an event type
+     */
+    public final static class Timing {
+
+        public final long count;
+
+        public final long totalNanos;
+
+        public final long maxNanos;
+
+        /**
+         * Upper estimate of the median
+         */
+        public final long p50Nanos;
+
+        /**
+         * Upper estimate of the 95th percentile
+         */
+        public final long p95Nanos;
+
+        Timing(long count, long totalNanos, long maxNanos, long p50Nanos, long p95Nanos) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+        }
+
+        public long averageNanos() {
+            return count > 0 ? totalNanos / count : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count + ", total=" + ms(totalNanos) + "ms, avg=" + ms(averageNanos())
+                    + "ms, p50=" + ms(p50Nanos) + "ms, p95=" + ms(p95Nanos) + "ms, max=" + ms(maxNanos) + "ms}";
+        }
+
+        private static String ms(long nanos) {
+            return String.valueOf(Math.round(nanos / 10000d) / 100d);
+        }
+    }
+
+    /**
+     * Start of the period, uptime in milliseconds
+     */
+    public final long start;
+
+    /**
+     * End of the period, uptime in milliseconds
+     */
+    public final long end;
+
+    /**
+     * Main thread time spent per component, see the UXKitMetrics.COMPONENT_* names
+     */
+    @NonNull
+    public final Map<String, Timing> components;
+
+    /**
+     * Delay between the reception of an SDK event and the next frame rendering it, per event type
+     */
+    @NonNull
+    public final Map<String, Timing> eventLatencies;
+
+    /**
+     * Frames rendered while the overlay was visible
+     */
+    public final long frames;
+
+    /**
+     * Frames which took longer than one and a half refresh period
+     */
+    public final long jankyFrames;
+
+    /**
+     * Frames which took longer than 700ms
+     */
+    public final long frozenFrames;
+
+    MetricsSnapshot(long start, long end, @NonNull Map<String, Timing> components,
+                    @NonNull Map<String, Timing> eventLatencies, long frames, long jankyFrames, long frozenFrames) {
+        this.start = start;
+        this.end = end;
+        this.components = Collections.unmodifiableMap(components);
+        this.eventLatencies = Collections.unmodifiableMap(eventLatencies);
+        this.frames = frames;
+        this.jankyFrames = jankyFrames;
+        this.frozenFrames = frozenFrames;
+    }
+
+    /**
+     * Get the part of the frames rendered with jank
+     *
+     * @return a ratio between 0 and 1
+     */
+    public float jankRatio() {
+        return frames > 0 ? jankyFrames / (float) frames : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{duration=" + (end - start) + "ms, frames=" + frames + ", janky=" + jankyFrames
+                + ", frozen=" + frozenFrames + ", components=" + components + ", events=" + eventLatencies + "}";
+    }
+}
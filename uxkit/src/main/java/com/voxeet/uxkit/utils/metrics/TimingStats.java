@@ -0,0 +1,69 @@
+package com.voxeet.uxkit.utils.metrics;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Aggregation of durations : count, total, maximum and an exponential histogram for the percentiles
+ * <p>
+ * Recording does not allocate.
+ */
+final class TimingStats {
+
+    //upper bound of the first bucket, each following bucket doubles it, up to about 4s
+    private final static long FIRST_BUCKET = 64000;
+    private final static int BUCKETS = 17;
+
+    private final long[] histogram = new long[BUCKETS + 1];
+    private long count;
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        count++;
+        total += nanos;
+        if (nanos > max) max = nanos;
+        histogram[bucket(nanos)]++;
+    }
+
+    long count() {
+        return count;
+    }
+
+    void reset() {
+        for (int i = 0; i < histogram.length; i++) histogram[i] = 0;
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    @NonNull
+    MetricsSnapshot.Timing toTiming() {
+        return new MetricsSnapshot.Timing(count, total, max, percentile(0.5), percentile(0.95));
+    }
+
+    /**
+     * Get an upper estimate of a percentile, the upper bound of its bucket capped by the maximum
+     */
+    private long percentile(double percentile) {
+        if (0 == count) return 0;
+
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) return i < BUCKETS ? Math.min(max, FIRST_BUCKET << i) : max;
+        }
+        return max;
+    }
+
+    private static int bucket(long nanos) {
+        long bound = FIRST_BUCKET;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (nanos <= bound) return i;
+            bound <<= 1;
+        }
+        return BUCKETS;
+    }
+}
@@ -0,0 +1,229 @@
+package com.voxeet.uxkit.utils.metrics;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+import android.view.WindowManager;
+
+/**
+ * Opt-in measurement of the UXKit main thread work : time per component, delay between the SDK events and their
+ * rendering and jank while the overlay is visible
+ * <p>
+ * Disabled by default, the instrumented code then only pays a volatile read. Must be used from the main thread,
+ * except for the snapshots.
+ */
+public final class UXKitMetrics {
+
+    public final static UXKitMetrics instance = new UXKitMetrics();
+
+    public final static String COMPONENT_REFRESH_STREAMS = "VoxeetConferenceView.refreshMediaStreams";
+
+    public final static String COMPONENT_PARTICIPANT_BIND = "ParticipantViewAdapter.bind";
+
+    public final static String COMPONENT_SPEAKER_TICK = "VoxeetSpeakersTimer.tick";
+
+    public final static String COMPONENT_OVERLAY_ANIMATION = "AbstractVoxeetOverlayView.animation";
+
+    /**
+     * Creation of the overlay when it is needed, without a prepared one
+     */
+    public final static String COMPONENT_OVERLAY_INFLATE = "AbstractConferenceToolkitController.inflateOverlay";
+
+    /**
+     * Use of an overlay prepared ahead of time
+     */
+    public final static String COMPONENT_OVERLAY_POOLED = "AbstractConferenceToolkitController.pooledOverlay";
+
+    /**
+     * Creation of an overlay ahead of time, when the main thread is idle
+     */
+    public final static String COMPONENT_OVERLAY_PREPARE = "OverlayViewPool.prepare";
+
+    /**
+     * Receiver of the periodic summaries
+     */
+    public interface Listener {
+        void onMetrics(@NonNull MetricsSnapshot snapshot);
+    }
+
+    private final static long DEFAULT_REFRESH_PERIOD = 16666667;
+
+    @NonNull
+    private final MetricsRecorder recorder = new MetricsRecorder(SystemClock.uptimeMillis());
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private volatile boolean enabled;
+
+    @Nullable
+    private Listener listener;
+    private long interval;
+
+    private boolean overlayVisible;
+    private long refreshPeriod = DEFAULT_REFRESH_PERIOD;
+    private long lastFrame;
+    private boolean renderScheduled;
+
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!enabled || !overlayVisible) {
+                lastFrame = 0;
+                return;
+            }
+
+            if (lastFrame > 0) recorder.recordFrame(frameTimeNanos - lastFrame, refreshPeriod);
+            lastFrame = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    };
+
+    private final Choreographer.FrameCallback renderCallback = frameTimeNanos -> {
+        renderScheduled = false;
+        if (enabled) recorder.eventsRendered(System.nanoTime());
+    };
+
+    private final Runnable summary = new Runnable() {
+        @Override
+        public void run() {
+            Listener current = listener;
+            if (!enabled || null == current) return;
+
+            try {
+                current.onMetrics(recorder.snapshot(SystemClock.uptimeMillis(), true));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            handler.postDelayed(this, interval);
+        }
+    };
+
+    private UXKitMetrics() {
+
+    }
+
+    /**
+     * Enable or disable the recording, the metrics recorded so far are discarded
+     *
+     * @param enabled true to record
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+
+        this.enabled = enabled;
+        recorder.clear(SystemClock.uptimeMillis());
+        lastFrame = 0;
+
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        handler.removeCallbacks(summary);
+        if (enabled) {
+            if (overlayVisible) Choreographer.getInstance().postFrameCallback(frameCallback);
+            scheduleSummary();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set the receiver of the periodic summaries, each summary covers the period since the previous one
+     *
+     * @param listener the receiver or null to stop the summaries
+     * @param interval the period in milliseconds
+     */
+    public void setListener(@Nullable Listener listener, long interval) {
+        this.listener = listener;
+        this.interval = Math.max(1000, interval);
+
+        handler.removeCallbacks(summary);
+        scheduleSummary();
+    }
+
+    /**
+     * Get the metrics recorded since the last summary, without starting a new period
+     *
+     * @return the snapshot
+     */
+    @NonNull
+    public MetricsSnapshot snapshot() {
+        return recorder.snapshot(SystemClock.uptimeMillis(), false);
+    }
+
+    /**
+     * Start measuring a component
+     *
+     * @return the token to give to end
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stop measuring a component
+     *
+     * @param component the component measured
+     * @param begin     the value returned by begin
+     */
+    public void end(@NonNull String component, long begin) {
+        if (0 != begin && enabled) recorder.recordComponent(component, System.nanoTime() - begin);
+    }
+
+    /**
+     * Register the reception of an SDK event, its latency is recorded when the next frame following a render request
+     * starts
+     *
+     * @param type the type of the event
+     */
+    public void onEventReceived(@NonNull String type) {
+        if (enabled) recorder.eventReceived(type, System.nanoTime());
+    }
+
+    /**
+     * Signal that the events received so far have been dispatched to the views
+     */
+    public void onRenderRequested() {
+        if (!enabled || renderScheduled || !recorder.hasPendingEvents()) return;
+
+        renderScheduled = true;
+        Choreographer.getInstance().postFrameCallback(renderCallback);
+    }
+
+    /**
+     * Signal the visibility of the overlay, the frames are only monitored while it is visible
+     *
+     * @param context the context of the overlay
+     * @param visible true if the overlay is visible
+     */
+    public void setOverlayVisible(@NonNull Context context, boolean visible) {
+        if (overlayVisible == visible) return;
+        overlayVisible = visible;
+        lastFrame = 0;
+
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        if (!visible || !enabled) return;
+
+        refreshPeriod = refreshPeriod(context);
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    private void scheduleSummary() {
+        if (enabled && null != listener) handler.postDelayed(summary, interval);
+    }
+
+    private static long refreshPeriod(@NonNull Context context) {
+        try {
+            WindowManager manager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+            float rate = null != manager ? manager.getDefaultDisplay().getRefreshRate() : 0;
+            if (rate >= 1) return (long) (1000000000L / rate);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return DEFAULT_REFRESH_PERIOD;
+    }
+}
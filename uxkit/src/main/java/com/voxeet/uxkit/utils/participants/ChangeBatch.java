@@ -0,0 +1,218 @@
+package com.voxeet.uxkit.utils.participants;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Participant and stream changes merged per participant
+ * <p>
+ * The latest participant instance is kept, the add and update flags are both kept when a participant is added and
+ * updated, and the operations on a given stream are reduced to the last meaningful one (an added then removed stream
+ * disappears from the batch).
+ *
+ * @param <P> the type of the participants
+ * @param <S> the type of the streams
+ */
+public final class ChangeBatch<P, S> {
+
+    public final static int ADDED = 1;
+
+    public final static int UPDATED = 2;
+
+    public final static int STREAM_ADDED = 4;
+
+    public final static int STREAM_UPDATED = 8;
+
+    public final static int STREAM_REMOVED = 16;
+
+    @NonNull
+    private final LinkedHashMap<String, Entry<P, S>> entries = new LinkedHashMap<>();
+
+    private int events;
+
+    /**
+     * Get the changed participants in the order they were first changed
+     *
+     * @return the list of entries
+     */
+    @NonNull
+    public List<Entry<P, S>> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Get the union of the changes of every participant
+     *
+     * @return the combination of ADDED, UPDATED and STREAM_* flags
+     */
+    public int getFlags() {
+        int flags = 0;
+        for (Entry<P, S> entry : entries.values()) flags |= entry.getFlags();
+        return flags;
+    }
+
+    /**
+     * Check if any participant has the given change
+     *
+     * @param flag one of the flags of this class
+     * @return true if present
+     */
+    public boolean has(int flag) {
+        return (getFlags() & flag) != 0;
+    }
+
+    /**
+     * Get the number of raw events merged into this batch
+     *
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return events;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public void participantAdded(@NonNull String id, @NonNull P participant) {
+        entry(id, participant).added = true;
+    }
+
+    public void participantUpdated(@NonNull String id, @NonNull P participant) {
+        entry(id, participant).updated = true;
+    }
+
+    /**
+     * Merge an operation on a stream
+     *
+     * @param type        STREAM_ADDED, STREAM_UPDATED or STREAM_REMOVED
+     * @param id          the id of the participant
+     * @param participant the participant
+     * @param stream      the stream, compared by identity
+     */
+    public void stream(int type, @NonNull String id, @NonNull P participant, @NonNull S stream) {
+        Entry<P, S> entry = entry(id, participant);
+
+        StreamChange<S> previous = null;
+        for (StreamChange<S> change : entry.streams) {
+            if (change.stream == stream) {
+                previous = change;
+                break;
+            }
+        }
+
+        if (null == previous) {
+            entry.streams.add(new StreamChange<>(type, stream));
+            return;
+        }
+
+        switch (previous.type) {
+            case STREAM_ADDED:
+                //an update keeps it added, a removal cancels both
+                if (STREAM_REMOVED == type) entry.streams.remove(previous);
+                break;
+            case STREAM_UPDATED:
+                if (STREAM_REMOVED == type) previous.type = STREAM_REMOVED;
+                break;
+            case STREAM_REMOVED:
+                //the same stream coming back is only seen as an update by the views
+                if (STREAM_REMOVED != type) previous.type = STREAM_UPDATED;
+                break;
+            default:
+        }
+    }
+
+    @NonNull
+    private Entry<P, S> entry(@NonNull String id, @NonNull P participant) {
+        events++;
+        Entry<P, S> entry = entries.get(id);
+        if (null == entry) {
+            entry = new Entry<>(participant);
+            entries.put(id, entry);
+        } else {
+            entry.participant = participant;
+        }
+        return entry;
+    }
+
+    /**
+     * Merged changes of a participant
+     */
+    public final static class Entry<P, S> {
+        @NonNull
+        private P participant;
+
+        private boolean added;
+
+        private boolean updated;
+
+        @NonNull
+        private final List<StreamChange<S>> streams = new ArrayList<>();
+
+        private Entry(@NonNull P participant) {
+            this.participant = participant;
+        }
+
+        /**
+         * Get the latest instance received for this participant
+         *
+         * @return the participant
+         */
+        @NonNull
+        public P getParticipant() {
+            return participant;
+        }
+
+        public boolean isAdded() {
+            return added;
+        }
+
+        public boolean isUpdated() {
+            return updated;
+        }
+
+        public int getFlags() {
+            int flags = (added ? ADDED : 0) | (updated ? UPDATED : 0);
+            for (StreamChange<S> change : streams) flags |= change.type;
+            return flags;
+        }
+
+        @NonNull
+        public List<StreamChange<S>> getStreams() {
+            return Collections.unmodifiableList(streams);
+        }
+    }
+
+    /**
+     * Last meaningful operation on a stream
+     */
+    public final static class StreamChange<S> {
+        private int type;
+
+        @NonNull
+        private final S stream;
+
+        private StreamChange(int type, @NonNull S stream) {
+            this.type = type;
+            this.stream = stream;
+        }
+
+        /**
+         * Get the operation
+         *
+         * @return one of STREAM_ADDED, STREAM_UPDATED or STREAM_REMOVED
+         */
+        public int getType() {
+            return type;
+        }
+
+        @NonNull
+        public S getStream() {
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.voxeet.uxkit.utils.participants;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Payload describing which parts of a participant cell changed between two snapshots
+ */
+public final class ParticipantChange {
+
+    public final static int SELECTION = 1;
+
+    public final static int STREAM = 1 << 1;
+
+    public final static int NAME = 1 << 2;
+
+    public final static int STATUS = 1 << 3;
+
+    public final static int AVATAR = 1 << 4;
+
+    //the payloads made of a single change are shared
+    private final static ParticipantChange[] SINGLES = new ParticipantChange[]{
+            new ParticipantChange(SELECTION), new ParticipantChange(STREAM), new ParticipantChange(NAME),
+            new ParticipantChange(STATUS), new ParticipantChange(AVATAR)
+    };
+
+    public final int flags;
+
+    private ParticipantChange(int flags) {
+        this.flags = flags;
+    }
+
+    /**
+     * Check if a given part changed
+     *
+     * @param flag one of the constants of this class
+     * @return true if it changed
+     */
+    public boolean has(int flag) {
+        return 0 != (flags & flag);
+    }
+
+    /**
+     * Get the payload for a given set of changes
+     *
+     * @param flags the combination of changes
+     * @return the payload or null if nothing changed
+     */
+    @Nullable
+    public static ParticipantChange of(int flags) {
+        if (0 == flags) return null;
+        for (ParticipantChange single : SINGLES) {
+            if (single.flags == flags) return single;
+        }
+        return new ParticipantChange(flags);
+    }
+
+    /**
+     * Compute the changes between two snapshots of the same participant
+     *
+     * @param oldItem the displayed snapshot
+     * @param newItem the new snapshot
+     * @return the payload or null if nothing changed
+     */
+    @Nullable
+    public static ParticipantChange between(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+        int flags = 0;
+        if (oldItem.selected != newItem.selected) flags |= SELECTION;
+        if (oldItem.videoStreamKey != newItem.videoStreamKey) flags |= STREAM;
+        if (oldItem.status != newItem.status) flags |= STATUS;
+        if (!same(oldItem.name, newItem.name)) flags |= NAME;
+        if (!same(oldItem.avatarUrl, newItem.avatarUrl)) flags |= AVATAR;
+        return of(flags);
+    }
+
+    /**
+     * Merge the payloads received by a bind
+     *
+     * @param payloads the payloads given to onBindViewHolder
+     * @return the combination of changes or 0 if a full bind is needed
+     */
+    public static int merge(@NonNull List<Object> payloads) {
+        int flags = 0;
+        for (Object payload : payloads) {
+            //any unknown payload requires a full bind
+            if (!(payload instanceof ParticipantChange)) return 0;
+            flags |= ((ParticipantChange) payload).flags;
+        }
+        return flags;
+    }
+
+    private static boolean same(@Nullable String left, @Nullable String right) {
+        return null == left ? null == right : left.equals(right);
+    }
+}
@@ -0,0 +1,251 @@
+package com.voxeet.uxkit.utils.participants;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index of the participants of a conference, updated one participant at a time
+ * <p>
+ * Gives the participant of an id, the number of participants of each status and the participants with an active
+ * camera or screen share without going through the whole list. The order of the participants is the order in which
+ * they were first indexed.
+ *
+ * @param <T> the type of the participants indexed
+ */
+public final class ParticipantIndex<T> {
+
+    public final static int STATUS_ON_AIR = 0;
+
+    public final static int STATUS_CONNECTING = 1;
+
+    /**
+     * Participant invited but not joined yet
+     */
+    public final static int STATUS_INVITED = 2;
+
+    public final static int STATUS_LEFT = 3;
+
+    public final static int STATUS_OTHER = 4;
+
+    private final static int STATUS_COUNT = 5;
+
+    private final static class Entry<T> {
+        @NonNull
+        private T participant;
+        private int status;
+        private boolean present;
+
+        private Entry(@NonNull T participant) {
+            this.participant = participant;
+        }
+    }
+
+    @NonNull
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>();
+
+    @NonNull
+    private final int[] counts = new int[STATUS_COUNT];
+
+    private int presentCount;
+
+    @NonNull
+    private final LinkedHashSet<String> videos = new LinkedHashSet<>();
+
+    @NonNull
+    private final LinkedHashSet<String> screenShares = new LinkedHashSet<>();
+
+    @Nullable
+    private String localId;
+
+    @Nullable
+    private List<T> participants;
+
+    private int version;
+
+    /**
+     * Add or update a participant
+     *
+     * @param id          the id of the participant
+     * @param participant the participant
+     * @param status      its status, one of the STATUS_ values
+     * @param present     true if the participant can be displayed as taking part in the conference
+     * @param video       true if its camera is active
+     * @param screenShare true if it shares its screen
+     * @return true if anything changed, the participant instance apart
+     */
+    public boolean put(@NonNull String id, @NonNull T participant, int status, boolean present, boolean video,
+                       boolean screenShare) {
+        if (status < 0 || status >= STATUS_COUNT) status = STATUS_OTHER;
+
+        Entry<T> entry = entries.get(id);
+        boolean changed = false;
+
+        if (null == entry) {
+            entry = new Entry<>(participant);
+            entries.put(id, entry);
+            counts[status]++;
+            if (present) presentCount++;
+            participants = null;
+            version++;
+            changed = true;
+        } else {
+            if (entry.participant != participant) {
+                entry.participant = participant;
+                participants = null;
+                version++;
+            }
+            if (entry.status != status) {
+                counts[entry.status]--;
+                counts[status]++;
+                version++;
+                changed = true;
+            }
+            if (entry.present != present) {
+                presentCount += present ? 1 : -1;
+                version++;
+                changed = true;
+            }
+        }
+
+        entry.status = status;
+        entry.present = present;
+        changed |= set(videos, id, video) | set(screenShares, id, screenShare);
+        return changed;
+    }
+
+    /**
+     * Remove a participant
+     *
+     * @param id the id of the participant
+     * @return true if it was indexed
+     */
+    public boolean remove(@NonNull String id) {
+        Entry<T> entry = entries.remove(id);
+        if (null == entry) return false;
+
+        counts[entry.status]--;
+        if (entry.present) presentCount--;
+        videos.remove(id);
+        screenShares.remove(id);
+        participants = null;
+        version++;
+        return true;
+    }
+
+    public void clear() {
+        entries.clear();
+        for (int i = 0; i < STATUS_COUNT; i++) counts[i] = 0;
+        presentCount = 0;
+        videos.clear();
+        screenShares.clear();
+        participants = null;
+        version++;
+    }
+
+    /**
+     * @param localId the id of the local participant, excluded from hasRemoteParticipants
+     */
+    public void setLocalId(@Nullable String localId) {
+        this.localId = localId;
+    }
+
+    @Nullable
+    public T get(@Nullable String id) {
+        Entry<T> entry = null != id ? entries.get(id) : null;
+        return null != entry ? entry.participant : null;
+    }
+
+    public boolean contains(@Nullable String id) {
+        return null != id && entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param status one of the STATUS_ values
+     * @return the number of participants with this status
+     */
+    public int count(int status) {
+        return status >= 0 && status < STATUS_COUNT ? counts[status] : 0;
+    }
+
+    /**
+     * @param status one of the STATUS_ values
+     * @return the number of participants other than the local one with this status
+     */
+    public int countRemote(int status) {
+        Entry<T> local = null != localId ? entries.get(localId) : null;
+        return count(status) - (null != local && local.status == status ? 1 : 0);
+    }
+
+    /**
+     * @return true if a participant other than the local one is present
+     */
+    public boolean hasRemoteParticipants() {
+        Entry<T> local = null != localId ? entries.get(localId) : null;
+        return presentCount - (null != local && local.present ? 1 : 0) > 0;
+    }
+
+    public boolean hasVideo(@Nullable String id) {
+        return null != id && videos.contains(id);
+    }
+
+    public boolean hasScreenShare(@Nullable String id) {
+        return null != id && screenShares.contains(id);
+    }
+
+    /**
+     * @return the ids of the participants with an active camera
+     */
+    @NonNull
+    public Set<String> getVideos() {
+        return Collections.unmodifiableSet(videos);
+    }
+
+    /**
+     * @return the ids of the participants sharing their screen
+     */
+    @NonNull
+    public Set<String> getScreenShares() {
+        return Collections.unmodifiableSet(screenShares);
+    }
+
+    /**
+     * Get the participants, the list is only rebuilt after an addition or a removal
+     *
+     * @return the participants in their order of indexation
+     */
+    @NonNull
+    public List<T> getParticipants() {
+        if (null == participants) {
+            List<T> list = new ArrayList<>(entries.size());
+            for (Entry<T> entry : entries.values()) list.add(entry.participant);
+            participants = Collections.unmodifiableList(list);
+        }
+        return participants;
+    }
+
+    /**
+     * Get a number changing each time a participant is added, removed, replaced or changes its status
+     * <p>
+     * The streams are not taken into account, a list filtered on the statuses can be kept while it does not change
+     *
+     * @return the current version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    private static boolean set(@NonNull Set<String> set, @NonNull String id, boolean value) {
+        return value ? set.add(id) : set.remove(id);
+    }
+}
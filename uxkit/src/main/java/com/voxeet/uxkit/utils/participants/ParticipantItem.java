@@ -0,0 +1,99 @@
+package com.voxeet.uxkit.utils.participants;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Immutable snapshot of what the participants bar displays for a given participant
+ * <p>
+ * Two items with the same id represent the same participant, two equal items will produce the same cell.
+ */
+public final class ParticipantItem {
+
+    /**
+     * Participant currently in the conference
+     */
+    public final static int STATUS_ON_AIR = 0;
+
+    /**
+     * Participant invited but not joined yet
+     */
+    public final static int STATUS_INVITED = 1;
+
+    /**
+     * Participant who left the conference
+     */
+    public final static int STATUS_LEFT = 2;
+
+    /**
+     * Any other participant
+     */
+    public final static int STATUS_OTHER = 3;
+
+    final static int STATUS_COUNT = 4;
+
+    @NonNull
+    public final String id;
+
+    public final int status;
+
+    @Nullable
+    public final String name;
+
+    @Nullable
+    public final String avatarUrl;
+
+    /**
+     * Identity of the camera stream displayed, 0 when the participant has no video
+     */
+    public final int videoStreamKey;
+
+    public final boolean selected;
+
+    public ParticipantItem(@NonNull String id, int status, @Nullable String name, @Nullable String avatarUrl,
+                           int videoStreamKey, boolean selected) {
+        this.id = id;
+        this.status = status;
+        this.name = name;
+        this.avatarUrl = avatarUrl;
+        this.videoStreamKey = videoStreamKey;
+        this.selected = selected;
+    }
+
+    public boolean isOnAir() {
+        return STATUS_ON_AIR == status;
+    }
+
+    public boolean hasVideo() {
+        return 0 != videoStreamKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ParticipantItem)) return false;
+
+        ParticipantItem other = (ParticipantItem) o;
+        return status == other.status
+                && videoStreamKey == other.videoStreamKey
+                && selected == other.selected
+                && id.equals(other.id)
+                && equals(name, other.name)
+                && equals(avatarUrl, other.avatarUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + status;
+        result = 31 * result + (null != name ? name.hashCode() : 0);
+        result = 31 * result + (null != avatarUrl ? avatarUrl.hashCode() : 0);
+        result = 31 * result + videoStreamKey;
+        result = 31 * result + (selected ? 1 : 0);
+        return result;
+    }
+
+    private static boolean equals(@Nullable String left, @Nullable String right) {
+        return null == left ? null == right : left.equals(right);
+    }
+}
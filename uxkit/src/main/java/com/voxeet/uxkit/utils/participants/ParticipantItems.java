@@ -0,0 +1,60 @@
+package com.voxeet.uxkit.utils.participants;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Ordering of the items displayed in the participants bar
+ */
+public final class ParticipantItems {
+
+    private ParticipantItems() {
+
+    }
+
+    /**
+     * Order the items by status : on air, invited, left and others
+     * <p>
+     * The order of the items sharing the same status is kept and duplicated ids are only kept once. Runs in linear time.
+     *
+     * @param items the items to order
+     * @return a new list of ordered items
+     */
+    @NonNull
+    public static List<ParticipantItem> order(@NonNull List<ParticipantItem> items) {
+        int[] counts = new int[ParticipantItem.STATUS_COUNT];
+        HashSet<String> ids = new HashSet<>();
+        ParticipantItem[] unique = new ParticipantItem[items.size()];
+        int size = 0;
+
+        for (ParticipantItem item : items) {
+            if (null == item || !ids.add(item.id)) continue;
+            unique[size++] = item;
+            counts[bucket(item)]++;
+        }
+
+        //offset of each bucket in the final list
+        int[] offsets = new int[ParticipantItem.STATUS_COUNT];
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] = offsets[i - 1] + counts[i - 1];
+        }
+
+        ParticipantItem[] ordered = new ParticipantItem[size];
+        for (int i = 0; i < size; i++) {
+            ParticipantItem item = unique[i];
+            ordered[offsets[bucket(item)]++] = item;
+        }
+
+        List<ParticipantItem> result = new ArrayList<>(size);
+        for (ParticipantItem item : ordered) result.add(item);
+        return result;
+    }
+
+    private static int bucket(@NonNull ParticipantItem item) {
+        int status = item.status;
+        return status >= 0 && status < ParticipantItem.STATUS_COUNT ? status : ParticipantItem.STATUS_OTHER;
+    }
+}
@@ -0,0 +1,94 @@
+package com.voxeet.uxkit.utils.quality;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Levels of degradation of the conference UI, each level keeps the reductions of the previous ones
+ */
+public final class DegradationLevel {
+
+    /**
+     * Full quality
+     */
+    public final static int NONE = 0;
+
+    /**
+     * The audio meters and the active speaker are refreshed less often
+     */
+    public final static int REDUCED_REFRESH = 1;
+
+    /**
+     * The overlay is resized and moved without animations
+     */
+    public final static int NO_ANIMATIONS = 2;
+
+    /**
+     * Only a few remote videos of the participant tiles are decoded at the same time
+     */
+    public final static int CAPPED_VIDEOS = 3;
+
+    /**
+     * The local camera is not displayed anymore, it is still sent to the conference
+     */
+    public final static int NO_SELF_VIEW = 4;
+
+    public final static int MAX = NO_SELF_VIEW;
+
+    /**
+     * Number of remote videos of the tiles from CAPPED_VIDEOS
+     */
+    public final static int CAPPED_VIDEOS_COUNT = 2;
+
+    private DegradationLevel() {
+
+    }
+
+    /**
+     * Get the factor to apply to the refresh intervals
+     *
+     * @param level the level
+     * @return the factor, 1 at full quality
+     */
+    public static int refreshFactor(int level) {
+        if (level >= CAPPED_VIDEOS) return 3;
+        if (level >= REDUCED_REFRESH) return 2;
+        return 1;
+    }
+
+    public static boolean animationsEnabled(int level) {
+        return level < NO_ANIMATIONS;
+    }
+
+    /**
+     * Get the number of remote videos the tiles can decode at the same time
+     *
+     * @param level      the level
+     * @param configured the number configured at full quality
+     * @return the number for this level
+     */
+    public static int maxRemoteVideos(int level, int configured) {
+        return level >= CAPPED_VIDEOS ? Math.min(configured, CAPPED_VIDEOS_COUNT) : configured;
+    }
+
+    public static boolean selfViewEnabled(int level) {
+        return level < NO_SELF_VIEW;
+    }
+
+    @NonNull
+    public static String name(int level) {
+        switch (level) {
+            case NONE:
+                return "NONE";
+            case REDUCED_REFRESH:
+                return "REDUCED_REFRESH";
+            case NO_ANIMATIONS:
+                return "NO_ANIMATIONS";
+            case CAPPED_VIDEOS:
+                return "CAPPED_VIDEOS";
+            case NO_SELF_VIEW:
+                return "NO_SELF_VIEW";
+            default:
+                return "UNKNOWN";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.voxeet.uxkit.utils.quality;
+
+/**
+ * Compute the degradation level of the conference UI from the state of the device
+ * <p>
+ * The battery temperature gives the level the device can sustain, the battery saver requires at least NO_ANIMATIONS
+ * and a high ratio of janky frames asks for one more level. The level is lowered one step per evaluation as soon as
+ * needed, it is only raised back one step after several evaluations in better conditions so that it does not flap.
+ */
+public final class DegradationPolicy {
+
+    /**
+     * Battery temperatures in Celsius from which each level is needed
+     */
+    private final static float[] TEMPERATURES = {38f, 40f, 42f, 44f};
+
+    /**
+     * Ratio of janky frames above which the UI is degraded one more level
+     */
+    public final static float JANK_RATIO_THRESHOLD = 0.25f;
+
+    /**
+     * Number of consecutive evaluations in better conditions before recovering one level
+     */
+    public final static int DEFAULT_RECOVERY_EVALUATIONS = 3;
+
+    private final int recoveryEvaluations;
+
+    private int level = DegradationLevel.NONE;
+
+    private int betterEvaluations;
+
+    public DegradationPolicy() {
+        this(DEFAULT_RECOVERY_EVALUATIONS);
+    }
+
+    public DegradationPolicy(int recoveryEvaluations) {
+        this.recoveryEvaluations = Math.max(1, recoveryEvaluations);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Compute the level the conditions ask for, without hysteresis
+     *
+     * @param batteryTemperature the battery temperature in Celsius or NaN if unknown
+     * @param powerSave          true if the battery saver is enabled
+     * @param jankRatio          the ratio of janky frames since the last evaluation, 0 if unknown
+     * @param current            the current level
+     * @return the level needed
+     */
+    public static int target(float batteryTemperature, boolean powerSave, float jankRatio, int current) {
+        int target = DegradationLevel.NONE;
+
+        if (!Float.isNaN(batteryTemperature)) {
+            for (float temperature : TEMPERATURES) {
+                if (batteryTemperature >= temperature) target++;
+            }
+        }
+
+        if (powerSave) target = Math.max(target, DegradationLevel.NO_ANIMATIONS);
+
+        //the current level is not enough to render smoothly
+        if (jankRatio > JANK_RATIO_THRESHOLD) target = Math.max(target, current + 1);
+
+        return Math.min(target, DegradationLevel.MAX);
+    }
+
+    /**
+     * Evaluate the conditions and move the level one step toward the level needed
+     *
+     * @param batteryTemperature the battery temperature in Celsius or NaN if unknown
+     * @param powerSave          true if the battery saver is enabled
+     * @param jankRatio          the ratio of janky frames since the last evaluation, 0 if unknown
+     * @return the new level
+     */
+    public int evaluate(float batteryTemperature, boolean powerSave, float jankRatio) {
+        int target = target(batteryTemperature, powerSave, jankRatio, level);
+
+        if (target > level) {
+            betterEvaluations = 0;
+            level++;
+        } else if (target < level) {
+            betterEvaluations++;
+            if (betterEvaluations >= recoveryEvaluations) {
+                betterEvaluations = 0;
+                level--;
+            }
+        } else {
+            betterEvaluations = 0;
+        }
+        return level;
+    }
+
+    public void reset() {
+        level = DegradationLevel.NONE;
+        betterEvaluations = 0;
+    }
+}
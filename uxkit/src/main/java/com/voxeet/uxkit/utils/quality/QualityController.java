@@ -0,0 +1,254 @@
+package com.voxeet.uxkit.utils.quality;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.voxeet.uxkit.configuration.Performance;
+import com.voxeet.uxkit.controllers.ConferenceToolkitController;
+import com.voxeet.uxkit.controllers.VoxeetToolkit;
+import com.voxeet.uxkit.events.QualityLevelChangedEvent;
+import com.voxeet.uxkit.utils.VoxeetSpeakersTimerInstance;
+import com.voxeet.uxkit.utils.metrics.MetricsSnapshot;
+import com.voxeet.uxkit.utils.metrics.UXKitMetrics;
+
+import org.greenrobot.eventbus.EventBus;
+
+/**
+ * Adapt the quality of the conference UI to the state of the device during long calls
+ * <p>
+ * Once enabled, the battery temperature, the battery saver and the janky frames measured by UXKitMetrics are evaluated
+ * periodically. Each change of level is posted as a QualityLevelChangedEvent on the default EventBus.
+ * <p>
+ * The rates and durations it gives are the ones of the Performance configuration, reduced for the current level.
+ */
+@MainThread
+public final class QualityController {
+
+    public final static QualityController instance = new QualityController();
+
+    public final static long EVALUATION_INTERVAL = 10000;
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final DegradationPolicy policy = new DegradationPolicy();
+
+    @Nullable
+    private Context context;
+
+    private int level = DegradationLevel.NONE;
+
+    //used until the toolkit is initialized
+    @NonNull
+    private final Performance defaultPerformance = new Performance();
+
+    //frames already accounted for in the current period of the metrics
+    private long metricsStart;
+    private long metricsFrames;
+    private long metricsJankyFrames;
+
+    private final Runnable evaluation = new Runnable() {
+        @Override
+        public void run() {
+            evaluate();
+            if (null != context) handler.postDelayed(this, EVALUATION_INTERVAL);
+        }
+    };
+
+    private final BroadcastReceiver powerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            evaluate();
+        }
+    };
+
+    private QualityController() {
+
+    }
+
+    /**
+     * Start watching the device
+     *
+     * @param context any context, the application one is kept
+     */
+    public void enable(@NonNull Context context) {
+        if (null != this.context) return;
+
+        this.context = context.getApplicationContext();
+        metricsStart = 0;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            this.context.registerReceiver(powerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        }
+        handler.post(evaluation);
+    }
+
+    /**
+     * Stop watching the device and go back to full quality
+     */
+    public void disable() {
+        if (null == context) return;
+
+        handler.removeCallbacks(evaluation);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            try {
+                context.unregisterReceiver(powerSaveReceiver);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        context = null;
+
+        policy.reset();
+        setLevel(DegradationLevel.NONE, Float.NaN, false, 0);
+    }
+
+    public boolean isEnabled() {
+        return null != context;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Apply the sampling interval of the audio levels, to call once the Performance configuration changed
+     */
+    public void applyPerformance() {
+        VoxeetSpeakersTimerInstance.instance.setSamplingInterval(getMeterRefreshInterval());
+    }
+
+    /**
+     * @return the interval between two samplings of the audio levels for the current level
+     */
+    public long getMeterRefreshInterval() {
+        return performance().getRefreshMeter() * DegradationLevel.refreshFactor(level);
+    }
+
+    /**
+     * @return the interval between two refreshes of the active speaker for the current level
+     */
+    public long getSpeakerRefreshInterval() {
+        return performance().getRefreshSpeaker() * DegradationLevel.refreshFactor(level);
+    }
+
+    /**
+     * @return the interval between two refreshes of the conference timer
+     */
+    public long getTimerTick() {
+        return performance().getTimerTick();
+    }
+
+    /**
+     * @return the delay after which the overlay is attached even if the activity was not reported as resumed
+     */
+    public long getAttachDelay() {
+        return performance().getAttachDelay();
+    }
+
+    public boolean isAnimationEnabled() {
+        return DegradationLevel.animationsEnabled(level) && performance().getAnimationScale() > 0;
+    }
+
+    /**
+     * @param duration the duration of an animation at full quality
+     * @return the duration to use, 0 when the animations are disabled
+     */
+    public long getAnimationDuration(long duration) {
+        if (!DegradationLevel.animationsEnabled(level)) return 0;
+        return (long) (duration * performance().getAnimationScale());
+    }
+
+    /**
+     * @param configured the number of remote videos of the tiles at full quality
+     * @return the number for the current level
+     */
+    public int getMaxRemoteVideos(int configured) {
+        return DegradationLevel.maxRemoteVideos(level, configured);
+    }
+
+    public boolean isSelfViewEnabled() {
+        return DegradationLevel.selfViewEnabled(level);
+    }
+
+    private void evaluate() {
+        if (null == context) return;
+
+        float temperature = batteryTemperature(context);
+        boolean powerSave = isPowerSaveMode(context);
+        float jankRatio = jankRatio();
+
+        setLevel(policy.evaluate(temperature, powerSave, jankRatio), temperature, powerSave, jankRatio);
+    }
+
+    private void setLevel(int level, float temperature, boolean powerSave, float jankRatio) {
+        if (this.level == level) return;
+
+        int previous = this.level;
+        this.level = level;
+
+        applyPerformance();
+        EventBus.getDefault().post(new QualityLevelChangedEvent(previous, level, temperature, powerSave, jankRatio));
+    }
+
+    @NonNull
+    private Performance performance() {
+        VoxeetToolkit toolkit = VoxeetToolkit.instance();
+        ConferenceToolkitController controller = null != toolkit ? toolkit.getConferenceToolkit() : null;
+        return null != controller ? controller.Configuration.Performance : defaultPerformance;
+    }
+
+    /**
+     * Ratio of janky frames since the previous evaluation, only known when the metrics are enabled
+     */
+    private float jankRatio() {
+        if (!UXKitMetrics.instance.isEnabled()) return 0;
+
+        MetricsSnapshot snapshot = UXKitMetrics.instance.snapshot();
+        long frames = snapshot.frames;
+        long janky = snapshot.jankyFrames;
+
+        //same period as the previous evaluation, only count the new frames
+        if (snapshot.start == metricsStart && frames >= metricsFrames) {
+            frames -= metricsFrames;
+            janky -= metricsJankyFrames;
+        }
+
+        metricsStart = snapshot.start;
+        metricsFrames = snapshot.frames;
+        metricsJankyFrames = snapshot.jankyFrames;
+
+        return frames > 0 ? janky / (float) frames : 0;
+    }
+
+    private static float batteryTemperature(@NonNull Context context) {
+        try {
+            Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+            if (null == battery || !battery.hasExtra(BatteryManager.EXTRA_TEMPERATURE)) return Float.NaN;
+
+            //given in tenths of degree
+            return battery.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, 0) / 10f;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Float.NaN;
+        }
+    }
+
+    private static boolean isPowerSaveMode(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) return false;
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return null != powerManager && powerManager.isPowerSaveMode();
+    }
+}
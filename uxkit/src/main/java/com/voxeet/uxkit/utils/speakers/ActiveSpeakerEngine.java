@@ -0,0 +1,275 @@
+package com.voxeet.uxkit.utils.speakers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Compute the active speaker of a conference from the audio levels sampled for each participant
+ * <p>
+ * A sampling pass is made of a call to beginSample, one call to sample per participant and a final call to commit.
+ * The commit will return the flags describing what changed since the previous pass so that callers only forward deltas.
+ * <p>
+ * Levels are kept in an AudioLevelTable so that a sampling pass does not allocate once every participant got its slot.
+ * <p>
+ * This class is not thread safe : every sampling pass must be made from the same thread. Only the configuration and
+ * the levels can be read from any thread.
+ */
+public final class ActiveSpeakerEngine {
+
+    /**
+     * Default level above which a participant is considered as speaking
+     */
+    public final static double DEFAULT_SPEAKING_THRESHOLD = 0.02;
+
+    /**
+     * Default margin a participant must have over the current active speaker to replace it
+     */
+    public final static double DEFAULT_HYSTERESIS = 0.05;
+
+    /**
+     * Default minimum duration in milliseconds an active speaker is kept before being replaced
+     */
+    public final static long DEFAULT_HOLD_TIME = 1500;
+
+    /**
+     * Flag returned by commit when nothing changed
+     */
+    public final static int NO_CHANGE = 0;
+
+    /**
+     * Flag returned by commit when the active speaker changed
+     */
+    public final static int ACTIVE_SPEAKER_CHANGED = 1;
+
+    /**
+     * Flag returned by commit when at least one participant started or stopped speaking
+     */
+    public final static int SPEAKING_CHANGED = 2;
+
+    private volatile double speakingThreshold = DEFAULT_SPEAKING_THRESHOLD;
+    private volatile double hysteresis = DEFAULT_HYSTERESIS;
+    private volatile long holdTime = DEFAULT_HOLD_TIME;
+
+    private final AudioLevelTable levels = new AudioLevelTable();
+
+    //per slot state, indexed like the level table
+    private boolean[] speaking = new boolean[0];
+    private int[] sampledPass = new int[0];
+    private int pass;
+    private int changedCount;
+
+    private int activeSpeakerSlot = -1;
+    @Nullable
+    private String activeSpeaker;
+    private long activeSpeakerSince;
+
+    /**
+     * Set the level above which a participant is considered as speaking
+     *
+     * @param threshold the new threshold
+     */
+    public void setSpeakingThreshold(double threshold) {
+        speakingThreshold = threshold;
+    }
+
+    /**
+     * Get the level above which a participant is considered as speaking
+     *
+     * @return the current threshold
+     */
+    public double getSpeakingThreshold() {
+        return speakingThreshold;
+    }
+
+    /**
+     * Set the margin the loudest participant must have over the current active speaker to replace it
+     *
+     * @param hysteresis the margin, 0 to switch as soon as someone is louder
+     */
+    public void setHysteresis(double hysteresis) {
+        this.hysteresis = Math.max(0, hysteresis);
+    }
+
+    /**
+     * Set the minimum duration an active speaker is kept before being replaced
+     *
+     * @param holdTime the duration in milliseconds
+     */
+    public void setHoldTime(long holdTime) {
+        this.holdTime = Math.max(0, holdTime);
+    }
+
+    /**
+     * Start a new sampling pass
+     */
+    public void beginSample() {
+        pass++;
+        changedCount = 0;
+    }
+
+    /**
+     * Register the level of a participant for the current pass
+     *
+     * @param participantId the participant
+     * @param level         its current audio level
+     */
+    public void sample(@NonNull String participantId, double level) {
+        int slot = levels.acquire(participantId);
+        ensureCapacity(slot + 1);
+
+        sampledPass[slot] = pass;
+        levels.set(slot, (float) level);
+
+        boolean isSpeaking = level > speakingThreshold;
+        if (isSpeaking != speaking[slot]) {
+            speaking[slot] = isSpeaking;
+            changedCount++;
+        }
+    }
+
+    /**
+     * End the current sampling pass
+     *
+     * @param now the current time in milliseconds, using a monotonic clock
+     * @return a combination of ACTIVE_SPEAKER_CHANGED and SPEAKING_CHANGED or NO_CHANGE
+     */
+    public int commit(long now) {
+        int flags = NO_CHANGE;
+
+        int loudest = -1;
+        double loudestLevel = speakingThreshold;
+
+        int count = levels.slotCount();
+        for (int slot = 0; slot < count; slot++) {
+            if (null == levels.participantAt(slot)) continue;
+
+            //forget about the participants not sampled anymore
+            if (sampledPass[slot] != pass) {
+                if (speaking[slot]) changedCount++;
+                speaking[slot] = false;
+                levels.release(slot);
+                if (slot == activeSpeakerSlot) {
+                    activeSpeakerSlot = -1;
+                    activeSpeaker = null;
+                    flags |= ACTIVE_SPEAKER_CHANGED;
+                }
+                continue;
+            }
+
+            float level = levels.get(slot);
+            if (speaking[slot] && level > loudestLevel) {
+                loudest = slot;
+                loudestLevel = level;
+            }
+        }
+
+        if (changedCount > 0) flags |= SPEAKING_CHANGED;
+
+        if (loudest >= 0 && loudest != activeSpeakerSlot) {
+            boolean replace = activeSpeakerSlot < 0;
+            if (!replace && now - activeSpeakerSince >= holdTime) {
+                replace = loudestLevel >= levels.get(activeSpeakerSlot) + hysteresis;
+            }
+
+            if (replace) {
+                activeSpeakerSlot = loudest;
+                activeSpeaker = levels.participantAt(loudest);
+                activeSpeakerSince = now;
+                flags |= ACTIVE_SPEAKER_CHANGED;
+            }
+        } else if (loudest >= 0) {
+            //the active speaker is still speaking, extend its hold
+            activeSpeakerSince = now;
+        }
+
+        return flags;
+    }
+
+    /**
+     * Get the active speaker computed during the last pass
+     *
+     * @return the participant id or null if no one spoke yet
+     */
+    @Nullable
+    public String getActiveSpeaker() {
+        return activeSpeaker;
+    }
+
+    /**
+     * Get the level sampled for a given participant during the last pass
+     * <p>
+     * Can be called from any thread
+     *
+     * @param participantId the participant
+     * @return the level or 0
+     */
+    public double level(@Nullable String participantId) {
+        return levels.get(participantId);
+    }
+
+    /**
+     * Check if a participant was speaking during the last pass
+     * <p>
+     * Can be called from any thread
+     *
+     * @param participantId the participant
+     * @return true if its level was above the speaking threshold
+     */
+    public boolean isSpeaking(@Nullable String participantId) {
+        return levels.get(participantId) > speakingThreshold;
+    }
+
+    /**
+     * Check if a participant was sampled during the last pass
+     *
+     * @param participantId the participant
+     * @return true if a level is known for this participant
+     */
+    public boolean isTracked(@Nullable String participantId) {
+        return levels.slotOf(participantId) >= 0;
+    }
+
+    /**
+     * Get the number of participants sampled during the last pass
+     *
+     * @return the number of participants
+     */
+    public int size() {
+        return levels.size();
+    }
+
+    /**
+     * Get the number of participants which started or stopped speaking during the last pass
+     *
+     * @return the number of changes
+     */
+    public int changedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Forget every sampled state
+     */
+    public void reset() {
+        levels.clear();
+        for (int i = 0; i < speaking.length; i++) speaking[i] = false;
+        changedCount = 0;
+        activeSpeakerSlot = -1;
+        activeSpeaker = null;
+        activeSpeakerSince = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= speaking.length) return;
+
+        int size = Math.max(capacity, speaking.length * 2);
+
+        boolean[] newSpeaking = new boolean[size];
+        System.arraycopy(speaking, 0, newSpeaking, 0, speaking.length);
+        speaking = newSpeaking;
+
+        int[] newSampledPass = new int[size];
+        System.arraycopy(sampledPass, 0, newSampledPass, 0, sampledPass.length);
+        sampledPass = newSampledPass;
+    }
+}
@@ -0,0 +1,183 @@
+package com.voxeet.uxkit.utils.speakers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+
+/**
+ * Index based storage of the audio levels of the participants
+ * <p>
+ * Each participant gets a stable slot when it is first acquired and keeps it until released. Levels are then stored in a
+ * reusable float array so that reading or writing a level does not make any allocation.
+ * <p>
+ * Only one thread must acquire, release and set levels. Any other thread can read the levels : the slot index and the
+ * level array are published by replacing them, which only happens when participants join, leave or the table grows.
+ */
+public final class AudioLevelTable {
+
+    private final static int DEFAULT_CAPACITY = 16;
+
+    private volatile HashMap<String, Integer> slots = new HashMap<>();
+    private volatile float[] levels;
+
+    private String[] ids;
+    private int[] freeSlots;
+    private int freeCount;
+    private int highestSlot;
+
+    public AudioLevelTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AudioLevelTable(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        levels = new float[capacity];
+        ids = new String[capacity];
+        freeSlots = new int[capacity];
+        freeCount = 0;
+        highestSlot = 0;
+    }
+
+    /**
+     * Get the slot of a given participant
+     *
+     * @param participantId the participant
+     * @return the slot or -1 if the participant is not in the table
+     */
+    public int slotOf(@Nullable String participantId) {
+        if (null == participantId) return -1;
+        Integer slot = slots.get(participantId);
+        return null != slot ? slot : -1;
+    }
+
+    /**
+     * Get the slot of a given participant, creating it if needed
+     *
+     * @param participantId the participant
+     * @return the slot, stable until the participant is released
+     */
+    public int acquire(@NonNull String participantId) {
+        int slot = slotOf(participantId);
+        if (slot >= 0) return slot;
+
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = highestSlot++;
+            if (slot >= ids.length) grow(ids.length * 2);
+        }
+
+        ids[slot] = participantId;
+        levels[slot] = 0f;
+
+        HashMap<String, Integer> copy = new HashMap<>(slots);
+        copy.put(participantId, slot);
+        slots = copy;
+        return slot;
+    }
+
+    /**
+     * Release the slot of a given participant, it will be reused by the next participant acquired
+     *
+     * @param slot the slot to release
+     */
+    public void release(int slot) {
+        if (slot < 0 || slot >= highestSlot || null == ids[slot]) return;
+
+        HashMap<String, Integer> copy = new HashMap<>(slots);
+        copy.remove(ids[slot]);
+        slots = copy;
+
+        ids[slot] = null;
+        levels[slot] = 0f;
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Set the level of a given slot
+     *
+     * @param slot  a slot previously acquired
+     * @param level the new level
+     */
+    public void set(int slot, float level) {
+        levels[slot] = level;
+    }
+
+    /**
+     * Get the level of a given slot
+     *
+     * @param slot a slot previously acquired
+     * @return the level or 0 if the slot is invalid
+     */
+    public float get(int slot) {
+        float[] current = levels;
+        return slot >= 0 && slot < current.length ? current[slot] : 0f;
+    }
+
+    /**
+     * Get the level of a given participant
+     *
+     * @param participantId the participant
+     * @return the level or 0 if the participant is not in the table
+     */
+    public float get(@Nullable String participantId) {
+        return get(slotOf(participantId));
+    }
+
+    /**
+     * Get the participant holding a given slot, only valid on the writing thread
+     *
+     * @param slot the slot
+     * @return the participant id or null if the slot is free
+     */
+    @Nullable
+    public String participantAt(int slot) {
+        return slot >= 0 && slot < highestSlot ? ids[slot] : null;
+    }
+
+    /**
+     * Get the upper bound of the slots used so far, to iterate over them
+     *
+     * @return the number of slots ever used
+     */
+    public int slotCount() {
+        return highestSlot;
+    }
+
+    /**
+     * Get the number of participants currently in the table
+     *
+     * @return the number of participants
+     */
+    public int size() {
+        return highestSlot - freeCount;
+    }
+
+    /**
+     * Release every slot
+     */
+    public void clear() {
+        slots = new HashMap<>();
+        for (int i = 0; i < highestSlot; i++) {
+            ids[i] = null;
+            levels[i] = 0f;
+        }
+        highestSlot = 0;
+        freeCount = 0;
+    }
+
+    private void grow(int capacity) {
+        String[] newIds = new String[capacity];
+        System.arraycopy(ids, 0, newIds, 0, ids.length);
+        ids = newIds;
+
+        int[] newFreeSlots = new int[capacity];
+        System.arraycopy(freeSlots, 0, newFreeSlots, 0, freeSlots.length);
+        freeSlots = newFreeSlots;
+
+        float[] newLevels = new float[capacity];
+        System.arraycopy(levels, 0, newLevels, 0, levels.length);
+        levels = newLevels;
+    }
+}
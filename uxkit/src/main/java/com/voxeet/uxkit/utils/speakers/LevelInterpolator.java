@@ -0,0 +1,89 @@
+package com.voxeet.uxkit.utils.speakers;
+
+/**
+ * Smooth an audio level between two samplings
+ * <p>
+ * The displayed value moves toward the last sampled level at a rate depending on the time elapsed since the previous
+ * frame : quickly when the level raises (attack) and slowly when it falls (decay).
+ */
+public final class LevelInterpolator {
+
+    /**
+     * Default time constant in milliseconds used when the level raises
+     */
+    public final static float DEFAULT_ATTACK = 40;
+
+    /**
+     * Default time constant in milliseconds used when the level falls
+     */
+    public final static float DEFAULT_DECAY = 250;
+
+    /**
+     * Difference under which the displayed value is considered as settled
+     */
+    public final static float EPSILON = 0.002f;
+
+    private float attack = DEFAULT_ATTACK;
+    private float decay = DEFAULT_DECAY;
+    private float value;
+
+    /**
+     * Set the time constants of the interpolation
+     *
+     * @param attack the time constant in milliseconds when the level raises
+     * @param decay  the time constant in milliseconds when the level falls
+     */
+    public void setTimeConstants(float attack, float decay) {
+        this.attack = Math.max(1, attack);
+        this.decay = Math.max(1, decay);
+    }
+
+    /**
+     * Move the displayed value toward a target
+     *
+     * @param target  the last sampled level
+     * @param elapsed the time elapsed since the previous step, in milliseconds
+     * @return the new displayed value
+     */
+    public float step(float target, float elapsed) {
+        float delta = target - value;
+        if (Math.abs(delta) < EPSILON) {
+            value = target;
+            return value;
+        }
+
+        float constant = delta > 0 ? attack : decay;
+        //first order approximation of 1 - exp(-elapsed / constant), clamped for long frames
+        float ratio = Math.min(1f, Math.max(0f, elapsed) / (constant + Math.max(0f, elapsed)));
+        value += delta * ratio;
+        return value;
+    }
+
+    /**
+     * Check if the displayed value reached the target
+     *
+     * @param target the last sampled level
+     * @return true if nothing will move anymore
+     */
+    public boolean isSettled(float target) {
+        return Math.abs(target - value) < EPSILON;
+    }
+
+    /**
+     * Get the displayed value
+     *
+     * @return the current value
+     */
+    public float value() {
+        return value;
+    }
+
+    /**
+     * Force the displayed value
+     *
+     * @param value the new value
+     */
+    public void reset(float value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,122 @@
+package com.voxeet.uxkit.utils.speakers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Participants ordered by the last time they spoke, the most recent first
+ * <p>
+ * Fed by the sampling thread with the participants speaking at each pass. The time a participant has been speaking is
+ * tracked as well: a streak goes on while the gaps between two samples above the threshold stay under the streak gap,
+ * so that a short noise can be told apart from someone taking the floor.
+ * <p>
+ * Only the least recent speakers over the capacity are forgotten. Updating a participant already ranked does not
+ * allocate. Every method can be called from any thread.
+ */
+public final class RecentSpeakersRanking {
+
+    public final static int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Default gap in milliseconds after which a new speaking streak starts
+     */
+    public final static long DEFAULT_STREAK_GAP = 1000;
+
+    private final static class Entry {
+        private long lastSpoke;
+        private long streakStart;
+    }
+
+    private final long streakGap;
+
+    @NonNull
+    private final LinkedHashMap<String, Entry> entries;
+
+    //same entries, read without changing the order
+    @NonNull
+    private final HashMap<String, Entry> lookup = new HashMap<>();
+
+    public RecentSpeakersRanking() {
+        this(DEFAULT_CAPACITY, DEFAULT_STREAK_GAP);
+    }
+
+    public RecentSpeakersRanking(final int capacity, long streakGap) {
+        this.streakGap = Math.max(0, streakGap);
+
+        //in access order, the eldest entry is the least recent speaker
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= Math.max(1, capacity)) return false;
+                lookup.remove(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Register a participant speaking
+     *
+     * @param participantId the participant
+     * @param now           the current time in milliseconds, using a monotonic clock
+     */
+    public synchronized void onSpeaking(@NonNull String participantId, long now) {
+        Entry entry = entries.get(participantId);
+        if (null == entry) {
+            entry = new Entry();
+            entry.streakStart = now;
+            entries.put(participantId, entry);
+            lookup.put(participantId, entry);
+        } else if (now - entry.lastSpoke > streakGap) {
+            entry.streakStart = now;
+        }
+        entry.lastSpoke = now;
+    }
+
+    public synchronized void remove(@Nullable String participantId) {
+        if (null == participantId) return;
+        entries.remove(participantId);
+        lookup.remove(participantId);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        lookup.clear();
+    }
+
+    /**
+     * Get the participants who spoke, the most recent first
+     *
+     * @return a copy of the ranking
+     */
+    @NonNull
+    public synchronized List<String> getRanking() {
+        List<String> ranking = new ArrayList<>(entries.keySet());
+        Collections.reverse(ranking);
+        return ranking;
+    }
+
+    /**
+     * Get how long a participant has been speaking without interruption
+     *
+     * @param participantId the participant
+     * @param now           the current time in milliseconds, using the same clock as onSpeaking
+     * @return the duration of its current streak, 0 if it is not speaking anymore
+     */
+    public synchronized long speakingDuration(@Nullable String participantId, long now) {
+        Entry entry = null != participantId ? lookup.get(participantId) : null;
+        if (null == entry || now - entry.lastSpoke > streakGap) return 0;
+        return entry.lastSpoke - entry.streakStart;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,151 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.voxeet.uxkit.utils.speakers.RecentSpeakersRanking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Choose the N videos to render among the participants having one, from the recent speakers
+ * <p>
+ * Free places are filled right away, the most recent speakers first and then in the order of the candidates. Once the
+ * selection is full, the least recent speaker selected is only replaced by a more recent one who has been speaking for
+ * the minimum speaking duration, and at most once per swap interval, so that a short noise does not swap renderers.
+ * The participants without a video anymore leave the selection right away. To be used from the main thread.
+ */
+public final class LastNPolicy {
+
+    /**
+     * Default minimum interval in milliseconds between two swaps
+     */
+    public final static long DEFAULT_SWAP_INTERVAL = 3000;
+
+    /**
+     * Default duration in milliseconds a participant must have been speaking to enter a full selection
+     */
+    public final static long DEFAULT_SPEAKING_DURATION = 1000;
+
+    private int n;
+
+    private final long swapInterval;
+
+    private final long speakingDuration;
+
+    @NonNull
+    private List<String> selection = Collections.emptyList();
+
+    private long lastSwap;
+
+    private boolean swapped;
+
+    public LastNPolicy(int n) {
+        this(n, DEFAULT_SWAP_INTERVAL, DEFAULT_SPEAKING_DURATION);
+    }
+
+    public LastNPolicy(int n, long swapInterval, long speakingDuration) {
+        this.n = Math.max(0, n);
+        this.swapInterval = Math.max(0, swapInterval);
+        this.speakingDuration = Math.max(0, speakingDuration);
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Change the number of videos to render, the least recent speakers leave the selection when it shrinks
+     *
+     * @param n the number of videos
+     */
+    public void setN(int n) {
+        this.n = Math.max(0, n);
+    }
+
+    /**
+     * Update the selection
+     *
+     * @param candidates the participants having a video, in their display order
+     * @param ranking    the recent speakers
+     * @param now        the current time in milliseconds, using the same clock as the ranking
+     * @return the participants whose video must be rendered, the most recent speaker first
+     */
+    @NonNull
+    public List<String> select(@NonNull List<String> candidates, @NonNull RecentSpeakersRanking ranking, long now) {
+        //the candidates by rank, the ones who never spoke keep their display order after the speakers
+        HashSet<String> available = new HashSet<>(candidates);
+        HashMap<String, Integer> ranks = new HashMap<>();
+        List<String> ordered = new ArrayList<>(candidates.size());
+        for (String id : ranking.getRanking()) {
+            if (available.contains(id) && !ranks.containsKey(id)) {
+                ranks.put(id, ordered.size());
+                ordered.add(id);
+            }
+        }
+        for (String id : candidates) {
+            if (!ranks.containsKey(id)) {
+                ranks.put(id, ordered.size());
+                ordered.add(id);
+            }
+        }
+
+        List<String> kept = new ArrayList<>(n);
+        for (String id : selection) {
+            if (ranks.containsKey(id)) kept.add(id);
+        }
+        sort(kept, ranks);
+        while (kept.size() > n) kept.remove(kept.size() - 1);
+
+        for (String id : ordered) {
+            if (kept.size() >= n) break;
+            if (!kept.contains(id)) kept.add(id);
+        }
+
+        if (n > 0 && kept.size() == n && (!swapped || now - lastSwap >= swapInterval)) {
+            String incoming = firstNotSelected(ordered, kept);
+            String outgoing = kept.get(kept.size() - 1);
+
+            if (null != incoming && ranks.get(incoming) < ranks.get(outgoing)
+                    && ranking.speakingDuration(incoming, now) >= speakingDuration) {
+                kept.set(kept.size() - 1, incoming);
+                lastSwap = now;
+                swapped = true;
+            }
+        }
+
+        sort(kept, ranks);
+        selection = Collections.unmodifiableList(kept);
+        return selection;
+    }
+
+    @NonNull
+    public List<String> getSelection() {
+        return selection;
+    }
+
+    public boolean isSelected(@Nullable String id) {
+        return null != id && selection.contains(id);
+    }
+
+    public void clear() {
+        selection = Collections.emptyList();
+        swapped = false;
+    }
+
+    @Nullable
+    private static String firstNotSelected(@NonNull List<String> ordered, @NonNull List<String> selected) {
+        for (String id : ordered) {
+            if (!selected.contains(id)) return id;
+        }
+        return null;
+    }
+
+    private static void sort(@NonNull List<String> ids, @NonNull final HashMap<String, Integer> ranks) {
+        Collections.sort(ids, (left, right) -> ranks.get(left) - ranks.get(right));
+    }
+}
@@ -0,0 +1,229 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Cap of the video renderers decoding at the same time
+ * <p>
+ * A tile acquires a renderer for its participant when it is displayed with a video and releases it as soon as it is not
+ * displayed anymore. The tiles over the cap wait in their request order and are notified once a renderer is granted.
+ * Preferred keys, such as the videos of the recent speakers, take the renderers of the other keys when needed.
+ * To be used from the main thread.
+ */
+public final class RendererBudget {
+
+    /**
+     * Notified when a waiting key gets a renderer or when a granted key loses it
+     */
+    public interface Listener {
+        void onRendererGranted(@NonNull String key);
+
+        void onRendererRevoked(@NonNull String key);
+    }
+
+    private int maxRenderers;
+
+    @NonNull
+    private final LinkedHashSet<String> granted = new LinkedHashSet<>();
+
+    @NonNull
+    private LinkedHashSet<String> waiting = new LinkedHashSet<>();
+
+    @NonNull
+    private HashSet<String> preferred = new HashSet<>();
+
+    @Nullable
+    private Listener listener;
+
+    public RendererBudget(int maxRenderers) {
+        this.maxRenderers = Math.max(0, maxRenderers);
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    public int getMaxRenderers() {
+        return maxRenderers;
+    }
+
+    /**
+     * Change the cap, the most recently granted keys over it are revoked and the waiting ones granted when it grows
+     *
+     * @param maxRenderers the number of renderers decoding at the same time
+     */
+    public void setMaxRenderers(int maxRenderers) {
+        maxRenderers = Math.max(0, maxRenderers);
+        if (this.maxRenderers == maxRenderers) return;
+        this.maxRenderers = maxRenderers;
+
+        List<String> revoked = new ArrayList<>();
+        if (granted.size() > maxRenderers) {
+            List<String> ordered = new ArrayList<>(granted);
+            for (int i = ordered.size() - 1; i >= maxRenderers; i--) {
+                String key = ordered.get(i);
+                granted.remove(key);
+                revoked.add(key);
+            }
+
+            //the revoked keys are still displayed, they are the next to be granted
+            LinkedHashSet<String> reordered = new LinkedHashSet<>();
+            for (int i = revoked.size() - 1; i >= 0; i--) reordered.add(revoked.get(i));
+            reordered.addAll(waiting);
+            waiting = reordered;
+        }
+
+        List<String> promoted = promote();
+
+        if (null == listener) return;
+        for (String key : revoked) listener.onRendererRevoked(key);
+        for (String key : promoted) listener.onRendererGranted(key);
+    }
+
+    /**
+     * Request a renderer, the key waits for one if the cap is reached
+     *
+     * @param key the key of the displayed video
+     * @return true if the key can render its video
+     */
+    public boolean acquire(@NonNull String key) {
+        if (granted.contains(key)) return true;
+
+        if (granted.size() < maxRenderers) {
+            waiting.remove(key);
+            granted.add(key);
+            return true;
+        }
+
+        String revoked = preferred.contains(key) ? revokeNotPreferred() : null;
+        if (null != revoked) {
+            waiting.remove(key);
+            granted.add(key);
+            if (null != listener) listener.onRendererRevoked(revoked);
+            return true;
+        }
+
+        waiting.add(key);
+        return false;
+    }
+
+    /**
+     * Change the keys getting the renderers first, the granted keys which are not preferred are revoked for the
+     * preferred ones waiting
+     *
+     * @param keys the preferred keys
+     */
+    public void setPreferred(@NonNull Collection<String> keys) {
+        preferred = new HashSet<>(keys);
+
+        List<String> revoked = new ArrayList<>();
+        List<String> promoted = new ArrayList<>();
+        for (String key : new ArrayList<>(waiting)) {
+            if (!preferred.contains(key)) continue;
+
+            if (granted.size() >= maxRenderers) {
+                String victim = revokeNotPreferred();
+                if (null == victim) break;
+                revoked.add(victim);
+            }
+            waiting.remove(key);
+            granted.add(key);
+            promoted.add(key);
+        }
+        promoted.addAll(promote());
+
+        if (null == listener) return;
+        for (String key : revoked) listener.onRendererRevoked(key);
+        for (String key : promoted) listener.onRendererGranted(key);
+    }
+
+    /**
+     * Give back the renderer of a key or stop waiting for one, the first waiting key is granted the freed renderer
+     *
+     * @param key the key of the video not displayed anymore
+     */
+    public void release(@NonNull String key) {
+        waiting.remove(key);
+        if (!granted.remove(key)) return;
+
+        List<String> promoted = promote();
+        if (null == listener) return;
+        for (String promotedKey : promoted) listener.onRendererGranted(promotedKey);
+    }
+
+    public boolean isGranted(@NonNull String key) {
+        return granted.contains(key);
+    }
+
+    public boolean isWaiting(@NonNull String key) {
+        return waiting.contains(key);
+    }
+
+    public int getGrantedCount() {
+        return granted.size();
+    }
+
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Forget every key without notifying them
+     */
+    public void clear() {
+        granted.clear();
+        waiting.clear();
+        preferred.clear();
+    }
+
+    @NonNull
+    private List<String> promote() {
+        List<String> promoted = new ArrayList<>();
+        while (granted.size() < maxRenderers && !waiting.isEmpty()) {
+            String key = nextWaiting();
+            waiting.remove(key);
+            granted.add(key);
+            promoted.add(key);
+        }
+        return promoted;
+    }
+
+    /**
+     * @return the first preferred key waiting or else the first key waiting
+     */
+    @NonNull
+    private String nextWaiting() {
+        for (String key : waiting) {
+            if (preferred.contains(key)) return key;
+        }
+        return waiting.iterator().next();
+    }
+
+    /**
+     * Move the most recently granted key which is not preferred back to the front of the waiting keys
+     *
+     * @return the key revoked or null if every granted key is preferred
+     */
+    @Nullable
+    private String revokeNotPreferred() {
+        String victim = null;
+        for (String key : granted) {
+            if (!preferred.contains(key)) victim = key;
+        }
+        if (null == victim) return null;
+
+        granted.remove(victim);
+        LinkedHashSet<String> reordered = new LinkedHashSet<>();
+        reordered.add(victim);
+        reordered.addAll(waiting);
+        waiting = reordered;
+        return victim;
+    }
+}
@@ -0,0 +1,320 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renderers stacked in the same place, each one attached to a (peerId, type)
+ * <p>
+ * Moving the focus to the video of a renderer still attached only brings it to the front, so that switching back to the
+ * previous video is immediate. Only the displayed renderer and the previously displayed one are kept attached, the
+ * previous one is detached once it has not been displayed for the keep warm delay. Nothing stays attached while the
+ * pool is not on screen. To be used from the main thread.
+ *
+ * @param <V> the type of the renderers
+ * @param <S> the type of the streams
+ */
+public final class RendererPool<V, S> {
+
+    /**
+     * Operations on the renderers
+     */
+    public interface Renderers<V, S> {
+        /**
+         * @return a new renderer stacked with the others or null if none can be created
+         */
+        @Nullable
+        V create();
+
+        void attach(@NonNull V renderer, @NonNull String peerId, @NonNull S stream);
+
+        void detach(@NonNull V renderer);
+
+        void setMirror(@NonNull V renderer, boolean mirrored);
+
+        /**
+         * @param visibility VISIBLE, BEHIND or GONE
+         */
+        void setVisibility(@NonNull V renderer, int visibility);
+    }
+
+    /**
+     * Resolve the stream currently published for a (peerId, type)
+     */
+    public interface StreamLookup<S> {
+        @Nullable
+        S stream(@NonNull String peerId, int type);
+    }
+
+    public final static int VISIBLE = 0;
+
+    /**
+     * Attached but hidden behind the displayed renderer
+     */
+    public final static int BEHIND = 1;
+
+    public final static int GONE = 2;
+
+    /**
+     * The displayed renderer and the previous one
+     */
+    public final static int MAX_CAPACITY = 2;
+
+    /**
+     * Default delay in milliseconds a renderer stays attached after it stopped being displayed
+     */
+    public final static long DEFAULT_KEEP_WARM = 5000;
+
+    @NonNull
+    private final Renderers<V, S> renderers;
+
+    private final int capacity;
+
+    private final long keepWarm;
+
+    @NonNull
+    private final List<Entry<V, S>> entries = new ArrayList<>();
+
+    @Nullable
+    private Entry<V, S> displayed;
+
+    private long focusCount;
+
+    /**
+     * @param primary   the renderer used first, the other ones are created when needed
+     * @param renderers the operations on the renderers
+     * @param capacity  the maximum number of renderers kept attached, up to MAX_CAPACITY
+     * @param keepWarm  the delay in milliseconds a renderer stays attached after it stopped being displayed
+     */
+    public RendererPool(@NonNull V primary, @NonNull Renderers<V, S> renderers, int capacity, long keepWarm) {
+        this.renderers = renderers;
+        this.capacity = Math.max(1, Math.min(MAX_CAPACITY, capacity));
+        this.keepWarm = Math.max(0, keepWarm);
+        entries.add(new Entry<V, S>(primary));
+    }
+
+    /**
+     * Get the renderer in front, the primary one when nothing is displayed
+     *
+     * @return the renderer
+     */
+    @NonNull
+    public V getDisplayed() {
+        return null != displayed ? displayed.renderer : entries.get(0).renderer;
+    }
+
+    @NonNull
+    public List<V> getRenderers() {
+        List<V> list = new ArrayList<>(entries.size());
+        for (Entry<V, S> entry : entries) list.add(entry.renderer);
+        return list;
+    }
+
+    @Nullable
+    public String displayedPeerId() {
+        return null != displayed ? displayed.peerId : null;
+    }
+
+    public int displayedType() {
+        return null != displayed ? displayed.type : 0;
+    }
+
+    /**
+     * @return the number of renderers attached to a stream, the displayed one included
+     */
+    public int getAttachedCount() {
+        int count = 0;
+        for (Entry<V, S> entry : entries) {
+            if (null != entry.peerId) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Bring the video of a participant to the front
+     *
+     * @param peerId   the participant or null to display nothing
+     * @param type     the type of the stream
+     * @param stream   the stream or null to display nothing
+     * @param mirrored true to mirror the video
+     * @param visible  false when the pool is not on screen, every renderer is then detached until the next visible show
+     * @param now      the current time in milliseconds
+     * @return true if the stream had to be attached to a renderer
+     */
+    public boolean show(@Nullable String peerId, int type, @Nullable S stream, boolean mirrored, boolean visible,
+                        long now) {
+        if (!visible) {
+            clear();
+            return false;
+        }
+
+        if (null == peerId || null == stream) {
+            unfocus(now);
+            return false;
+        }
+
+        boolean attached = false;
+        Entry<V, S> entry = find(peerId, type);
+        if (null == entry) {
+            entry = obtain();
+            attached = true;
+        } else if (entry.stream != stream) {
+            //the participant published a new stream for the same type
+            attached = true;
+        }
+
+        if (attached) {
+            renderers.attach(entry.renderer, peerId, stream);
+            entry.peerId = peerId;
+            entry.type = type;
+            entry.stream = stream;
+            entry.mirror = null;
+        }
+
+        if (null == entry.mirror || entry.mirror != mirrored) {
+            renderers.setMirror(entry.renderer, mirrored);
+            entry.mirror = mirrored;
+        }
+
+        if (displayed != entry) {
+            if (null != displayed) moveBehind(displayed, now);
+            displayed = entry;
+        }
+        entry.focus = ++focusCount;
+        renderers.setVisibility(entry.renderer, VISIBLE);
+        return attached;
+    }
+
+    /**
+     * Detach the renderers which have not been displayed for the keep warm delay
+     *
+     * @param now the current time in milliseconds
+     * @return the delay before the next renderer must be detached, -1 if none is waiting
+     */
+    public long trim(long now) {
+        long next = -1;
+        for (Entry<V, S> entry : entries) {
+            if (entry == displayed || null == entry.peerId) continue;
+
+            long left = entry.hiddenAt + keepWarm - now;
+            if (left <= 0) {
+                release(entry);
+            } else if (next < 0 || left < next) {
+                next = left;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Detach the renderers whose stream is not published anymore
+     *
+     * @param lookup the streams currently published
+     */
+    public void prune(@NonNull StreamLookup<S> lookup) {
+        for (Entry<V, S> entry : entries) {
+            if (null == entry.peerId) continue;
+
+            if (entry.stream != lookup.stream(entry.peerId, entry.type)) {
+                if (displayed == entry) displayed = null;
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Detach every renderer
+     */
+    public void clear() {
+        displayed = null;
+        for (Entry<V, S> entry : entries) release(entry);
+    }
+
+    /**
+     * Nothing is in front anymore, the renderer of the previous video is kept for a later focus
+     */
+    private void unfocus(long now) {
+        if (null == displayed) {
+            renderers.setVisibility(entries.get(0).renderer, GONE);
+            return;
+        }
+
+        moveBehind(displayed, now);
+        displayed = null;
+    }
+
+    private void moveBehind(@NonNull Entry<V, S> entry, long now) {
+        entry.hiddenAt = now;
+        renderers.setVisibility(entry.renderer, BEHIND);
+    }
+
+    @Nullable
+    private Entry<V, S> find(@NonNull String peerId, int type) {
+        for (Entry<V, S> entry : entries) {
+            if (peerId.equals(entry.peerId) && type == entry.type) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Get a free renderer, create one or reuse the least recently focused
+     */
+    @NonNull
+    private Entry<V, S> obtain() {
+        Entry<V, S> lru = null;
+        for (Entry<V, S> entry : entries) {
+            if (null == entry.peerId) return entry;
+            if (entry != displayed && (null == lru || entry.focus < lru.focus)) lru = entry;
+        }
+
+        if (entries.size() < capacity) {
+            V created = renderers.create();
+            if (null != created) {
+                Entry<V, S> entry = new Entry<>(created);
+                entries.add(entry);
+                return entry;
+            }
+        }
+
+        if (null == lru) lru = null != displayed ? displayed : entries.get(0);
+        if (displayed == lru) displayed = null;
+        release(lru);
+        return lru;
+    }
+
+    private void release(@NonNull Entry<V, S> entry) {
+        renderers.detach(entry.renderer);
+        entry.peerId = null;
+        entry.type = 0;
+        entry.stream = null;
+        entry.mirror = null;
+        renderers.setVisibility(entry.renderer, GONE);
+    }
+
+    private final static class Entry<V, S> {
+        @NonNull
+        private final V renderer;
+
+        @Nullable
+        private String peerId;
+
+        private int type;
+
+        @Nullable
+        private S stream;
+
+        @Nullable
+        private Boolean mirror;
+
+        private long focus;
+
+        private long hiddenAt;
+
+        private Entry(@NonNull V renderer) {
+            this.renderer = renderer;
+        }
+    }
+}
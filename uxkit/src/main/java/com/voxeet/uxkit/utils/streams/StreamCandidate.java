@@ -0,0 +1,42 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Immutable snapshot of the video streams a participant can display
+ */
+public final class StreamCandidate {
+
+    @NonNull
+    public final String id;
+
+    public final boolean local;
+
+    /**
+     * True if the participant counts as someone else in the conference
+     */
+    public final boolean present;
+
+    public final boolean hasCamera;
+
+    public final boolean hasScreenShare;
+
+    public StreamCandidate(@NonNull String id, boolean local, boolean present, boolean hasCamera, boolean hasScreenShare) {
+        this.id = id;
+        this.local = local;
+        this.present = present;
+        this.hasCamera = hasCamera;
+        this.hasScreenShare = hasScreenShare;
+    }
+
+    public boolean has(int streamType) {
+        switch (streamType) {
+            case StreamLayout.CAMERA:
+                return hasCamera;
+            case StreamLayout.SCREEN_SHARE:
+                return hasScreenShare;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Desired attachment of the selected and self video views of the conference
+ * <p>
+ * The layout is computed from a snapshot of the participants only, applying it is left to the caller.
+ */
+public final class StreamLayout {
+
+    public final static int NONE = 0;
+
+    public final static int CAMERA = 1;
+
+    public final static int SCREEN_SHARE = 2;
+
+    /**
+     * Participant to display in the selected view or null
+     */
+    @Nullable
+    public final String selectedPeerId;
+
+    /**
+     * Stream type to display in the selected view
+     */
+    public final int selectedType;
+
+    /**
+     * Participant to display in the self view or null
+     */
+    @Nullable
+    public final String selfPeerId;
+
+    /**
+     * True if someone else than the local participant is in the conference
+     */
+    public final boolean hasParticipants;
+
+    public StreamLayout(@Nullable String selectedPeerId, int selectedType, @Nullable String selfPeerId, boolean hasParticipants) {
+        this.selectedPeerId = null != selectedPeerId && NONE != selectedType ? selectedPeerId : null;
+        this.selectedType = null != this.selectedPeerId ? selectedType : NONE;
+        this.selfPeerId = selfPeerId;
+        this.hasParticipants = hasParticipants;
+    }
+
+    /**
+     * Check if the local participant is displayed in the selected view
+     *
+     * @param localId the local participant id
+     * @return true if it is
+     */
+    public boolean isLocalSelected(@Nullable String localId) {
+        return null != localId && localId.equals(selectedPeerId);
+    }
+
+    /**
+     * Compute the layout for a given snapshot
+     * <p>
+     * - alone in the conference, the local camera is displayed in the selected view
+     * - a participant selected by the user is displayed with its camera
+     * - else any screen share is displayed, the active speaker's one first
+     * - else the camera of the active speaker or of the first participant having one, in the order of the candidates
+     * - without any active speaker yet, the stream currently displayed is kept while it is available
+     *
+     * @param candidates    the participants
+     * @param lockedId      the participant selected by the user or null
+     * @param activeSpeaker the active speaker or null
+     * @param currentPeerId the participant currently in the selected view or null
+     * @param currentType   the stream type currently in the selected view
+     * @return the desired layout
+     */
+    @NonNull
+    public static StreamLayout compute(@NonNull List<StreamCandidate> candidates,
+                                       @Nullable String lockedId,
+                                       @Nullable String activeSpeaker,
+                                       @Nullable String currentPeerId,
+                                       int currentType) {
+        HashMap<String, StreamCandidate> byId = new HashMap<>();
+        StreamCandidate local = null;
+        boolean hasParticipants = false;
+
+        for (StreamCandidate candidate : candidates) {
+            byId.put(candidate.id, candidate);
+            if (candidate.local) local = candidate;
+            else if (candidate.present) hasParticipants = true;
+        }
+
+        if (!hasParticipants) {
+            if (null != local && local.hasCamera) {
+                return new StreamLayout(local.id, CAMERA, null, false);
+            }
+            return new StreamLayout(null, NONE, null, false);
+        }
+
+        String self = null != local && local.hasCamera ? local.id : null;
+
+        if (null != lockedId) {
+            StreamCandidate locked = byId.get(lockedId);
+            boolean camera = null != locked && locked.hasCamera;
+            return new StreamLayout(camera ? lockedId : null, CAMERA, self, true);
+        }
+
+        if (null != activeSpeaker) {
+            String screenShare = pick(candidates, byId.get(activeSpeaker), SCREEN_SHARE);
+            if (null != screenShare) return new StreamLayout(screenShare, SCREEN_SHARE, self, true);
+
+            String camera = pick(candidates, byId.get(activeSpeaker), CAMERA);
+            return new StreamLayout(camera, CAMERA, self, true);
+        }
+
+        StreamCandidate current = null != currentPeerId ? byId.get(currentPeerId) : null;
+        if (null != current && !current.local && current.has(currentType)) {
+            return new StreamLayout(current.id, currentType, self, true);
+        }
+        return new StreamLayout(null, NONE, self, true);
+    }
+
+    @Nullable
+    private static String pick(@NonNull List<StreamCandidate> candidates, @Nullable StreamCandidate preferred, int type) {
+        if (null != preferred && !preferred.local && preferred.has(type)) return preferred.id;
+
+        for (StreamCandidate candidate : candidates) {
+            if (!candidate.local && candidate.has(type)) return candidate.id;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StreamLayout)) return false;
+
+        StreamLayout other = (StreamLayout) o;
+        return selectedType == other.selectedType
+                && hasParticipants == other.hasParticipants
+                && same(selectedPeerId, other.selectedPeerId)
+                && same(selfPeerId, other.selfPeerId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = null != selectedPeerId ? selectedPeerId.hashCode() : 0;
+        result = 31 * result + selectedType;
+        result = 31 * result + (null != selfPeerId ? selfPeerId.hashCode() : 0);
+        result = 31 * result + (hasParticipants ? 1 : 0);
+        return result;
+    }
+
+    private static boolean same(@Nullable String left, @Nullable String right) {
+        return null == left ? null == right : left.equals(right);
+    }
+}
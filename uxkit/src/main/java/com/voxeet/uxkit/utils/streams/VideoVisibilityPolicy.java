@@ -0,0 +1,115 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Decide which video surfaces of the conference view are worth rendering
+ * <p>
+ * Nothing renders while the application is in the background or the view is not attached. Once minimized, only the
+ * selected video stays on screen, the self video and the participant tiles are hidden. The self video can also be hidden
+ * on its own. The audio is never affected.
+ */
+public final class VideoVisibilityPolicy {
+
+    /**
+     * Notified once the visibility of at least one surface changed
+     */
+    public interface Listener {
+        void onVideoVisibilityChanged(@NonNull VideoVisibilityPolicy policy);
+    }
+
+    public final static int SELECTED = 0;
+
+    public final static int SELF = 1;
+
+    public final static int TILES = 2;
+
+    private final static int SURFACES = 3;
+
+    private boolean foreground = true;
+
+    private boolean attached;
+
+    private boolean expanded;
+
+    private boolean selfHidden;
+
+    @NonNull
+    private final boolean[] visible = new boolean[SURFACES];
+
+    @Nullable
+    private Listener listener;
+
+    public VideoVisibilityPolicy() {
+        update();
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param foreground true while the activity displaying the view is resumed
+     */
+    public void setForeground(boolean foreground) {
+        this.foreground = foreground;
+        notifyIfChanged();
+    }
+
+    /**
+     * @param attached true while the view is attached to a window
+     */
+    public void setAttached(boolean attached) {
+        this.attached = attached;
+        notifyIfChanged();
+    }
+
+    /**
+     * @param expanded true while the view is expanded
+     */
+    public void setExpanded(boolean expanded) {
+        this.expanded = expanded;
+        notifyIfChanged();
+    }
+
+    /**
+     * @param selfHidden true to stop displaying the local camera, it is still sent to the conference
+     */
+    public void setSelfHidden(boolean selfHidden) {
+        this.selfHidden = selfHidden;
+        notifyIfChanged();
+    }
+
+    /**
+     * Check if a surface is visible on screen
+     *
+     * @param surface SELECTED, SELF or TILES
+     * @return true if the surface should render its video
+     */
+    public boolean isVisible(int surface) {
+        return surface >= 0 && surface < SURFACES && visible[surface];
+    }
+
+    private void notifyIfChanged() {
+        if (update() && null != listener) listener.onVideoVisibilityChanged(this);
+    }
+
+    /**
+     * @return true if a surface changed
+     */
+    private boolean update() {
+        boolean onScreen = foreground && attached;
+
+        boolean changed = set(SELECTED, onScreen);
+        changed |= set(SELF, onScreen && expanded && !selfHidden);
+        changed |= set(TILES, onScreen && expanded);
+        return changed;
+    }
+
+    private boolean set(int surface, boolean value) {
+        if (visible[surface] == value) return false;
+        visible[surface] = value;
+        return true;
+    }
+}
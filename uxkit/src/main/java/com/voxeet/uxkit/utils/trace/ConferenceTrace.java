@@ -0,0 +1,178 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered and immutable sequence of conference events
+ * <p>
+ * Traces are stored as text, one event per line : the delay since the previous event in milliseconds, the short code
+ * of the type, the participant id and the value, separated by tabulations. Missing fields are left empty.
+ */
+public final class ConferenceTrace {
+
+    private final static String HEADER = "#uxkit-trace 1";
+
+    @NonNull
+    private final List<TraceEvent> events;
+
+    /**
+     * Create a trace
+     *
+     * @param events the events, sorted by time; events sharing the same time keep their order
+     */
+    public ConferenceTrace(@NonNull List<TraceEvent> events) {
+        ArrayList<TraceEvent> sorted = new ArrayList<>(events);
+        //stable sort, the order of simultaneous events is meaningful
+        Collections.sort(sorted, (left, right) -> left.time < right.time ? -1 : (left.time == right.time ? 0 : 1));
+        this.events = Collections.unmodifiableList(sorted);
+    }
+
+    @NonNull
+    public List<TraceEvent> getEvents() {
+        return events;
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Get the time of the last event
+     *
+     * @return the duration in milliseconds
+     */
+    public long duration() {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).time;
+    }
+
+    /**
+     * Count the events of a given type
+     *
+     * @param type the type
+     * @return the number of events
+     */
+    public int count(int type) {
+        int count = 0;
+        for (TraceEvent event : events) {
+            if (event.type == type) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Combine the events of several traces sharing the same origin
+     *
+     * @param traces the traces
+     * @return a new trace
+     */
+    @NonNull
+    public static ConferenceTrace merge(@NonNull ConferenceTrace... traces) {
+        ArrayList<TraceEvent> events = new ArrayList<>();
+        for (ConferenceTrace trace : traces) events.addAll(trace.events);
+        return new ConferenceTrace(events);
+    }
+
+    /**
+     * Write the trace
+     *
+     * @param writer the destination, not closed
+     * @throws IOException in case of write error
+     */
+    public void write(@NonNull Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+
+        long previous = 0;
+        for (TraceEvent event : events) {
+            writer.write(Long.toString(event.time - previous));
+            writer.write('\t');
+            writer.write(TraceEvent.CODES[event.type]);
+            writer.write('\t');
+            writer.write(escape(event.participantId));
+            writer.write('\t');
+            writer.write(escape(event.value));
+            writer.write('\n');
+            previous = event.time;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Read a trace
+     *
+     * @param reader the source, not closed
+     * @return the trace
+     * @throws IOException in case of read error or invalid content
+     */
+    @NonNull
+    public static ConferenceTrace read(@NonNull Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+
+        String line = lines.readLine();
+        if (!HEADER.equals(line)) throw new IOException("not a trace : " + line);
+
+        ArrayList<TraceEvent> events = new ArrayList<>();
+        long time = 0;
+        int number = 1;
+        while (null != (line = lines.readLine())) {
+            number++;
+            if (line.isEmpty()) continue;
+
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 4) throw new IOException("invalid line " + number);
+
+            int type = type(fields[1]);
+            if (type < 0) throw new IOException("invalid type at line " + number);
+
+            try {
+                time += Long.parseLong(fields[0]);
+            } catch (NumberFormatException e) {
+                throw new IOException("invalid delay at line " + number);
+            }
+            events.add(new TraceEvent(time, type, unescape(fields[2]), unescape(fields[3])));
+        }
+        return new ConferenceTrace(events);
+    }
+
+    private static int type(@NonNull String code) {
+        for (int i = 0; i < TraceEvent.CODES.length; i++) {
+            if (TraceEvent.CODES[i].equals(code)) return i;
+        }
+        return -1;
+    }
+
+    @NonNull
+    private static String escape(@Nullable String value) {
+        if (null == value) return "";
+        if ("".equals(value)) return "\\0";
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    @Nullable
+    private static String unescape(@NonNull String value) {
+        if (value.isEmpty()) return null;
+        if ("\\0".equals(value)) return "";
+        if (value.indexOf('\\') < 0) return value;
+
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
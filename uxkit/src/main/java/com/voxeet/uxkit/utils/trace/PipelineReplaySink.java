@@ -0,0 +1,231 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.voxeet.uxkit.utils.participants.ChangeBatch;
+import com.voxeet.uxkit.utils.participants.ParticipantIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Replay the participant and stream events of a trace through the steps the conference controller goes through
+ * <p>
+ * Each event updates a ParticipantIndex right away, as ParticipantStore does, and is merged into a ChangeBatch
+ * dispatched on the next frame, as ConferenceEventCoalescer does. The frames are driven by the scheduler of the replay,
+ * so the dispatches and the work done in each of them can be checked on a virtual clock. The audio levels and the
+ * conference states are not part of this pipeline and are ignored.
+ */
+public final class PipelineReplaySink implements TraceReplayer.Sink {
+
+    /**
+     * Duration of a frame in milliseconds
+     */
+    public final static long FRAME = 16;
+
+    /**
+     * Receiver of the dispatched batches, in place of the views
+     */
+    public interface Listener {
+        void onDispatch(long time, @NonNull ChangeBatch<String, Object> batch);
+    }
+
+    @NonNull
+    private final TraceReplayer.Scheduler scheduler;
+
+    @NonNull
+    private final ParticipantIndex<String> index = new ParticipantIndex<>();
+
+    //last status received for each participant, the stream events do not carry it
+    @NonNull
+    private final HashMap<String, String> statuses = new HashMap<>();
+
+    //stream currently published for each participant and kind, a new one is created when a stream is added
+    @NonNull
+    private final HashMap<String, Object> streams = new HashMap<>();
+
+    @NonNull
+    private final List<Long> dispatchTimes = new ArrayList<>();
+
+    @Nullable
+    private ChangeBatch<String, Object> pending;
+
+    @Nullable
+    private Listener listener;
+
+    @Nullable
+    private List<String> displayed;
+
+    private int dispatchedEvents;
+
+    private int maxEntriesPerDispatch;
+
+    private int listRebuilds;
+
+    public PipelineReplaySink(@NonNull TraceReplayer.Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void onEvent(@NonNull TraceEvent event) {
+        String id = event.participantId;
+        if (null == id) return;
+
+        switch (event.type) {
+            case TraceEvent.PARTICIPANT_ADDED:
+                statuses.put(id, event.value);
+                put(id);
+                pending().participantAdded(id, id);
+                break;
+            case TraceEvent.PARTICIPANT_UPDATED:
+                statuses.put(id, event.value);
+                put(id);
+                pending().participantUpdated(id, id);
+                break;
+            case TraceEvent.STREAM_ADDED:
+            case TraceEvent.STREAM_UPDATED:
+            case TraceEvent.STREAM_REMOVED:
+                Object stream = stream(event);
+                put(id);
+                pending().stream(streamChange(event.type), id, id, stream);
+                break;
+            default:
+                return;
+        }
+
+        if (null != pending && 1 == pending.getEventCount()) {
+            //on the next frame, the events received in the meantime are merged into this batch
+            long now = scheduler.now();
+            scheduler.schedule(this::dispatch, (now / FRAME + 1) * FRAME - now);
+        }
+    }
+
+    @NonNull
+    public ParticipantIndex<String> getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the times of the dispatches, in the order they were made
+     */
+    @NonNull
+    public List<Long> getDispatchTimes() {
+        return Collections.unmodifiableList(dispatchTimes);
+    }
+
+    public int getDispatchCount() {
+        return dispatchTimes.size();
+    }
+
+    /**
+     * @return the number of events delivered to the views through the dispatches
+     */
+    public int getDispatchedEvents() {
+        return dispatchedEvents;
+    }
+
+    /**
+     * @return the highest number of participants a single dispatch had the views refresh
+     */
+    public int getMaxEntriesPerDispatch() {
+        return maxEntriesPerDispatch;
+    }
+
+    /**
+     * @return the number of times the participant list read by the views had to be rebuilt
+     */
+    public int getListRebuilds() {
+        return listRebuilds;
+    }
+
+    public boolean hasPending() {
+        return null != pending;
+    }
+
+    private void dispatch() {
+        ChangeBatch<String, Object> batch = pending;
+        pending = null;
+        if (null == batch || batch.isEmpty()) return;
+
+        dispatchTimes.add(scheduler.now());
+        dispatchedEvents += batch.getEventCount();
+        maxEntriesPerDispatch = Math.max(maxEntriesPerDispatch, batch.getEntries().size());
+
+        //the views read the participants once per dispatch
+        List<String> participants = index.getParticipants();
+        if (participants != displayed) listRebuilds++;
+        displayed = participants;
+
+        if (null != listener) listener.onDispatch(scheduler.now(), batch);
+    }
+
+    @NonNull
+    private ChangeBatch<String, Object> pending() {
+        if (null == pending) pending = new ChangeBatch<>();
+        return pending;
+    }
+
+    private void put(@NonNull String id) {
+        String status = statuses.get(id);
+        boolean video = streams.containsKey(key(id, TraceStorms.STREAM_VIDEO));
+        boolean onAir = TraceStorms.STATUS_ON_AIR.equals(status);
+        boolean connecting = TraceStorms.STATUS_CONNECTING.equals(status);
+        boolean present = onAir || (connecting && hasStreams(id));
+
+        //the same participant instance is kept across its events, as the SDK does
+        String participant = index.get(id);
+        index.put(id, null != participant ? participant : id, status(status), present, video, false);
+    }
+
+    @NonNull
+    private Object stream(@NonNull TraceEvent event) {
+        String key = key(event.participantId, event.value);
+        Object stream = streams.get(key);
+
+        if (TraceEvent.STREAM_REMOVED == event.type) {
+            streams.remove(key);
+        } else if (null == stream || TraceEvent.STREAM_ADDED == event.type) {
+            stream = new Object();
+            streams.put(key, stream);
+        }
+        return null != stream ? stream : new Object();
+    }
+
+    private boolean hasStreams(@NonNull String id) {
+        String prefix = id + ":";
+        for (String key : streams.keySet()) {
+            if (key.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    @NonNull
+    private static String key(@Nullable String id, @Nullable String kind) {
+        return id + ":" + kind;
+    }
+
+    private static int streamChange(int type) {
+        switch (type) {
+            case TraceEvent.STREAM_ADDED:
+                return ChangeBatch.STREAM_ADDED;
+            case TraceEvent.STREAM_UPDATED:
+                return ChangeBatch.STREAM_UPDATED;
+            default:
+                return ChangeBatch.STREAM_REMOVED;
+        }
+    }
+
+    private static int status(@Nullable String status) {
+        if (TraceStorms.STATUS_ON_AIR.equals(status)) return ParticipantIndex.STATUS_ON_AIR;
+        if (TraceStorms.STATUS_CONNECTING.equals(status)) return ParticipantIndex.STATUS_CONNECTING;
+        if (TraceStorms.STATUS_LEFT.equals(status)) return ParticipantIndex.STATUS_LEFT;
+        return ParticipantIndex.STATUS_OTHER;
+    }
+}
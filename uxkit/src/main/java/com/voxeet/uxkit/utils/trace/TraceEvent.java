@@ -0,0 +1,106 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Single conference event of a trace
+ */
+public final class TraceEvent {
+
+    public final static int PARTICIPANT_ADDED = 0;
+
+    public final static int PARTICIPANT_UPDATED = 1;
+
+    public final static int STREAM_ADDED = 2;
+
+    public final static int STREAM_UPDATED = 3;
+
+    public final static int STREAM_REMOVED = 4;
+
+    /**
+     * New state of the conference, the value is the name of the state
+     */
+    public final static int CONFERENCE_STATUS = 5;
+
+    /**
+     * Audio level of a participant, the value is the level
+     */
+    public final static int AUDIO_LEVEL = 6;
+
+    //short names used in the trace files, indexed by type
+    final static String[] CODES = {"pa", "pu", "sa", "su", "sr", "cs", "al"};
+
+    /**
+     * Time of the event in milliseconds since the start of the trace
+     */
+    public final long time;
+
+    public final int type;
+
+    @Nullable
+    public final String participantId;
+
+    /**
+     * Participant status, stream kind, conference state or audio level depending on the type
+     */
+    @Nullable
+    public final String value;
+
+    public TraceEvent(long time, int type, @Nullable String participantId, @Nullable String value) {
+        if (type < 0 || type >= CODES.length) throw new IllegalArgumentException("invalid type " + type);
+
+        this.time = time;
+        this.type = type;
+        this.participantId = participantId;
+        this.value = value;
+    }
+
+    /**
+     * Get the level of an AUDIO_LEVEL event
+     *
+     * @return the level or 0 if not parsable
+     */
+    public double level() {
+        if (null == value) return 0;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @NonNull
+    TraceEvent at(long time) {
+        return new TraceEvent(time, type, participantId, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TraceEvent)) return false;
+
+        TraceEvent other = (TraceEvent) o;
+        return time == other.time && type == other.type
+                && same(participantId, other.participantId)
+                && same(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (time ^ (time >>> 32));
+        result = 31 * result + type;
+        result = 31 * result + (null != participantId ? participantId.hashCode() : 0);
+        result = 31 * result + (null != value ? value.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceEvent{" + time + " " + CODES[type] + " " + participantId + " " + value + "}";
+    }
+
+    private static boolean same(@Nullable String left, @Nullable String right) {
+        return null == left ? null == right : left.equals(right);
+    }
+}
@@ -0,0 +1,77 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * Record the conference events received into a ConferenceTrace
+ * <p>
+ * The recorder keeps at most a given number of events, the following ones are dropped. Must be used from a single
+ * thread.
+ */
+public final class TraceRecorder {
+
+    private final static int DEFAULT_MAX_EVENTS = 100000;
+
+    private final int maxEvents;
+
+    @NonNull
+    private final ArrayList<TraceEvent> events = new ArrayList<>();
+
+    private long origin = -1;
+
+    private int dropped;
+
+    public TraceRecorder() {
+        this(DEFAULT_MAX_EVENTS);
+    }
+
+    public TraceRecorder(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * Record an event
+     *
+     * @param now           the current time in milliseconds, the first event recorded is the origin of the trace
+     * @param type          the type of the event
+     * @param participantId the participant involved or null
+     * @param value         the value of the event or null
+     */
+    public void record(long now, int type, @Nullable String participantId, @Nullable String value) {
+        if (origin < 0) origin = now;
+
+        if (events.size() >= maxEvents) {
+            dropped++;
+            return;
+        }
+        events.add(new TraceEvent(Math.max(0, now - origin), type, participantId, value));
+    }
+
+    /**
+     * Get the number of events not recorded because the limit was reached
+     *
+     * @return the number of dropped events
+     */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Get the events recorded so far
+     *
+     * @return a new trace
+     */
+    @NonNull
+    public ConferenceTrace snapshot() {
+        return new ConferenceTrace(events);
+    }
+
+    public void clear() {
+        events.clear();
+        origin = -1;
+        dropped = 0;
+    }
+}
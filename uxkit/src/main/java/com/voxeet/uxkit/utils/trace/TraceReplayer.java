@@ -0,0 +1,128 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Replay a ConferenceTrace into a sink, at the recorded speed or faster
+ * <p>
+ * The events are always delivered in the order of the trace. Each scheduler callback delivers every event already
+ * due, so the outcome only depends on the trace, the speed and the scheduler.
+ */
+public final class TraceReplayer {
+
+    /**
+     * Receiver of the replayed events
+     */
+    public interface Sink {
+        void onEvent(@NonNull TraceEvent event);
+    }
+
+    /**
+     * Source of time and delayed execution, a Handler based one on a device or a VirtualScheduler in tests
+     */
+    public interface Scheduler {
+        long now();
+
+        void schedule(@NonNull Runnable runnable, long delay);
+    }
+
+    /**
+     * Deliver every event at once, ignoring the recorded times
+     */
+    public final static float AS_FAST_AS_POSSIBLE = Float.POSITIVE_INFINITY;
+
+    @NonNull
+    private final List<TraceEvent> events;
+
+    @NonNull
+    private final Scheduler scheduler;
+
+    @NonNull
+    private final Sink sink;
+
+    @NonNull
+    private final Runnable deliver = this::deliverDue;
+
+    private float speed = 1;
+    private long origin;
+    private int next;
+    private int generation;
+    private boolean running;
+
+    public TraceReplayer(@NonNull ConferenceTrace trace, @NonNull Scheduler scheduler, @NonNull Sink sink) {
+        this.events = trace.getEvents();
+        this.scheduler = scheduler;
+        this.sink = sink;
+    }
+
+    /**
+     * Start the replay from the first event
+     *
+     * @param speed 1 for the recorded speed, 10 to replay ten times faster or AS_FAST_AS_POSSIBLE
+     */
+    public void start(float speed) {
+        if (!(speed > 0)) throw new IllegalArgumentException("invalid speed " + speed);
+
+        this.speed = speed;
+        origin = scheduler.now();
+        next = 0;
+        generation++;
+        running = true;
+
+        if (Float.isInfinite(speed)) {
+            while (running && next < events.size()) sink.onEvent(events.get(next++));
+            running = false;
+            return;
+        }
+
+        scheduleNext();
+    }
+
+    /**
+     * Stop the replay, the pending callback will not deliver anything
+     */
+    public void cancel() {
+        running = false;
+        generation++;
+    }
+
+    public boolean isFinished() {
+        return next >= events.size();
+    }
+
+    /**
+     * Get the number of events delivered so far
+     *
+     * @return the number of events
+     */
+    public int getDelivered() {
+        return next;
+    }
+
+    private long dueTime(@NonNull TraceEvent event) {
+        return origin + (long) Math.ceil(event.time / speed);
+    }
+
+    private void scheduleNext() {
+        if (!running || next >= events.size()) {
+            running = false;
+            return;
+        }
+
+        final int scheduled = generation;
+        long delay = Math.max(0, dueTime(events.get(next)) - scheduler.now());
+        scheduler.schedule(() -> {
+            if (scheduled == generation) deliver.run();
+        }, delay);
+    }
+
+    private void deliverDue() {
+        long now = scheduler.now();
+        while (running && next < events.size() && dueTime(events.get(next)) <= now) {
+            sink.onEvent(events.get(next++));
+        }
+        scheduleNext();
+    }
+}
@@ -0,0 +1,156 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generators of synthetic conference traces
+ * <p>
+ * Every generator is deterministic for a given seed, the traces can be merged to combine several storms.
+ */
+public final class TraceStorms {
+
+    public final static String STATUS_CONNECTING = "CONNECTING";
+    public final static String STATUS_ON_AIR = "ON_AIR";
+    public final static String STATUS_LEFT = "LEFT";
+
+    public final static String STREAM_VIDEO = "video";
+
+    //level of a speaking participant, well above the speaking threshold
+    private final static String SPEAKING_LEVEL = "0.3";
+    private final static String SILENT_LEVEL = "0.0";
+
+    private TraceStorms() {
+
+    }
+
+    /**
+     * Get the id used by the generators for a participant
+     *
+     * @param index the index of the participant
+     * @return the id
+     */
+    @NonNull
+    public static String participantId(int index) {
+        return "participant-" + index;
+    }
+
+    /**
+     * Participants joining within a given duration, e.g. 100 participants within 5 seconds
+     * <p>
+     * Each participant is added as connecting, goes on air a few hundred milliseconds later and a part of them
+     * publish their camera.
+     *
+     * @param participants the number of participants
+     * @param duration     the duration during which they are added, in milliseconds
+     * @param videoRatio   the part of the participants publishing their camera, between 0 and 1
+     * @param seed         the seed of the generator
+     * @return the trace
+     */
+    @NonNull
+    public static ConferenceTrace joinStorm(int participants, long duration, float videoRatio, long seed) {
+        Random random = new Random(seed);
+        ArrayList<TraceEvent> events = new ArrayList<>();
+
+        for (int i = 0; i < participants; i++) {
+            String id = participantId(i);
+            long added = duration > 0 ? (long) (random.nextDouble() * duration) : 0;
+            long onAir = added + 200 + random.nextInt(600);
+
+            events.add(new TraceEvent(added, TraceEvent.PARTICIPANT_ADDED, id, STATUS_CONNECTING));
+            events.add(new TraceEvent(onAir, TraceEvent.PARTICIPANT_UPDATED, id, STATUS_ON_AIR));
+
+            if (random.nextFloat() < videoRatio) {
+                events.add(new TraceEvent(onAir + 100 + random.nextInt(400), TraceEvent.STREAM_ADDED, id, STREAM_VIDEO));
+            }
+        }
+        return new ConferenceTrace(events);
+    }
+
+    /**
+     * Active speaker changing at a fixed interval, e.g. every 300 milliseconds
+     *
+     * @param participants the number of participants taking turns
+     * @param interval     the interval between two speakers, in milliseconds
+     * @param duration     the duration of the storm, in milliseconds
+     * @return the trace
+     */
+    @NonNull
+    public static ConferenceTrace speakerFlips(int participants, long interval, long duration) {
+        ArrayList<TraceEvent> events = new ArrayList<>();
+        if (participants <= 0 || interval <= 0) return new ConferenceTrace(events);
+
+        String previous = null;
+        int turn = 0;
+        for (long time = 0; time <= duration; time += interval) {
+            String speaker = participantId(turn++ % participants);
+            if (null != previous && !previous.equals(speaker)) {
+                events.add(new TraceEvent(time, TraceEvent.AUDIO_LEVEL, previous, SILENT_LEVEL));
+            }
+            events.add(new TraceEvent(time, TraceEvent.AUDIO_LEVEL, speaker, SPEAKING_LEVEL));
+            previous = speaker;
+        }
+        return new ConferenceTrace(events);
+    }
+
+    /**
+     * Cameras randomly turned on and off
+     *
+     * @param participants the number of participants
+     * @param interval     the average interval between two toggles, in milliseconds
+     * @param duration     the duration of the storm, in milliseconds
+     * @param seed         the seed of the generator
+     * @return the trace
+     */
+    @NonNull
+    public static ConferenceTrace streamChurn(int participants, long interval, long duration, long seed) {
+        Random random = new Random(seed);
+        ArrayList<TraceEvent> events = new ArrayList<>();
+        if (participants <= 0 || interval <= 0) return new ConferenceTrace(events);
+
+        boolean[] video = new boolean[participants];
+        for (long time = 0; time <= duration; time += 1 + random.nextInt((int) Math.min(Integer.MAX_VALUE, interval * 2))) {
+            int index = random.nextInt(participants);
+            int type = video[index] ? TraceEvent.STREAM_REMOVED : TraceEvent.STREAM_ADDED;
+            video[index] = !video[index];
+            events.add(new TraceEvent(time, type, participantId(index), STREAM_VIDEO));
+        }
+        return new ConferenceTrace(events);
+    }
+
+    /**
+     * Participants leaving within a given duration
+     *
+     * @param participants the number of participants
+     * @param duration     the duration during which they leave, in milliseconds
+     * @param seed         the seed of the generator
+     * @return the trace
+     */
+    @NonNull
+    public static ConferenceTrace leaveStorm(int participants, long duration, long seed) {
+        Random random = new Random(seed);
+        ArrayList<TraceEvent> events = new ArrayList<>();
+
+        for (int i = 0; i < participants; i++) {
+            long left = duration > 0 ? (long) (random.nextDouble() * duration) : 0;
+            events.add(new TraceEvent(left, TraceEvent.PARTICIPANT_UPDATED, participantId(i), STATUS_LEFT));
+        }
+        return new ConferenceTrace(events);
+    }
+
+    /**
+     * Shift every event of a trace
+     *
+     * @param trace  the trace
+     * @param offset the offset in milliseconds
+     * @return a new trace
+     */
+    @NonNull
+    public static ConferenceTrace shift(@NonNull ConferenceTrace trace, long offset) {
+        ArrayList<TraceEvent> events = new ArrayList<>(trace.size());
+        for (TraceEvent event : trace.getEvents()) events.add(event.at(event.time + offset));
+        return new ConferenceTrace(events);
+    }
+}
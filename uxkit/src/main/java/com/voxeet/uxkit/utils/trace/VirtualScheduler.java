@@ -0,0 +1,78 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+
+import java.util.PriorityQueue;
+
+/**
+ * Scheduler driven by a virtual clock, to replay traces deterministically and instantly
+ * <p>
+ * Tasks due at the same time run in the order they were scheduled.
+ */
+public final class VirtualScheduler implements TraceReplayer.Scheduler {
+
+    private final static class Task implements Comparable<Task> {
+        private final long time;
+        private final long sequence;
+        @NonNull
+        private final Runnable runnable;
+
+        private Task(long time, long sequence, @NonNull Runnable runnable) {
+            this.time = time;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public int compareTo(@NonNull Task other) {
+            if (time != other.time) return time < other.time ? -1 : 1;
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+
+    @NonNull
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+
+    private long now;
+    private long sequence;
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public void schedule(@NonNull Runnable runnable, long delay) {
+        tasks.add(new Task(now + Math.max(0, delay), sequence++, runnable));
+    }
+
+    /**
+     * Advance the clock, running every task due in the meantime at its own time
+     *
+     * @param duration the duration in milliseconds
+     */
+    public void advanceBy(long duration) {
+        long end = now + duration;
+        while (!tasks.isEmpty() && tasks.peek().time <= end) {
+            Task task = tasks.poll();
+            now = Math.max(now, task.time);
+            task.runnable.run();
+        }
+        now = end;
+    }
+
+    /**
+     * Run every task, including the ones scheduled meanwhile, advancing the clock as needed
+     */
+    public void runAll() {
+        while (!tasks.isEmpty()) {
+            Task task = tasks.poll();
+            now = Math.max(now, task.time);
+            task.runnable.run();
+        }
+    }
+
+    public int pending() {
+        return tasks.size();
+    }
+}
@@ -3,6 +3,7 @@ package com.voxeet.uxkit.views;
 import android.annotation.TargetApi;
 import android.app.Activity;
 import android.content.Context;
+import android.content.ContextWrapper;
 import android.content.res.TypedArray;
 import android.graphics.Point;
 import android.graphics.Rect;
@@ -118,13 +119,25 @@ public class NotchAvoidView extends View {
             return true;
         }
 
-        if (null != getContext() && getContext() instanceof Activity
-                && android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.KITKAT) {
-            Window window = ((Activity) getContext()).getWindow();
+        Activity activity = activity(getContext());
+        if (null != activity && android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.KITKAT) {
+            Window window = activity.getWindow();
             int flags = window.getAttributes().flags;
             int translucent = WindowManager.LayoutParams.FLAG_TRANSLUCENT_STATUS;
             return (flags & translucent) == translucent;
         }
         return false;
     }
+
+    /**
+     * Get the activity behind a context, the overlay can be created on a wrapper of the activity
+     */
+    @Nullable
+    private static Activity activity(@Nullable Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) return (Activity) context;
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
 }
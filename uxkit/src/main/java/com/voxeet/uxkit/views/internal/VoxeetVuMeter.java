@@ -4,20 +4,42 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
 import android.util.AttributeSet;
-import android.view.View;
 
 import com.voxeet.sdk.views.RoundedFrameLayout;
 import com.voxeet.uxkit.R;
-
+import com.voxeet.uxkit.utils.speakers.ActiveSpeakerEngine;
+
+/**
+ * Circular meter displayed behind the avatar of the current speaker
+ * <p>
+ * The meter has no child, it draws a base disc and a ring around it whose length follows the interpolated audio level,
+ * with preallocated paints and bounds. Updating the level only invalidates the drawing of this view when the displayed
+ * ring changes, it never triggers a measure or a layout pass.
+ */
 public class VoxeetVuMeter extends RoundedFrameLayout {
-    private final static int METER_UPDATE_TIMER = 20;
     private final String TAG = VoxeetVuMeter.class.getSimpleName();
-    private final int white;
-    private final int yellowOrange;
-    private final View view;
 
-    private int width;
+    //level displayed as a full ring
+    private final static double FULL_SCALE_LEVEL = 0.3;
+
+    //part of the ring displayed for a participant just starting to speak
+    private final static float MIN_LEVEL_SWEEP = 45;
+
+    //width of the ring relative to the radius of the meter, the avatar covers its inner part
+    private final static float RING_WIDTH_RATIO = 0.15f;
+
+    private final Paint basePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint levelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF ringBounds = new RectF();
+
+    private float centerX;
+    private float centerY;
+    private float radius;
+    private int levelSweep;
 
     /**
      * Instantiates a new Voxeet vu meter.
@@ -28,18 +50,14 @@ public class VoxeetVuMeter extends RoundedFrameLayout {
     public VoxeetVuMeter(final Context context, final AttributeSet attrs) {
         super(context, attrs);
 
-        //setImageDrawable(new ColorDrawable(getResources().getColor(R.color.grey999)));
-
-        updateAttrs(attrs);
-
         Resources resources = context.getResources();
-        white = resources.getColor(R.color.white);
-        yellowOrange = resources.getColor(R.color.yellowOrange);
-
-        view = new View(context);
-        view.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        basePaint.setStyle(Paint.Style.FILL);
+        basePaint.setColor(resources.getColor(R.color.white));
+        levelPaint.setStyle(Paint.Style.STROKE);
+        levelPaint.setStrokeCap(Paint.Cap.ROUND);
+        levelPaint.setColor(resources.getColor(R.color.yellowOrange));
 
-        addView(view);
+        updateAttrs(attrs);
     }
 
     /**
@@ -48,7 +66,8 @@ public class VoxeetVuMeter extends RoundedFrameLayout {
      * @param color the color
      */
     public void setMeterColor(int color) {
-
+        levelPaint.setColor(color);
+        invalidate();
     }
 
     private void updateAttrs(AttributeSet attrs) {
@@ -64,20 +83,58 @@ public class VoxeetVuMeter extends RoundedFrameLayout {
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
 
-        width = w / 2;
+        centerX = w / 2f;
+        centerY = h / 2f;
+        radius = Math.min(w, h) / 2f;
 
-        //animate().scaleY(0).scaleX(0).setDuration(METER_UPDATE_TIMER).start();
+        float ringWidth = radius * RING_WIDTH_RATIO;
+        float inset = radius - ringWidth / 2;
+        levelPaint.setStrokeWidth(ringWidth);
+        ringBounds.set(centerX - inset, centerY - inset, centerX + inset, centerY + inset);
+    }
 
-        requestLayout();
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+
+        if (radius <= 0) return;
+
+        canvas.drawCircle(centerX, centerY, radius, basePaint);
+        if (levelSweep > 0) {
+            canvas.drawArc(ringBounds, -90, levelSweep, false, levelPaint);
+        }
     }
 
     /**
      * Update the vu meter.
      *
      * @param vuMeter the vu meter
+     * @deprecated use updateMeter(double, boolean) with the speaking state computed from the configured threshold
      */
+    @Deprecated
     public void updateMeter(double vuMeter) {
-        view.setBackgroundColor(vuMeter > 0.02 ? yellowOrange : white);
+        updateMeter(vuMeter, vuMeter > ActiveSpeakerEngine.DEFAULT_SPEAKING_THRESHOLD);
+    }
+
+    /**
+     * Update the vu meter.
+     *
+     * @param vuMeter  the audio level
+     * @param speaking true if the participant is considered as speaking
+     */
+    public void updateMeter(double vuMeter, boolean speaking) {
+        int sweep = toSweep(vuMeter, speaking);
+        if (sweep == levelSweep) return;
+
+        levelSweep = sweep;
+        invalidate();
+    }
+
+    private static int toSweep(double level, boolean speaking) {
+        if (!speaking) return 0;
+
+        double fraction = Math.max(0, Math.min(1, level / FULL_SCALE_LEVEL));
+        return (int) (MIN_LEVEL_SWEEP + fraction * (360 - MIN_LEVEL_SWEEP));
     }
 
     /**
@@ -91,13 +148,13 @@ public class VoxeetVuMeter extends RoundedFrameLayout {
      * On participant unselected.
      */
     public void onParticipantUnselected() {
-        updateMeter(0);
+        updateMeter(0, false);
     }
 
     /**
      * Resets the queue.
      */
     public void reset() {
-        updateMeter(0);
+        updateMeter(0, false);
     }
-}
\ No newline at end of file
+}
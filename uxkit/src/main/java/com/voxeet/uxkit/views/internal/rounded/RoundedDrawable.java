@@ -14,11 +14,13 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
+import android.util.SparseArray;
 import android.widget.ImageView.ScaleType;
 
 @SuppressWarnings("UnusedDeclaration")
@@ -27,6 +29,9 @@ public class RoundedDrawable extends Drawable {
     public static final String TAG = "RoundedDrawable";
     public static final int DEFAULT_BORDER_COLOR = Color.BLACK;
 
+    //single pixel bitmaps of the colors used as backgrounds
+    private static final SparseArray<Bitmap> sColorBitmaps = new SparseArray<>();
+
     private final RectF mBounds = new RectF();
     private final RectF mDrawableRect = new RectF();
     private final RectF mBitmapRect = new RectF();
@@ -79,6 +84,25 @@ public class RoundedDrawable extends Drawable {
         }
     }
 
+    /**
+     * Create a drawable filled with a color
+     * <p>
+     * The single pixel bitmap backing each color is shared, must be called from the main thread
+     *
+     * @param color the color
+     * @return a new drawable
+     */
+    @NonNull
+    public static RoundedDrawable fromColor(int color) {
+        Bitmap bitmap = sColorBitmaps.get(color);
+        if (null == bitmap) {
+            bitmap = Bitmap.createBitmap(1, 1, Config.ARGB_8888);
+            bitmap.eraseColor(color);
+            sColorBitmaps.put(color, bitmap);
+        }
+        return new RoundedDrawable(bitmap);
+    }
+
     @Nullable
     public static Drawable fromDrawable(@Nullable Drawable drawable) {
         if (drawable != null) {
@@ -97,6 +121,10 @@ public class RoundedDrawable extends Drawable {
                 return ld;
             }
 
+            if (drawable instanceof ColorDrawable) {
+                return fromColor(((ColorDrawable) drawable).getColor());
+            }
+
             // try to get a bitmap from the drawable and
             Bitmap bm = drawableToBitmap(drawable);
             if (bm != null) {
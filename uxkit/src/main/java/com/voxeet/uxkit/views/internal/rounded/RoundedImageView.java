@@ -5,6 +5,7 @@ import android.content.res.ColorStateList;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.net.Uri;
@@ -15,6 +16,7 @@ import android.util.Log;
 import android.widget.ImageView;
 
 import com.voxeet.uxkit.R;
+import com.voxeet.uxkit.utils.avatars.RoundedAvatars;
 
 @SuppressWarnings("UnusedDeclaration")
 public class RoundedImageView extends ImageView {
@@ -46,6 +48,9 @@ public class RoundedImageView extends ImageView {
     private Drawable mDrawable;
     @Nullable
     private Drawable mBackgroundDrawable;
+    @Nullable
+    private Drawable mColorBackground;
+    private int mBackgroundColor;
 
     private ScaleType mScaleType;
 
@@ -150,6 +155,16 @@ public class RoundedImageView extends ImageView {
     @Override
     public void setImageDrawable(Drawable drawable) {
         mResource = 0;
+
+        if (isPreRounded(drawable)) {
+            //the avatar pipeline already cropped it, no need for a shader, and must not reuse it while displayed
+            RoundedAvatars.instance.setDisplayed(this, ((BitmapDrawable) drawable).getBitmap());
+            mDrawable = drawable;
+            super.setImageDrawable(drawable);
+            return;
+        }
+
+        RoundedAvatars.instance.setDisplayed(this, null);
         mDrawable = RoundedDrawable.fromDrawable(drawable);
         updateDrawableAttrs();
         super.setImageDrawable(mDrawable);
@@ -158,6 +173,7 @@ public class RoundedImageView extends ImageView {
     @Override
     public void setImageBitmap(Bitmap bm) {
         mResource = 0;
+        RoundedAvatars.instance.setDisplayed(this, null);
         mDrawable = RoundedDrawable.fromBitmap(bm);
         updateDrawableAttrs();
         super.setImageDrawable(mDrawable);
@@ -167,12 +183,18 @@ public class RoundedImageView extends ImageView {
     public void setImageResource(int resId) {
         if (mResource != resId) {
             mResource = resId;
+            RoundedAvatars.instance.setDisplayed(this, null);
             mDrawable = resolveResource();
             updateDrawableAttrs();
             super.setImageDrawable(mDrawable);
         }
     }
 
+    private boolean isPreRounded(@Nullable Drawable drawable) {
+        return isOval && drawable instanceof BitmapDrawable
+                && RoundedAvatars.instance.isRounded(((BitmapDrawable) drawable).getBitmap());
+    }
+
     @Override
     public void setImageURI(Uri uri) {
         super.setImageURI(uri);
@@ -204,6 +226,21 @@ public class RoundedImageView extends ImageView {
         setBackgroundDrawable(background);
     }
 
+    @Override
+    public void setBackgroundColor(int color) {
+        if (!mutateBackground) {
+            super.setBackgroundColor(color);
+            return;
+        }
+
+        //the rounded background is only rebuilt when the color changes, from a cached bitmap
+        if (null != mColorBackground && mColorBackground == mBackgroundDrawable && mBackgroundColor == color) return;
+
+        setBackgroundDrawable(RoundedDrawable.fromColor(color));
+        mColorBackground = mBackgroundDrawable;
+        mBackgroundColor = color;
+    }
+
     private void updateDrawableAttrs() {
         updateAttrs(mDrawable);
     }
@@ -0,0 +1,94 @@
+package com.voxeet.uxkit.utils.participants;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Merge the participant and stream events of a coalescing window
+ */
+public class ChangeBatchTest {
+
+    private final ChangeBatch<String, Object> batch = new ChangeBatch<>();
+
+    @Test
+    public void addedThenUpdated_keepsBothFlags() {
+        batch.participantAdded("a", "a1");
+        batch.participantUpdated("a", "a2");
+
+        ChangeBatch.Entry<String, Object> entry = batch.getEntries().get(0);
+        assertEquals(ChangeBatch.ADDED | ChangeBatch.UPDATED, entry.getFlags());
+        assertTrue(entry.isAdded());
+        assertTrue(entry.isUpdated());
+        assertTrue(batch.has(ChangeBatch.UPDATED));
+        assertEquals("a2", entry.getParticipant());
+        assertEquals(2, batch.getEventCount());
+    }
+
+    @Test
+    public void entries_keepFirstChangeOrder() {
+        batch.participantUpdated("b", "b");
+        batch.participantAdded("a", "a");
+        batch.participantUpdated("b", "b");
+
+        List<ChangeBatch.Entry<String, Object>> entries = batch.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("b", entries.get(0).getParticipant());
+        assertEquals("a", entries.get(1).getParticipant());
+        assertEquals(ChangeBatch.ADDED | ChangeBatch.UPDATED, batch.getFlags());
+    }
+
+    @Test
+    public void streamAddedThenRemoved_disappears() {
+        Object stream = new Object();
+        batch.stream(ChangeBatch.STREAM_ADDED, "a", "a", stream);
+        batch.stream(ChangeBatch.STREAM_UPDATED, "a", "a", stream);
+        assertEquals(ChangeBatch.STREAM_ADDED, batch.getFlags());
+
+        batch.stream(ChangeBatch.STREAM_REMOVED, "a", "a", stream);
+        assertTrue(batch.getEntries().get(0).getStreams().isEmpty());
+        assertEquals(0, batch.getFlags());
+        assertFalse(batch.isEmpty());
+    }
+
+    @Test
+    public void streamUpdatedThenRemoved_isRemoved() {
+        Object stream = new Object();
+        batch.stream(ChangeBatch.STREAM_UPDATED, "a", "a", stream);
+        batch.stream(ChangeBatch.STREAM_REMOVED, "a", "a", stream);
+
+        ChangeBatch.StreamChange<Object> change = batch.getEntries().get(0).getStreams().get(0);
+        assertEquals(ChangeBatch.STREAM_REMOVED, change.getType());
+        assertSame(stream, change.getStream());
+    }
+
+    @Test
+    public void streamRemovedThenAdded_isUpdated() {
+        Object stream = new Object();
+        batch.stream(ChangeBatch.STREAM_REMOVED, "a", "a", stream);
+        batch.stream(ChangeBatch.STREAM_ADDED, "a", "a", stream);
+
+        assertEquals(ChangeBatch.STREAM_UPDATED, batch.getEntries().get(0).getStreams().get(0).getType());
+    }
+
+    @Test
+    public void streams_areComparedByIdentity() {
+        batch.stream(ChangeBatch.STREAM_ADDED, "a", "a", new Object());
+        batch.stream(ChangeBatch.STREAM_REMOVED, "a", "a", new Object());
+
+        assertEquals(2, batch.getEntries().get(0).getStreams().size());
+        assertEquals(ChangeBatch.STREAM_ADDED | ChangeBatch.STREAM_REMOVED, batch.getFlags());
+    }
+
+    @Test
+    public void newBatch_isEmpty() {
+        assertTrue(batch.isEmpty());
+        assertEquals(0, batch.getFlags());
+        assertEquals(0, batch.getEventCount());
+    }
+}
@@ -0,0 +1,71 @@
+package com.voxeet.uxkit.utils.participants;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compute and merge the payloads of the participant cells
+ */
+public class ParticipantChangeTest {
+
+    private final ParticipantItem item = new ParticipantItem("a", ParticipantItem.STATUS_ON_AIR, "Alice", "url", 1, false);
+
+    @Test
+    public void between_sameItem_isNull() {
+        ParticipantItem copy = new ParticipantItem("a", ParticipantItem.STATUS_ON_AIR, "Alice", "url", 1, false);
+        assertNull(ParticipantChange.between(item, copy));
+    }
+
+    @Test
+    public void between_eachField_hasItsFlag() {
+        assertEquals(ParticipantChange.SELECTION, flags(new ParticipantItem("a", ParticipantItem.STATUS_ON_AIR, "Alice", "url", 1, true)));
+        assertEquals(ParticipantChange.STREAM, flags(new ParticipantItem("a", ParticipantItem.STATUS_ON_AIR, "Alice", "url", 0, false)));
+        assertEquals(ParticipantChange.STATUS, flags(new ParticipantItem("a", ParticipantItem.STATUS_LEFT, "Alice", "url", 1, false)));
+        assertEquals(ParticipantChange.NAME, flags(new ParticipantItem("a", ParticipantItem.STATUS_ON_AIR, null, "url", 1, false)));
+        assertEquals(ParticipantChange.AVATAR, flags(new ParticipantItem("a", ParticipantItem.STATUS_ON_AIR, "Alice", "other", 1, false)));
+    }
+
+    @Test
+    public void between_severalFields_combinesFlags() {
+        ParticipantChange change = ParticipantChange.between(item,
+                new ParticipantItem("a", ParticipantItem.STATUS_LEFT, "Alice", "url", 0, false));
+
+        assertEquals(ParticipantChange.STATUS | ParticipantChange.STREAM, change.flags);
+        assertTrue(change.has(ParticipantChange.STREAM));
+    }
+
+    @Test
+    public void of_singleFlag_isShared() {
+        assertSame(ParticipantChange.of(ParticipantChange.NAME), ParticipantChange.of(ParticipantChange.NAME));
+        assertNull(ParticipantChange.of(0));
+    }
+
+    @Test
+    public void merge_combinesPayloads() {
+        List<Object> payloads = new ArrayList<>();
+        payloads.add(ParticipantChange.of(ParticipantChange.NAME));
+        payloads.add(ParticipantChange.of(ParticipantChange.AVATAR));
+
+        assertEquals(ParticipantChange.NAME | ParticipantChange.AVATAR, ParticipantChange.merge(payloads));
+    }
+
+    @Test
+    public void merge_unknownOrNoPayload_requiresFullBind() {
+        assertEquals(0, ParticipantChange.merge(Collections.emptyList()));
+        assertEquals(0, ParticipantChange.merge(Arrays.<Object>asList(ParticipantChange.of(ParticipantChange.NAME), "other")));
+    }
+
+    private int flags(ParticipantItem newItem) {
+        ParticipantChange change = ParticipantChange.between(item, newItem);
+        return null != change ? change.flags : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.voxeet.uxkit.utils.participants;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Index the participants, their statuses and their streams incrementally
+ */
+public class ParticipantIndexTest {
+
+    private final ParticipantIndex<String> index = new ParticipantIndex<>();
+
+    @Test
+    public void put_countsStatuses() {
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, false, false);
+        index.put("b", "b", ParticipantIndex.STATUS_INVITED, false, false, false);
+        index.put("c", "c", 42, false, false, false);
+
+        assertEquals(3, index.size());
+        assertEquals(1, index.count(ParticipantIndex.STATUS_ON_AIR));
+        assertEquals(1, index.count(ParticipantIndex.STATUS_INVITED));
+        assertEquals(1, index.count(ParticipantIndex.STATUS_OTHER));
+        assertEquals(0, index.count(42));
+
+        assertTrue(index.put("b", "b", ParticipantIndex.STATUS_ON_AIR, true, false, false));
+        assertEquals(2, index.count(ParticipantIndex.STATUS_ON_AIR));
+        assertEquals(0, index.count(ParticipantIndex.STATUS_INVITED));
+    }
+
+    @Test
+    public void put_sameState_isNotAChange() {
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, true, false);
+        int version = index.getVersion();
+
+        assertFalse(index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, true, false));
+        assertEquals(version, index.getVersion());
+    }
+
+    @Test
+    public void remove_updatesCountsAndStreams() {
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, true, true);
+
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+        assertFalse(index.contains("a"));
+        assertNull(index.get("a"));
+        assertEquals(0, index.count(ParticipantIndex.STATUS_ON_AIR));
+        assertFalse(index.hasVideo("a"));
+        assertFalse(index.hasScreenShare("a"));
+    }
+
+    @Test
+    public void local_isExcludedFromRemoteCounts() {
+        index.setLocalId("me");
+        index.put("me", "me", ParticipantIndex.STATUS_ON_AIR, true, true, false);
+        assertEquals(0, index.countRemote(ParticipantIndex.STATUS_ON_AIR));
+        assertFalse(index.hasRemoteParticipants());
+
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, false, false);
+        assertEquals(1, index.countRemote(ParticipantIndex.STATUS_ON_AIR));
+        assertTrue(index.hasRemoteParticipants());
+    }
+
+    @Test
+    public void streams_areChangesWithoutNewVersion() {
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, false, false);
+        index.put("b", "b", ParticipantIndex.STATUS_ON_AIR, true, false, false);
+        int version = index.getVersion();
+
+        assertTrue(index.put("b", "b", ParticipantIndex.STATUS_ON_AIR, true, true, false));
+        assertTrue(index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, true, true));
+        assertEquals(version, index.getVersion());
+        assertEquals(Arrays.asList("b", "a"), Arrays.asList(index.getVideos().toArray()));
+        assertEquals(Collections.singleton("a"), index.getScreenShares());
+    }
+
+    @Test
+    public void participants_areCachedUntilAdditionOrReplacement() {
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, false, false);
+        List<String> participants = index.getParticipants();
+
+        index.put("a", "a", ParticipantIndex.STATUS_LEFT, false, true, false);
+        assertSame(participants, index.getParticipants());
+
+        index.put("b", "b", ParticipantIndex.STATUS_ON_AIR, true, false, false);
+        assertEquals(Arrays.asList("a", "b"), index.getParticipants());
+
+        participants = index.getParticipants();
+        index.put("a", new String("a"), ParticipantIndex.STATUS_LEFT, false, true, false);
+        assertNotSame(participants, index.getParticipants());
+    }
+
+    @Test
+    public void clear_resetsEverything() {
+        index.setLocalId("me");
+        index.put("me", "me", ParticipantIndex.STATUS_ON_AIR, true, true, true);
+        index.put("a", "a", ParticipantIndex.STATUS_ON_AIR, true, true, false);
+        int version = index.getVersion();
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(0, index.count(ParticipantIndex.STATUS_ON_AIR));
+        assertFalse(index.hasRemoteParticipants());
+        assertTrue(index.getVideos().isEmpty());
+        assertTrue(index.getParticipants().isEmpty());
+        assertTrue(version != index.getVersion());
+    }
+}
@@ -0,0 +1,65 @@
+package com.voxeet.uxkit.utils.participants;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Order the items of the participants bar
+ */
+public class ParticipantItemsTest {
+
+    @Test
+    public void order_byStatus_isStable() {
+        List<ParticipantItem> ordered = ParticipantItems.order(Arrays.asList(
+                item("left", ParticipantItem.STATUS_LEFT),
+                item("air1", ParticipantItem.STATUS_ON_AIR),
+                item("other", ParticipantItem.STATUS_OTHER),
+                item("invited", ParticipantItem.STATUS_INVITED),
+                item("air2", ParticipantItem.STATUS_ON_AIR)));
+
+        assertEquals(Arrays.asList("air1", "air2", "invited", "left", "other"), ids(ordered));
+    }
+
+    @Test
+    public void order_dropsDuplicatesAndNulls() {
+        List<ParticipantItem> ordered = ParticipantItems.order(Arrays.asList(
+                item("a", ParticipantItem.STATUS_INVITED),
+                null,
+                item("a", ParticipantItem.STATUS_ON_AIR),
+                item("b", ParticipantItem.STATUS_ON_AIR)));
+
+        //the first occurrence wins
+        assertEquals(Arrays.asList("b", "a"), ids(ordered));
+        assertEquals(ParticipantItem.STATUS_INVITED, ordered.get(1).status);
+    }
+
+    @Test
+    public void order_unknownStatus_isLast() {
+        List<ParticipantItem> ordered = ParticipantItems.order(Arrays.asList(
+                item("unknown", 42),
+                item("left", ParticipantItem.STATUS_LEFT)));
+
+        assertEquals(Arrays.asList("left", "unknown"), ids(ordered));
+    }
+
+    @Test
+    public void order_empty_isEmpty() {
+        assertTrue(ParticipantItems.order(new ArrayList<ParticipantItem>()).isEmpty());
+    }
+
+    private static ParticipantItem item(String id, int status) {
+        return new ParticipantItem(id, status, id, null, 0, false);
+    }
+
+    private static List<String> ids(List<ParticipantItem> items) {
+        List<String> ids = new ArrayList<>();
+        for (ParticipantItem item : items) ids.add(item.id);
+        return ids;
+    }
+}
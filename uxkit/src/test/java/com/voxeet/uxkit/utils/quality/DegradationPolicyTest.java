@@ -0,0 +1,77 @@
+package com.voxeet.uxkit.utils.quality;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Degrade and recover the conference UI from the temperature, the battery saver and the janky frames
+ */
+public class DegradationPolicyTest {
+
+    @Test
+    public void target_followsTemperature() {
+        assertEquals(DegradationLevel.NONE, DegradationPolicy.target(30f, false, 0, DegradationLevel.NONE));
+        assertEquals(DegradationLevel.REDUCED_REFRESH, DegradationPolicy.target(38f, false, 0, DegradationLevel.NONE));
+        assertEquals(DegradationLevel.CAPPED_VIDEOS, DegradationPolicy.target(43.5f, false, 0, DegradationLevel.NONE));
+        assertEquals(DegradationLevel.MAX, DegradationPolicy.target(50f, false, 0, DegradationLevel.NONE));
+        assertEquals(DegradationLevel.NONE, DegradationPolicy.target(Float.NaN, false, 0, DegradationLevel.NONE));
+    }
+
+    @Test
+    public void target_powerSave_disablesAnimations() {
+        assertEquals(DegradationLevel.NO_ANIMATIONS, DegradationPolicy.target(30f, true, 0, DegradationLevel.NONE));
+        assertEquals(DegradationLevel.CAPPED_VIDEOS, DegradationPolicy.target(42f, true, 0, DegradationLevel.NONE));
+    }
+
+    @Test
+    public void target_jank_asksOneMoreLevel() {
+        assertEquals(DegradationLevel.NO_ANIMATIONS,
+                DegradationPolicy.target(30f, false, 0.5f, DegradationLevel.REDUCED_REFRESH));
+        assertEquals(DegradationLevel.NONE,
+                DegradationPolicy.target(30f, false, DegradationPolicy.JANK_RATIO_THRESHOLD, DegradationLevel.REDUCED_REFRESH));
+        assertEquals(DegradationLevel.MAX, DegradationPolicy.target(30f, false, 0.5f, DegradationLevel.MAX));
+    }
+
+    @Test
+    public void evaluate_degradesOneStepPerEvaluation() {
+        DegradationPolicy policy = new DegradationPolicy();
+
+        assertEquals(DegradationLevel.REDUCED_REFRESH, policy.evaluate(45f, false, 0));
+        assertEquals(DegradationLevel.NO_ANIMATIONS, policy.evaluate(45f, false, 0));
+        assertEquals(DegradationLevel.CAPPED_VIDEOS, policy.evaluate(45f, false, 0));
+        assertEquals(DegradationLevel.NO_SELF_VIEW, policy.evaluate(45f, false, 0));
+        assertEquals(DegradationLevel.MAX, policy.evaluate(45f, false, 0));
+    }
+
+    @Test
+    public void evaluate_recoversAfterSeveralBetterEvaluations() {
+        DegradationPolicy policy = new DegradationPolicy(3);
+        policy.evaluate(38f, false, 0);
+
+        assertEquals(DegradationLevel.REDUCED_REFRESH, policy.evaluate(30f, false, 0));
+        assertEquals(DegradationLevel.REDUCED_REFRESH, policy.evaluate(30f, false, 0));
+        assertEquals(DegradationLevel.NONE, policy.evaluate(30f, false, 0));
+    }
+
+    @Test
+    public void evaluate_stableCondition_restartsRecovery() {
+        DegradationPolicy policy = new DegradationPolicy(2);
+        policy.evaluate(38f, false, 0);
+
+        policy.evaluate(30f, false, 0);
+        //back to the conditions of the current level
+        policy.evaluate(38f, false, 0);
+        assertEquals(DegradationLevel.REDUCED_REFRESH, policy.evaluate(30f, false, 0));
+        assertEquals(DegradationLevel.NONE, policy.evaluate(30f, false, 0));
+    }
+
+    @Test
+    public void reset_restoresNone() {
+        DegradationPolicy policy = new DegradationPolicy();
+        policy.evaluate(45f, true, 1f);
+        policy.reset();
+
+        assertEquals(DegradationLevel.NONE, policy.getLevel());
+    }
+}
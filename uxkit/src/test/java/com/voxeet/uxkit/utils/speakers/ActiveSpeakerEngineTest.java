@@ -0,0 +1,110 @@
+package com.voxeet.uxkit.utils.speakers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Elect the active speaker from sampling passes on a virtual clock
+ */
+public class ActiveSpeakerEngineTest {
+
+    private ActiveSpeakerEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new ActiveSpeakerEngine();
+        engine.setSpeakingThreshold(0.02);
+        engine.setHysteresis(0.05);
+        engine.setHoldTime(1000);
+    }
+
+    @Test
+    public void firstSpeaker_isElected() {
+        assertEquals(ActiveSpeakerEngine.NO_CHANGE, pass(0, "a", 0.01, "b", 0.0));
+        assertNull(engine.getActiveSpeaker());
+
+        int flags = pass(100, "a", 0.2, "b", 0.0);
+        assertEquals(ActiveSpeakerEngine.ACTIVE_SPEAKER_CHANGED | ActiveSpeakerEngine.SPEAKING_CHANGED, flags);
+        assertEquals("a", engine.getActiveSpeaker());
+        assertTrue(engine.isSpeaking("a"));
+        assertFalse(engine.isSpeaking("b"));
+    }
+
+    @Test
+    public void sameState_returnsNoChange() {
+        pass(0, "a", 0.2, "b", 0.0);
+
+        assertEquals(ActiveSpeakerEngine.NO_CHANGE, pass(100, "a", 0.25, "b", 0.0));
+        assertEquals(0, engine.changedCount());
+    }
+
+    @Test
+    public void louderUnderHysteresis_keepsActiveSpeaker() {
+        pass(0, "a", 0.2, "b", 0.0);
+
+        //b is louder after the hold time but not by the margin
+        assertEquals(ActiveSpeakerEngine.SPEAKING_CHANGED, pass(2000, "a", 0.2, "b", 0.24));
+        assertEquals("a", engine.getActiveSpeaker());
+    }
+
+    @Test
+    public void louderDuringHold_keepsActiveSpeaker_untilHoldElapsed() {
+        pass(0, "a", 0.2, "b", 0.0);
+
+        pass(500, "a", 0.1, "b", 0.5);
+        assertEquals("a", engine.getActiveSpeaker());
+
+        int flags = pass(1000, "a", 0.1, "b", 0.5);
+        assertEquals(ActiveSpeakerEngine.ACTIVE_SPEAKER_CHANGED, flags);
+        assertEquals("b", engine.getActiveSpeaker());
+    }
+
+    @Test
+    public void activeSpeakerLoudest_extendsHold() {
+        pass(0, "a", 0.2, "b", 0.0);
+        pass(900, "a", 0.2, "b", 0.0);
+
+        //the hold restarted at 900
+        pass(1500, "a", 0.1, "b", 0.5);
+        assertEquals("a", engine.getActiveSpeaker());
+
+        pass(1900, "a", 0.1, "b", 0.5);
+        assertEquals("b", engine.getActiveSpeaker());
+    }
+
+    @Test
+    public void participantNotSampled_isForgotten() {
+        pass(0, "a", 0.2, "b", 0.0);
+
+        engine.beginSample();
+        engine.sample("b", 0.0);
+        int flags = engine.commit(100);
+
+        assertEquals(ActiveSpeakerEngine.ACTIVE_SPEAKER_CHANGED | ActiveSpeakerEngine.SPEAKING_CHANGED, flags);
+        assertNull(engine.getActiveSpeaker());
+        assertFalse(engine.isTracked("a"));
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    public void reset_forgetsEverything() {
+        pass(0, "a", 0.2, "b", 0.0);
+        engine.reset();
+
+        assertNull(engine.getActiveSpeaker());
+        assertEquals(0, engine.size());
+        assertEquals(0.0, engine.level("a"), 0);
+    }
+
+    private int pass(long now, String first, double firstLevel, String second, double secondLevel) {
+        engine.beginSample();
+        engine.sample(first, firstLevel);
+        engine.sample(second, secondLevel);
+        return engine.commit(now);
+    }
+}
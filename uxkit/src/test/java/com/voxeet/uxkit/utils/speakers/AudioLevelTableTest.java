@@ -0,0 +1,79 @@
+package com.voxeet.uxkit.utils.speakers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Acquire, release and reuse the slots of the audio level table
+ */
+public class AudioLevelTableTest {
+
+    @Test
+    public void acquire_isStable() {
+        AudioLevelTable table = new AudioLevelTable();
+        int a = table.acquire("a");
+        int b = table.acquire("b");
+
+        assertEquals(a, table.acquire("a"));
+        assertEquals(b, table.slotOf("b"));
+        assertEquals(2, table.size());
+        assertEquals(-1, table.slotOf("c"));
+        assertEquals(-1, table.slotOf(null));
+    }
+
+    @Test
+    public void release_slotIsReused() {
+        AudioLevelTable table = new AudioLevelTable();
+        table.acquire("a");
+        int b = table.acquire("b");
+        table.acquire("c");
+        table.set(b, 0.5f);
+
+        table.release(b);
+        assertNull(table.participantAt(b));
+        assertEquals(-1, table.slotOf("b"));
+        assertEquals(0f, table.get("b"), 0);
+
+        //the freed slot is given to the next participant, with a cleared level
+        assertEquals(b, table.acquire("d"));
+        assertEquals(0f, table.get(b), 0);
+        assertEquals(3, table.slotCount());
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    public void release_twice_isIgnored() {
+        AudioLevelTable table = new AudioLevelTable();
+        int a = table.acquire("a");
+        table.release(a);
+        table.release(a);
+
+        assertEquals(a, table.acquire("b"));
+        assertEquals(table.slotCount(), table.acquire("c"));
+    }
+
+    @Test
+    public void grow_keepsLevels() {
+        AudioLevelTable table = new AudioLevelTable(1);
+        for (int i = 0; i < 10; i++) table.set(table.acquire("p" + i), i / 10f);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, table.slotOf("p" + i));
+            assertEquals(i / 10f, table.get("p" + i), 0);
+        }
+    }
+
+    @Test
+    public void clear_releasesEverySlot() {
+        AudioLevelTable table = new AudioLevelTable();
+        table.set(table.acquire("a"), 0.3f);
+        table.clear();
+
+        assertEquals(0, table.size());
+        assertEquals(0, table.slotCount());
+        assertEquals(0f, table.get("a"), 0);
+        assertEquals(0, table.acquire("b"));
+    }
+}
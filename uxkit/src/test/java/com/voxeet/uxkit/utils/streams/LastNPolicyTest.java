@@ -0,0 +1,90 @@
+package com.voxeet.uxkit.utils.streams;
+
+import com.voxeet.uxkit.utils.speakers.RecentSpeakersRanking;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Choose the rendered videos from the recent speakers without swapping on noise
+ */
+public class LastNPolicyTest {
+
+    private final static List<String> CANDIDATES = Arrays.asList("a", "b", "c", "d");
+
+    private final RecentSpeakersRanking ranking = new RecentSpeakersRanking();
+
+    private final LastNPolicy policy = new LastNPolicy(2);
+
+    @Test
+    public void select_fillsInDisplayOrder() {
+        assertEquals(Arrays.asList("a", "b"), policy.select(CANDIDATES, ranking, 0));
+        assertTrue(policy.isSelected("a"));
+        assertFalse(policy.isSelected("c"));
+    }
+
+    @Test
+    public void select_fillsWithRecentSpeakersFirst() {
+        speak("c", 0, 0);
+        speak("d", 100, 100);
+
+        assertEquals(Arrays.asList("d", "c"), policy.select(CANDIDATES, ranking, 200));
+    }
+
+    @Test
+    public void shortNoise_doesNotSwap() {
+        policy.select(CANDIDATES, ranking, 0);
+        speak("c", 100, 100);
+
+        assertEquals(Arrays.asList("a", "b"), policy.select(CANDIDATES, ranking, 200));
+    }
+
+    @Test
+    public void speaker_swapsOnce_perInterval() {
+        policy.select(CANDIDATES, ranking, 0);
+
+        speak("d", 1000, 2300);
+        assertEquals(Arrays.asList("d", "a"), policy.select(CANDIDATES, ranking, 2300));
+
+        //long enough but too soon after the previous swap
+        speak("c", 2400, 3800);
+        assertEquals(Arrays.asList("d", "a"), policy.select(CANDIDATES, ranking, 3800));
+
+        speak("c", 3900, 5400);
+        assertEquals(Arrays.asList("c", "d"), policy.select(CANDIDATES, ranking, 5400));
+    }
+
+    @Test
+    public void lostVideo_leavesRightAway() {
+        policy.select(CANDIDATES, ranking, 0);
+        speak("d", 1000, 2300);
+        speak("c", 2400, 5400);
+        policy.select(CANDIDATES, ranking, 2300);
+        policy.select(CANDIDATES, ranking, 5400);
+
+        assertEquals(Arrays.asList("c", "a"), policy.select(Arrays.asList("a", "b", "c"), ranking, 5500));
+    }
+
+    @Test
+    public void setN_keepsMostRecentSpeakers() {
+        speak("c", 0, 0);
+        policy.select(CANDIDATES, ranking, 100);
+
+        policy.setN(1);
+        assertEquals(Collections.singletonList("c"), policy.select(CANDIDATES, ranking, 200));
+
+        policy.setN(0);
+        assertTrue(policy.select(CANDIDATES, ranking, 300).isEmpty());
+    }
+
+    private void speak(String id, long from, long to) {
+        for (long now = from; now <= to; now += 100) ranking.onSpeaking(id, now);
+    }
+}
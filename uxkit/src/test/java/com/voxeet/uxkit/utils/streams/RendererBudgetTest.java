@@ -0,0 +1,136 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Grant, revoke and promote the video renderers under a cap
+ */
+public class RendererBudgetTest {
+
+    private RendererBudget budget;
+
+    private final List<String> granted = new ArrayList<>();
+
+    private final List<String> revoked = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        budget = new RendererBudget(2);
+        budget.setListener(new RendererBudget.Listener() {
+            @Override
+            public void onRendererGranted(@NonNull String key) {
+                granted.add(key);
+            }
+
+            @Override
+            public void onRendererRevoked(@NonNull String key) {
+                revoked.add(key);
+            }
+        });
+    }
+
+    @Test
+    public void acquire_overCap_waits() {
+        assertTrue(budget.acquire("a"));
+        assertTrue(budget.acquire("b"));
+        assertFalse(budget.acquire("c"));
+
+        assertTrue(budget.isWaiting("c"));
+        assertEquals(2, budget.getGrantedCount());
+        assertEquals(1, budget.getWaitingCount());
+        assertTrue(budget.acquire("a"));
+    }
+
+    @Test
+    public void release_promotesFirstWaiting() {
+        acquire("a", "b", "c", "d");
+
+        budget.release("a");
+        assertEquals(Collections.singletonList("c"), granted);
+        assertTrue(budget.isGranted("c"));
+        assertTrue(budget.isWaiting("d"));
+    }
+
+    @Test
+    public void release_waitingKey_stopsWaiting() {
+        acquire("a", "b", "c");
+
+        budget.release("c");
+        assertFalse(budget.isWaiting("c"));
+        assertTrue(granted.isEmpty());
+    }
+
+    @Test
+    public void preferred_revokesMostRecentNotPreferred() {
+        acquire("a", "b", "c", "d");
+
+        budget.setPreferred(Collections.singletonList("d"));
+        assertEquals(Collections.singletonList("b"), revoked);
+        assertEquals(Collections.singletonList("d"), granted);
+        assertTrue(budget.isGranted("a"));
+
+        //the revoked key is still displayed, it is the next to be granted
+        budget.release("a");
+        assertEquals(Arrays.asList("d", "b"), granted);
+    }
+
+    @Test
+    public void preferred_acquire_takesRendererOfOtherKey() {
+        acquire("a", "b");
+        budget.setPreferred(Collections.singletonList("c"));
+
+        assertTrue(budget.acquire("c"));
+        assertEquals(Collections.singletonList("b"), revoked);
+        assertTrue(budget.isWaiting("b"));
+    }
+
+    @Test
+    public void preferred_neverRevokesPreferred() {
+        acquire("a", "b", "c");
+        budget.setPreferred(Arrays.asList("a", "b", "c"));
+
+        assertTrue(revoked.isEmpty());
+        assertTrue(budget.isWaiting("c"));
+    }
+
+    @Test
+    public void preferred_isPromotedFirst() {
+        acquire("a", "b", "c", "d");
+        //every granted key is preferred, d keeps waiting
+        budget.setPreferred(Arrays.asList("a", "b", "d"));
+        assertTrue(budget.isWaiting("d"));
+
+        budget.release("a");
+        assertEquals(Collections.singletonList("d"), granted);
+        assertTrue(budget.isWaiting("c"));
+    }
+
+    @Test
+    public void setMaxRenderers_revokesMostRecent_andGrantsWhenGrowing() {
+        acquire("a", "b", "c");
+
+        budget.setMaxRenderers(1);
+        assertEquals(Collections.singletonList("b"), revoked);
+        assertTrue(budget.isGranted("a"));
+
+        budget.setMaxRenderers(3);
+        assertEquals(Arrays.asList("b", "c"), granted);
+        assertEquals(0, budget.getWaitingCount());
+    }
+
+    private void acquire(String... keys) {
+        for (String key : keys) budget.acquire(key);
+    }
+}
@@ -0,0 +1,164 @@
+package com.voxeet.uxkit.utils.streams;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Keep the displayed renderer and the previous one attached, detach the others
+ */
+public class RendererPoolTest {
+
+    private final static Object STREAM_A = new Object();
+
+    private final static Object STREAM_B = new Object();
+
+    private final static Object STREAM_C = new Object();
+
+    private final FakeRenderers renderers = new FakeRenderers();
+
+    private final RendererPool<String, Object> pool = new RendererPool<>("primary", renderers, 3, 1000);
+
+    @Test
+    public void focusBack_reusesPreviousRenderer() {
+        assertTrue(pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 0));
+        assertTrue(pool.show("b", StreamLayout.CAMERA, STREAM_B, false, true, 100));
+        assertEquals(RendererPool.BEHIND, renderers.visibility("primary"));
+
+        assertFalse(pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 200));
+        assertEquals("primary", pool.getDisplayed());
+        assertEquals(2, renderers.attachCount);
+    }
+
+    @Test
+    public void capacity_keepsOnlyOnePrevious() {
+        pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 0);
+        pool.show("b", StreamLayout.CAMERA, STREAM_B, false, true, 100);
+        pool.show("c", StreamLayout.CAMERA, STREAM_C, false, true, 200);
+
+        assertEquals(RendererPool.MAX_CAPACITY, pool.getRenderers().size());
+        assertEquals(2, pool.getAttachedCount());
+        //the least recently displayed renderer is reused
+        assertEquals("b", renderers.peer("r1"));
+        assertEquals("c", renderers.peer("primary"));
+    }
+
+    @Test
+    public void trim_detachesPreviousAfterKeepWarm() {
+        pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 0);
+        pool.show("b", StreamLayout.CAMERA, STREAM_B, false, true, 100);
+
+        assertEquals(900, pool.trim(200));
+        assertEquals(2, pool.getAttachedCount());
+
+        assertEquals(-1, pool.trim(1100));
+        assertEquals(1, pool.getAttachedCount());
+        assertNull(renderers.peer("primary"));
+        assertEquals(RendererPool.GONE, renderers.visibility("primary"));
+        assertEquals("b", pool.displayedPeerId());
+    }
+
+    @Test
+    public void unfocus_keepsRendererWarm() {
+        pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 0);
+        pool.show(null, StreamLayout.NONE, null, false, true, 100);
+
+        assertNull(pool.displayedPeerId());
+        assertEquals(RendererPool.BEHIND, renderers.visibility("primary"));
+        assertEquals(1000, pool.trim(100));
+        assertEquals(-1, pool.trim(1100));
+        assertEquals(0, pool.getAttachedCount());
+    }
+
+    @Test
+    public void hidden_detachesEveryRenderer_untilVisibleAgain() {
+        pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 0);
+        pool.show("b", StreamLayout.CAMERA, STREAM_B, false, true, 100);
+
+        assertFalse(pool.show("b", StreamLayout.CAMERA, STREAM_B, false, false, 200));
+        assertEquals(0, pool.getAttachedCount());
+        assertNull(pool.displayedPeerId());
+        assertEquals(RendererPool.GONE, renderers.visibility("primary"));
+        assertEquals(RendererPool.GONE, renderers.visibility("r1"));
+        assertEquals(-1, pool.trim(200));
+
+        assertTrue(pool.show("b", StreamLayout.CAMERA, STREAM_B, false, true, 300));
+        assertEquals(1, pool.getAttachedCount());
+        assertEquals(RendererPool.VISIBLE, renderers.visibility(pool.getDisplayed()));
+    }
+
+    @Test
+    public void prune_detachesUnpublishedStreams() {
+        pool.show("a", StreamLayout.CAMERA, STREAM_A, false, true, 0);
+        pool.show("b", StreamLayout.CAMERA, STREAM_B, false, true, 100);
+
+        pool.prune((peerId, type) -> "b".equals(peerId) ? STREAM_B : null);
+        assertEquals(1, pool.getAttachedCount());
+        assertEquals("b", pool.displayedPeerId());
+    }
+
+    @Test
+    public void newStream_isAttachedAgain() {
+        pool.show("a", StreamLayout.CAMERA, STREAM_A, true, true, 0);
+
+        assertTrue(pool.show("a", StreamLayout.CAMERA, STREAM_B, true, true, 100));
+        assertEquals(2, renderers.attachCount);
+        assertEquals(1, pool.getAttachedCount());
+    }
+
+    private static class FakeRenderers implements RendererPool.Renderers<String, Object> {
+
+        private final HashMap<String, String> peers = new HashMap<>();
+
+        private final HashMap<String, Integer> visibilities = new HashMap<>();
+
+        private int created;
+
+        private int attachCount;
+
+        @Nullable
+        String peer(@NonNull String renderer) {
+            return peers.get(renderer);
+        }
+
+        int visibility(@NonNull String renderer) {
+            Integer visibility = visibilities.get(renderer);
+            return null != visibility ? visibility : RendererPool.GONE;
+        }
+
+        @Nullable
+        @Override
+        public String create() {
+            return "r" + (++created);
+        }
+
+        @Override
+        public void attach(@NonNull String renderer, @NonNull String peerId, @NonNull Object stream) {
+            attachCount++;
+            peers.put(renderer, peerId);
+        }
+
+        @Override
+        public void detach(@NonNull String renderer) {
+            peers.remove(renderer);
+        }
+
+        @Override
+        public void setMirror(@NonNull String renderer, boolean mirrored) {
+
+        }
+
+        @Override
+        public void setVisibility(@NonNull String renderer, int visibility) {
+            visibilities.put(renderer, visibility);
+        }
+    }
+}
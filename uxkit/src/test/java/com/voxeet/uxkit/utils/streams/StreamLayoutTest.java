@@ -0,0 +1,101 @@
+package com.voxeet.uxkit.utils.streams;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compute the layout of the selected and self video views
+ */
+public class StreamLayoutTest {
+
+    private final static StreamCandidate SELF = new StreamCandidate("me", true, true, true, false);
+
+    @Test
+    public void alone_displaysLocalCamera() {
+        List<StreamCandidate> candidates = Arrays.asList(SELF,
+                new StreamCandidate("invited", false, false, false, false));
+
+        StreamLayout layout = StreamLayout.compute(candidates, null, null, null, StreamLayout.NONE);
+        assertEquals(new StreamLayout("me", StreamLayout.CAMERA, null, false), layout);
+        assertTrue(layout.isLocalSelected("me"));
+    }
+
+    @Test
+    public void alone_withoutCamera_displaysNothing() {
+        List<StreamCandidate> candidates = Arrays.asList(new StreamCandidate("me", true, true, false, false));
+
+        assertEquals(new StreamLayout(null, StreamLayout.NONE, null, false),
+                StreamLayout.compute(candidates, null, null, null, StreamLayout.NONE));
+    }
+
+    @Test
+    public void locked_displaysItsCamera_overScreenShares() {
+        List<StreamCandidate> candidates = Arrays.asList(SELF,
+                new StreamCandidate("a", false, true, true, false),
+                new StreamCandidate("b", false, true, true, true));
+
+        assertEquals(new StreamLayout("a", StreamLayout.CAMERA, "me", true),
+                StreamLayout.compute(candidates, "a", "b", null, StreamLayout.NONE));
+    }
+
+    @Test
+    public void lockedWithoutCamera_displaysNothing() {
+        List<StreamCandidate> candidates = Arrays.asList(SELF,
+                new StreamCandidate("a", false, true, false, false),
+                new StreamCandidate("b", false, true, true, false));
+
+        StreamLayout layout = StreamLayout.compute(candidates, "a", null, null, StreamLayout.NONE);
+        assertEquals(new StreamLayout(null, StreamLayout.NONE, "me", true), layout);
+    }
+
+    @Test
+    public void screenShare_winsOverActiveSpeakerCamera() {
+        List<StreamCandidate> candidates = Arrays.asList(SELF,
+                new StreamCandidate("a", false, true, true, false),
+                new StreamCandidate("b", false, true, false, true));
+
+        assertEquals(new StreamLayout("b", StreamLayout.SCREEN_SHARE, "me", true),
+                StreamLayout.compute(candidates, null, "a", null, StreamLayout.NONE));
+    }
+
+    @Test
+    public void activeSpeakerWithoutCamera_fallsBackToFirstCamera() {
+        List<StreamCandidate> candidates = Arrays.asList(SELF,
+                new StreamCandidate("a", false, true, false, false),
+                new StreamCandidate("b", false, true, true, false),
+                new StreamCandidate("c", false, true, true, false));
+
+        assertEquals(new StreamLayout("b", StreamLayout.CAMERA, "me", true),
+                StreamLayout.compute(candidates, null, "a", null, StreamLayout.NONE));
+        assertEquals(new StreamLayout("c", StreamLayout.CAMERA, "me", true),
+                StreamLayout.compute(candidates, null, "c", null, StreamLayout.NONE));
+    }
+
+    @Test
+    public void noActiveSpeaker_keepsCurrentWhileAvailable() {
+        List<StreamCandidate> candidates = Arrays.asList(SELF,
+                new StreamCandidate("a", false, true, true, false),
+                new StreamCandidate("b", false, true, true, false));
+
+        assertEquals(new StreamLayout("b", StreamLayout.CAMERA, "me", true),
+                StreamLayout.compute(candidates, null, null, "b", StreamLayout.CAMERA));
+        assertEquals(new StreamLayout(null, StreamLayout.NONE, "me", true),
+                StreamLayout.compute(candidates, null, null, "b", StreamLayout.SCREEN_SHARE));
+        assertEquals(new StreamLayout(null, StreamLayout.NONE, "me", true),
+                StreamLayout.compute(candidates, null, null, "me", StreamLayout.CAMERA));
+    }
+
+    @Test
+    public void layout_withoutPeer_hasNoType() {
+        StreamLayout layout = new StreamLayout(null, StreamLayout.CAMERA, null, true);
+
+        assertEquals(StreamLayout.NONE, layout.selectedType);
+        assertFalse(layout.isLocalSelected("me"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.voxeet.uxkit.utils.trace;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Record, write, read and replay conference traces on a virtual clock
+ */
+public class ConferenceTraceTest {
+
+    @Test
+    public void write_thenRead_isIdentical() throws Exception {
+        ConferenceTrace trace = new ConferenceTrace(Arrays.asList(
+                new TraceEvent(0, TraceEvent.CONFERENCE_STATUS, null, "JOINED"),
+                new TraceEvent(10, TraceEvent.PARTICIPANT_ADDED, "tab\there", "new\nline"),
+                new TraceEvent(10, TraceEvent.AUDIO_LEVEL, "back\\slash", ""),
+                new TraceEvent(250, TraceEvent.STREAM_REMOVED, "p", null)));
+
+        StringWriter writer = new StringWriter();
+        trace.write(writer);
+
+        assertEquals(trace.getEvents(), ConferenceTrace.read(new StringReader(writer.toString())).getEvents());
+    }
+
+    @Test(expected = IOException.class)
+    public void read_invalidTrace_throws() throws Exception {
+        ConferenceTrace.read(new StringReader("not a trace"));
+    }
+
+    @Test
+    public void recorder_isRelativeToFirstEvent_andBounded() {
+        TraceRecorder recorder = new TraceRecorder(2);
+        recorder.record(1000, TraceEvent.PARTICIPANT_ADDED, "a", "CONNECTING");
+        recorder.record(1250, TraceEvent.PARTICIPANT_UPDATED, "a", "ON_AIR");
+        recorder.record(1300, TraceEvent.STREAM_ADDED, "a", "video");
+
+        ConferenceTrace trace = recorder.snapshot();
+        assertEquals(2, trace.size());
+        assertEquals(250, trace.duration());
+        assertEquals(1, recorder.getDropped());
+    }
+
+    @Test
+    public void replay_atAcceleratedSpeed_keepsOrderAndTiming() {
+        ConferenceTrace trace = ConferenceTrace.merge(TraceStorms.joinStorm(100, 5000, 0.6f, 7),
+                TraceStorms.speakerFlips(10, 300, 5000));
+
+        VirtualScheduler scheduler = new VirtualScheduler();
+        final List<TraceEvent> delivered = new ArrayList<>();
+        final List<Long> times = new ArrayList<>();
+        TraceReplayer replayer = new TraceReplayer(trace, scheduler, event -> {
+            delivered.add(event);
+            times.add(scheduler.now());
+        });
+
+        replayer.start(10);
+        scheduler.runAll();
+
+        assertTrue(replayer.isFinished());
+        assertEquals(trace.getEvents(), delivered);
+        for (int i = 0; i < delivered.size(); i++) {
+            assertEquals((long) Math.ceil(delivered.get(i).time / 10f), (long) times.get(i));
+        }
+    }
+
+    @Test
+    public void replay_isDeterministic() {
+        ConferenceTrace trace = ConferenceTrace.merge(TraceStorms.joinStorm(50, 2000, 0.5f, 3),
+                TraceStorms.streamChurn(50, 20, 2000, 3));
+
+        assertEquals(replay(trace, 4), replay(trace, 4));
+        assertEquals(trace.getEvents(), replay(trace, TraceReplayer.AS_FAST_AS_POSSIBLE));
+    }
+
+    @Test
+    public void cancel_stopsDelivery() {
+        ConferenceTrace trace = TraceStorms.joinStorm(20, 1000, 0, 1);
+        VirtualScheduler scheduler = new VirtualScheduler();
+        final List<TraceEvent> delivered = new ArrayList<>();
+        TraceReplayer replayer = new TraceReplayer(trace, scheduler, delivered::add);
+
+        replayer.start(1);
+        scheduler.advanceBy(500);
+        int count = delivered.size();
+        replayer.cancel();
+        scheduler.runAll();
+
+        assertEquals(count, delivered.size());
+        assertFalse(replayer.isFinished());
+    }
+
+    @Test
+    public void joinStorm_addsThenPutsOnAirEveryParticipant() {
+        ConferenceTrace trace = TraceStorms.joinStorm(100, 5000, 0.6f, 11);
+
+        assertEquals(100, trace.count(TraceEvent.PARTICIPANT_ADDED));
+        assertEquals(100, trace.count(TraceEvent.PARTICIPANT_UPDATED));
+        assertTrue(trace.count(TraceEvent.STREAM_ADDED) > 40 && trace.count(TraceEvent.STREAM_ADDED) < 80);
+        assertEquals(trace.getEvents(), TraceStorms.joinStorm(100, 5000, 0.6f, 11).getEvents());
+    }
+
+    @Test
+    public void speakerFlips_changesSpeakerAtEachInterval() {
+        ConferenceTrace trace = TraceStorms.speakerFlips(3, 300, 3000);
+
+        //11 turns, each but the first one silencing the previous speaker
+        assertEquals(21, trace.count(TraceEvent.AUDIO_LEVEL));
+        assertEquals(3000, trace.duration());
+    }
+
+    private static List<TraceEvent> replay(ConferenceTrace trace, float speed) {
+        VirtualScheduler scheduler = new VirtualScheduler();
+        List<TraceEvent> delivered = new ArrayList<>();
+        new TraceReplayer(trace, scheduler, delivered::add).start(speed);
+        scheduler.runAll();
+        return delivered;
+    }
+}
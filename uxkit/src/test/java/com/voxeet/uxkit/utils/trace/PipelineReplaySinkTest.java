@@ -0,0 +1,105 @@
+package com.voxeet.uxkit.utils.trace;
+
+import android.support.annotation.NonNull;
+
+import com.voxeet.uxkit.utils.participants.ChangeBatch;
+import com.voxeet.uxkit.utils.participants.ParticipantIndex;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replay conference storms through the index and the per frame dispatch of the controller
+ */
+public class PipelineReplaySinkTest {
+
+    @Test
+    public void joinStorm_dispatchesAtMostOncePerFrame() {
+        ConferenceTrace trace = TraceStorms.joinStorm(100, 5000, 0.6f, 7);
+
+        VirtualScheduler scheduler = new VirtualScheduler();
+        PipelineReplaySink sink = new PipelineReplaySink(scheduler);
+        final int[] additions = new int[1];
+        sink.setListener(new PipelineReplaySink.Listener() {
+            @Override
+            public void onDispatch(long time, @NonNull ChangeBatch<String, Object> batch) {
+                if (batch.has(ChangeBatch.ADDED)) additions[0]++;
+            }
+        });
+
+        new TraceReplayer(trace, scheduler, sink).start(1);
+        scheduler.runAll();
+
+        HashSet<Long> frames = new HashSet<>();
+        int videos = 0;
+        for (TraceEvent event : trace.getEvents()) {
+            frames.add(event.time / PipelineReplaySink.FRAME);
+            if (TraceEvent.STREAM_ADDED == event.type) videos++;
+        }
+
+        List<Long> times = sink.getDispatchTimes();
+        assertEquals(frames.size(), times.size());
+        assertTrue(times.size() < trace.size());
+        for (int i = 0; i < times.size(); i++) {
+            assertEquals(0, times.get(i) % PipelineReplaySink.FRAME);
+            if (i > 0) assertTrue(times.get(i) > times.get(i - 1));
+        }
+
+        //every event reached the views and the list was only rebuilt for the additions
+        assertEquals(trace.size(), sink.getDispatchedEvents());
+        assertTrue(sink.getListRebuilds() <= additions[0]);
+        assertFalse(sink.hasPending());
+
+        ParticipantIndex<String> index = sink.getIndex();
+        assertEquals(100, index.size());
+        assertEquals(100, index.count(ParticipantIndex.STATUS_ON_AIR));
+        assertEquals(videos, index.getVideos().size());
+        assertTrue(index.hasRemoteParticipants());
+    }
+
+    @Test
+    public void joinThenLeaveStorm_leavesNobodyPresent() {
+        ConferenceTrace trace = ConferenceTrace.merge(TraceStorms.joinStorm(50, 2000, 0, 3),
+                TraceStorms.shift(TraceStorms.leaveStorm(50, 1000, 3), 5000));
+
+        VirtualScheduler scheduler = new VirtualScheduler();
+        PipelineReplaySink sink = new PipelineReplaySink(scheduler);
+        new TraceReplayer(trace, scheduler, sink).start(10);
+        scheduler.runAll();
+
+        assertEquals(trace.size(), sink.getDispatchedEvents());
+        assertEquals(50, sink.getIndex().count(ParticipantIndex.STATUS_LEFT));
+        assertFalse(sink.getIndex().hasRemoteParticipants());
+    }
+
+    @Test
+    public void streamAddedAndRemovedInOneFrame_isNotDispatched() {
+        VirtualScheduler scheduler = new VirtualScheduler();
+        PipelineReplaySink sink = new PipelineReplaySink(scheduler);
+        final int[] flags = new int[1];
+        sink.setListener(new PipelineReplaySink.Listener() {
+            @Override
+            public void onDispatch(long time, @NonNull ChangeBatch<String, Object> batch) {
+                flags[0] |= batch.getFlags();
+            }
+        });
+
+        ConferenceTrace trace = new ConferenceTrace(Arrays.asList(
+                new TraceEvent(0, TraceEvent.PARTICIPANT_ADDED, "a", TraceStorms.STATUS_ON_AIR),
+                new TraceEvent(2, TraceEvent.STREAM_ADDED, "a", TraceStorms.STREAM_VIDEO),
+                new TraceEvent(5, TraceEvent.STREAM_REMOVED, "a", TraceStorms.STREAM_VIDEO)));
+        new TraceReplayer(trace, scheduler, sink).start(1);
+        scheduler.runAll();
+
+        assertEquals(1, sink.getDispatchCount());
+        assertEquals(ChangeBatch.ADDED, flags[0]);
+        assertFalse(sink.getIndex().hasVideo("a"));
+    }
+}